@@ -0,0 +1,142 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.benchmark;
+
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.testkit.InMemoryClaimManager;
+import com.griefdefender.api.testkit.InMemoryGriefDefender;
+import com.griefdefender.api.testkit.Workload;
+import com.griefdefender.api.testkit.WorkloadGenerator;
+import com.griefdefender.api.testkit.storage.ClaimFileStore;
+import com.griefdefender.api.testkit.storage.ClaimIndexFile;
+import com.griefdefender.api.testkit.storage.ClaimSegment;
+import com.griefdefender.api.testkit.storage.ParallelClaimLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures startup loading of a world with {@link ParallelClaimLoader} by
+ * the number of loader threads, from text records and from a segment.
+ * {@link #loadSegmentIndexed()} loads the segment with its index file on
+ * the calling thread, to be compared with {@link #loadSegmentLazily()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ClaimLoadBenchmark {
+
+    @Param({"10000", "100000"})
+    public int claimCount;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    private Workload workload;
+    private Path directory;
+    private ClaimFileStore store;
+    private ClaimSegment segment;
+    private Path indexFile;
+    private ForkJoinPool pool;
+    private ParallelClaimLoader loader;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.workload = new WorkloadGenerator()
+                .claimCount(this.claimCount)
+                .depth(3)
+                .trustsPerClaim(10)
+                .seed(42L)
+                .generate(InMemoryGriefDefender.install().getCore());
+        this.directory = Files.createTempDirectory("gd-claims");
+        this.store = new ClaimFileStore(this.directory.resolve("claims"));
+        final List<Claim> claims = new ArrayList<>(this.workload.getClaimManager().getWorldClaims());
+        this.store.write(claims);
+        this.segment = ClaimSegment.importFrom(this.store, this.directory.resolve("world" + ClaimSegment.EXTENSION),
+                this.workload.getClaimManager().getWorldId(), false);
+        this.indexFile = this.directory.resolve("world" + ClaimIndexFile.EXTENSION);
+        ClaimIndexFile.write(this.indexFile, this.segment);
+        this.pool = new ForkJoinPool(this.threads);
+        this.loader = new ParallelClaimLoader(this.pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.pool.shutdown();
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    private InMemoryClaimManager createClaimManager() {
+        final InMemoryClaimManager source = this.workload.getClaimManager();
+        return new InMemoryClaimManager(source.getWorldId(), source.getWorldName(), source.getPermissionManager());
+    }
+
+    @Benchmark
+    public InMemoryClaimManager loadFiles() throws IOException {
+        final InMemoryClaimManager claimManager = this.createClaimManager();
+        this.loader.load(this.store, claimManager);
+        return claimManager;
+    }
+
+    @Benchmark
+    public InMemoryClaimManager loadSegment() {
+        final InMemoryClaimManager claimManager = this.createClaimManager();
+        this.loader.load(this.segment, claimManager, false);
+        return claimManager;
+    }
+
+    @Benchmark
+    public InMemoryClaimManager loadSegmentLazily() {
+        final InMemoryClaimManager claimManager = this.createClaimManager();
+        this.loader.load(this.segment, claimManager, true);
+        return claimManager;
+    }
+
+    @Benchmark
+    public InMemoryClaimManager loadSegmentIndexed() throws IOException {
+        final InMemoryClaimManager claimManager = this.createClaimManager();
+        ClaimIndexFile.loadInto(this.segment, this.indexFile, claimManager);
+        return claimManager;
+    }
+}
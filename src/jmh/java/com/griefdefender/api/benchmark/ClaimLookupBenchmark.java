@@ -0,0 +1,110 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.benchmark;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.testkit.InMemoryGriefDefender;
+import com.griefdefender.api.testkit.Workload;
+import com.griefdefender.api.testkit.WorkloadGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link com.griefdefender.api.claim.ClaimManager#getClaimAt(int, int, int)}
+ * and {@link Claim#contains(int, int, int)} over worlds of increasing size
+ * and nesting depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ClaimLookupBenchmark {
+
+    private static final int POSITION_MASK = 4095;
+
+    @Param({"1000", "10000", "100000", "500000"})
+    public int claimCount;
+
+    @Param({"1", "3", "5"})
+    public int depth;
+
+    private Workload workload;
+    private int[] positions;
+    private Claim[] claims;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.workload = new WorkloadGenerator()
+                .claimCount(this.claimCount)
+                .depth(this.depth)
+                .seed(42L)
+                .generate(InMemoryGriefDefender.install().getCore());
+        final Random random = new Random(7L);
+        this.positions = new int[(POSITION_MASK + 1) * 3];
+        for (int i = 0; i <= POSITION_MASK; i++) {
+            final Vector3i pos = this.workload.randomPosition(random);
+            this.positions[i * 3] = pos.getX();
+            this.positions[i * 3 + 1] = pos.getY();
+            this.positions[i * 3 + 2] = pos.getZ();
+        }
+        final List<Claim> worldClaims = new ArrayList<>(this.workload.getClaimManager().getWorldClaims());
+        this.claims = new Claim[POSITION_MASK + 1];
+        for (int i = 0; i < this.claims.length; i++) {
+            this.claims[i] = worldClaims.get(random.nextInt(worldClaims.size()));
+        }
+    }
+
+    @Benchmark
+    public Claim getClaimAt() {
+        final int i = (this.index++ & POSITION_MASK) * 3;
+        return this.workload.getClaimManager().getClaimAt(this.positions[i], this.positions[i + 1], this.positions[i + 2]);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        final int n = this.index++ & POSITION_MASK;
+        final Claim claim = this.claims[n];
+        final Vector3i lesser = claim.getLesserBoundaryCorner();
+        final int i = n * 3;
+        // half of the checks land inside the claim
+        if ((n & 1) == 0) {
+            return claim.contains(lesser.getX() + (this.positions[i] & 7), this.positions[i + 1], lesser.getZ() + (this.positions[i + 2] & 7));
+        }
+        return claim.contains(this.positions[i], this.positions[i + 1], this.positions[i + 2]);
+    }
+}
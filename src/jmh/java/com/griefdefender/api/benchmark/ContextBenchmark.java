@@ -0,0 +1,88 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.benchmark;
+
+import com.griefdefender.api.claim.ClaimContexts;
+import com.griefdefender.api.permission.Context;
+import com.griefdefender.api.permission.ContextKeys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Context} hashing, equality and the context set lookups
+ * done for every permission check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ContextBenchmark {
+
+    private Context claimContext;
+    private Context equalContext;
+    private Set<Context> contexts;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final String claimId = UUID.randomUUID().toString();
+        this.claimContext = new Context(ContextKeys.CLAIM, claimId);
+        this.equalContext = new Context(ContextKeys.CLAIM, new String(claimId));
+        this.contexts = new HashSet<>();
+        this.contexts.add(ClaimContexts.BASIC_DEFAULT_CONTEXT);
+        this.contexts.add(ClaimContexts.BASIC_OVERRIDE_CONTEXT);
+        this.contexts.add(ClaimContexts.GLOBAL_DEFAULT_CONTEXT);
+        this.contexts.add(this.claimContext);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return this.claimContext.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsOf() {
+        return this.claimContext.equals(this.equalContext);
+    }
+
+    @Benchmark
+    public boolean setContains() {
+        return this.contexts.contains(this.equalContext);
+    }
+
+    @Benchmark
+    public Context create() {
+        return new Context(ContextKeys.CLAIM, ContextKeys.CLAIM);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.benchmark;
+
+import com.griefdefender.api.event.EventCause;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link EventCause} construction and the type lookups listeners
+ * perform on it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventCauseBenchmark {
+
+    private Object root;
+    private Object second;
+    private Object third;
+    private EventCause cause;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.root = UUID.randomUUID();
+        this.second = "plugin";
+        this.third = Integer.valueOf(3);
+        this.cause = EventCause.of(this.root, this.second, this.third);
+    }
+
+    @Benchmark
+    public EventCause ofSingle() {
+        return EventCause.of(this.root);
+    }
+
+    @Benchmark
+    public EventCause ofMany() {
+        return EventCause.of(this.root, this.second, this.third);
+    }
+
+    @Benchmark
+    public EventCause builder() {
+        return EventCause.builder().append(this.root).append(this.second).append(this.third).build();
+    }
+
+    @Benchmark
+    public Optional<Integer> first() {
+        return this.cause.first(Integer.class);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.benchmark;
+
+import com.griefdefender.api.event.Event;
+import com.griefdefender.api.event.EventCause;
+import com.griefdefender.api.event.Subscribe;
+import com.griefdefender.api.util.generator.EventInvoker;
+import com.griefdefender.api.util.generator.EventInvokerProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a generated {@link EventInvoker} with reflective dispatch of a
+ * {@link Subscribe} method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventInvokerBenchmark {
+
+    public static class BenchmarkEvent implements Event {
+
+        @Override
+        public EventCause getCause() {
+            return null;
+        }
+    }
+
+    public static class BenchmarkListener {
+
+        public long count;
+
+        @Subscribe
+        public void onEvent(BenchmarkEvent event) {
+            this.count++;
+        }
+    }
+
+    private BenchmarkListener listener;
+    private BenchmarkEvent event;
+    private EventInvoker invoker;
+    private Method method;
+    private MethodHandle handle;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.listener = new BenchmarkListener();
+        this.event = new BenchmarkEvent();
+        this.invoker = EventInvokerProvider.createFor(this.listener).get(0);
+        this.method = BenchmarkListener.class.getMethod("onEvent", BenchmarkEvent.class);
+        this.handle = MethodHandles.publicLookup().unreflect(this.method).bindTo(this.listener);
+    }
+
+    @Benchmark
+    public void generated() throws Throwable {
+        this.invoker.invoke(this.event);
+    }
+
+    @Benchmark
+    public void reflection() throws Exception {
+        this.method.invoke(this.listener, this.event);
+    }
+
+    @Benchmark
+    public void methodHandle() throws Throwable {
+        this.handle.invoke(this.event);
+    }
+}
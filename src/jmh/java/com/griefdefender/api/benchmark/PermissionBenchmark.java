@@ -0,0 +1,110 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.benchmark;
+
+import com.griefdefender.api.Subject;
+import com.griefdefender.api.Tristate;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.claim.TrustTypes;
+import com.griefdefender.api.permission.Context;
+import com.griefdefender.api.permission.flag.Flags;
+import com.griefdefender.api.testkit.InMemoryGriefDefender;
+import com.griefdefender.api.testkit.InMemoryPermissionManager;
+import com.griefdefender.api.testkit.Workload;
+import com.griefdefender.api.testkit.WorkloadGenerator;
+import io.leangen.geantyref.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link com.griefdefender.api.permission.PermissionManager#getActiveFlagPermissionValue}
+ * and {@link com.griefdefender.api.permission.PermissionManager#getActiveOptionValue}
+ * on claims of varying depth, where values fall through inherited parents
+ * to the defaults.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PermissionBenchmark {
+
+    private static final int CLAIM_MASK = 4095;
+    private static final TypeToken<Integer> INTEGER_TOKEN = new TypeToken<Integer>() {};
+
+    @Param({"1000", "100000"})
+    public int claimCount;
+
+    @Param({"1", "3", "5"})
+    public int depth;
+
+    private InMemoryPermissionManager permissionManager;
+    private Subject subject;
+    private Claim[] claims;
+    private Set<Context> contexts;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Workload workload = new WorkloadGenerator()
+                .claimCount(this.claimCount)
+                .depth(this.depth)
+                .seed(42L)
+                .generate(InMemoryGriefDefender.install().getCore());
+        this.permissionManager = workload.getPermissionManager();
+        this.subject = this.permissionManager.getDefaultSubject();
+        this.contexts = new HashSet<>();
+        final List<Claim> worldClaims = new ArrayList<>(workload.getClaimManager().getWorldClaims());
+        final Random random = new Random(7L);
+        this.claims = new Claim[CLAIM_MASK + 1];
+        for (int i = 0; i < this.claims.length; i++) {
+            this.claims[i] = worldClaims.get(random.nextInt(worldClaims.size()));
+        }
+    }
+
+    @Benchmark
+    public Tristate getActiveFlagPermissionValue() {
+        final Claim claim = this.claims[this.index++ & CLAIM_MASK];
+        return this.permissionManager.getActiveFlagPermissionValue(claim, this.subject, Flags.BLOCK_BREAK, this.subject, claim, this.contexts, TrustTypes.BUILDER, true);
+    }
+
+    @Benchmark
+    public Integer getActiveOptionValue() {
+        final Claim claim = this.claims[this.index++ & CLAIM_MASK];
+        return this.permissionManager.getActiveOptionValue(INTEGER_TOKEN, WorkloadGenerator.MAX_LEVEL, this.subject, claim, this.contexts);
+    }
+}
@@ -28,6 +28,8 @@
 
 import com.google.inject.Inject;
 import com.griefdefender.api.event.EventManager;
+import com.griefdefender.api.metrics.Metrics;
+import com.griefdefender.api.metrics.MetricsBackend;
 import com.griefdefender.api.permission.PermissionManager;
 import com.griefdefender.api.provider.AudienceProvider;
 import com.griefdefender.api.scheduler.Scheduler;
@@ -122,4 +124,28 @@ public static Scheduler getScheduler() {
     public static Version getVersion() {
         return check(version);
     }
+
+    /**
+     * Gets the registered {@link MetricsBackend}.
+     * 
+     * <br><br>Note: Unlike other getters this is available before
+     * initialization and returns a no-op backend until one is registered.
+     * 
+     * @return The metrics backend
+     */
+    public static MetricsBackend getMetricsBackend() {
+        return Metrics.getBackend();
+    }
+
+    /**
+     * Registers the {@link MetricsBackend} receiving claim lookup, permission,
+     * event and save measurements.
+     * 
+     * <br><br>Note: Pass null to stop recording.
+     * 
+     * @param backend The backend
+     */
+    public static void registerMetricsBackend(@Nullable MetricsBackend backend) {
+        Metrics.setBackend(backend);
+    }
 }
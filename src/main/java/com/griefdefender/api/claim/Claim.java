@@ -40,10 +40,12 @@
 import com.griefdefender.api.permission.flag.FlagDefinition;
 import com.griefdefender.api.permission.option.Option;
 import com.griefdefender.api.permission.option.OptionDefinition;
+import com.griefdefender.api.provider.ClanProvider;
 
 import io.leangen.geantyref.TypeToken;
 import net.kyori.adventure.text.Component;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -231,7 +233,38 @@ default boolean hasAttribute(ClaimAttribute attribute) {
      */
     @Nullable Claim getParent();
 
-    List<Claim> getInheritedParents();
+    /**
+     * Gets an immutable list of parent claims this claim inherits from.
+     * 
+     * Note: This will return an empty list if claim does not inherit
+     * from parent or has no parent.
+     * 
+     * @return The immutable list of inherited parents
+     */
+    default List<Claim> getInheritedParents() {
+        return this.getInheritanceChain().getInheritedParents();
+    }
+
+    /**
+     * Gets the resolved {@link InheritanceChain} of this claim.
+     * 
+     * <br><br>Note: Implementations should cache the chain and only rebuild
+     * it after {@link #invalidateInheritanceChain()} is called.
+     * 
+     * @return The inheritance chain
+     */
+    default InheritanceChain getInheritanceChain() {
+        return InheritanceChain.resolve(this);
+    }
+
+    /**
+     * Invalidates the cached {@link InheritanceChain} of this claim.
+     * 
+     * <br><br>Note: Use {@link InheritanceChain#invalidate(Claim)} to
+     * invalidate a claim along with its children.
+     */
+    default void invalidateInheritanceChain() {
+    }
 
     /**
      * Gets the lesser boundary corner of claim.
@@ -406,7 +439,13 @@ default ClaimResult resize(Vector3i startCornerPos, Vector3i endCornerPos) {
      * @param recursive Whether to recursively scan for parents
      * @return The immutable list of parent claims
      */
-    List<Claim> getParents(boolean recursive);
+    default List<Claim> getParents(boolean recursive) {
+        if (recursive) {
+            return this.getInheritanceChain().getParents();
+        }
+        final Claim parent = this.getParent();
+        return parent == null ? Collections.emptyList() : Collections.singletonList(parent);
+    }
 
     /**
      * Gets an unmodifiable set of all trusted users.
@@ -607,12 +646,52 @@ default ClaimResult resize(Vector3i startCornerPos, Vector3i endCornerPos) {
     /**
      * Checks if the {@link UUID} is trusted with given {@link TrustType}.
      * 
+     * Note: Direct user trusts should be answered from {@link #getTrustTable()}.
+     * 
      * @param uuid The uuid to check
      * @param type The minimum trust required
      * @return Whether the uuid is trusted
      */
     boolean isUserTrusted(UUID uuid, TrustType type);
 
+    /**
+     * Gets the compact {@link TrustTable} of user trusts in this claim.
+     * 
+     * <br><br>Note: Implementations should cache the table and rebuild it
+     * only when a user trust is added or removed.
+     * 
+     * @return The user trust table
+     */
+    default TrustTable getTrustTable() {
+        return TrustTable.from(this.getData());
+    }
+
+    /**
+     * Gets the effective {@link TrustType} of user in this claim.
+     * 
+     * <br><br>This is the highest trust the user receives from user, group
+     * and clan trusts combined.
+     * 
+     * <br><br>Note: Implementations should answer from an {@link EffectiveTrustCache}
+     * instead of enumerating the groups of user on every call. The default
+     * combines user and clan trust only, as group membership is not part of
+     * the API, so implementations must override it to include group trust.
+     * 
+     * @param uuid The uuid to check
+     * @return The effective trust, {@link TrustTypes#NONE} if not trusted
+     */
+    default TrustType getEffectiveTrust(UUID uuid) {
+        final ClanProvider provider = GriefDefender.getCore().getClanProvider();
+        final String clanTag = provider == null ? null : provider.getClanTag(uuid);
+        for (int level = TrustTable.LEVEL_MANAGER; level > TrustTable.LEVEL_NONE; level--) {
+            final TrustType type = TrustTable.getType(level);
+            if (this.isUserTrusted(uuid, type) || (clanTag != null && this.isClanTrusted(clanTag, type))) {
+                return type;
+            }
+        }
+        return TrustTypes.NONE;
+    }
+
     /**
      * Checks if the group is trusted with given {@link TrustType}.
      * 
@@ -634,6 +713,8 @@ default ClaimResult resize(Vector3i startCornerPos, Vector3i endCornerPos) {
     /**
      * Checks if the clan tag is trusted with given {@link TrustType}.
      * 
+     * Note: Membership should be resolved through {@link ClanProvider#getClanTag(UUID)}.
+     * 
      * @param clanTag The clan tag to check
      * @param type The minimum trust required
      * @return Whether the clan is trusted
@@ -935,12 +1016,33 @@ default EconomyData getEconomyData() {
      */
     boolean allowEdit(UUID uuid);
 
+    /**
+     * Checks if this claim has explicit deny overrides.
+     * 
+     * <br><br>This is true when any flag permission applying to this claim
+     * is set to false through claim, override or flag definition contexts,
+     * including values inherited from parents and global defaults. When
+     * false, owners and trusted users are answered by
+     * {@link ClaimAccessFastPath} without a full flag evaluation.
+     * 
+     * <br><br>Note: Implementations should keep this as a cached bit updated
+     * on flag edits of the claim, its parents and the defaults, and on
+     * hierarchy changes. The default always uses the full evaluation.
+     * 
+     * @return true if claim has deny overrides, false if not
+     */
+    default boolean hasDenyOverrides() {
+        return true;
+    }
+
     /**
      * Checks if a block can be broken at specified location in this {@link Claim}.
      * 
      * <br>Note: If source was performed directly by player, pass player
      * <br>Note: If source is custom, pass a string identifier in format
      *           'modid:name'
+     * <br>Note: Owners and trusted users are answered by {@link ClaimAccessFastPath}
+     *           when claim has no deny overrides.
      * 
      * @param source The source performing the break action
      * @param location The target block location
@@ -955,6 +1057,8 @@ default EconomyData getEconomyData() {
      * <br>Note: If source was performed directly by player, pass player
      * <br>Note: If source or item is custom, pass a string identifier in format
      *           'modid:name'
+     * <br>Note: Owners and trusted users are answered by {@link ClaimAccessFastPath}
+     *           when claim has no deny overrides.
      * 
      * @param source The source performing the place action
      * @param placedItem The item being placed
@@ -985,6 +1089,8 @@ default EconomyData getEconomyData() {
      * <br>Note: If source was performed directly by player, pass player
      * <br>Note: If source, item, or entity is custom, pass a string identifier in format
      *           'modid:name'
+     * <br>Note: Owners and trusted users are answered by {@link ClaimAccessFastPath}
+     *           when claim has no deny overrides.
      * 
      * @param source The source performing the entity interaction
      * @param itemStack The item being used to interact with entity
@@ -1020,6 +1126,8 @@ default boolean canUseBlock(Object source, Object location, @Nullable User user,
      *           'modid:name'
      * <br>Note: Parameters 'leftClick' and 'shift' are only used if
      *           player is source.
+     * <br>Note: Owners and trusted users are answered by {@link ClaimAccessFastPath}
+     *           when claim has no deny overrides.
      * 
      * @param source The source performing the use action
      * @param location The target block location
@@ -1059,6 +1167,8 @@ default boolean canUseItem(Object source, Object itemStack, Object location, @Nu
      *           'modid:name'
      * <br>Note: If item is activated on right-click then 'leftClick' 
      *           should be false.
+     * <br>Note: Owners and trusted users are answered by {@link ClaimAccessFastPath}
+     *           when claim has no deny overrides.
      * 
      * @param source The source performing the use action
      * @param itemStack The target itemStack
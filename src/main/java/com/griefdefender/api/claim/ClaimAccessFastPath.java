@@ -0,0 +1,113 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.claim;
+
+import com.griefdefender.api.Tristate;
+import com.griefdefender.api.User;
+import com.griefdefender.api.metrics.Counter;
+import com.griefdefender.api.metrics.MetricKeys;
+import com.griefdefender.api.metrics.Metrics;
+
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Answers claim access checks for owners and trusted users without a
+ * full flag evaluation.
+ * 
+ * <br><br>Implementations of {@link Claim#canBreak}, {@link Claim#canPlace},
+ * {@link Claim#canUseBlock}, {@link Claim#canUseItem} and
+ * {@link Claim#canInteractWithEntity} should call {@link #check} first and
+ * only run the permission engine when it returns {@link Tristate#UNDEFINED}.
+ * 
+ * <br><br>The fast path applies when all of the following are true
+ * <ul>
+ * <li>A user is associated with the action.</li>
+ * <li>The claim is not wilderness.</li>
+ * <li>{@link Claim#hasDenyOverrides()} is false.</li>
+ * <li>The user owns the claim or has the required trust from
+ * {@link Claim#getEffectiveTrust(UUID)}.</li>
+ * </ul>
+ * 
+ * <br>Note: The fast path never denies, it can only allow. Outcomes are
+ * counted under {@link MetricKeys#ACCESS_FAST_PATH} and
+ * {@link MetricKeys#ACCESS_FALLBACK}.
+ */
+public final class ClaimAccessFastPath {
+
+    private static final Counter FAST_PATH_METRIC = Metrics.counter(MetricKeys.ACCESS_FAST_PATH);
+    private static final Counter FALLBACK_METRIC = Metrics.counter(MetricKeys.ACCESS_FALLBACK);
+
+    private ClaimAccessFastPath() {
+    }
+
+    /**
+     * Checks if a break or place action can be allowed without flag evaluation.
+     * 
+     * @param claim The claim
+     * @param user The user associated with action, if available
+     * @return {@link Tristate#TRUE} if allowed, {@link Tristate#UNDEFINED} if the
+     *     permission engine must be used
+     */
+    public static Tristate checkBuild(Claim claim, @Nullable User user) {
+        return check(claim, user, TrustTypes.BUILDER);
+    }
+
+    /**
+     * Checks if an action can be allowed without flag evaluation.
+     * 
+     * @param claim The claim
+     * @param user The user associated with action, if available
+     * @param trustType The minimum trust required
+     * @return {@link Tristate#TRUE} if allowed, {@link Tristate#UNDEFINED} if the
+     *     permission engine must be used
+     */
+    public static Tristate check(Claim claim, @Nullable User user, TrustType trustType) {
+        if (user == null || claim.isWilderness()) {
+            FALLBACK_METRIC.increment();
+            return Tristate.UNDEFINED;
+        }
+        if (claim.hasDenyOverrides()) {
+            FALLBACK_METRIC.increment();
+            return Tristate.UNDEFINED;
+        }
+
+        final UUID uuid = user.getUniqueId();
+        if (uuid.equals(claim.getOwnerUniqueId())) {
+            FAST_PATH_METRIC.increment();
+            return Tristate.TRUE;
+        }
+        final int required = TrustTable.getLevel(trustType);
+        final int level = TrustTable.getLevel(claim.getEffectiveTrust(uuid));
+        if (level != TrustTable.LEVEL_NONE && level >= required) {
+            FAST_PATH_METRIC.increment();
+            return Tristate.TRUE;
+        }
+
+        FALLBACK_METRIC.increment();
+        return Tristate.UNDEFINED;
+    }
+}
@@ -25,6 +25,7 @@
 package com.griefdefender.api.claim;
 
 import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.metrics.MetricKeys;
 
 import java.util.List;
 import java.util.Map;
@@ -57,6 +58,9 @@ public interface ClaimManager {
     /**
      * Gets the {@link Claim} at specified position.
      * 
+     * <br><br>Note: Implementations record this lookup under {@link MetricKeys#CLAIM_LOOKUP}
+     * and as a {@link com.griefdefender.api.jfr.ClaimLookupEvent}.
+     * 
      * @param x X coordinate
      * @param y Y coordinate
      * @param z Z coordinate
@@ -123,6 +127,7 @@ default ClaimResult deleteClaim(Claim claim) {
      * Note: If children are not deleted, they will be moved
      * to parent claim if one exists. If no parent exists, they
      * will simply be moved to wilderness.
+     * Note: This invalidates the {@link InheritanceChain} of claim and its children.
      * 
      * @param claim The claim to delete
      * @param deleteChildren Whether to delete children
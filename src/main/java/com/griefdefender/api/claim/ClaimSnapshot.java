@@ -135,6 +135,9 @@ default boolean applyToCreator() {
     /**
      * Applies snapshot to specified claim.
      * 
+     * <br><br>Note: Implementations record each apply as a
+     * {@link com.griefdefender.api.jfr.SnapshotApplyEvent}.
+     * 
      * @return If snapshot apply was successful, false if not
      */
     boolean apply(Claim claim);
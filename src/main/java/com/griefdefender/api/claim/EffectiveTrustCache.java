@@ -0,0 +1,189 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.claim;
+
+import com.griefdefender.api.util.UniqueIdInterner;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToIntFunction;
+
+/**
+ * Caches the effective trust level of users in a single {@link Claim}.
+ * 
+ * <br><br>The effective level is the highest trust a user receives from
+ * user, group and clan trusts combined. Each entry is stamped with the
+ * group membership version of the user so a change in membership is
+ * picked up on next lookup without touching any claim.
+ * 
+ * <br><br>Implementations must call
+ * <ul>
+ * <li>{@link #invalidate()} when any user, group or clan trust of the claim is edited.</li>
+ * <li>{@link #invalidateMembership(UUID)} when the groups or clan of a user change.</li>
+ * <li>{@link #invalidateAllMemberships()} when a group itself changes, such as its parents.</li>
+ * </ul>
+ * 
+ * <br>Levels match the ones used by {@link TrustTable}.
+ */
+public final class EffectiveTrustCache {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int VERSION_MASK = 0xFFFFFF;
+
+    private static final Object MEMBERSHIP_LOCK = new Object();
+    private static final AtomicInteger MEMBERSHIP_EPOCH = new AtomicInteger();
+    private static volatile AtomicIntegerArray membershipVersions = new AtomicIntegerArray(256);
+
+    private final UniqueIdInterner interner = UniqueIdInterner.getInstance();
+    private final int mask;
+    // each entry packs user id, membership version and level + 1 so 0 is empty
+    private volatile AtomicLongArray entries;
+
+    /**
+     * Creates a cache with default capacity.
+     */
+    public EffectiveTrustCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a cache with capacity.
+     * 
+     * <br><br>Note: Capacity is rounded up to the next power of two. Users
+     * sharing a slot simply evict each other.
+     * 
+     * @param capacity The amount of users to keep
+     */
+    public EffectiveTrustCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0!");
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.entries = new AtomicLongArray(size);
+    }
+
+    /**
+     * Gets the effective trust level of user, resolving it if not cached.
+     * 
+     * @param uuid The user uuid
+     * @param resolver Resolves the level from user, group and clan trusts
+     * @return The effective trust level
+     */
+    public int getTrustLevel(UUID uuid, ToIntFunction<UUID> resolver) {
+        final int userId = this.interner.intern(uuid);
+        final int version = getMembershipVersion(userId) & VERSION_MASK;
+        final AtomicLongArray entries = this.entries;
+        final int slot = mix(userId) & this.mask;
+        final long entry = entries.get(slot);
+        if (entry != 0 && (int) (entry >>> 32) == userId && ((int) (entry >>> 8) & VERSION_MASK) == version) {
+            return (int) (entry & 0xFF) - 1;
+        }
+
+        final int level = resolver.applyAsInt(uuid);
+        entries.set(slot, ((long) userId << 32) | ((long) version << 8) | ((level + 1) & 0xFF));
+        return level;
+    }
+
+    /**
+     * Gets the effective {@link TrustType} of user, resolving it if not cached.
+     * 
+     * @param uuid The user uuid
+     * @param resolver Resolves the level from user, group and clan trusts
+     * @return The effective trust type, {@link TrustTypes#NONE} if not trusted
+     */
+    public TrustType getTrust(UUID uuid, ToIntFunction<UUID> resolver) {
+        return TrustTable.getType(this.getTrustLevel(uuid, resolver));
+    }
+
+    /**
+     * Clears all cached levels.
+     * 
+     * <br><br>Note: This should be called when any trust of claim is edited.
+     */
+    public void invalidate() {
+        this.entries = new AtomicLongArray(this.mask + 1);
+    }
+
+    /**
+     * Gets the current group membership version of user id.
+     * 
+     * @param userId The dense user id
+     * @return The membership version
+     */
+    public static int getMembershipVersion(int userId) {
+        final AtomicIntegerArray versions = membershipVersions;
+        final int version = userId < versions.length() ? versions.get(userId) : 0;
+        // both only ever increase so their sum changes whenever either does
+        return MEMBERSHIP_EPOCH.get() + version;
+    }
+
+    /**
+     * Invalidates cached levels of user in every claim.
+     * 
+     * <br><br>Note: This should be called when the groups or clan of
+     * user change.
+     * 
+     * @param uuid The user uuid
+     */
+    public static void invalidateMembership(UUID uuid) {
+        final int userId = UniqueIdInterner.getInstance().getId(uuid);
+        if (userId < 0) {
+            // never cached
+            return;
+        }
+
+        synchronized (MEMBERSHIP_LOCK) {
+            AtomicIntegerArray versions = membershipVersions;
+            if (userId >= versions.length()) {
+                final int length = Math.max(versions.length() << 1, Integer.highestOneBit(userId) << 1);
+                final AtomicIntegerArray grown = new AtomicIntegerArray(length);
+                for (int i = 0; i < versions.length(); i++) {
+                    grown.set(i, versions.get(i));
+                }
+                versions = grown;
+                membershipVersions = grown;
+            }
+            versions.incrementAndGet(userId);
+        }
+    }
+
+    /**
+     * Invalidates cached levels of all users in every claim.
+     * 
+     * <br><br>Note: This should be called when a group changes in a way that
+     * affects all of its members, such as its parents.
+     */
+    public static void invalidateAllMemberships() {
+        MEMBERSHIP_EPOCH.incrementAndGet();
+    }
+
+    private static int mix(int id) {
+        final int hash = id * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.claim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the resolved ancestor chain of a {@link Claim}.
+ * 
+ * <br><br>The chain holds every parent of a claim, ordered from the direct
+ * parent up to the top level claim. The first {@link #getInheritedDepth()}
+ * entries are the parents the claim inherits from, based on
+ * {@link Claim#getData()} {@code doesInheritParent()} of each claim walked.
+ * 
+ * <br><br>Note: Chains are immutable and are meant to be cached per claim.
+ * Implementations must call {@link #invalidate(Claim)} whenever a claim changes
+ * its parent, its inherit flag, or is deleted.
+ */
+public final class InheritanceChain {
+
+    /**
+     * Represents a claim with no parents.
+     */
+    public static final InheritanceChain EMPTY = new InheritanceChain(new Claim[0], 0);
+
+    private final Claim[] parents;
+    private final int inheritedDepth;
+
+    // lazy load
+    private List<Claim> parentList;
+    private List<Claim> inheritedParentList;
+
+    private InheritanceChain(Claim[] parents, int inheritedDepth) {
+        this.parents = parents;
+        this.inheritedDepth = inheritedDepth;
+    }
+
+    /**
+     * Resolves the chain of a {@link Claim} by walking {@link Claim#getParent()}.
+     * 
+     * @param claim The claim to resolve
+     * @return The resolved chain
+     */
+    public static InheritanceChain resolve(Claim claim) {
+        Claim parent = claim.getParent();
+        if (parent == null) {
+            return EMPTY;
+        }
+
+        final List<Claim> parents = new ArrayList<>();
+        int inheritedDepth = 0;
+        boolean inheriting = claim.getData().doesInheritParent();
+        while (parent != null) {
+            if (parent == claim || parents.contains(parent)) {
+                // guard against corrupted parent data
+                break;
+            }
+            parents.add(parent);
+            if (inheriting) {
+                inheritedDepth++;
+                inheriting = parent.getData().doesInheritParent();
+            }
+            parent = parent.getParent();
+        }
+        return new InheritanceChain(parents.toArray(new Claim[0]), inheritedDepth);
+    }
+
+    /**
+     * Invalidates the cached chain of {@link Claim} and all of its children.
+     * 
+     * <br><br>Note: Only the claim and its children can contain the claim in
+     * their chain so no other claims are affected.
+     * 
+     * @param claim The claim that changed
+     */
+    public static void invalidate(Claim claim) {
+        claim.invalidateInheritanceChain();
+        for (Claim child : claim.getChildren(true)) {
+            child.invalidateInheritanceChain();
+        }
+    }
+
+    /**
+     * Gets the amount of parents in chain.
+     * 
+     * @return The amount of parents
+     */
+    public int size() {
+        return this.parents.length;
+    }
+
+    /**
+     * Gets the amount of parents being inherited from.
+     * 
+     * @return The inherited depth
+     */
+    public int getInheritedDepth() {
+        return this.inheritedDepth;
+    }
+
+    /**
+     * Gets the parent at index where 0 is the direct parent.
+     * 
+     * @param index The index
+     * @return The parent claim
+     */
+    public Claim get(int index) {
+        return this.parents[index];
+    }
+
+    /**
+     * Checks if the {@link Claim} is a parent in this chain.
+     * 
+     * @param claim The claim to check
+     * @return true if claim is a parent, false if not
+     */
+    public boolean contains(Claim claim) {
+        for (int i = 0; i < this.parents.length; i++) {
+            if (this.parents[i] == claim) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the {@link Claim} is an inherited parent in this chain.
+     * 
+     * @param claim The claim to check
+     * @return true if claim is inherited from, false if not
+     */
+    public boolean inheritsFrom(Claim claim) {
+        for (int i = 0; i < this.inheritedDepth; i++) {
+            if (this.parents[i] == claim) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets an immutable list of all parents ordered from direct parent
+     * to top level claim.
+     * 
+     * @return The immutable list of parents
+     */
+    public List<Claim> getParents() {
+        if (this.parentList == null) {
+            this.parentList = Collections.unmodifiableList(Arrays.asList(this.parents));
+        }
+        return this.parentList;
+    }
+
+    /**
+     * Gets an immutable list of inherited parents ordered from direct
+     * parent to last inherited claim.
+     * 
+     * @return The immutable list of inherited parents
+     */
+    public List<Claim> getInheritedParents() {
+        if (this.inheritedParentList == null) {
+            this.inheritedParentList = this.inheritedDepth == this.parents.length ? this.getParents()
+                    : Collections.unmodifiableList(Arrays.asList(this.parents).subList(0, this.inheritedDepth));
+        }
+        return this.inheritedParentList;
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.claim;
+
+import com.griefdefender.api.data.ClaimDataGetter;
+import com.griefdefender.api.util.UniqueIdInterner;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A compact, immutable table of user trusts in a {@link Claim}.
+ * 
+ * <br><br>Users are stored as dense ids from a {@link UniqueIdInterner} in a
+ * sorted array with a packed trust level per user. A trust check is a
+ * single binary search followed by a level comparison.
+ * 
+ * <br><br>Trust levels follow the trust hierarchy where each level includes
+ * all levels below it.
+ * <ul>
+ * <li>{@link TrustTypes#ACCESSOR} = 1</li>
+ * <li>{@link TrustTypes#RESIDENT} = 2</li>
+ * <li>{@link TrustTypes#CONTAINER} = 3</li>
+ * <li>{@link TrustTypes#BUILDER} = 4</li>
+ * <li>{@link TrustTypes#MANAGER} = 5</li>
+ * </ul>
+ */
+public final class TrustTable {
+
+    public static final int LEVEL_NONE = 0;
+    public static final int LEVEL_ACCESSOR = 1;
+    public static final int LEVEL_RESIDENT = 2;
+    public static final int LEVEL_CONTAINER = 3;
+    public static final int LEVEL_BUILDER = 4;
+    public static final int LEVEL_MANAGER = 5;
+
+    /**
+     * Represents a table with no trusted users.
+     */
+    public static final TrustTable EMPTY = new TrustTable(UniqueIdInterner.getInstance(), new int[0], new byte[0]);
+
+    private final UniqueIdInterner interner;
+    private final int[] ids;
+    private final byte[] levels;
+
+    private TrustTable(UniqueIdInterner interner, int[] ids, byte[] levels) {
+        this.interner = interner;
+        this.ids = ids;
+        this.levels = levels;
+    }
+
+    /**
+     * Builds a table from the trust sets of {@link ClaimDataGetter} using
+     * the global {@link UniqueIdInterner}.
+     * 
+     * @param data The claim data
+     * @return The trust table
+     */
+    public static TrustTable from(ClaimDataGetter data) {
+        return from(data, UniqueIdInterner.getInstance());
+    }
+
+    /**
+     * Builds a table from the trust sets of {@link ClaimDataGetter}.
+     * 
+     * <br><br>Note: If a user exists in more than one trust set, the highest
+     * level is kept.
+     * 
+     * @param data The claim data
+     * @param interner The interner used to map users to ids
+     * @return The trust table
+     */
+    public static TrustTable from(ClaimDataGetter data, UniqueIdInterner interner) {
+        final Set<UUID> accessors = data.getAccessors();
+        final Set<UUID> residents = data.getResidents();
+        final Set<UUID> containers = data.getContainers();
+        final Set<UUID> builders = data.getBuilders();
+        final Set<UUID> managers = data.getManagers();
+        final int total = accessors.size() + residents.size() + containers.size() + builders.size() + managers.size();
+        if (total == 0) {
+            return interner == EMPTY.interner ? EMPTY : new TrustTable(interner, new int[0], new byte[0]);
+        }
+
+        // pack id and level into a single long so one sort orders both
+        final long[] packed = new long[total];
+        int index = 0;
+        index = pack(packed, index, accessors, LEVEL_ACCESSOR, interner);
+        index = pack(packed, index, residents, LEVEL_RESIDENT, interner);
+        index = pack(packed, index, containers, LEVEL_CONTAINER, interner);
+        index = pack(packed, index, builders, LEVEL_BUILDER, interner);
+        index = pack(packed, index, managers, LEVEL_MANAGER, interner);
+        Arrays.sort(packed, 0, index);
+
+        final int[] ids = new int[index];
+        final byte[] levels = new byte[index];
+        int size = 0;
+        for (int i = 0; i < index; i++) {
+            final int id = (int) (packed[i] >>> 8);
+            final byte level = (byte) (packed[i] & 0xFF);
+            if (size > 0 && ids[size - 1] == id) {
+                // sorted ascending so the last entry holds the highest level
+                levels[size - 1] = level;
+                continue;
+            }
+            ids[size] = id;
+            levels[size] = level;
+            size++;
+        }
+        if (size != index) {
+            return new TrustTable(interner, Arrays.copyOf(ids, size), Arrays.copyOf(levels, size));
+        }
+        return new TrustTable(interner, ids, levels);
+    }
+
+    private static int pack(long[] packed, int index, Set<UUID> uuids, int level, UniqueIdInterner interner) {
+        for (UUID uuid : uuids) {
+            if (uuid == null) {
+                continue;
+            }
+            packed[index++] = ((long) interner.intern(uuid) << 8) | level;
+        }
+        return index;
+    }
+
+    /**
+     * Gets the level of {@link TrustType}.
+     * 
+     * @param type The trust type
+     * @return The trust level, {@link #LEVEL_NONE} if type has no level
+     */
+    public static int getLevel(TrustType type) {
+        if (type == TrustTypes.ACCESSOR) {
+            return LEVEL_ACCESSOR;
+        }
+        if (type == TrustTypes.RESIDENT) {
+            return LEVEL_RESIDENT;
+        }
+        if (type == TrustTypes.CONTAINER) {
+            return LEVEL_CONTAINER;
+        }
+        if (type == TrustTypes.BUILDER) {
+            return LEVEL_BUILDER;
+        }
+        if (type == TrustTypes.MANAGER) {
+            return LEVEL_MANAGER;
+        }
+        return LEVEL_NONE;
+    }
+
+    /**
+     * Gets the {@link TrustType} of level.
+     * 
+     * @param level The trust level
+     * @return The trust type, {@link TrustTypes#NONE} if level is unknown
+     */
+    public static TrustType getType(int level) {
+        switch (level) {
+            case LEVEL_ACCESSOR:
+                return TrustTypes.ACCESSOR;
+            case LEVEL_RESIDENT:
+                return TrustTypes.RESIDENT;
+            case LEVEL_CONTAINER:
+                return TrustTypes.CONTAINER;
+            case LEVEL_BUILDER:
+                return TrustTypes.BUILDER;
+            case LEVEL_MANAGER:
+                return TrustTypes.MANAGER;
+            default:
+                return TrustTypes.NONE;
+        }
+    }
+
+    /**
+     * Gets the trust level of user id.
+     * 
+     * @param id The dense user id
+     * @return The trust level, {@link #LEVEL_NONE} if not trusted
+     */
+    public int getTrustLevel(int id) {
+        final int index = Arrays.binarySearch(this.ids, id);
+        return index < 0 ? LEVEL_NONE : this.levels[index];
+    }
+
+    /**
+     * Gets the trust level of {@link UUID}.
+     * 
+     * @param uuid The user uuid
+     * @return The trust level, {@link #LEVEL_NONE} if not trusted
+     */
+    public int getTrustLevel(UUID uuid) {
+        final int id = this.interner.getId(uuid);
+        return id < 0 ? LEVEL_NONE : this.getTrustLevel(id);
+    }
+
+    /**
+     * Checks if the user id is trusted with given {@link TrustType}.
+     * 
+     * <br><br>Note: {@link TrustTypes#NONE} checks for any trust.
+     * 
+     * @param id The dense user id
+     * @param type The minimum trust required
+     * @return Whether the user is trusted
+     */
+    public boolean isTrusted(int id, TrustType type) {
+        final int level = this.getTrustLevel(id);
+        return level != LEVEL_NONE && level >= getLevel(type);
+    }
+
+    /**
+     * Checks if the {@link UUID} is trusted with given {@link TrustType}.
+     * 
+     * <br><br>Note: {@link TrustTypes#NONE} checks for any trust.
+     * 
+     * @param uuid The user uuid
+     * @param type The minimum trust required
+     * @return Whether the user is trusted
+     */
+    public boolean isTrusted(UUID uuid, TrustType type) {
+        final int level = this.getTrustLevel(uuid);
+        return level != LEVEL_NONE && level >= getLevel(type);
+    }
+
+    /**
+     * Gets the amount of trusted users.
+     * 
+     * @return The amount of trusted users
+     */
+    public int size() {
+        return this.ids.length;
+    }
+
+    /**
+     * Gets the {@link UniqueIdInterner} used by this table.
+     * 
+     * @return The interner
+     */
+    public UniqueIdInterner getInterner() {
+        return this.interner;
+    }
+}
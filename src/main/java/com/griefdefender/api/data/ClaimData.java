@@ -29,11 +29,14 @@
 import com.griefdefender.api.claim.Claim;
 import com.griefdefender.api.claim.ClaimType;
 import com.griefdefender.api.claim.ClaimAttribute;
+import com.griefdefender.api.claim.InheritanceChain;
+import com.griefdefender.api.metrics.MetricKeys;
 
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.title.Title;
 
 import java.time.Instant;
+import java.util.EnumSet;
 import java.util.Set;
 import java.util.UUID;
 
@@ -200,6 +203,8 @@ public interface ClaimData extends ClaimDataGetter {
     /**
      * Toggles whether this claim is inheriting from parent claim.
      * 
+     * Note: This invalidates the {@link InheritanceChain} of claim and its children.
+     * 
      * @param inherit Whether claim inherits from parent
      */
     void setInheritParent(boolean inherit);
@@ -236,6 +241,8 @@ public interface ClaimData extends ClaimDataGetter {
     /**
      * Sets the parent {@link UUID}.
      * 
+     * Note: This invalidates the {@link InheritanceChain} of claim and its children.
+     * 
      * @param uniqueId The parent uuid
      */
     void setParentUniqueId(UUID uniqueId);
@@ -346,9 +353,42 @@ public interface ClaimData extends ClaimDataGetter {
 
     /**
      * Saves all changes to storage.
+     * 
+     * <br><br>Note: Implementations record this save under {@link MetricKeys#CLAIM_SAVE}
+     * and as a {@link com.griefdefender.api.jfr.ClaimSaveEvent}.
      */
     void save();
 
+    /**
+     * Gets the fields changed since the last save was written.
+     * 
+     * <br><br>Note: Implementations that do not track changes report every
+     * field, so storage writes the full claim.
+     * 
+     * @return The changed fields
+     */
+    default Set<ClaimDataField> getDirtyFields() {
+        return EnumSet.allOf(ClaimDataField.class);
+    }
+
+    /**
+     * Gets the changed fields and marks them as saved, before storage
+     * writes them.
+     * 
+     * @return The changed fields
+     */
+    default Set<ClaimDataField> clearDirtyFields() {
+        return EnumSet.allOf(ClaimDataField.class);
+    }
+
+    /**
+     * Marks fields as changed, such as fields whose write failed.
+     * 
+     * @param fields The changed fields
+     */
+    default void markDirty(Set<ClaimDataField> fields) {
+    }
+
     /**
      * Gets a new claim data builder instance for {@link Builder}.
      * 
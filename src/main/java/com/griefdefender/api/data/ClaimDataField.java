@@ -0,0 +1,78 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.data;
+
+/**
+ * Represents a persisted field of {@link ClaimData}, the unit of change
+ * tracked between saves.
+ */
+public enum ClaimDataField {
+
+    WORLD,
+    OWNER,
+    PARENT,
+    CLAIM_GROUP,
+    TYPE,
+
+    /**
+     * The lesser and greater boundary corners.
+     */
+    BOUNDARIES,
+    SPAWN,
+    DISPLAY_NAME,
+    GREETING,
+    FAREWELL,
+    ENTER_ACTION_BAR,
+    EXIT_ACTION_BAR,
+    ENTER_TITLE,
+    EXIT_TITLE,
+    DATE_CREATED,
+    DATE_LAST_ACTIVE,
+    DENY_MESSAGES,
+    EXPIRATION,
+    CUBOID,
+    INHERIT_PARENT,
+    RESIZABLE,
+    EXPIRED,
+    REQUIRES_CLAIM_BLOCKS,
+    SIZE_RESTRICTIONS,
+    ATTRIBUTES,
+    ACCESSORS,
+    BUILDERS,
+    CONTAINERS,
+    MANAGERS,
+    RESIDENTS,
+    ACCESSOR_GROUPS,
+    BUILDER_GROUPS,
+    CONTAINER_GROUPS,
+    MANAGER_GROUPS,
+    RESIDENT_GROUPS,
+    CLAN_DATA,
+
+    /**
+     * The economy data, including its payment transactions.
+     */
+    ECONOMY_DATA;
+}
@@ -0,0 +1,541 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.data;
+
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.metrics.Counter;
+import com.griefdefender.api.metrics.Histogram;
+import com.griefdefender.api.metrics.MetricKeys;
+import com.griefdefender.api.metrics.Metrics;
+import com.griefdefender.api.metrics.Timer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Saves claims behind the caller, off the main thread.
+ * 
+ * <br><br>{@link #markDirty(Claim)} only records the claim. The first mark
+ * arms a drain after the coalescing window, and every further mark of the
+ * same claim within the window is merged into the pending save. The drain
+ * runs on the writer thread of the queue and hands the pending claims to the
+ * {@link BatchWriter} in batches, which serializes and writes them there.
+ * Claims of a failed batch are marked dirty again.
+ * 
+ * <br><br>After a failed write the queue retries with an exponential
+ * backoff, starting at the window and doubling up to the max retry delay.
+ * Once a write failed max attempts times in a row the queue stops retrying
+ * and leaves the claims pending until they are marked again or flushed.
+ * 
+ * <br><br>Only the fields reported by {@link ClaimData#clearDirtyFields()}
+ * are handed to the writer as a {@link Patch}, so a backend can store a
+ * partial record instead of rewriting the whole claim. Claims without
+ * changed fields are not written.
+ * 
+ * <br><br>Claims may still change on other threads while they are written.
+ * Every change is followed by {@link ClaimData#save()}, which marks the claim
+ * dirty again, so a record written during a change is replaced by the next
+ * batch.
+ * 
+ * <br><br>Implementations back {@link ClaimData#save()} with a queue and call
+ * {@link #flush()} on shutdown.
+ * 
+ * <br><br>Note: Batch time, batch size, merged saves, failures, partial records
+ * and unchanged claims are recorded under {@link MetricKeys#CLAIM_SAVE_BATCH},
+ * {@link MetricKeys#CLAIM_SAVE_BATCH_SIZE}, {@link MetricKeys#CLAIM_SAVE_COALESCED},
+ * {@link MetricKeys#CLAIM_SAVE_FAILED}, {@link MetricKeys#CLAIM_SAVE_PARTIAL} and {@link MetricKeys#CLAIM_SAVE_UNCHANGED}.
+ */
+public final class ClaimSaveQueue {
+
+    private static final Timer BATCH_TIMER = Metrics.timer(MetricKeys.CLAIM_SAVE_BATCH);
+    private static final Histogram BATCH_SIZE_HISTOGRAM = Metrics.histogram(MetricKeys.CLAIM_SAVE_BATCH_SIZE);
+    private static final Counter COALESCED_COUNTER = Metrics.counter(MetricKeys.CLAIM_SAVE_COALESCED);
+    private static final Counter FAILED_COUNTER = Metrics.counter(MetricKeys.CLAIM_SAVE_FAILED);
+    private static final Counter PARTIAL_COUNTER = Metrics.counter(MetricKeys.CLAIM_SAVE_PARTIAL);
+    private static final Counter UNCHANGED_COUNTER = Metrics.counter(MetricKeys.CLAIM_SAVE_UNCHANGED);
+    private static final AtomicInteger QUEUE_IDS = new AtomicInteger();
+    private static final long DEFAULT_MAX_RETRY_DELAY_SECONDS = 60;
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
+    private static final long MIN_RETRY_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Writes a batch of claims to storage.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+
+        /**
+         * Serializes and writes the claims, on the writer thread.
+         * 
+         * @param claims The claims to write
+         * @throws Exception If the batch could not be written
+         */
+        void write(List<Claim> claims) throws Exception;
+
+        /**
+         * Writes the changed fields of a batch of claims, on the writer
+         * thread.
+         * 
+         * <br><br>Note: Backends that store partial records override this,
+         * by default every claim is written in full.
+         * 
+         * @param patches The changed fields of each claim
+         * @throws Exception If the batch could not be written
+         */
+        default void writePatches(List<Patch> patches) throws Exception {
+            final List<Claim> claims = new ArrayList<>(patches.size());
+            for (Patch patch : patches) {
+                claims.add(patch.getClaim());
+            }
+            this.write(claims);
+        }
+
+        /**
+         * Removes deleted claims from storage, on the writer thread.
+         * 
+         * @param claimIds The unique ids of the deleted claims
+         * @throws Exception If the claims could not be removed
+         */
+        default void delete(List<UUID> claimIds) throws Exception {
+        }
+    }
+
+    /**
+     * Receives the batches written by a queue, on the writer thread.
+     * 
+     * <br><br>Implementations post {@link com.griefdefender.api.event.SaveClaimEvent.Pre}
+     * and {@link com.griefdefender.api.event.SaveClaimEvent.Post} here, once per
+     * batch.
+     */
+    public interface Listener {
+
+        /**
+         * Called before a batch is written.
+         * 
+         * @param claims The claims of the batch
+         */
+        default void preSave(List<Claim> claims) {
+        }
+
+        /**
+         * Called after a batch was written or failed.
+         * 
+         * @param claims The claims of the batch
+         * @param failure The failure, or null if written
+         */
+        default void postSave(List<Claim> claims, @Nullable Throwable failure) {
+        }
+    }
+
+    /**
+     * The fields of a claim changed since its last save.
+     */
+    public static final class Patch {
+
+        private static final int FIELD_COUNT = ClaimDataField.values().length;
+
+        private final Claim claim;
+        private final Set<ClaimDataField> fields;
+
+        Patch(Claim claim, Set<ClaimDataField> fields) {
+            this.claim = claim;
+            this.fields = Collections.unmodifiableSet(fields);
+        }
+
+        /**
+         * Gets the claim.
+         * 
+         * @return The claim
+         */
+        public Claim getClaim() {
+            return this.claim;
+        }
+
+        /**
+         * Gets the changed fields.
+         * 
+         * @return The changed fields
+         */
+        public Set<ClaimDataField> getFields() {
+            return this.fields;
+        }
+
+        /**
+         * Gets whether every field changed, such as for a claim never saved
+         * before, and the claim must be written in full.
+         * 
+         * @return Whether the claim is written in full
+         */
+        public boolean isFull() {
+            return this.fields.size() == FIELD_COUNT;
+        }
+    }
+
+    private final BatchWriter writer;
+    private final Listener listener;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long maxRetryDelayNanos;
+    private final int maxAttempts;
+    private final ScheduledExecutorService executor;
+    // guarded by this
+    private Map<UUID, Claim> pending = new LinkedHashMap<>();
+    private Set<UUID> deleted = new LinkedHashSet<>();
+    private List<CompletableFuture<Void>> flushes = new ArrayList<>();
+    private int failedAttempts;
+    private boolean armed;
+    private boolean shutdown;
+    // writer thread only
+    private boolean writeFailed;
+
+    /**
+     * Creates a queue with its own writer thread, retrying a failed write
+     * up to five times with a backoff of at most a minute.
+     * 
+     * @param writer The batch writer
+     * @param listener The batch listener
+     * @param window The coalescing window
+     * @param unit The unit of window
+     * @param maxBatchSize The most claims per batch
+     */
+    public ClaimSaveQueue(BatchWriter writer, Listener listener, long window, TimeUnit unit, int maxBatchSize) {
+        this(writer, listener, window, unit, maxBatchSize, unit.convert(DEFAULT_MAX_RETRY_DELAY_SECONDS, TimeUnit.SECONDS), DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Creates a queue with its own writer thread.
+     * 
+     * @param writer The batch writer
+     * @param listener The batch listener
+     * @param window The coalescing window
+     * @param unit The unit of window and maxRetryDelay
+     * @param maxBatchSize The most claims per batch
+     * @param maxRetryDelay The longest delay before retrying a failed write
+     * @param maxAttempts The most failed writes in a row before the queue
+     *     stops retrying
+     */
+    public ClaimSaveQueue(BatchWriter writer, Listener listener, long window, TimeUnit unit, int maxBatchSize, long maxRetryDelay,
+            int maxAttempts) {
+        if (window < 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Window must not be negative and batch size must be positive");
+        }
+        if (maxRetryDelay < 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max retry delay must not be negative and max attempts must be positive");
+        }
+        this.writer = writer;
+        this.listener = listener;
+        this.windowNanos = unit.toNanos(window);
+        this.maxBatchSize = maxBatchSize;
+        this.maxRetryDelayNanos = Math.max(unit.toNanos(maxRetryDelay), Math.max(this.windowNanos, MIN_RETRY_DELAY_NANOS));
+        this.maxAttempts = maxAttempts;
+        final String threadName = "GriefDefender-ClaimSave-" + QUEUE_IDS.incrementAndGet();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Marks a claim to be saved once the window passes.
+     * 
+     * @param claim The claim
+     * @throws IllegalStateException If the queue was shut down
+     */
+    public void markDirty(Claim claim) {
+        synchronized (this) {
+            if (this.shutdown) {
+                throw new IllegalStateException("Claim save queue is shut down");
+            }
+            this.deleted.remove(claim.getUniqueId());
+            if (this.pending.put(claim.getUniqueId(), claim) != null) {
+                COALESCED_COUNTER.increment();
+            }
+            // claims left pending once retries ran out are not armed
+            if (!this.arm()) {
+                return;
+            }
+        }
+        this.executor.schedule(this::drainScheduled, this.windowNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Marks a claim to be removed from storage once the window passes,
+     * dropping its pending save.
+     * 
+     * @param claimId The unique id of the deleted claim
+     * @throws IllegalStateException If the queue was shut down
+     */
+    public void markDeleted(UUID claimId) {
+        synchronized (this) {
+            if (this.shutdown) {
+                throw new IllegalStateException("Claim save queue is shut down");
+            }
+            this.pending.remove(claimId);
+            if (!this.deleted.add(claimId) || !this.arm()) {
+                return;
+            }
+        }
+        this.executor.schedule(this::drainScheduled, this.windowNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // guarded by this
+    private boolean arm() {
+        if (this.armed) {
+            return false;
+        }
+        this.armed = true;
+        return true;
+    }
+
+    /**
+     * Gets the amount of claims waiting to be saved or removed.
+     * 
+     * @return The amount of pending claims
+     */
+    public synchronized int getPendingCount() {
+        return this.pending.size() + this.deleted.size();
+    }
+
+    /**
+     * Writes every pending claim without waiting for the window.
+     * 
+     * <br><br>A failed write is retried with the backoff of the queue, starting
+     * over from the first attempt, and the returned future completes once a
+     * write succeeds or max attempts failed in a row.
+     * 
+     * <br><br>Note: Exceptions thrown by {@link Listener#postSave(List, Throwable)}
+     * do not requeue the batch, they are added to the failure of the
+     * returned future.
+     * 
+     * @return A future completed once the pending claims are written, or
+     *     completed exceptionally with the failure of the last attempt
+     */
+    public CompletableFuture<Void> flush() {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            this.executor.execute(() -> this.drain(future));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Rejects further saves, writes the pending claims and stops the writer
+     * thread.
+     * 
+     * <br><br>Note: Claims of a batch failing during shutdown are not retried.
+     * They stay pending, as reported by {@link #getPendingCount()}, and the
+     * returned future completes exceptionally.
+     * 
+     * @return A future completed once the pending claims are written
+     */
+    public CompletableFuture<Void> shutdown() {
+        synchronized (this) {
+            this.shutdown = true;
+        }
+        final CompletableFuture<Void> future = this.flush();
+        this.executor.shutdown();
+        return future;
+    }
+
+    private void drainScheduled() {
+        synchronized (this) {
+            this.armed = false;
+        }
+        this.drain(null);
+    }
+
+    private void drain(@Nullable CompletableFuture<Void> flush) {
+        final List<CompletableFuture<Void>> completed;
+        if (flush != null) {
+            synchronized (this) {
+                this.flushes.add(flush);
+                this.failedAttempts = 0;
+            }
+        }
+        this.writeFailed = false;
+        final Throwable failure = this.writePending();
+        long retryDelay = -1;
+        synchronized (this) {
+            this.failedAttempts = this.writeFailed ? this.failedAttempts + 1 : 0;
+            if (this.writeFailed && !this.shutdown && this.failedAttempts < this.maxAttempts) {
+                completed = Collections.emptyList();
+                if (this.arm()) {
+                    retryDelay = this.getRetryDelay();
+                }
+            } else {
+                completed = this.flushes;
+                this.flushes = new ArrayList<>();
+            }
+        }
+        if (retryDelay >= 0) {
+            try {
+                this.executor.schedule(this::drainScheduled, retryDelay, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // shut down meanwhile, the flush of the shutdown completes the pending flushes
+            }
+        }
+        for (CompletableFuture<Void> future : completed) {
+            if (failure == null) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        }
+    }
+
+    // guarded by this
+    private long getRetryDelay() {
+        final long base = Math.max(this.windowNanos, MIN_RETRY_DELAY_NANOS);
+        final int shift = this.failedAttempts - 1;
+        if (shift >= Long.numberOfLeadingZeros(base) - 1) {
+            return this.maxRetryDelayNanos;
+        }
+        return Math.min(base << shift, this.maxRetryDelayNanos);
+    }
+
+    private @Nullable Throwable writePending() {
+        final List<Claim> claims;
+        final List<UUID> claimIds;
+        synchronized (this) {
+            if (this.pending.isEmpty() && this.deleted.isEmpty()) {
+                return null;
+            }
+            claims = new ArrayList<>(this.pending.values());
+            claimIds = new ArrayList<>(this.deleted);
+            this.pending = new LinkedHashMap<>();
+            this.deleted = new LinkedHashSet<>();
+        }
+        final List<Patch> patches = new ArrayList<>(claims.size());
+        for (Claim claim : claims) {
+            final Set<ClaimDataField> fields = claim.getData().clearDirtyFields();
+            if (fields.isEmpty()) {
+                UNCHANGED_COUNTER.increment();
+            } else {
+                patches.add(new Patch(claim, fields));
+            }
+        }
+        Throwable failure = null;
+        for (int start = 0; start < patches.size(); start += this.maxBatchSize) {
+            final List<Patch> batch = Collections.unmodifiableList(patches.subList(start, Math.min(patches.size(), start + this.maxBatchSize)));
+            final List<Claim> batchClaims = new ArrayList<>(batch.size());
+            for (Patch patch : batch) {
+                batchClaims.add(patch.getClaim());
+            }
+            final Throwable batchFailure = this.writeBatch(batch, batchClaims);
+            final Throwable listenerFailure = this.postSave(batchClaims, batchFailure);
+            if (batchFailure != null) {
+                for (Patch patch : batch) {
+                    patch.getClaim().getData().markDirty(patch.getFields());
+                }
+                this.requeue(batchClaims, Collections.emptyList());
+                this.writeFailed = true;
+                failure = addFailure(failure, batchFailure);
+            }
+            if (listenerFailure != null) {
+                // reported only, a failing listener must not requeue the batch
+                failure = addFailure(failure, listenerFailure);
+            }
+        }
+        if (!claimIds.isEmpty()) {
+            try {
+                this.writer.delete(Collections.unmodifiableList(claimIds));
+            } catch (Throwable t) {
+                FAILED_COUNTER.increment();
+                this.requeue(Collections.emptyList(), claimIds);
+                this.writeFailed = true;
+                failure = addFailure(failure, t);
+            }
+        }
+        return failure;
+    }
+
+    private static Throwable addFailure(@Nullable Throwable failure, Throwable next) {
+        if (failure == null) {
+            return next;
+        }
+        failure.addSuppressed(next);
+        return failure;
+    }
+
+    private @Nullable Throwable writeBatch(List<Patch> patches, List<Claim> claims) {
+        BATCH_SIZE_HISTOGRAM.record(patches.size());
+        for (Patch patch : patches) {
+            if (!patch.isFull()) {
+                PARTIAL_COUNTER.increment();
+            }
+        }
+        Throwable failure = null;
+        final long start = BATCH_TIMER.start();
+        try {
+            this.listener.preSave(Collections.unmodifiableList(claims));
+            this.writer.writePatches(patches);
+        } catch (Throwable t) {
+            FAILED_COUNTER.increment();
+            failure = t;
+        } finally {
+            BATCH_TIMER.stop(start);
+        }
+        return failure;
+    }
+
+    private @Nullable Throwable postSave(List<Claim> claims, @Nullable Throwable failure) {
+        try {
+            this.listener.postSave(Collections.unmodifiableList(claims), failure);
+            return null;
+        } catch (Throwable t) {
+            return t;
+        }
+    }
+
+    private synchronized void requeue(List<Claim> claims, List<UUID> claimIds) {
+        for (Claim claim : claims) {
+            if (!this.deleted.contains(claim.getUniqueId())) {
+                this.pending.putIfAbsent(claim.getUniqueId(), claim);
+            }
+        }
+        for (UUID claimId : claimIds) {
+            if (!this.pending.containsKey(claimId)) {
+                this.deleted.add(claimId);
+            }
+        }
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.event;
+
+import com.griefdefender.api.metrics.Counter;
+import com.griefdefender.api.metrics.Histogram;
+import com.griefdefender.api.metrics.MetricKeys;
+import com.griefdefender.api.metrics.Metrics;
+import com.griefdefender.api.metrics.Timer;
+import net.kyori.event.Cancellable;
+import net.kyori.event.EventSubscriber;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Dispatches events to subscribers off the posting thread.
+ * 
+ * <br><br>Events are queued on one of several lanes, each served by a
+ * single thread with a bounded queue. The lane is chosen by the claim of a
+ * {@link ClaimEvent}, or by the event type otherwise, so events of the same
+ * claim reach a subscriber in the order they were posted. When a lane is
+ * full the {@link OverflowPolicy} decides what happens.
+ * 
+ * <br><br>Only events that are neither {@link Cancellable} nor
+ * {@link PooledEvent} can be dispatched asynchronously, as the poster
+ * would not see a cancellation and a pooled instance is reused once
+ * posting returns. Such events still reaching a subscriber of a broader
+ * type, such as {@link Event} or {@link ClaimEvent}, are delivered on the
+ * posting thread instead. Changes made by an async subscriber, such as
+ * completions added to a {@link CommandCompletionEvent}, are not seen by
+ * the poster either.
+ * 
+ * <br><br>Note: Queue delay, queue depth, rejections and failures are
+ * recorded under {@link MetricKeys#ASYNC_EVENT_DELAY},
+ * {@link MetricKeys#ASYNC_EVENT_QUEUE_DEPTH}, {@link MetricKeys#ASYNC_EVENT_REJECTED}
+ * and {@link MetricKeys#ASYNC_EVENT_FAILED}.
+ */
+public final class AsyncEventDispatcher {
+
+    private static final Timer DELAY_TIMER = Metrics.timer(MetricKeys.ASYNC_EVENT_DELAY);
+    private static final Histogram QUEUE_DEPTH_HISTOGRAM = Metrics.histogram(MetricKeys.ASYNC_EVENT_QUEUE_DEPTH);
+    private static final Counter REJECTED_COUNTER = Metrics.counter(MetricKeys.ASYNC_EVENT_REJECTED);
+    private static final Counter FAILED_COUNTER = Metrics.counter(MetricKeys.ASYNC_EVENT_FAILED);
+    private static final AtomicInteger DISPATCHER_IDS = new AtomicInteger();
+
+    private static volatile BiConsumer<Event, Throwable> sharedExceptionHandler = AsyncEventDispatcher::uncaught;
+
+    /**
+     * What to do with an event when its lane is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Drops the event for the subscriber.
+         */
+        DROP,
+
+        /**
+         * Runs the subscriber on the posting thread.
+         * 
+         * <br><br>Note: The event may then overtake events still queued
+         * for the same claim.
+         */
+        CALLER_RUNS
+    }
+
+    private final ThreadPoolExecutor[] lanes;
+    private final OverflowPolicy overflowPolicy;
+    private final BiConsumer<Event, Throwable> exceptionHandler;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates a dispatcher.
+     * 
+     * @param laneCount The amount of lanes, each with its own thread
+     * @param laneCapacity The most events queued per lane
+     * @param overflowPolicy The policy for full lanes
+     * @param exceptionHandler Receives exceptions thrown by subscribers
+     */
+    public AsyncEventDispatcher(int laneCount, int laneCapacity, OverflowPolicy overflowPolicy, BiConsumer<Event, Throwable> exceptionHandler) {
+        if (laneCount <= 0 || laneCapacity <= 0) {
+            throw new IllegalArgumentException("Lane count and capacity must be positive");
+        }
+        final int dispatcherId = DISPATCHER_IDS.incrementAndGet();
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            final String threadName = "GriefDefender-AsyncEvent-" + dispatcherId + "-" + i;
+            final ThreadFactory threadFactory = runnable -> {
+                final Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            };
+            this.lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(laneCapacity), threadFactory,
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+        this.overflowPolicy = overflowPolicy;
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    /**
+     * Gets the dispatcher used by implementations that do not provide
+     * their own.
+     * 
+     * <br><br>Note: It uses up to 4 lanes of 1024 events and drops events
+     * when full. Subscriber exceptions go to the handler set with
+     * {@link #setSharedExceptionHandler(BiConsumer)}.
+     * 
+     * @return The shared dispatcher
+     */
+    public static AsyncEventDispatcher shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * Sets the handler receiving exceptions thrown by subscribers of the
+     * {@link #shared()} dispatcher.
+     * 
+     * <br><br>Note: Until set, exceptions are passed to the uncaught
+     * exception handler of the lane thread.
+     * 
+     * @param exceptionHandler Receives exceptions thrown by subscribers
+     */
+    public static void setSharedExceptionHandler(BiConsumer<Event, Throwable> exceptionHandler) {
+        sharedExceptionHandler = exceptionHandler;
+    }
+
+    private static void uncaught(Event event, Throwable t) {
+        final Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+    }
+
+    /**
+     * Wraps a subscriber so it receives events on this dispatcher.
+     * 
+     * <br><br>Note: Cancellable or pooled events of a subtype of
+     * <code>type</code> are passed to the subscriber on the posting thread.
+     * 
+     * @param type The event type subscribed to
+     * @param subscriber The subscriber
+     * @return The subscriber to register on the bus
+     * @throws IllegalArgumentException If the event type is cancellable or pooled
+     */
+    public <T extends Event> EventSubscriber<T> wrap(Class<T> type, EventSubscriber<? super T> subscriber) {
+        if (Cancellable.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException("Cancellable event " + type.getName() + " cannot be dispatched asynchronously");
+        }
+        if (PooledEvent.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException("Pooled event " + type.getName() + " cannot be dispatched asynchronously");
+        }
+        return new AsyncSubscriber<>(this, subscriber);
+    }
+
+    /**
+     * Gets the amount of events waiting in all lanes.
+     * 
+     * @return The queued event count
+     */
+    public int getQueuedCount() {
+        int queued = 0;
+        for (ThreadPoolExecutor lane : this.lanes) {
+            queued += lane.getQueue().size();
+        }
+        return queued;
+    }
+
+    /**
+     * Gets the amount of events that found their lane full.
+     * 
+     * @return The rejected event count
+     */
+    public long getRejectedCount() {
+        return this.rejected.sum();
+    }
+
+    /**
+     * Stops accepting events. Queued events are still delivered.
+     */
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : this.lanes) {
+            lane.shutdown();
+        }
+    }
+
+    /**
+     * Waits for queued events to be delivered after {@link #shutdown()}.
+     * 
+     * @param timeout The most time to wait
+     * @param unit The unit of timeout
+     * @return Whether all lanes terminated in time
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ThreadPoolExecutor lane : this.lanes) {
+            if (!lane.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    <T extends Event> void dispatch(EventSubscriber<? super T> subscriber, T event) {
+        final ThreadPoolExecutor lane = this.lanes[(laneKey(event) & 0x7fffffff) % this.lanes.length];
+        final long queuedAt = DELAY_TIMER.start();
+        try {
+            lane.execute(() -> {
+                DELAY_TIMER.stop(queuedAt);
+                // sampled on the lane as size() takes the queue lock
+                if (Metrics.isEnabled()) {
+                    QUEUE_DEPTH_HISTOGRAM.record(lane.getQueue().size());
+                }
+                this.deliver(subscriber, event);
+            });
+        } catch (RejectedExecutionException e) {
+            this.rejected.increment();
+            REJECTED_COUNTER.increment();
+            if (this.overflowPolicy == OverflowPolicy.CALLER_RUNS && !lane.isShutdown()) {
+                this.deliver(subscriber, event);
+            }
+        }
+    }
+
+    private <T extends Event> void deliver(EventSubscriber<? super T> subscriber, T event) {
+        try {
+            subscriber.invoke(event);
+        } catch (Throwable t) {
+            FAILED_COUNTER.increment();
+            this.exceptionHandler.accept(event, t);
+        }
+    }
+
+    private static int laneKey(Event event) {
+        if (event instanceof ClaimEvent) {
+            final List<?> claims = ((ClaimEvent) event).getClaims();
+            if (!claims.isEmpty()) {
+                return ((ClaimEvent) event).getClaim().getUniqueId().hashCode();
+            }
+        }
+        return event.getClass().hashCode();
+    }
+
+    /**
+     * A subscriber registered on the bus that hands events to a dispatcher.
+     */
+    public static final class AsyncSubscriber<T extends Event> implements EventSubscriber<T> {
+
+        private final AsyncEventDispatcher dispatcher;
+        private final EventSubscriber<? super T> delegate;
+
+        AsyncSubscriber(AsyncEventDispatcher dispatcher, EventSubscriber<? super T> delegate) {
+            this.dispatcher = dispatcher;
+            this.delegate = delegate;
+        }
+
+        /**
+         * Gets the wrapped subscriber.
+         * 
+         * @return The subscriber
+         */
+        public EventSubscriber<? super T> getDelegate() {
+            return this.delegate;
+        }
+
+        @Override
+        public void invoke(T event) throws Throwable {
+            if (event instanceof Cancellable || event instanceof PooledEvent) {
+                this.delegate.invoke(event);
+                return;
+            }
+            this.dispatcher.dispatch(this.delegate, event);
+        }
+
+        @Override
+        public int postOrder() {
+            return this.delegate.postOrder();
+        }
+
+        @Override
+        public boolean consumeCancelledEvents() {
+            return this.delegate.consumeCancelledEvents();
+        }
+    }
+
+    private static final class SharedHolder {
+
+        static final AsyncEventDispatcher INSTANCE = new AsyncEventDispatcher(
+                Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)), 1024, OverflowPolicy.DROP,
+                (event, t) -> sharedExceptionHandler.accept(event, t));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.event;
+
+import com.griefdefender.api.claim.Claim;
+
+import java.util.List;
+
+/**
+ * An event fired once for a bulk change of claims, after the change is
+ * applied.
+ * 
+ * <br><br>Bulk operations such as {@link Claim#removeAllTrusts()},
+ * {@link Claim#addUserTrusts(java.util.Set, com.griefdefender.api.claim.TrustType)}
+ * or {@link Claim#deleteChildren()}, and every change made within a
+ * {@link ClaimEventBatch}, post one batch event per kind of change. Listeners
+ * can process a bulk change in one invocation instead of one per change.
+ * A single change outside of a bulk operation is posted as a batch of one, so
+ * batch listeners see every change exactly once.
+ * 
+ * <br><br>Note: The individual events are still posted before each change to
+ * their own subscribers, which may cancel it. Cancelled changes are not part
+ * of the batch.
+ */
+public interface BatchClaimEvent<E extends ClaimEvent> extends ClaimEvent {
+
+    /**
+     * Gets the type of the individual events.
+     * 
+     * @return The event type
+     */
+    Class<E> getEventType();
+
+    /**
+     * Gets the applied changes, in the order they were made.
+     * 
+     * <br><br>Note: The changes are already applied, cancelling these events
+     * has no effect.
+     * 
+     * @return The individual events
+     */
+    List<E> getEvents();
+
+    /**
+     * Gets every claim affected by the batch, without duplicates.
+     * 
+     * @return The affected claims
+     */
+    @Override
+    List<Claim> getClaims();
+
+    /**
+     * Fired after trust of one or more claims changed.
+     */
+    interface Trust extends BatchClaimEvent<TrustClaimEvent> {};
+
+    /**
+     * Fired after one or more claims were removed.
+     */
+    interface Remove extends BatchClaimEvent<RemoveClaimEvent> {};
+}
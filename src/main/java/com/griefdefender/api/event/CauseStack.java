@@ -0,0 +1,180 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.event;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link CauseStackManager} backed by a reused array.
+ * 
+ * <br><br>Pushing and popping causes does not allocate once the array has
+ * grown to the deepest stack seen. The {@link EventCause} returned by
+ * {@link #getCurrentCause()} is only built when asked for, and is reused
+ * for as long as the stack holds the same objects, even across a pop and
+ * push of the same cause.
+ * 
+ * <br><br>The most recently pushed cause is the root of the current cause.
+ * Frames mark a depth to return to, so code pushing several causes can
+ * pop them all at once:
+ * <pre>
+ * final int frame = causeStack.pushCauseFrame();
+ * try {
+ *     causeStack.pushCause(player).pushCause(item);
+ *     eventManager.post(event);
+ * } finally {
+ *     causeStack.popCauseFrame(frame);
+ * }
+ * </pre>
+ * 
+ * <br><br>Note: This class is not thread-safe. Use one instance per
+ * thread posting events.
+ */
+public class CauseStack implements CauseStackManager {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final @Nullable Object defaultCause;
+    private Object[] stack = new Object[INITIAL_CAPACITY];
+    private int size;
+    private @Nullable EventCause currentCause;
+
+    /**
+     * Creates a cause stack with an empty cause when nothing is pushed.
+     */
+    public CauseStack() {
+        this(null);
+    }
+
+    /**
+     * Creates a cause stack.
+     * 
+     * @param defaultCause The cause used when nothing is pushed, usually
+     *     the plugin instance
+     */
+    public CauseStack(@Nullable Object defaultCause) {
+        this.defaultCause = defaultCause;
+    }
+
+    @Override
+    public EventCause getCurrentCause() {
+        final EventCause cached = this.currentCause;
+        if (cached != null && this.matches(cached)) {
+            return cached;
+        }
+        final EventCause cause = this.createCause();
+        this.currentCause = cause;
+        return cause;
+    }
+
+    @Override
+    public CauseStack pushCause(Object cause) {
+        if (cause == null) {
+            throw new NullPointerException("Cause cannot be null!");
+        }
+        if (this.size == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, this.size << 1);
+        }
+        this.stack[this.size++] = cause;
+        return this;
+    }
+
+    @Override
+    public Object popCause() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("The cause stack is empty");
+        }
+        final Object cause = this.stack[--this.size];
+        this.stack[this.size] = null;
+        return cause;
+    }
+
+    @Override
+    public @Nullable Object peekCause() {
+        return this.size == 0 ? null : this.stack[this.size - 1];
+    }
+
+    /**
+     * Gets the amount of causes on the stack.
+     * 
+     * @return The stack depth
+     */
+    public int getDepth() {
+        return this.size;
+    }
+
+    /**
+     * Marks the current depth to return to with {@link #popCauseFrame(int)}.
+     * 
+     * @return The frame
+     */
+    public int pushCauseFrame() {
+        return this.size;
+    }
+
+    /**
+     * Pops all causes pushed since the frame was marked.
+     * 
+     * @param frame The frame returned by {@link #pushCauseFrame()}
+     * @throws IllegalStateException If causes below the frame were already popped
+     */
+    public void popCauseFrame(int frame) {
+        if (frame > this.size) {
+            throw new IllegalStateException("Cause frame " + frame + " was already popped, depth is " + this.size);
+        }
+        while (this.size > frame) {
+            this.stack[--this.size] = null;
+        }
+    }
+
+    private boolean matches(EventCause cause) {
+        final Object[] objects = cause.cause;
+        if (this.size == 0) {
+            return objects.length == 1 && objects[0] == this.defaultCause || objects.length == 0 && this.defaultCause == null;
+        }
+        if (objects.length != this.size) {
+            return false;
+        }
+        for (int i = 0; i < this.size; i++) {
+            if (objects[i] != this.stack[this.size - 1 - i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private EventCause createCause() {
+        if (this.size == 0) {
+            return new EventCause(this.defaultCause == null ? new Object[0] : new Object[] {this.defaultCause});
+        }
+        final Object[] objects = new Object[this.size];
+        for (int i = 0; i < this.size; i++) {
+            objects[i] = this.stack[this.size - 1 - i];
+        }
+        return new EventCause(objects);
+    }
+}
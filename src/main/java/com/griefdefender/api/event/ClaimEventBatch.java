@@ -0,0 +1,51 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.event;
+
+/**
+ * A scope gathering claim changes into {@link BatchClaimEvent}s.
+ * 
+ * <br><br>While a batch is open, the changes made on the same thread are
+ * collected and posted as one {@link BatchClaimEvent} per kind of change
+ * when the outermost batch closes. Use it around loops of API calls such as
+ * deleting every claim of a player:
+ * 
+ * <pre>
+ * try (ClaimEventBatch batch = GriefDefender.getEventManager().openBatch()) {
+ *     for (Claim claim : claimManager.getPlayerClaims(playerUniqueId)) {
+ *         claimManager.deleteClaim(claim);
+ *     }
+ * }
+ * </pre>
+ */
+public interface ClaimEventBatch extends AutoCloseable {
+
+    /**
+     * Closes the batch, posting the collected changes if it is the outermost
+     * batch of the thread.
+     */
+    @Override
+    void close();
+}
@@ -25,9 +25,13 @@
 package com.griefdefender.api.event;
 
 import java.util.Set;
+import java.util.UUID;
 
 import com.griefdefender.api.Clan;
+import com.griefdefender.api.GriefDefender;
 import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.provider.ClanIndex;
+import com.griefdefender.api.provider.ClanProvider;
 
 /**
  * An event that is fired when one or more clan trust changes in a {@link Claim}.
@@ -41,6 +45,42 @@ public interface ClanTrustClaimEvent extends TrustClaimEvent {
      */
     Set<Clan> getClans();
 
+    /**
+     * Checks if player is a member of any clan requesting trust.
+     * 
+     * @param playerUniqueId The player uuid
+     * @return true if member, false if not
+     */
+    default boolean isMember(UUID playerUniqueId) {
+        final ClanProvider provider = GriefDefender.getCore().getClanProvider();
+        if (provider == null) {
+            return false;
+        }
+        final ClanIndex index = provider.getClanIndex();
+        if (index == null) {
+            final String tag = provider.getClanTag(playerUniqueId);
+            if (tag == null) {
+                return false;
+            }
+            for (Clan clan : this.getClans()) {
+                if (clan.getTag().equalsIgnoreCase(tag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        final int clanId = index.getClanId(playerUniqueId);
+        if (clanId < 0) {
+            return false;
+        }
+        for (Clan clan : this.getClans()) {
+            if (index.getClanId(clan.getTag()) == clanId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Fired when a group is added to claim trust.
      */
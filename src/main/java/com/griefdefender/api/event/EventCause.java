@@ -106,23 +106,23 @@ public static EventCause of(Iterable<Object> iterable) {
         return builder.build();
     }
 
+    private static final int LOOKUP_SLOTS = 4;
+
     final Object[] cause;
 
     // lazy load
     @Nullable private List<Object> immutableCauses;
+    // first/last lookups per queried type, so listeners querying the same types share results
+    @Nullable private volatile Lookup[] firstLookups;
+    @Nullable private volatile Lookup[] lastLookups;
 
     /**
-     * Constructs a new cause.
+     * Constructs a new cause owning the array.
      *
-     * @param ctx The event context
-     * @param causes The causes
+     * @param causes The causes, which must not be modified afterwards
      */
     EventCause(Object[] causes) {
-        final Object[] objects = new Object[causes.length];
-        for (int index = 0; index < causes.length; index++) {
-            objects[index] = causes[index];
-        }
-        this.cause = objects;
+        this.cause = causes;
     }
 
     /**
@@ -151,34 +151,85 @@ public Object root() {
     /**
      * Gets the first <code>T</code> object of this {@link EventCause}, if available.
      *
+     * <p>Results are remembered for up to four queried types, so listeners
+     * repeating lookups neither scan nor allocate.</p>
+     *
      * @param target The class of the target type
      * @param <T> The type of object being queried for
      * @return The first element of the type, if available
      */
     public <T> Optional<T> first(Class<T> target) {
+        Lookup[] lookups = this.firstLookups;
+        if (lookups == null) {
+            lookups = new Lookup[LOOKUP_SLOTS];
+            this.firstLookups = lookups;
+        }
+        final Optional<?> cached = find(lookups, target);
+        if (cached != null) {
+            return (Optional<T>) cached;
+        }
+        Optional<T> result = Optional.empty();
         for (Object aCause : this.cause) {
             if (target.isInstance(aCause)) {
-                return Optional.of((T) aCause);
+                result = Optional.of((T) aCause);
+                break;
             }
         }
-        return Optional.empty();
+        remember(lookups, target, result);
+        return result;
     }
 
     /**
      * Gets the last object instance of the {@link Class} of type
      * <code>T</code>.
      *
+     * <p>The result is remembered like {@link #first(Class)}.</p>
+     *
      * @param target The class of the target type
      * @param <T> The type of object being queried for
      * @return The last element of the type, if available
      */
     public <T> Optional<T> last(Class<T> target) {
+        Lookup[] lookups = this.lastLookups;
+        if (lookups == null) {
+            lookups = new Lookup[LOOKUP_SLOTS];
+            this.lastLookups = lookups;
+        }
+        final Optional<?> cached = find(lookups, target);
+        if (cached != null) {
+            return (Optional<T>) cached;
+        }
+        Optional<T> result = Optional.empty();
         for (int i = this.cause.length - 1; i >= 0; i--) {
             if (target.isInstance(this.cause[i])) {
-                return Optional.of((T) this.cause[i]);
+                result = Optional.of((T) this.cause[i]);
+                break;
             }
         }
-        return Optional.empty();
+        remember(lookups, target, result);
+        return result;
+    }
+
+    private static @Nullable Optional<?> find(Lookup[] lookups, Class<?> target) {
+        for (int i = 0; i < lookups.length; i++) {
+            final Lookup lookup = lookups[i];
+            if (lookup != null && lookup.target == target) {
+                return lookup.result;
+            }
+        }
+        return null;
+    }
+
+    // a lookup lost to a concurrent one is only recomputed
+    private static void remember(Lookup[] lookups, Class<?> target, Optional<?> result) {
+        final Lookup lookup = new Lookup(target, result);
+        for (int i = 0; i < lookups.length; i++) {
+            if (lookups[i] == null) {
+                lookups[i] = lookup;
+                return;
+            }
+        }
+        lookups[System.identityHashCode(target) & (LOOKUP_SLOTS - 1)] = lookup;
     }
 
     /**
@@ -403,6 +454,18 @@ public String toString() {
         return causeString + joiner.toString() + "}]";
     }
 
+    // immutable so a lookup published by another thread is never seen torn
+    private static final class Lookup {
+
+        final Class<?> target;
+        final Optional<?> result;
+
+        Lookup(Class<?> target, Optional<?> result) {
+            this.target = target;
+            this.result = result;
+        }
+    }
+
     private class Itr implements Iterator<Object> {
 
         private int index = 0;
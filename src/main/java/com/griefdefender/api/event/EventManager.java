@@ -24,9 +24,15 @@
  */
 package com.griefdefender.api.event;
 
+import com.griefdefender.api.metrics.MetricKeys;
+import com.griefdefender.api.util.generator.EventInvoker;
+import com.griefdefender.api.util.generator.EventInvokerProvider;
 import net.kyori.event.EventBus;
+import net.kyori.event.EventSubscriber;
 import net.kyori.event.PostResult;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 /**
  * An event manager.
  */
@@ -39,9 +45,156 @@ public interface EventManager {
      */
     EventBus<Event> getBus();
 
+    /**
+     * Gets if any subscriber would receive an event of the type.
+     * 
+     * <br><br>Check this before building an event on a hot path, such as
+     * {@link BorderClaimEvent} or {@link QueryPermissionEvent}, to skip the
+     * event and cause stack capture when nobody listens.
+     * 
+     * <br><br>Note: Implementations cache the result per event type in a
+     * {@link SubscriberCache} that is invalidated when the bus changes.
+     * 
+     * @param type The event type
+     * @return Whether the type has subscribers
+     */
+    default boolean hasSubscribers(Class<? extends Event> type) {
+        return this.getBus().hasSubscribers(type);
+    }
+
+    /**
+     * Gets the {@link AsyncEventDispatcher} used by {@link #registerAsync}.
+     * 
+     * @return The async event dispatcher
+     */
+    default AsyncEventDispatcher getAsyncDispatcher() {
+        return AsyncEventDispatcher.shared();
+    }
+
+    /**
+     * Registers a subscriber that receives events off the posting thread.
+     * 
+     * <br><br>Use this for slow listeners such as webhooks on
+     * {@link SaveClaimEvent.Post} or {@link LoadClaimEvent.Post}. Events of
+     * the same claim are received in the order they were posted.
+     * 
+     * @param type The event type, which must not be cancellable or pooled
+     * @param subscriber The subscriber
+     * @throws IllegalArgumentException If the event type is cancellable or pooled
+     */
+    default <T extends Event> void registerAsync(Class<T> type, EventSubscriber<? super T> subscriber) {
+        this.getBus().register(type, this.getAsyncDispatcher().wrap(type, subscriber));
+    }
+
+    /**
+     * Unregisters a subscriber registered with {@link #registerAsync}.
+     * 
+     * @param subscriber The subscriber
+     */
+    default void unregisterAsync(EventSubscriber<?> subscriber) {
+        this.getBus().unregister(registered -> registered instanceof AsyncEventDispatcher.AsyncSubscriber
+                && ((AsyncEventDispatcher.AsyncSubscriber<?>) registered).getDelegate() == subscriber);
+    }
+
+    /**
+     * Gets the {@link ScopedSubscriptions} of the bus.
+     * 
+     * @return The scoped subscriptions, or null if not supported
+     */
+    default @Nullable ScopedSubscriptions getScopedSubscriptions() {
+        return null;
+    }
+
+    /**
+     * Registers a subscriber receiving only events within a scope.
+     * 
+     * <br><br>Use this instead of filtering by claim or world in the
+     * subscriber, so it is not invoked for events of every other claim.
+     * 
+     * @param type The event type
+     * @param scope The scope
+     * @param subscriber The subscriber
+     * @throws IllegalArgumentException If the event type cannot be filtered by the scope
+     * @throws UnsupportedOperationException If scoped subscriptions are not supported
+     */
+    default <T extends Event> void registerScoped(Class<T> type, EventScope scope, EventSubscriber<? super T> subscriber) {
+        final ScopedSubscriptions subscriptions = this.getScopedSubscriptions();
+        if (subscriptions == null) {
+            throw new UnsupportedOperationException("Scoped subscriptions are not supported");
+        }
+        subscriptions.register(type, scope, subscriber);
+    }
+
+    /**
+     * Unregisters a subscriber registered with {@link #registerScoped}.
+     * 
+     * @param subscriber The subscriber
+     */
+    default void unregisterScoped(EventSubscriber<?> subscriber) {
+        final ScopedSubscriptions subscriptions = this.getScopedSubscriptions();
+        if (subscriptions != null) {
+            subscriptions.unregister(subscriber);
+        }
+    }
+
+    /**
+     * Opens a {@link ClaimEventBatch} on the current thread.
+     * 
+     * <br><br>Note: Implementations without batching return a batch that does
+     * nothing, in which case only the individual events are posted.
+     * 
+     * @return The batch, to be closed by the caller
+     */
+    default ClaimEventBatch openBatch() {
+        return () -> {};
+    }
+
+    /**
+     * Registers every {@link Subscribe} method of a listener.
+     * 
+     * <br><br>Each method is called through a generated {@link EventInvoker}
+     * instead of reflection. The generated classes are cached per listener
+     * class.
+     * 
+     * @param listener The listener
+     * @throws IllegalArgumentException If a method cannot be subscribed
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    default void registerListeners(Object listener) {
+        for (EventInvoker invoker : EventInvokerProvider.createFor(listener)) {
+            this.getBus().register((Class) invoker.getEventType(), invoker);
+        }
+    }
+
+    /**
+     * Unregisters the methods of a listener registered with
+     * {@link #registerListeners(Object)}.
+     * 
+     * @param listener The listener
+     */
+    default void unregisterListeners(Object listener) {
+        this.getBus().unregister(registered -> registered instanceof EventInvoker
+                && ((EventInvoker) registered).getListener() == listener);
+    }
+
+    /**
+     * Gets the {@link ListenerProfiler} timing the subscribers of the bus.
+     * 
+     * <br><br>Enable it with {@link ListenerProfiler#setEnabled(boolean)} to
+     * find out which subscriber makes {@link #post(Event)} slow.
+     * 
+     * @return The listener profiler, or null if not supported
+     */
+    default @Nullable ListenerProfiler getListenerProfiler() {
+        return null;
+    }
+
     /**
      * Posts an event on the {@link EventBus}.
      * 
+     * <br><br>Note: Implementations record this post under {@link MetricKeys#EVENT_POST}
+     * and as a {@link com.griefdefender.api.jfr.EventPostEvent}.
+     * 
      * @param event The event to post
      * @return The post result
      */
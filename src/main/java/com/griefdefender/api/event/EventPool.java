@@ -0,0 +1,116 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.event;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+/**
+ * A per-thread pool of {@link PooledEvent} instances.
+ * 
+ * <br><br>Each thread keeps its own stack of free instances, so an event
+ * posted from within a listener of the same type gets another instance.
+ * Usage:
+ * <pre>
+ * final QueryEvent event = POOL.acquire();
+ * try {
+ *     event.init(...);
+ *     eventManager.post(event);
+ *     result = event.getFinalResult();
+ * } finally {
+ *     POOL.release(event);
+ * }
+ * </pre>
+ * 
+ * <br><br>Note: Debug mode is enabled with the system property
+ * <code>griefdefender.event-pool.debug=true</code>. Released events are
+ * then marked with {@link PooledEvent#release()} and dropped instead of
+ * reused, so listeners retaining them fail fast.
+ */
+public final class EventPool<E extends PooledEvent> {
+
+    private static final boolean DEBUG = Boolean.getBoolean("griefdefender.event-pool.debug");
+    private static final int DEFAULT_MAX_SIZE = 8;
+
+    private final Supplier<E> factory;
+    private final int maxSize;
+    private final ThreadLocal<ArrayDeque<E>> free = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Creates a pool keeping up to 8 free instances per thread.
+     * 
+     * @param factory Creates new instances
+     */
+    public EventPool(Supplier<E> factory) {
+        this(factory, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a pool.
+     * 
+     * @param factory Creates new instances
+     * @param maxSize The most free instances kept per thread
+     */
+    public EventPool(Supplier<E> factory, int maxSize) {
+        this.factory = factory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets if released events are poisoned instead of reused.
+     * 
+     * @return Whether debug mode is enabled
+     */
+    public static boolean isDebug() {
+        return DEBUG;
+    }
+
+    /**
+     * Gets a reset instance owned by the caller until released.
+     * 
+     * @return The event
+     */
+    public E acquire() {
+        final E event = this.free.get().pollLast();
+        return event != null ? event : this.factory.get();
+    }
+
+    /**
+     * Returns an instance to the pool of the current thread.
+     * 
+     * @param event The event, which must not be used afterwards
+     */
+    public void release(E event) {
+        if (DEBUG) {
+            event.release();
+            return;
+        }
+        event.reset();
+        final ArrayDeque<E> stack = this.free.get();
+        if (stack.size() < this.maxSize) {
+            stack.addLast(event);
+        }
+    }
+}
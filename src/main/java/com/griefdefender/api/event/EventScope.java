@@ -0,0 +1,193 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.event;
+
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.claim.ClaimType;
+
+import java.util.Objects;
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Limits a subscriber registered with {@link ScopedSubscriptions} to events
+ * of a world, claim, claim type or flag.
+ * 
+ * <br><br>An event is in scope if one of its claims matches every claim
+ * constraint and, for {@link QueryPermissionEvent}s, the queried flag
+ * matches. Unset constraints match anything.
+ */
+public final class EventScope {
+
+    /**
+     * The scope matching every event.
+     */
+    public static final EventScope ALL = new EventScope(null, null, null, null);
+
+    private final @Nullable UUID worldUniqueId;
+    private final @Nullable UUID claimUniqueId;
+    private final @Nullable ClaimType claimType;
+    private final @Nullable String flagId;
+
+    private EventScope(@Nullable UUID worldUniqueId, @Nullable UUID claimUniqueId, @Nullable ClaimType claimType, @Nullable String flagId) {
+        this.worldUniqueId = worldUniqueId;
+        this.claimUniqueId = claimUniqueId;
+        this.claimType = claimType;
+        this.flagId = flagId;
+    }
+
+    /**
+     * Gets a scope limited to events of a claim.
+     * 
+     * @param claim The claim
+     * @return The scope
+     */
+    public static EventScope claim(Claim claim) {
+        return builder().claim(claim.getUniqueId()).build();
+    }
+
+    /**
+     * Gets a scope limited to events in a world.
+     * 
+     * @param worldUniqueId The world unique id
+     * @return The scope
+     */
+    public static EventScope world(UUID worldUniqueId) {
+        return builder().world(worldUniqueId).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public @Nullable UUID getWorldUniqueId() {
+        return this.worldUniqueId;
+    }
+
+    public @Nullable UUID getClaimUniqueId() {
+        return this.claimUniqueId;
+    }
+
+    public @Nullable ClaimType getClaimType() {
+        return this.claimType;
+    }
+
+    /**
+     * Gets the flag id without its namespace, such as <code>block-break</code>.
+     * 
+     * @return The flag id, or null for any flag
+     */
+    public @Nullable String getFlagId() {
+        return this.flagId;
+    }
+
+    /**
+     * Gets if the scope has no constraint.
+     * 
+     * @return Whether every event matches
+     */
+    public boolean isAll() {
+        return this.worldUniqueId == null && this.claimUniqueId == null && this.claimType == null && this.flagId == null;
+    }
+
+    boolean hasClaimConstraint() {
+        return this.worldUniqueId != null || this.claimUniqueId != null || this.claimType != null;
+    }
+
+    boolean matches(Claim claim) {
+        return (this.claimUniqueId == null || this.claimUniqueId.equals(claim.getUniqueId()))
+                && (this.worldUniqueId == null || this.worldUniqueId.equals(claim.getWorldUniqueId()))
+                && (this.claimType == null || this.claimType.equals(claim.getType()));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EventScope)) {
+            return false;
+        }
+        final EventScope other = (EventScope) o;
+        return Objects.equals(this.worldUniqueId, other.worldUniqueId) && Objects.equals(this.claimUniqueId, other.claimUniqueId)
+                && Objects.equals(this.claimType, other.claimType) && Objects.equals(this.flagId, other.flagId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.worldUniqueId, this.claimUniqueId, this.claimType, this.flagId);
+    }
+
+    @Override
+    public String toString() {
+        return "EventScope{world=" + this.worldUniqueId + ", claim=" + this.claimUniqueId + ", claimType=" + this.claimType
+                + ", flag=" + this.flagId + "}";
+    }
+
+    public static final class Builder {
+
+        private @Nullable UUID worldUniqueId;
+        private @Nullable UUID claimUniqueId;
+        private @Nullable ClaimType claimType;
+        private @Nullable String flagId;
+
+        Builder() {
+        }
+
+        public Builder world(@Nullable UUID worldUniqueId) {
+            this.worldUniqueId = worldUniqueId;
+            return this;
+        }
+
+        public Builder claim(@Nullable UUID claimUniqueId) {
+            this.claimUniqueId = claimUniqueId;
+            return this;
+        }
+
+        public Builder claimType(@Nullable ClaimType claimType) {
+            this.claimType = claimType;
+            return this;
+        }
+
+        /**
+         * Sets the flag, with or without its namespace.
+         * 
+         * @param flagId The flag id, such as <code>griefdefender:block-break</code>
+         * @return The builder
+         */
+        public Builder flag(@Nullable String flagId) {
+            this.flagId = flagId == null ? null : flagId.substring(flagId.indexOf(':') + 1);
+            return this;
+        }
+
+        public EventScope build() {
+            if (this.worldUniqueId == null && this.claimUniqueId == null && this.claimType == null && this.flagId == null) {
+                return ALL;
+            }
+            return new EventScope(this.worldUniqueId, this.claimUniqueId, this.claimType, this.flagId);
+        }
+    }
+}
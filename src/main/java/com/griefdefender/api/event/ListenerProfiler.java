@@ -0,0 +1,318 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.event;
+
+import com.griefdefender.api.util.generator.EventInvoker;
+import net.kyori.event.EventSubscriber;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each subscriber takes per posted event type.
+ * 
+ * <br><br>Implementations wrap every subscriber registered on their
+ * {@link net.kyori.event.EventBus} with {@link #wrap(EventSubscriber)} and
+ * pass each wrapper removed from the bus to {@link #unregistered(EventSubscriber)}.
+ * While disabled a wrapped subscriber only adds a volatile read per
+ * invocation. While enabled it records the invocation count, total and
+ * max time per event class in a rolling window made of slots, so old
+ * spikes age out.
+ * 
+ * <br><br>Note: Subscribers registered with {@link EventManager#registerAsync}
+ * are reported under their own name with an <code>(async)</code> suffix,
+ * and their time is the cost of queuing on the posting thread. Subscribers
+ * registered with {@link ScopedSubscriptions} created with this profiler are
+ * reported one by one instead of under their shared router. Listener methods
+ * are reported as <code>declaringClass#method</code>.
+ */
+public final class ListenerProfiler {
+
+    private final long slotNanos;
+    private final int slotCount;
+    private final Set<ProfiledSubscriber<?>> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile boolean enabled;
+
+    /**
+     * Creates a disabled profiler keeping a one minute window.
+     */
+    public ListenerProfiler() {
+        this(1, TimeUnit.MINUTES, 6);
+    }
+
+    /**
+     * Creates a disabled profiler.
+     * 
+     * @param window The length of the window
+     * @param unit The unit of window
+     * @param slotCount The amount of slots the window is divided into
+     */
+    public ListenerProfiler(long window, TimeUnit unit, int slotCount) {
+        if (window <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("Window and slot count must be positive");
+        }
+        this.slotNanos = Math.max(1, unit.toNanos(window) / slotCount);
+        this.slotCount = slotCount;
+    }
+
+    /**
+     * Gets whether invocations are recorded.
+     * 
+     * @return Whether invocations are recorded
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Starts or stops recording.
+     * 
+     * @param enabled Whether to record invocations
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Wraps a subscriber so its invocations are recorded.
+     * 
+     * @param subscriber The subscriber
+     * @return The subscriber to register on the bus
+     */
+    public <T> EventSubscriber<T> wrap(EventSubscriber<T> subscriber) {
+        if (subscriber instanceof ScopedSubscriptions.Router && ((ScopedSubscriptions.Router) subscriber).isProfiledBy(this)) {
+            // its subscribers are wrapped one by one
+            return subscriber;
+        }
+        return new ProfiledSubscriber<>(this, subscriber);
+    }
+
+    /**
+     * Forgets a subscriber removed from the bus, so it no longer shows
+     * up in {@link #getStats()}.
+     * 
+     * @param subscriber The subscriber returned by {@link #wrap(EventSubscriber)}
+     */
+    public void unregistered(EventSubscriber<?> subscriber) {
+        if (subscriber instanceof ProfiledSubscriber) {
+            final ProfiledSubscriber<?> profiled = (ProfiledSubscriber<?>) subscriber;
+            profiled.unregistered = true;
+            this.subscribers.remove(profiled);
+        }
+    }
+
+    /**
+     * Gets the stats of all subscribers within the window, slowest total
+     * first.
+     * 
+     * @return The stats
+     */
+    public List<ListenerStats> getStats() {
+        final long epoch = Math.floorDiv(System.nanoTime(), this.slotNanos);
+        final List<ListenerStats> stats = new ArrayList<>();
+        for (ProfiledSubscriber<?> subscriber : this.subscribers) {
+            for (Map.Entry<Class<?>, Window> entry : subscriber.windows.entrySet()) {
+                final ListenerStats windowStats = entry.getValue().snapshot(entry.getKey(), subscriber.name, epoch, this.slotCount);
+                if (windowStats.getInvocationCount() > 0) {
+                    stats.add(windowStats);
+                }
+            }
+        }
+        stats.sort(Comparator.comparingLong(ListenerStats::getTotalNanos).reversed());
+        return stats;
+    }
+
+    /**
+     * Forgets all recorded invocations.
+     */
+    public void reset() {
+        for (ProfiledSubscriber<?> subscriber : this.subscribers) {
+            subscriber.windows.clear();
+        }
+    }
+
+    /**
+     * Writes a table of {@link #getStats()}.
+     * 
+     * @param out The destination
+     */
+    public void writeReport(Appendable out) {
+        try {
+            out.append(String.format("%-40s %-56s %10s %12s %12s %12s%n", "Event", "Subscriber", "Calls", "Total ms", "Mean us", "Max us"));
+            for (ListenerStats stats : this.getStats()) {
+                out.append(String.format("%-40s %-56s %10d %12.3f %12.3f %12.3f%n", typeName(stats.getEventType()), stats.getSubscriberName(),
+                        stats.getInvocationCount(), stats.getTotalNanos() / 1_000_000.0, stats.getMeanNanos() / 1_000.0, stats.getMaxNanos() / 1_000.0));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a table of {@link #getStats()}.
+     * 
+     * @return The report
+     */
+    public String createReport() {
+        final StringBuilder builder = new StringBuilder();
+        this.writeReport(builder);
+        return builder.toString();
+    }
+
+    private static String typeName(Class<?> type) {
+        final String simpleName = type.getSimpleName();
+        return simpleName.isEmpty() ? type.getName() : simpleName;
+    }
+
+    void record(ProfiledSubscriber<?> subscriber, Class<?> eventType, long nanos, long now) {
+        Window window = subscriber.windows.get(eventType);
+        if (window == null) {
+            if (subscriber.unregistered) {
+                // an invocation still running when it was removed
+                return;
+            }
+            window = subscriber.windows.computeIfAbsent(eventType, k -> new Window(this.slotCount));
+            this.subscribers.add(subscriber);
+        }
+        window.record(nanos, Math.floorDiv(now, this.slotNanos));
+    }
+
+    /**
+     * A subscriber registered on the bus that records the invocations of
+     * another.
+     */
+    public static final class ProfiledSubscriber<T> implements EventSubscriber<T> {
+
+        private final ListenerProfiler profiler;
+        private final EventSubscriber<T> delegate;
+        private final String name;
+        private final Map<Class<?>, Window> windows = new ConcurrentHashMap<>();
+        private volatile boolean unregistered;
+
+        ProfiledSubscriber(ListenerProfiler profiler, EventSubscriber<T> delegate) {
+            this.profiler = profiler;
+            this.delegate = delegate;
+            this.name = nameOf(delegate);
+        }
+
+        /**
+         * Gets the wrapped subscriber.
+         * 
+         * @return The subscriber
+         */
+        public EventSubscriber<T> getDelegate() {
+            return this.delegate;
+        }
+
+        @Override
+        public void invoke(T event) throws Throwable {
+            if (!this.profiler.enabled) {
+                this.delegate.invoke(event);
+                return;
+            }
+            final long start = System.nanoTime();
+            try {
+                this.delegate.invoke(event);
+            } finally {
+                final long end = System.nanoTime();
+                this.profiler.record(this, event.getClass(), end - start, end);
+            }
+        }
+
+        @Override
+        public int postOrder() {
+            return this.delegate.postOrder();
+        }
+
+        @Override
+        public boolean consumeCancelledEvents() {
+            return this.delegate.consumeCancelledEvents();
+        }
+
+        private static String nameOf(EventSubscriber<?> subscriber) {
+            if (subscriber instanceof AsyncEventDispatcher.AsyncSubscriber) {
+                return nameOf(((AsyncEventDispatcher.AsyncSubscriber<?>) subscriber).getDelegate()) + " (async)";
+            }
+            if (subscriber instanceof EventInvoker) {
+                return subscriber.toString();
+            }
+            final String name = subscriber.getClass().getName();
+            final int lambda = name.indexOf("$$Lambda");
+            return lambda == -1 ? name : name.substring(0, lambda) + " (lambda)";
+        }
+    }
+
+    private static final class Window {
+
+        private final long[] epochs;
+        private final long[] counts;
+        private final long[] totals;
+        private final long[] maxes;
+
+        Window(int slotCount) {
+            this.epochs = new long[slotCount];
+            this.counts = new long[slotCount];
+            this.totals = new long[slotCount];
+            this.maxes = new long[slotCount];
+        }
+
+        synchronized void record(long nanos, long epoch) {
+            // nanoTime and so the epoch may be negative
+            final int slot = (int) Math.floorMod(epoch, (long) this.epochs.length);
+            if (this.epochs[slot] != epoch) {
+                this.epochs[slot] = epoch;
+                this.counts[slot] = 0;
+                this.totals[slot] = 0;
+                this.maxes[slot] = 0;
+            }
+            this.counts[slot]++;
+            this.totals[slot] += nanos;
+            if (nanos > this.maxes[slot]) {
+                this.maxes[slot] = nanos;
+            }
+        }
+
+        synchronized ListenerStats snapshot(Class<?> eventType, String subscriberName, long epoch, int slotCount) {
+            long count = 0;
+            long total = 0;
+            long max = 0;
+            for (int i = 0; i < this.epochs.length; i++) {
+                if (this.counts[i] != 0 && epoch - this.epochs[i] < slotCount) {
+                    count += this.counts[i];
+                    total += this.totals[i];
+                    max = Math.max(max, this.maxes[i]);
+                }
+            }
+            return new ListenerStats(eventType, subscriberName, count, total, max);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.event;
+
+/**
+ * The invocations of one subscriber for one event type within the window
+ * of a {@link ListenerProfiler}.
+ */
+public final class ListenerStats {
+
+    private final Class<?> eventType;
+    private final String subscriberName;
+    private final long invocationCount;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    ListenerStats(Class<?> eventType, String subscriberName, long invocationCount, long totalNanos, long maxNanos) {
+        this.eventType = eventType;
+        this.subscriberName = subscriberName;
+        this.invocationCount = invocationCount;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * Gets the class of the posted events.
+     * 
+     * @return The event type
+     */
+    public Class<?> getEventType() {
+        return this.eventType;
+    }
+
+    /**
+     * Gets the name of the subscriber, usually its class name.
+     * 
+     * @return The subscriber name
+     */
+    public String getSubscriberName() {
+        return this.subscriberName;
+    }
+
+    public long getInvocationCount() {
+        return this.invocationCount;
+    }
+
+    public long getTotalNanos() {
+        return this.totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return this.maxNanos;
+    }
+
+    /**
+     * Gets the mean invocation time.
+     * 
+     * @return The mean in nanoseconds, or 0 without invocations
+     */
+    public long getMeanNanos() {
+        return this.invocationCount == 0 ? 0 : this.totalNanos / this.invocationCount;
+    }
+
+    @Override
+    public String toString() {
+        return this.eventType.getName() + " -> " + this.subscriberName + ": " + this.invocationCount + " calls, "
+                + this.totalNanos + "ns total, " + this.maxNanos + "ns max";
+    }
+}
@@ -27,6 +27,9 @@
 /**
  * An event that is fired before a claim is loaded.
  * 
+ * <br><br>Implementations loading claims lazily fire this event when the
+ * data of a claim is first accessed, rather than on startup.
+ * 
  * Note: Canceling this event will do nothing.
  */
 public interface LoadClaimEvent extends ClaimEvent{
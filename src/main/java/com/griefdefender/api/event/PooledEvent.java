@@ -0,0 +1,54 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.event;
+
+/**
+ * An event whose instance is reused once it has been posted.
+ * 
+ * <br><br>High frequency events such as {@link QueryPermissionEvent} and
+ * {@link ProcessInteractBlockEvent} may be taken from an {@link EventPool}
+ * instead of being allocated for every post. The instance is only valid
+ * while {@link EventManager#post(Event)} runs.
+ * 
+ * <br><br>Note: Listeners must not keep a reference to a pooled event or
+ * its mutable state after returning. Copy any values needed later. With
+ * {@link EventPool#isDebug()} enabled, released events are never reused
+ * and throw {@link IllegalStateException} when accessed.
+ */
+public interface PooledEvent extends Event {
+
+    /**
+     * Clears the state of this event before it is reused.
+     */
+    void reset();
+
+    /**
+     * Marks this event as released.
+     * 
+     * <br><br>Note: This is only called in debug mode. Accessors of a
+     * released event must throw {@link IllegalStateException}.
+     */
+    void release();
+}
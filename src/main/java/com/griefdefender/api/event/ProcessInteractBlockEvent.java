@@ -35,6 +35,9 @@
  * If this event is cancelled, GD will avoid processing the block. Plugins should 
  * cancel this event if they want to prevent GriefDefender from protecting a specific block 
  * or block location.
+ * <p>
+ * Note: Implementations may post pooled instances, see {@link PooledEvent}.
+ * Listeners must not keep a reference to the event after returning.
  */
 public interface ProcessInteractBlockEvent extends ClaimEvent, Cancellable {
 
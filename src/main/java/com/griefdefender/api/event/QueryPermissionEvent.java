@@ -26,10 +26,20 @@
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import com.griefdefender.api.GriefDefender;
 import com.griefdefender.api.Tristate;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.permission.Context;
+import com.griefdefender.api.permission.ContextKeys;
+
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * The base event that is fired before and after GD queries permission provider for result.
+ * 
+ * <br><br>Note: Implementations may post pooled instances, see {@link PooledEvent}.
+ * Listeners must not keep a reference to the event after returning.
  */
 public interface QueryPermissionEvent extends PermissionEvent {
 
@@ -40,6 +50,40 @@ public interface QueryPermissionEvent extends PermissionEvent {
      */
     @Nullable Object getLocation();
 
+    /**
+     * Gets the claim the permission is queried in.
+     * 
+     * <br><br>The default uses the first {@link Claim} of the cause, then
+     * the claim of a {@link ContextKeys#CLAIM} context and finally the
+     * claim at {@link #getLocation()}. Implementations knowing the claim
+     * should return it directly.
+     * 
+     * <br><br>Note: Used by {@link ScopedSubscriptions} to match claim scopes.
+     * 
+     * @return The claim, if available
+     */
+    default @Nullable Claim getClaim() {
+        final Optional<Claim> causeClaim = this.getCause().first(Claim.class);
+        if (causeClaim.isPresent()) {
+            return causeClaim.get();
+        }
+        for (Context context : this.getContexts()) {
+            if (!context.getKey().equals(ContextKeys.CLAIM)) {
+                continue;
+            }
+            try {
+                final Claim claim = GriefDefender.getCore().getClaim(UUID.fromString(context.getValue()));
+                if (claim != null) {
+                    return claim;
+                }
+            } catch (IllegalArgumentException e) {
+                // not a claim uuid
+            }
+        }
+        final Object location = this.getLocation();
+        return location == null ? null : GriefDefender.getCore().getClaimAt(location);
+    }
+
     /**
      * An event that is fired before all GD permission checks take place.
      * 
@@ -0,0 +1,439 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.event;
+
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.claim.ClaimType;
+import net.kyori.event.Cancellable;
+import net.kyori.event.EventBus;
+import net.kyori.event.EventSubscriber;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Delivers events only to subscribers whose {@link EventScope} matches.
+ * 
+ * <br><br>Scoped subscribers of an event type, post order and cancelled
+ * handling share one router registered on the {@link EventBus}. The router
+ * indexes each subscriber by the most selective constraint of its scope,
+ * claim first, then flag, world and claim type. A post only visits the index
+ * buckets of the claims and flag of the event, so a subscriber scoped to one
+ * claim is never invoked for events of other claims.
+ * 
+ * <br><br>Scopes with claim constraints are supported for {@link ClaimEvent}s
+ * and {@link QueryPermissionEvent}s, flag constraints for
+ * {@link QueryPermissionEvent}s only.
+ */
+public final class ScopedSubscriptions {
+
+    private static final String FLAG_PERMISSION_PREFIX = "griefdefender.flag.";
+    private static final int MAX_CACHED_FLAG_PERMISSIONS = 4096;
+
+    private final EventBus<Event> bus;
+    private final @Nullable ListenerProfiler profiler;
+    private final Map<RouterKey, Router> routers = new ConcurrentHashMap<>();
+    private final Map<EventSubscriber<?>, Registration> registrations = new IdentityHashMap<>();
+    private final Map<String, String> flagIds = new ConcurrentHashMap<>();
+
+    public ScopedSubscriptions(EventBus<Event> bus) {
+        this(bus, null);
+    }
+
+    /**
+     * Creates scoped subscriptions timing each subscriber on its own.
+     * 
+     * <br><br>Note: The profiler must be the one wrapping the subscribers
+     * of the bus. It leaves the routers unwrapped, so the time of a scoped
+     * subscriber is not also reported under its router.
+     * 
+     * @param bus The bus
+     * @param profiler The profiler of the bus, or null
+     */
+    public ScopedSubscriptions(EventBus<Event> bus, @Nullable ListenerProfiler profiler) {
+        this.bus = bus;
+        this.profiler = profiler;
+    }
+
+    /**
+     * Registers a subscriber receiving only events within a scope.
+     * 
+     * @param type The event type
+     * @param scope The scope
+     * @param subscriber The subscriber
+     * @throws IllegalArgumentException If the event type cannot be filtered by the scope
+     */
+    public <T extends Event> void register(Class<T> type, EventScope scope, EventSubscriber<? super T> subscriber) {
+        final boolean permissionEvent = QueryPermissionEvent.class.isAssignableFrom(type);
+        if (scope.hasClaimConstraint() && !permissionEvent && !ClaimEvent.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException("Claim scopes require a ClaimEvent or QueryPermissionEvent type, not " + type.getName());
+        }
+        if (scope.getFlagId() != null && !permissionEvent) {
+            throw new IllegalArgumentException("Flag scopes require a QueryPermissionEvent type, not " + type.getName());
+        }
+        synchronized (this.registrations) {
+            if (this.registrations.containsKey(subscriber)) {
+                throw new IllegalArgumentException("Subscriber is already registered with a scope");
+            }
+            final RouterKey key = new RouterKey(type, subscriber.postOrder(), subscriber.consumeCancelledEvents());
+            Router router = this.routers.get(key);
+            if (router == null) {
+                router = new Router(this, key);
+                this.routers.put(key, router);
+                this.registerRouter(type, router);
+            }
+            final Entry entry = new Entry(scope, this.profiler == null ? subscriber : this.profiler.wrap(subscriber));
+            router.add(entry);
+            this.registrations.put(subscriber, new Registration(router, entry));
+        }
+    }
+
+    /**
+     * Unregisters a subscriber registered with {@link #register}.
+     * 
+     * @param subscriber The subscriber
+     * @return Whether the subscriber was registered
+     */
+    public boolean unregister(EventSubscriber<?> subscriber) {
+        synchronized (this.registrations) {
+            final Registration registration = this.registrations.remove(subscriber);
+            if (registration == null) {
+                return false;
+            }
+            if (registration.router.remove(registration.entry)) {
+                this.routers.remove(registration.router.key);
+                this.bus.unregister(registration.router);
+            }
+            if (this.profiler != null) {
+                this.profiler.unregistered(registration.entry.subscriber);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Gets the amount of scoped subscribers.
+     * 
+     * @return The amount of subscribers
+     */
+    public int getSubscriberCount() {
+        synchronized (this.registrations) {
+            return this.registrations.size();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void registerRouter(Class<? extends Event> type, Router router) {
+        this.bus.register((Class) type, router);
+    }
+
+    @Nullable String getFlagId(String permission) {
+        String flagId = this.flagIds.get(permission);
+        if (flagId == null) {
+            flagId = parseFlagId(permission);
+            if (this.flagIds.size() < MAX_CACHED_FLAG_PERMISSIONS) {
+                this.flagIds.put(permission, flagId);
+            }
+        }
+        return flagId.isEmpty() ? null : flagId;
+    }
+
+    private static String parseFlagId(String permission) {
+        if (!permission.startsWith(FLAG_PERMISSION_PREFIX)) {
+            return "";
+        }
+        final int end = permission.indexOf('.', FLAG_PERMISSION_PREFIX.length());
+        return permission.substring(FLAG_PERMISSION_PREFIX.length(), end == -1 ? permission.length() : end);
+    }
+
+    private static final class RouterKey {
+
+        final Class<?> type;
+        final int order;
+        final boolean consumeCancelled;
+
+        RouterKey(Class<?> type, int order, boolean consumeCancelled) {
+            this.type = type;
+            this.order = order;
+            this.consumeCancelled = consumeCancelled;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof RouterKey)) {
+                return false;
+            }
+            final RouterKey other = (RouterKey) o;
+            return this.type == other.type && this.order == other.order && this.consumeCancelled == other.consumeCancelled;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.type, this.order, this.consumeCancelled);
+        }
+    }
+
+    private static final class Entry {
+
+        final EventScope scope;
+        final EventSubscriber<Object> subscriber;
+
+        @SuppressWarnings("unchecked")
+        Entry(EventScope scope, EventSubscriber<?> subscriber) {
+            this.scope = scope;
+            this.subscriber = (EventSubscriber<Object>) subscriber;
+        }
+    }
+
+    private static final class Registration {
+
+        final Router router;
+        final Entry entry;
+
+        Registration(Router router, Entry entry) {
+            this.router = router;
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * The subscriber registered on the bus for one {@link RouterKey}.
+     */
+    static final class Router implements EventSubscriber<Event> {
+
+        private static final Entry[] EMPTY = new Entry[0];
+
+        final ScopedSubscriptions owner;
+        final RouterKey key;
+        private final Map<UUID, Entry[]> byClaim = new ConcurrentHashMap<>();
+        private final Map<String, Entry[]> byFlag = new ConcurrentHashMap<>();
+        private final Map<UUID, Entry[]> byWorld = new ConcurrentHashMap<>();
+        private final Map<ClaimType, Entry[]> byClaimType = new ConcurrentHashMap<>();
+        private volatile Entry[] unscoped = EMPTY;
+        // guarded by owner.registrations
+        private int size;
+
+        Router(ScopedSubscriptions owner, RouterKey key) {
+            this.owner = owner;
+            this.key = key;
+        }
+
+        void add(Entry entry) {
+            final EventScope scope = entry.scope;
+            if (scope.getClaimUniqueId() != null) {
+                this.byClaim.compute(scope.getClaimUniqueId(), (k, entries) -> append(entries, entry));
+            } else if (scope.getFlagId() != null) {
+                this.byFlag.compute(scope.getFlagId(), (k, entries) -> append(entries, entry));
+            } else if (scope.getWorldUniqueId() != null) {
+                this.byWorld.compute(scope.getWorldUniqueId(), (k, entries) -> append(entries, entry));
+            } else if (scope.getClaimType() != null) {
+                this.byClaimType.compute(scope.getClaimType(), (k, entries) -> append(entries, entry));
+            } else {
+                this.unscoped = append(this.unscoped, entry);
+            }
+            this.size++;
+        }
+
+        /**
+         * Removes an entry.
+         * 
+         * @return Whether the router is now empty
+         */
+        boolean remove(Entry entry) {
+            final EventScope scope = entry.scope;
+            if (scope.getClaimUniqueId() != null) {
+                this.byClaim.computeIfPresent(scope.getClaimUniqueId(), (k, entries) -> without(entries, entry));
+            } else if (scope.getFlagId() != null) {
+                this.byFlag.computeIfPresent(scope.getFlagId(), (k, entries) -> without(entries, entry));
+            } else if (scope.getWorldUniqueId() != null) {
+                this.byWorld.computeIfPresent(scope.getWorldUniqueId(), (k, entries) -> without(entries, entry));
+            } else if (scope.getClaimType() != null) {
+                this.byClaimType.computeIfPresent(scope.getClaimType(), (k, entries) -> without(entries, entry));
+            } else {
+                final Entry[] entries = without(this.unscoped, entry);
+                this.unscoped = entries == null ? EMPTY : entries;
+            }
+            return --this.size == 0;
+        }
+
+        @Override
+        public void invoke(Event event) throws Throwable {
+            final List<Claim> claims;
+            final @Nullable Claim extraClaim;
+            @Nullable String flagId = null;
+            if (event instanceof ClaimEvent) {
+                claims = ((ClaimEvent) event).getClaims();
+                extraClaim = event instanceof BorderClaimEvent ? ((BorderClaimEvent) event).getExitClaim() : null;
+            } else if (event instanceof QueryPermissionEvent) {
+                claims = null;
+                extraClaim = ((QueryPermissionEvent) event).getClaim();
+                flagId = this.owner.getFlagId(((QueryPermissionEvent) event).getPermission());
+            } else {
+                claims = null;
+                extraClaim = null;
+            }
+            final int claimCount = (claims == null ? 0 : claims.size()) + (extraClaim == null ? 0 : 1);
+
+            Throwable failure = this.dispatch(this.unscoped, event, claims, extraClaim, claimCount, flagId, null);
+            if (flagId != null) {
+                failure = this.dispatch(this.byFlag.get(flagId), event, claims, extraClaim, claimCount, flagId, failure);
+            }
+            for (int i = 0; i < claimCount; i++) {
+                final Claim claim = claimAt(claims, extraClaim, i);
+                if (!this.byClaim.isEmpty() && !this.seenClaim(claims, extraClaim, i, claim)) {
+                    failure = this.dispatch(this.byClaim.get(claim.getUniqueId()), event, claims, extraClaim, claimCount, flagId, failure);
+                }
+                if (!this.byWorld.isEmpty() && !this.seenWorld(claims, extraClaim, i, claim)) {
+                    failure = this.dispatch(this.byWorld.get(claim.getWorldUniqueId()), event, claims, extraClaim, claimCount, flagId, failure);
+                }
+                if (!this.byClaimType.isEmpty() && !this.seenClaimType(claims, extraClaim, i, claim)) {
+                    failure = this.dispatch(this.byClaimType.get(claim.getType()), event, claims, extraClaim, claimCount, flagId, failure);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        private boolean seenClaim(@Nullable List<Claim> claims, @Nullable Claim extraClaim, int index, Claim claim) {
+            for (int i = 0; i < index; i++) {
+                if (claimAt(claims, extraClaim, i).getUniqueId().equals(claim.getUniqueId())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean seenWorld(@Nullable List<Claim> claims, @Nullable Claim extraClaim, int index, Claim claim) {
+            for (int i = 0; i < index; i++) {
+                if (claimAt(claims, extraClaim, i).getWorldUniqueId().equals(claim.getWorldUniqueId())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean seenClaimType(@Nullable List<Claim> claims, @Nullable Claim extraClaim, int index, Claim claim) {
+            for (int i = 0; i < index; i++) {
+                if (claimAt(claims, extraClaim, i).getType().equals(claim.getType())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private @Nullable Throwable dispatch(@Nullable Entry[] entries, Event event, @Nullable List<Claim> claims, @Nullable Claim extraClaim,
+                int claimCount, @Nullable String flagId, @Nullable Throwable failure) {
+            if (entries == null) {
+                return failure;
+            }
+            for (Entry entry : entries) {
+                if (!this.key.consumeCancelled && event instanceof Cancellable && ((Cancellable) event).cancelled()) {
+                    return failure;
+                }
+                if (!matches(entry.scope, claims, extraClaim, claimCount, flagId)) {
+                    continue;
+                }
+                try {
+                    entry.subscriber.invoke(event);
+                } catch (Throwable t) {
+                    if (failure == null) {
+                        failure = t;
+                    } else {
+                        failure.addSuppressed(t);
+                    }
+                }
+            }
+            return failure;
+        }
+
+        private static boolean matches(EventScope scope, @Nullable List<Claim> claims, @Nullable Claim extraClaim, int claimCount,
+                @Nullable String flagId) {
+            if (scope.getFlagId() != null && !scope.getFlagId().equals(flagId)) {
+                return false;
+            }
+            if (!scope.hasClaimConstraint()) {
+                return true;
+            }
+            for (int i = 0; i < claimCount; i++) {
+                if (scope.matches(claimAt(claims, extraClaim, i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static Claim claimAt(@Nullable List<Claim> claims, @Nullable Claim extraClaim, int index) {
+            final int size = claims == null ? 0 : claims.size();
+            return index < size ? claims.get(index) : extraClaim;
+        }
+
+        boolean isProfiledBy(ListenerProfiler profiler) {
+            return this.owner.profiler == profiler;
+        }
+
+        @Override
+        public int postOrder() {
+            return this.key.order;
+        }
+
+        @Override
+        public boolean consumeCancelledEvents() {
+            return this.key.consumeCancelled;
+        }
+
+        @Override
+        public String toString() {
+            return "ScopedSubscriptions.Router{type=" + this.key.type.getName() + ", subscribers=" + this.size + "}";
+        }
+
+        private static Entry[] append(@Nullable Entry[] entries, Entry entry) {
+            if (entries == null) {
+                return new Entry[] {entry};
+            }
+            final Entry[] copy = Arrays.copyOf(entries, entries.length + 1);
+            copy[entries.length] = entry;
+            return copy;
+        }
+
+        private static @Nullable Entry[] without(Entry[] entries, Entry entry) {
+            final List<Entry> remaining = new ArrayList<>(entries.length);
+            for (Entry existing : entries) {
+                if (existing != entry) {
+                    remaining.add(existing);
+                }
+            }
+            return remaining.isEmpty() ? null : remaining.toArray(EMPTY);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.event;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+
+/**
+ * Caches whether an event type has subscribers.
+ * 
+ * <br><br>Each event type is assigned a slot in a bitset holding a known
+ * and a present bit. The first query of a type asks the delegate, later
+ * queries read the bits. {@link #invalidate()} swaps in an empty bitset
+ * and must be called after every register or unregister on the bus.
+ * 
+ * <br><br>Note: Implementations of {@link EventManager} use this to back
+ * {@link EventManager#hasSubscribers(Class)}.
+ */
+public final class SubscriberCache {
+
+    private static final int CAPACITY = 1024;
+    private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+    private static final ClassValue<Integer> SLOTS = new ClassValue<Integer>() {
+
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return NEXT_SLOT.getAndIncrement();
+        }
+    };
+
+    private final Predicate<Class<? extends Event>> delegate;
+    private volatile AtomicLongArray bits = new AtomicLongArray(CAPACITY / 32);
+
+    /**
+     * Creates a cache answering misses with the delegate.
+     * 
+     * @param delegate The uncached subscriber check, usually
+     *     {@link net.kyori.event.EventBus#hasSubscribers(Class)}
+     */
+    public SubscriberCache(Predicate<Class<? extends Event>> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Gets if the event type has subscribers.
+     * 
+     * @param type The event type
+     * @return Whether any subscriber would receive the event
+     */
+    public boolean hasSubscribers(Class<? extends Event> type) {
+        final int slot = SLOTS.get(type);
+        if (slot >= CAPACITY) {
+            return this.delegate.test(type);
+        }
+        // bits of an invalidated bitset are never read again
+        final AtomicLongArray current = this.bits;
+        final int word = slot >>> 5;
+        final int shift = (slot & 31) << 1;
+        final long value = current.get(word) >>> shift;
+        if ((value & 1L) != 0) {
+            return (value & 2L) != 0;
+        }
+        final boolean present = this.delegate.test(type);
+        final long mask = (present ? 3L : 1L) << shift;
+        current.accumulateAndGet(word, mask, (previous, update) -> previous | update);
+        return present;
+    }
+
+    /**
+     * Forgets all cached results.
+     */
+    public void invalidate() {
+        this.bits = new AtomicLongArray(CAPACITY / 32);
+    }
+}
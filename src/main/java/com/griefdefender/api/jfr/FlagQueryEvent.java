@@ -0,0 +1,62 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded for {@link com.griefdefender.api.permission.PermissionManager#getActiveFlagPermissionValue}.
+ * 
+ * <br><br>Note: Disabled by default due to its frequency.
+ */
+@Name("griefdefender.FlagQuery")
+@Label("Flag Query")
+@Category({"GriefDefender", "Permissions"})
+@Description("Resolves the active value of a flag in a claim")
+@Enabled(false)
+@StackTrace(false)
+public final class FlagQueryEvent extends jdk.jfr.Event {
+
+    @Label("Flag")
+    public String flagId;
+
+    @Label("Claim")
+    public String claimId;
+
+    @Label("Subject")
+    public String subject;
+
+    @Label("Result")
+    public String result;
+
+    @Label("Cache Hit")
+    @Description("Whether the value was resolved without resolving an inheritance chain")
+    public boolean cacheHit;
+}
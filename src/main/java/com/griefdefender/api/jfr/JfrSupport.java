@@ -0,0 +1,72 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.jfr;
+
+/**
+ * Detects whether JDK Flight Recorder can be used.
+ * 
+ * <br><br>The event classes in this package extend {@code jdk.jfr.Event},
+ * which is missing on Java 8 releases before 8u272 and on some other JVMs.
+ * Code emitting events must check {@link #isAvailable()} before touching
+ * any event class, usually by caching it in a static final field.
+ * 
+ * <br><br>Events are recorded using the standard pattern, which keeps
+ * the cost to a disabled check when no recording is running.
+ * <pre>
+ * final ClaimLookupEvent event = new ClaimLookupEvent();
+ * event.begin();
+ * final Claim claim = ...;
+ * event.end();
+ * if (event.shouldCommit()) {
+ *     event.claimId = claim.getUniqueId().toString();
+ *     event.commit();
+ * }
+ * </pre>
+ */
+public final class JfrSupport {
+
+    private static final boolean AVAILABLE = detect();
+
+    private JfrSupport() {
+    }
+
+    /**
+     * Gets if the JVM supports flight recorder events.
+     * 
+     * @return Whether events in this package can be used
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    private static boolean detect() {
+        try {
+            final Class<?> flightRecorder = Class.forName("jdk.jfr.FlightRecorder", false, JfrSupport.class.getClassLoader());
+            return (Boolean) flightRecorder.getMethod("isAvailable").invoke(null);
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link MetricsBackend} keeping all metrics in memory.
+ * 
+ * <br><br>Timers and histograms are backed by {@link PercentileHistogram},
+ * timers record nanoseconds.
+ */
+public final class InMemoryMetricsBackend implements MetricsBackend {
+
+    private final Map<String, LongAdderCounter> counters = new ConcurrentHashMap<>();
+    private final Map<String, PercentileHistogram> timers = new ConcurrentHashMap<>();
+    private final Map<String, PercentileHistogram> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public Counter counter(String key) {
+        return this.counters.computeIfAbsent(key, k -> new LongAdderCounter());
+    }
+
+    @Override
+    public Timer timer(String key) {
+        return this.timers.computeIfAbsent(key, k -> new PercentileHistogram());
+    }
+
+    @Override
+    public Histogram histogram(String key) {
+        return this.histograms.computeIfAbsent(key, k -> new PercentileHistogram());
+    }
+
+    /**
+     * Gets the current count of a counter.
+     * 
+     * @param key The metric key
+     * @return The count, or 0 if nothing was recorded
+     */
+    public long getCount(String key) {
+        final LongAdderCounter counter = this.counters.get(key);
+        return counter == null ? 0 : counter.adder.sum();
+    }
+
+    /**
+     * Gets the recorded durations of a timer.
+     * 
+     * @param key The metric key
+     * @return The durations in nanoseconds, if available
+     */
+    public @Nullable PercentileHistogram getTimer(String key) {
+        return this.timers.get(key);
+    }
+
+    /**
+     * Gets the recorded values of a histogram.
+     * 
+     * @param key The metric key
+     * @return The values, if available
+     */
+    public @Nullable PercentileHistogram getHistogram(String key) {
+        return this.histograms.get(key);
+    }
+
+    /**
+     * Gets an immutable snapshot of all counters.
+     * 
+     * @return The counts by key
+     */
+    public Map<String, Long> getCounts() {
+        final Map<String, Long> counts = new HashMap<>();
+        for (Map.Entry<String, LongAdderCounter> entry : this.counters.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().adder.sum());
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Clears all recorded values while keeping registered metrics.
+     */
+    public void reset() {
+        for (LongAdderCounter counter : this.counters.values()) {
+            counter.adder.reset();
+        }
+        for (PercentileHistogram histogram : this.timers.values()) {
+            histogram.reset();
+        }
+        for (PercentileHistogram histogram : this.histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    private static final class LongAdderCounter implements Counter {
+
+        final LongAdder adder = new LongAdder();
+
+        @Override
+        public void increment(long amount) {
+            this.adder.add(amount);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.metrics;
+
+/**
+ * The metric keys recorded by GriefDefender.
+ */
+public final class MetricKeys {
+
+    /**
+     * Represents a {@link Timer} of {@link com.griefdefender.api.claim.ClaimManager#getClaimAt(int, int, int)}.
+     */
+    public static final String CLAIM_LOOKUP = "griefdefender.claim.lookup";
+
+    /**
+     * Represents a {@link Timer} of {@link com.griefdefender.api.data.ClaimData#save()}.
+     */
+    public static final String CLAIM_SAVE = "griefdefender.claim.save";
+
+    /**
+     * Represents a {@link Timer} of flag permission queries such as
+     * {@link com.griefdefender.api.permission.PermissionManager#getActiveFlagPermissionValue}.
+     */
+    public static final String FLAG_QUERY = "griefdefender.permission.flag";
+
+    /**
+     * Represents a {@link Timer} of option queries such as
+     * {@link com.griefdefender.api.permission.PermissionManager#getActiveOptionValue}.
+     */
+    public static final String OPTION_QUERY = "griefdefender.permission.option";
+
+    /**
+     * Represents a {@link Timer} of {@link com.griefdefender.api.event.EventManager#post(com.griefdefender.api.event.Event)}.
+     */
+    public static final String EVENT_POST = "griefdefender.event.post";
+
+    /**
+     * Represents a {@link Counter} of access checks answered by
+     * {@link com.griefdefender.api.claim.ClaimAccessFastPath}.
+     */
+    public static final String ACCESS_FAST_PATH = "griefdefender.access.fast";
+
+    /**
+     * Represents a {@link Counter} of access checks passed on to full
+     * permission resolution.
+     */
+    public static final String ACCESS_FALLBACK = "griefdefender.access.fallback";
+
+    /**
+     * Represents a {@link Timer} of the time events wait in a
+     * {@link com.griefdefender.api.event.AsyncEventDispatcher} lane.
+     */
+    public static final String ASYNC_EVENT_DELAY = "griefdefender.event.async.delay";
+
+    /**
+     * Represents a {@link Histogram} of the lane depth left behind each event
+     * delivered by a {@link com.griefdefender.api.event.AsyncEventDispatcher}.
+     */
+    public static final String ASYNC_EVENT_QUEUE_DEPTH = "griefdefender.event.async.depth";
+
+    /**
+     * Represents a {@link Counter} of events that found their
+     * {@link com.griefdefender.api.event.AsyncEventDispatcher} lane full.
+     */
+    public static final String ASYNC_EVENT_REJECTED = "griefdefender.event.async.rejected";
+
+    /**
+     * Represents a {@link Counter} of async subscribers that threw.
+     */
+    public static final String ASYNC_EVENT_FAILED = "griefdefender.event.async.failed";
+
+    /**
+     * Represents a {@link Timer} of a batch written by a
+     * {@link com.griefdefender.api.data.ClaimSaveQueue}.
+     */
+    public static final String CLAIM_SAVE_BATCH = "griefdefender.claim.save.batch";
+
+    /**
+     * Represents a {@link Histogram} of the claims per batch written by a
+     * {@link com.griefdefender.api.data.ClaimSaveQueue}.
+     */
+    public static final String CLAIM_SAVE_BATCH_SIZE = "griefdefender.claim.save.batch.size";
+
+    /**
+     * Represents a {@link Counter} of saves merged into a save already
+     * pending on a {@link com.griefdefender.api.data.ClaimSaveQueue}.
+     */
+    public static final String CLAIM_SAVE_COALESCED = "griefdefender.claim.save.coalesced";
+
+    /**
+     * Represents a {@link Counter} of batches that failed to be written.
+     */
+    public static final String CLAIM_SAVE_FAILED = "griefdefender.claim.save.failed";
+
+    /**
+     * Represents a {@link Counter} of claims written as a partial record,
+     * with only their changed fields.
+     */
+    public static final String CLAIM_SAVE_PARTIAL = "griefdefender.claim.save.partial";
+
+    /**
+     * Represents a {@link Counter} of saves skipped as no field of the claim
+     * changed.
+     */
+    public static final String CLAIM_SAVE_UNCHANGED = "griefdefender.claim.save.unchanged";
+
+    /**
+     * Represents a {@link Timer} of loading the data of a lazily loaded
+     * claim on first access.
+     */
+    public static final String CLAIM_MATERIALIZE = "griefdefender.claim.materialize";
+
+    /**
+     * Represents a {@link Counter} of chunk indexes rebuilt from claims, as
+     * a persisted index did not match them.
+     */
+    public static final String CLAIM_INDEX_REBUILD = "griefdefender.claim.index.rebuild";
+
+    private MetricKeys() {
+    }
+}
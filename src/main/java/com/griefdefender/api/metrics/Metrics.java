@@ -0,0 +1,221 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Holds the registered {@link MetricsBackend} and hands out metric handles.
+ * 
+ * <br><br>Handles are safe to keep in static fields. They resolve their
+ * backend metric lazily and follow later registrations, so instrumented
+ * code never needs to look a metric up by key on the hot path. While no
+ * backend is registered, recording is a single volatile read.
+ */
+public final class Metrics {
+
+    private static final MetricsBackend NOOP = new NoopBackend();
+    private static final Map<String, CounterHandle> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, TimerHandle> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String, HistogramHandle> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private static volatile MetricsBackend backend = NOOP;
+    private static volatile int generation;
+    private static volatile boolean enabled;
+
+    private Metrics() {
+    }
+
+    /**
+     * Gets if a backend is registered.
+     * 
+     * @return Whether metrics are recorded
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the registered backend.
+     * 
+     * @return The backend, or a no-op backend if none is registered
+     */
+    public static MetricsBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Registers the backend receiving measurements.
+     * 
+     * @param newBackend The backend, or null to disable metrics
+     */
+    public static synchronized void setBackend(@Nullable MetricsBackend newBackend) {
+        backend = newBackend == null ? NOOP : newBackend;
+        generation++;
+        enabled = newBackend != null;
+    }
+
+    /**
+     * Gets the counter handle for key.
+     * 
+     * @param key The metric key
+     * @return The counter handle
+     */
+    public static Counter counter(String key) {
+        return COUNTERS.computeIfAbsent(key, CounterHandle::new);
+    }
+
+    /**
+     * Gets the timer handle for key.
+     * 
+     * @param key The metric key
+     * @return The timer handle
+     */
+    public static Timer timer(String key) {
+        return TIMERS.computeIfAbsent(key, TimerHandle::new);
+    }
+
+    /**
+     * Gets the histogram handle for key.
+     * 
+     * @param key The metric key
+     * @return The histogram handle
+     */
+    public static Histogram histogram(String key) {
+        return HISTOGRAMS.computeIfAbsent(key, HistogramHandle::new);
+    }
+
+    private static final class Bound<T> {
+
+        final int generation;
+        final T delegate;
+
+        Bound(int generation, T delegate) {
+            this.generation = generation;
+            this.delegate = delegate;
+        }
+    }
+
+    private static final class CounterHandle implements Counter {
+
+        private final String key;
+        private volatile @Nullable Bound<Counter> bound;
+
+        CounterHandle(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void increment(long amount) {
+            if (!enabled) {
+                return;
+            }
+            Bound<Counter> current = this.bound;
+            final int gen = generation;
+            if (current == null || current.generation != gen) {
+                current = new Bound<>(gen, backend.counter(this.key));
+                this.bound = current;
+            }
+            current.delegate.increment(amount);
+        }
+    }
+
+    private static final class TimerHandle implements Timer {
+
+        private final String key;
+        private volatile @Nullable Bound<Timer> bound;
+
+        TimerHandle(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void record(long durationNanos) {
+            if (!enabled) {
+                return;
+            }
+            Bound<Timer> current = this.bound;
+            final int gen = generation;
+            if (current == null || current.generation != gen) {
+                current = new Bound<>(gen, backend.timer(this.key));
+                this.bound = current;
+            }
+            current.delegate.record(durationNanos);
+        }
+    }
+
+    private static final class HistogramHandle implements Histogram {
+
+        private final String key;
+        private volatile @Nullable Bound<Histogram> bound;
+
+        HistogramHandle(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void record(long value) {
+            if (!enabled) {
+                return;
+            }
+            Bound<Histogram> current = this.bound;
+            final int gen = generation;
+            if (current == null || current.generation != gen) {
+                current = new Bound<>(gen, backend.histogram(this.key));
+                this.bound = current;
+            }
+            current.delegate.record(value);
+        }
+    }
+
+    private static final class NoopBackend implements MetricsBackend, Counter, Timer, Histogram {
+
+        @Override
+        public Counter counter(String key) {
+            return this;
+        }
+
+        @Override
+        public Timer timer(String key) {
+            return this;
+        }
+
+        @Override
+        public Histogram histogram(String key) {
+            return this;
+        }
+
+        @Override
+        public void increment(long amount) {
+        }
+
+        @Override
+        public void record(long value) {
+        }
+    }
+}
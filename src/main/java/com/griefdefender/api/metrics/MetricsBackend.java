@@ -0,0 +1,62 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.metrics;
+
+/**
+ * The service provider for metrics.
+ * 
+ * <br><br>Register a backend with {@link com.griefdefender.api.GriefDefender#registerMetricsBackend(MetricsBackend)}
+ * to receive measurements from GriefDefender. Metric handles ask the
+ * backend for their metric after each registration, so repeated calls
+ * with the same key should return the same metric.
+ * 
+ * <br><br>Note: Keys used by GriefDefender are listed in {@link MetricKeys}.
+ */
+public interface MetricsBackend {
+
+    /**
+     * Gets the counter for key.
+     * 
+     * @param key The metric key
+     * @return The counter
+     */
+    Counter counter(String key);
+
+    /**
+     * Gets the timer for key.
+     * 
+     * @param key The metric key
+     * @return The timer
+     */
+    Timer timer(String key);
+
+    /**
+     * Gets the histogram for key.
+     * 
+     * @param key The metric key
+     * @return The histogram
+     */
+    Histogram histogram(String key);
+}
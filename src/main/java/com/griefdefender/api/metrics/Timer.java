@@ -0,0 +1,62 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.metrics;
+
+/**
+ * Represents a distribution of durations.
+ * 
+ * <br><br>Note: Use {@link #start()} and {@link #stop(long)} around
+ * timed code so {@link System#nanoTime()} is only read when a backend
+ * is registered.
+ */
+public interface Timer {
+
+    /**
+     * Records a duration.
+     * 
+     * @param durationNanos The duration in nanoseconds
+     */
+    void record(long durationNanos);
+
+    /**
+     * Gets the start time of a measurement.
+     * 
+     * @return The current nano time, or 0 if metrics are disabled
+     */
+    default long start() {
+        return Metrics.isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the time elapsed since {@link #start()}.
+     * 
+     * @param start The value returned by {@link #start()}
+     */
+    default void stop(long start) {
+        if (start != 0L) {
+            this.record(System.nanoTime() - start);
+        }
+    }
+}
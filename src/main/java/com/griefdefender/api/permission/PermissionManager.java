@@ -30,6 +30,7 @@
 import com.griefdefender.api.claim.Claim;
 import com.griefdefender.api.claim.ClaimContexts;
 import com.griefdefender.api.claim.TrustType;
+import com.griefdefender.api.metrics.MetricKeys;
 import com.griefdefender.api.permission.flag.Flag;
 import com.griefdefender.api.permission.flag.FlagDefinition;
 import com.griefdefender.api.permission.option.Option;
@@ -136,6 +137,9 @@ default Tristate getActiveFlagPermissionValue(Claim claim, Subject subject, Flag
     /**
     * Gets the active {@link Flag} permission value for {@link Subject} in {@link Claim}.
     * 
+    * <br><br>Note: Implementations record this query under {@link MetricKeys#FLAG_QUERY}
+    * and as a {@link com.griefdefender.api.jfr.FlagQueryEvent}.
+    * 
     * @param claim The target claim
     * @param subject The subject
     * @param flag The flag
@@ -367,6 +371,9 @@ default <T> T getActiveOptionValue(TypeToken<T> type, Option<T> option, Subject
     /**
     * Gets the active {@link Option} value with {@link Context}'s.
     * 
+    * <br><br>Note: Implementations record this query under {@link MetricKeys#OPTION_QUERY}
+    * and as a {@link com.griefdefender.api.jfr.OptionQueryEvent}.
+    * 
     * @param type The option type
     * @param option The option
     * @param subject The subject
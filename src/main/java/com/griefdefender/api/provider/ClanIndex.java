@@ -0,0 +1,418 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.provider;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.griefdefender.api.Clan;
+import com.griefdefender.api.ClanPlayer;
+import com.griefdefender.api.claim.EffectiveTrustCache;
+import com.griefdefender.api.util.UniqueIdInterner;
+
+/**
+ * An index of clan membership and relations for a {@link ClanProvider}.
+ * 
+ * <br><br>Players are keyed by their {@link UniqueIdInterner} id and clans
+ * by an interned id of their lowercase tag, so membership, ally and rival
+ * checks are constant time and do not allocate.
+ * 
+ * <br><br>Providers should keep the index updated through
+ * {@link #setPlayerClan(UUID, String)}, {@link #setAlly(String, String, boolean)}
+ * and {@link #setRival(String, String, boolean)}, or call {@link #rebuild()}
+ * after bulk changes. Every change is forwarded to registered {@link Listener}'s
+ * and invalidates affected {@link EffectiveTrustCache} entries.
+ * 
+ * <br><br>Note: An index is a snapshot of its provider until updated, so
+ * only providers keeping it updated should return it from
+ * {@link ClanProvider#getClanIndex()}. The provider owns its index, nothing
+ * else holds on to it, so it is collected along with the provider.
+ */
+public final class ClanIndex {
+
+    private static final long[] NO_RELATIONS = new long[0];
+
+    private final ClanProvider provider;
+    private final UniqueIdInterner interner = UniqueIdInterner.getInstance();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // replaced as a whole on rebuild so readers never mix old and new data
+    private volatile State state = new State();
+
+    /**
+     * Creates a new index populated from {@link ClanProvider}.
+     * 
+     * @param provider The clan provider
+     */
+    public ClanIndex(ClanProvider provider) {
+        this.provider = provider;
+        this.rebuild();
+    }
+
+    /**
+     * Gets the {@link ClanProvider} backing this index.
+     * 
+     * @return The clan provider
+     */
+    public ClanProvider getProvider() {
+        return this.provider;
+    }
+
+    /**
+     * Gets the interned id of clan tag.
+     * 
+     * @param tag The clan tag
+     * @return The clan id, or -1 if clan is not indexed
+     */
+    public int getClanId(String tag) {
+        return this.state.getClanId(tag);
+    }
+
+    /**
+     * Gets the clan id of player.
+     * 
+     * @param playerUniqueId The player uuid
+     * @return The clan id, or -1 if player is not in a clan
+     */
+    public int getClanId(UUID playerUniqueId) {
+        return this.state.getClanId(this.interner.getId(playerUniqueId));
+    }
+
+    /**
+     * Gets the clan tag of clan id.
+     * 
+     * @param clanId The clan id
+     * @return The lowercase clan tag, if available
+     */
+    public @Nullable String getClanTag(int clanId) {
+        final String[] clanTags = this.state.clanTags;
+        return clanId < 0 || clanId >= clanTags.length ? null : clanTags[clanId];
+    }
+
+    /**
+     * Gets the clan tag of player.
+     * 
+     * @param playerUniqueId The player uuid
+     * @return The lowercase clan tag, if available
+     */
+    public @Nullable String getClanTag(UUID playerUniqueId) {
+        return this.getClanTag(this.getClanId(playerUniqueId));
+    }
+
+    /**
+     * Checks if player is a member of clan.
+     * 
+     * @param playerUniqueId The player uuid
+     * @param tag The clan tag
+     * @return true if member, false if not
+     */
+    public boolean isMember(UUID playerUniqueId, String tag) {
+        final State state = this.state;
+        final int clanId = state.getClanId(this.interner.getId(playerUniqueId));
+        return clanId >= 0 && clanId == state.getClanId(tag);
+    }
+
+    /**
+     * Checks if clan is an ally of another clan.
+     * 
+     * @param clanId The clan id
+     * @param otherClanId The other clan id
+     * @return true if ally, false if not
+     */
+    public boolean isAlly(int clanId, int otherClanId) {
+        return hasRelation(this.state.allies, clanId, otherClanId);
+    }
+
+    /**
+     * Checks if clan tag is an ally of another clan tag.
+     * 
+     * @param tag The clan tag
+     * @param otherTag The other clan tag
+     * @return true if ally, false if not
+     */
+    public boolean isAlly(String tag, String otherTag) {
+        final State state = this.state;
+        return hasRelation(state.allies, state.getClanId(tag), state.getClanId(otherTag));
+    }
+
+    /**
+     * Checks if clan is a rival of another clan.
+     * 
+     * @param clanId The clan id
+     * @param otherClanId The other clan id
+     * @return true if rival, false if not
+     */
+    public boolean isRival(int clanId, int otherClanId) {
+        return hasRelation(this.state.rivals, clanId, otherClanId);
+    }
+
+    /**
+     * Checks if clan tag is a rival of another clan tag.
+     * 
+     * @param tag The clan tag
+     * @param otherTag The other clan tag
+     * @return true if rival, false if not
+     */
+    public boolean isRival(String tag, String otherTag) {
+        final State state = this.state;
+        return hasRelation(state.rivals, state.getClanId(tag), state.getClanId(otherTag));
+    }
+
+    /**
+     * Sets the clan of player.
+     * 
+     * @param playerUniqueId The player uuid
+     * @param tag The clan tag, or null to remove player from clan
+     */
+    public void setPlayerClan(UUID playerUniqueId, @Nullable String tag) {
+        final String oldTag;
+        final String newTag;
+        synchronized (this) {
+            final State state = this.state;
+            final int playerId = this.interner.intern(playerUniqueId);
+            final int clanId = tag == null ? -1 : state.internClan(tag);
+            final int oldClanId = this.getClanId(playerUniqueId);
+            if (oldClanId == clanId) {
+                return;
+            }
+            state.ensurePlayerCapacity(playerId).set(playerId, clanId + 1);
+            oldTag = this.getClanTag(oldClanId);
+            newTag = this.getClanTag(clanId);
+        }
+
+        EffectiveTrustCache.invalidateMembership(playerUniqueId);
+        for (Listener listener : this.listeners) {
+            listener.onPlayerClanChange(playerUniqueId, oldTag, newTag);
+        }
+    }
+
+    /**
+     * Sets whether clan tag is an ally of another clan tag.
+     * 
+     * @param tag The clan tag
+     * @param otherTag The other clan tag
+     * @param ally Whether clans are allied
+     */
+    public void setAlly(String tag, String otherTag, boolean ally) {
+        synchronized (this) {
+            final State state = this.state;
+            state.allies = setRelation(state.allies, state.internClan(tag), state.internClan(otherTag), ally);
+        }
+        this.relationChanged(tag);
+    }
+
+    /**
+     * Sets whether clan tag is a rival of another clan tag.
+     * 
+     * @param tag The clan tag
+     * @param otherTag The other clan tag
+     * @param rival Whether clans are rivals
+     */
+    public void setRival(String tag, String otherTag, boolean rival) {
+        synchronized (this) {
+            final State state = this.state;
+            state.rivals = setRelation(state.rivals, state.internClan(tag), state.internClan(otherTag), rival);
+        }
+        this.relationChanged(tag);
+    }
+
+    /**
+     * Repopulates the index from {@link ClanProvider}.
+     * 
+     * <br><br>Note: Readers keep seeing the previous data until the new
+     * data is complete.
+     */
+    public void rebuild() {
+        synchronized (this) {
+            final State state = new State();
+            for (Clan clan : this.provider.getAllClans()) {
+                final int clanId = state.internClan(clan.getTag());
+                for (ClanPlayer clanPlayer : this.provider.getClanPlayers(clan.getTag())) {
+                    final int playerId = this.interner.intern(clanPlayer.getUniqueId());
+                    state.ensurePlayerCapacity(playerId).set(playerId, clanId + 1);
+                }
+                for (Clan ally : clan.getAllies()) {
+                    state.allies = setRelation(state.allies, clanId, state.internClan(ally.getTag()), true);
+                }
+                for (Clan rival : clan.getRivals()) {
+                    state.rivals = setRelation(state.rivals, clanId, state.internClan(rival.getTag()), true);
+                }
+            }
+            this.state = state;
+        }
+
+        EffectiveTrustCache.invalidateAllMemberships();
+        for (Listener listener : this.listeners) {
+            listener.onRebuild();
+        }
+    }
+
+    /**
+     * Registers a {@link Listener} to be notified of index changes.
+     * 
+     * @param listener The listener
+     */
+    public void addListener(Listener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a {@link Listener}.
+     * 
+     * @param listener The listener
+     */
+    public void removeListener(Listener listener) {
+        this.listeners.remove(listener);
+    }
+
+    private void relationChanged(String tag) {
+        EffectiveTrustCache.invalidateAllMemberships();
+        for (Listener listener : this.listeners) {
+            listener.onClanRelationChange(tag.toLowerCase(Locale.ENGLISH));
+        }
+    }
+
+
+    private static boolean hasRelation(long[][] relations, int clanId, int otherClanId) {
+        if (clanId < 0 || otherClanId < 0 || clanId >= relations.length) {
+            return false;
+        }
+        final long[] bits = relations[clanId];
+        if (bits == null) {
+            return false;
+        }
+        final int word = otherClanId >>> 6;
+        return word < bits.length && (bits[word] & (1L << otherClanId)) != 0;
+    }
+
+    private static long[][] setRelation(long[][] relations, int clanId, int otherClanId, boolean value) {
+        // copy on write so readers always see a consistent snapshot
+        final long[][] copy = Arrays.copyOf(relations, Math.max(relations.length, Integer.highestOneBit(clanId) << 1));
+        long[] bits = copy[clanId] == null ? NO_RELATIONS : copy[clanId];
+        final int word = otherClanId >>> 6;
+        bits = Arrays.copyOf(bits, Math.max(bits.length, word + 1));
+        if (value) {
+            bits[word] |= 1L << otherClanId;
+        } else {
+            bits[word] &= ~(1L << otherClanId);
+        }
+        copy[clanId] = bits;
+        return copy;
+    }
+
+    // Mutated only while holding the lock of the index
+    private static final class State {
+
+        private final Map<String, Integer> clanIds = new ConcurrentHashMap<>();
+        private volatile String[] clanTags = new String[16];
+        private int clanCount;
+        // player id to clan id + 1 so 0 represents no clan
+        private volatile AtomicIntegerArray playerClans = new AtomicIntegerArray(256);
+        private volatile long[][] allies = new long[16][];
+        private volatile long[][] rivals = new long[16][];
+
+        private int getClanId(String tag) {
+            final Integer id = this.clanIds.get(tag.toLowerCase(Locale.ENGLISH));
+            return id == null ? -1 : id;
+        }
+
+        private int getClanId(int playerId) {
+            if (playerId < 0) {
+                return -1;
+            }
+            final AtomicIntegerArray playerClans = this.playerClans;
+            return playerId < playerClans.length() ? playerClans.get(playerId) - 1 : -1;
+        }
+
+        private int internClan(String tag) {
+            final String key = tag.toLowerCase(Locale.ENGLISH);
+            final Integer id = this.clanIds.get(key);
+            if (id != null) {
+                return id;
+            }
+
+            final int next = this.clanCount++;
+            String[] clanTags = this.clanTags;
+            if (next == clanTags.length) {
+                clanTags = Arrays.copyOf(clanTags, next << 1);
+            }
+            clanTags[next] = key;
+            this.clanTags = clanTags;
+            this.clanIds.put(key, next);
+            return next;
+        }
+
+        private AtomicIntegerArray ensurePlayerCapacity(int playerId) {
+            final AtomicIntegerArray playerClans = this.playerClans;
+            if (playerId < playerClans.length()) {
+                return playerClans;
+            }
+
+            final AtomicIntegerArray grown = new AtomicIntegerArray(Math.max(playerClans.length() << 1, Integer.highestOneBit(playerId) << 1));
+            for (int i = 0; i < playerClans.length(); i++) {
+                grown.set(i, playerClans.get(i));
+            }
+            this.playerClans = grown;
+            return grown;
+        }
+    }
+
+    /**
+     * Receives notifications of {@link ClanIndex} changes.
+     */
+    public interface Listener {
+
+        /**
+         * Called when a player joins, leaves or switches clan.
+         * 
+         * @param playerUniqueId The player uuid
+         * @param oldTag The previous lowercase clan tag, if available
+         * @param newTag The new lowercase clan tag, if available
+         */
+        default void onPlayerClanChange(UUID playerUniqueId, @Nullable String oldTag, @Nullable String newTag) {
+        }
+
+        /**
+         * Called when an ally or rival relation of clan changes.
+         * 
+         * @param tag The lowercase clan tag
+         */
+        default void onClanRelationChange(String tag) {
+        }
+
+        /**
+         * Called after the index was rebuilt from its provider.
+         */
+        default void onRebuild() {
+        }
+    }
+}
@@ -25,6 +25,7 @@
 package com.griefdefender.api.provider;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -80,4 +81,39 @@ public interface ClanProvider {
      * @return The clan player, if available
      */
     @Nullable ClanPlayer getClanPlayer(UUID playerUniqueId);
+
+    /**
+     * Gets the {@link ClanIndex} of this provider.
+     * 
+     * <br><br>Note: Use the index for membership, ally and rival checks on hot
+     * paths instead of the list returning methods above. Providers keeping
+     * the index updated as clans change should create one with
+     * {@link ClanIndex#ClanIndex(ClanProvider)} once their clans are loaded,
+     * hold it and return it here.
+     * The default returns null, as an index nobody updates would answer
+     * from stale membership.
+     * 
+     * @return The clan index, or null if this provider does not keep one
+     */
+    default @Nullable ClanIndex getClanIndex() {
+        return null;
+    }
+
+    /**
+     * Gets the lowercase tag of the clan of a player.
+     * 
+     * <br><br>Note: This is answered by {@link #getClanIndex()} when
+     * available, otherwise by {@link #getClanPlayer(UUID)}.
+     * 
+     * @param playerUniqueId The player uuid
+     * @return The lowercase clan tag, or null if player is not in a clan
+     */
+    default @Nullable String getClanTag(UUID playerUniqueId) {
+        final ClanIndex index = this.getClanIndex();
+        if (index != null) {
+            return index.getClanTag(playerUniqueId);
+        }
+        final ClanPlayer clanPlayer = this.getClanPlayer(playerUniqueId);
+        return clanPlayer == null ? null : clanPlayer.getClan().getTag().toLowerCase(Locale.ENGLISH);
+    }
 }
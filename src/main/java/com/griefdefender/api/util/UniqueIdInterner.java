@@ -0,0 +1,120 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.util;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Maps {@link UUID}'s to dense int identifiers.
+ * 
+ * <br><br>Identifiers start at 0 and are never reused for the lifetime of
+ * the interner which allows them to be used as compact keys in sorted
+ * arrays and bitmaps.
+ */
+public final class UniqueIdInterner {
+
+    private static final UniqueIdInterner INSTANCE = new UniqueIdInterner();
+
+    private final ConcurrentHashMap<UUID, Integer> ids = new ConcurrentHashMap<>();
+    private volatile UUID[] uniqueIds = new UUID[256];
+    private int size;
+
+    /**
+     * Gets the global interner shared by all claims.
+     * 
+     * @return The global interner
+     */
+    public static UniqueIdInterner getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the id of {@link UUID}, creating one if needed.
+     * 
+     * @param uuid The uuid
+     * @return The dense id
+     */
+    public int intern(UUID uuid) {
+        final Integer id = this.ids.get(uuid);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (this) {
+            final Integer existing = this.ids.get(uuid);
+            if (existing != null) {
+                return existing;
+            }
+            final int next = this.size;
+            UUID[] uniqueIds = this.uniqueIds;
+            if (next == uniqueIds.length) {
+                uniqueIds = Arrays.copyOf(uniqueIds, next << 1);
+            }
+            uniqueIds[next] = uuid;
+            this.uniqueIds = uniqueIds;
+            this.size = next + 1;
+            this.ids.put(uuid, next);
+            return next;
+        }
+    }
+
+    /**
+     * Gets the id of {@link UUID} without creating one.
+     * 
+     * @param uuid The uuid
+     * @return The dense id, or -1 if uuid was never interned
+     */
+    public int getId(UUID uuid) {
+        final Integer id = this.ids.get(uuid);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the {@link UUID} associated with id.
+     * 
+     * @param id The dense id
+     * @return The uuid, if available
+     */
+    public @Nullable UUID getUniqueId(int id) {
+        final UUID[] uniqueIds = this.uniqueIds;
+        if (id < 0 || id >= uniqueIds.length) {
+            return null;
+        }
+        return uniqueIds[id];
+    }
+
+    /**
+     * Gets the amount of interned {@link UUID}'s.
+     * 
+     * @return The amount of ids
+     */
+    public int size() {
+        return this.ids.size();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.util.generator;
+
+import net.kyori.event.EventSubscriber;
+
+import java.lang.reflect.Method;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The base class of subscribers generated by {@link EventInvokerGenerator}.
+ * 
+ * <br><br>A generated subclass calls a single listener method directly,
+ * without reflection.
+ */
+public abstract class EventInvoker implements EventSubscriber<Object> {
+
+    protected final Object listener;
+    private final Class<?> eventType;
+    private final int order;
+    private final boolean consumeCancelled;
+
+    protected EventInvoker(Object listener, Class<?> eventType, int order, boolean consumeCancelled) {
+        this.listener = listener;
+        this.eventType = eventType;
+        this.order = order;
+        this.consumeCancelled = consumeCancelled;
+    }
+
+    /**
+     * Gets the listener owning the invoked method.
+     * 
+     * @return The listener
+     */
+    public Object getListener() {
+        return this.listener;
+    }
+
+    /**
+     * Gets the event type of the invoked method.
+     * 
+     * @return The event type
+     */
+    public Class<?> getEventType() {
+        return this.eventType;
+    }
+
+    /**
+     * Gets the invoked method.
+     * 
+     * @return The method, or null if this invoker was not created by
+     *     {@link EventInvokerProvider}
+     */
+    public @Nullable Method getMethod() {
+        return EventInvokerProvider.getMethod(this);
+    }
+
+    @Override
+    public int postOrder() {
+        return this.order;
+    }
+
+    @Override
+    public boolean consumeCancelledEvents() {
+        return this.consumeCancelled;
+    }
+
+    @Override
+    public String toString() {
+        final Method method = this.getMethod();
+        if (method == null) {
+            return this.listener.getClass().getName() + "#" + this.getClass().getSimpleName();
+        }
+        return method.getDeclaringClass().getName() + "#" + method.getName();
+    }
+}
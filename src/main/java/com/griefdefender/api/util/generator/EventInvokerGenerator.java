@@ -0,0 +1,117 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.util.generator;
+
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V1_8;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.Method;
+
+public class EventInvokerGenerator {
+
+    private static final String CONSTRUCTOR_DESCRIPTOR = "(Ljava/lang/Object;Ljava/lang/Class;IZ)V";
+
+    /**
+     * Creates a new {@link EventInvoker} subclass calling the method,
+     * prepared to be loaded into the {@link ClassLoader}.
+     *
+     * @param method The listener method, taking a single event parameter
+     * @param name The name of the class
+     * @return The generated class
+     */
+    public byte[] createClass(final Method method, final String name) {
+        final String internalName = name.replace('.', '/');
+        final String superName = Type.getInternalName(EventInvoker.class);
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        cw.visit(V1_8, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, internalName, null, superName, null);
+
+        this.generateConstructor(cw, superName);
+        this.generateInvoke(cw, superName, method);
+
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    private void generateConstructor(ClassWriter cw, String superName) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, null, null);
+        mv.visitCode();
+
+        // Pass listener, event type, order and consumeCancelled to super()
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitVarInsn(ILOAD, 3);
+        mv.visitVarInsn(ILOAD, 4);
+        mv.visitMethodInsn(INVOKESPECIAL, superName, "<init>", CONSTRUCTOR_DESCRIPTOR, false);
+
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private void generateInvoke(ClassWriter cw, String superName, Method method) {
+        final Class<?> owner = method.getDeclaringClass();
+        final String ownerName = Type.getInternalName(owner);
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invoke", "(Ljava/lang/Object;)V", null, null);
+        mv.visitCode();
+
+        // Load the listener and cast it to the declaring class
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, superName, "listener", "Ljava/lang/Object;");
+        mv.visitTypeInsn(CHECKCAST, ownerName);
+
+        // Load the event and cast it to the parameter type
+        mv.visitVarInsn(ALOAD, 1);
+        GeneratorUtils.visitUnboxingMethod(mv, Type.getType(method.getParameterTypes()[0]));
+
+        // Call the listener method directly
+        if (owner.isInterface()) {
+            mv.visitMethodInsn(INVOKEINTERFACE, ownerName, method.getName(), Type.getMethodDescriptor(method), true);
+        } else {
+            mv.visitMethodInsn(INVOKEVIRTUAL, ownerName, method.getName(), Type.getMethodDescriptor(method), false);
+        }
+
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+}
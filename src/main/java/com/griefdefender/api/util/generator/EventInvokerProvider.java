@@ -0,0 +1,158 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.util.generator;
+
+import com.griefdefender.api.event.Event;
+import com.griefdefender.api.event.Subscribe;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * This class generates an {@link EventInvoker} for each {@link Subscribe}
+ * method of a listener.
+ *
+ * <p>The generated classes are cached per listener class, so registering a
+ * new instance of a listener after a reload does not generate them again.
+ * The cache entry is kept by the listener class itself and is released along
+ * with the class loader of the plugin.</p>
+ */
+public final class EventInvokerProvider {
+
+    static final String TARGET_PACKAGE = "com.griefdefender.api.util.invoker";
+    static final EventInvokerGenerator generator = new EventInvokerGenerator();
+    static final ClassValue<InvokerTable> invokerTables = new ClassValue<InvokerTable>() {
+
+        @Override
+        protected InvokerTable computeValue(Class<?> type) {
+            return new InvokerTable(type);
+        }
+    };
+
+    /**
+     * Creates the invokers for the {@link Subscribe} methods of a listener.
+     *
+     * @param listener The listener
+     * @return The invokers, one per method
+     * @throws IllegalArgumentException If a method cannot be subscribed
+     */
+    public static List<EventInvoker> createFor(Object listener) {
+        final InvokerTable table = invokerTables.get(listener.getClass());
+        final List<EventInvoker> invokers = new ArrayList<>(table.entries.length);
+        for (InvokerTable.Entry entry : table.entries) {
+            try {
+                invokers.add(entry.constructor.newInstance(listener, entry.eventType, entry.order, entry.consumeCancelled));
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new RuntimeException(String.format("Failed to instantiate event invoker for method %s", entry.method), e);
+            }
+        }
+        return invokers;
+    }
+
+    static @Nullable Method getMethod(EventInvoker invoker) {
+        if (!(invoker.getClass().getClassLoader() instanceof GeneratorUtils.LocalClassLoader)) {
+            return null;
+        }
+        for (InvokerTable.Entry entry : invokerTables.get(invoker.getListener().getClass()).entries) {
+            if (entry.constructor.getDeclaringClass() == invoker.getClass()) {
+                return entry.method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The generated invoker classes of a listener class, by event type.
+     */
+    static final class InvokerTable {
+
+        final Entry[] entries;
+
+        InvokerTable(Class<?> type) {
+            final ClassLoader parent = type.getClassLoader() != null ? type.getClassLoader() : EventInvoker.class.getClassLoader();
+            final GeneratorUtils.LocalClassLoader classLoader = new GeneratorUtils.LocalClassLoader(parent);
+            final List<Entry> entries = new ArrayList<>();
+            for (Method method : type.getMethods()) {
+                final Subscribe subscribe = method.getAnnotation(Subscribe.class);
+                if (subscribe == null || method.isBridge()) {
+                    continue;
+                }
+                validate(method);
+                final String name = GeneratorUtils.getClassName(TARGET_PACKAGE, type, "Invoker$" + method.getName() + "$" + entries.size());
+                final Class<?> invokerClass = classLoader.defineClass(name, generator.createClass(method, name));
+                try {
+                    @SuppressWarnings("unchecked")
+                    final Constructor<? extends EventInvoker> constructor = (Constructor<? extends EventInvoker>) invokerClass
+                            .getConstructor(Object.class, Class.class, int.class, boolean.class);
+                    entries.add(new Entry(method, constructor, subscribe));
+                } catch (NoSuchMethodException e) {
+                    throw new RuntimeException(String.format("Failed to generate event invoker for method %s", method), e);
+                }
+            }
+            this.entries = entries.toArray(new Entry[0]);
+        }
+
+        private static void validate(Method method) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                throw new IllegalArgumentException(String.format("Subscribed method %s must not be static", method));
+            }
+            if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                throw new IllegalArgumentException(String.format("Class declaring subscribed method %s must be public", method));
+            }
+            if (method.getReturnType() != void.class) {
+                throw new IllegalArgumentException(String.format("Subscribed method %s must return void", method));
+            }
+            if (method.getParameterCount() != 1 || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                throw new IllegalArgumentException(String.format("Subscribed method %s must take a single event parameter", method));
+            }
+        }
+
+        static final class Entry {
+
+            final Method method;
+            final Constructor<? extends EventInvoker> constructor;
+            final Class<?> eventType;
+            final int order;
+            final boolean consumeCancelled;
+
+            Entry(Method method, Constructor<? extends EventInvoker> constructor, Subscribe subscribe) {
+                this.method = method;
+                this.constructor = constructor;
+                this.eventType = method.getParameterTypes()[0];
+                this.order = subscribe.order();
+                this.consumeCancelled = subscribe.consumeCancelled();
+            }
+        }
+    }
+
+    private EventInvokerProvider() {
+    }
+}
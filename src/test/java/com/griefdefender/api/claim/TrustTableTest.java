@@ -0,0 +1,114 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.claim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.testkit.InMemoryClaimData;
+import com.griefdefender.api.testkit.InMemoryGriefDefender;
+import com.griefdefender.api.util.UniqueIdInterner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+public class TrustTableTest {
+
+    private InMemoryClaimData data;
+    private UniqueIdInterner interner;
+
+    @BeforeEach
+    public void setUp() {
+        InMemoryGriefDefender.install();
+        this.data = new InMemoryClaimData(UUID.randomUUID(), UUID.randomUUID(), ClaimTypes.BASIC, new Vector3i(0, 0, 0), new Vector3i(15, 255, 15));
+        this.interner = new UniqueIdInterner();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        InMemoryGriefDefender.uninstall();
+    }
+
+    @Test
+    public void levelsIncludeLowerTrust() {
+        final UUID builder = UUID.randomUUID();
+        final UUID accessor = UUID.randomUUID();
+        this.data.getBuilders().add(builder);
+        this.data.getAccessors().add(accessor);
+        final TrustTable table = TrustTable.from(this.data, this.interner);
+
+        assertEquals(2, table.size());
+        assertEquals(TrustTable.LEVEL_BUILDER, table.getTrustLevel(builder));
+        assertTrue(table.isTrusted(builder, TrustTypes.CONTAINER));
+        assertTrue(table.isTrusted(builder, TrustTypes.BUILDER));
+        assertFalse(table.isTrusted(builder, TrustTypes.MANAGER));
+        assertTrue(table.isTrusted(accessor, TrustTypes.NONE));
+        assertFalse(table.isTrusted(accessor, TrustTypes.RESIDENT));
+        assertTrue(table.isTrusted(this.interner.getId(builder), TrustTypes.BUILDER));
+    }
+
+    @Test
+    public void userInSeveralSetsKeepsHighestLevel() {
+        final UUID user = UUID.randomUUID();
+        this.data.getManagers().add(user);
+        this.data.getResidents().add(user);
+        this.data.getAccessors().add(user);
+        final TrustTable table = TrustTable.from(this.data, this.interner);
+
+        assertEquals(1, table.size());
+        assertEquals(TrustTable.LEVEL_MANAGER, table.getTrustLevel(user));
+    }
+
+    @Test
+    public void unknownUsersAreNotTrusted() {
+        this.data.getManagers().add(UUID.randomUUID());
+        final TrustTable table = TrustTable.from(this.data, this.interner);
+        final UUID other = UUID.randomUUID();
+
+        assertEquals(TrustTable.LEVEL_NONE, table.getTrustLevel(other));
+        assertFalse(table.isTrusted(other, TrustTypes.NONE));
+        assertEquals(-1, this.interner.getId(other));
+        assertEquals(TrustTable.LEVEL_NONE, table.getTrustLevel(this.interner.intern(other)));
+    }
+
+    @Test
+    public void emptyDataSharesEmptyTable() {
+        assertSame(TrustTable.EMPTY, TrustTable.from(this.data));
+        assertEquals(0, TrustTable.from(this.data, this.interner).size());
+    }
+
+    @Test
+    public void levelsMapToTrustTypes() {
+        for (int level = TrustTable.LEVEL_NONE; level <= TrustTable.LEVEL_MANAGER; level++) {
+            assertEquals(level, TrustTable.getLevel(TrustTable.getType(level)));
+        }
+        assertSame(TrustTypes.NONE, TrustTable.getType(TrustTable.LEVEL_MANAGER + 1));
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.api.testkit.InMemoryGriefDefender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+public class ClaimSaveQueueTest {
+
+    private Claim claim;
+
+    @BeforeEach
+    public void setUp() {
+        this.claim = InMemoryGriefDefender.install().getCore().createWorld(UUID.randomUUID(), "world")
+                .createClaim(UUID.randomUUID(), ClaimTypes.BASIC, new Vector3i(0, 0, 0), new Vector3i(99, 255, 99), null);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        InMemoryGriefDefender.uninstall();
+    }
+
+    @Test
+    public void failingListenerFailsFlushWithoutRequeue() throws Exception {
+        final List<Claim> written = new CopyOnWriteArrayList<>();
+        final IllegalStateException listenerFailure = new IllegalStateException("listener");
+        final ClaimSaveQueue queue = new ClaimSaveQueue(written::addAll, new ClaimSaveQueue.Listener() {
+
+            @Override
+            public void postSave(List<Claim> claims, @Nullable Throwable failure) {
+                throw listenerFailure;
+            }
+        }, 1, TimeUnit.HOURS, 16);
+        this.claim.getData().markDirty(EnumSet.allOf(ClaimDataField.class));
+        queue.markDirty(this.claim);
+
+        final CompletableFuture<Void> future = queue.shutdown();
+        try {
+            future.get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertEquals(listenerFailure, e.getCause());
+        }
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(1, written.size());
+        assertEquals(0, queue.getPendingCount());
+    }
+
+    @Test
+    public void failedWritesBackOffUntilFlushFails() throws Exception {
+        final List<Long> attempts = new CopyOnWriteArrayList<>();
+        final List<Claim> written = new CopyOnWriteArrayList<>();
+        final AtomicBoolean failing = new AtomicBoolean(true);
+        final CountDownLatch writtenLatch = new CountDownLatch(1);
+        final ClaimSaveQueue queue = new ClaimSaveQueue(claims -> {
+            attempts.add(System.nanoTime());
+            if (failing.get()) {
+                throw new IOException("disk full");
+            }
+            written.addAll(claims);
+            writtenLatch.countDown();
+        }, new ClaimSaveQueue.Listener() {}, 10, TimeUnit.MILLISECONDS, 16, 40, 4);
+        this.claim.getData().markDirty(EnumSet.allOf(ClaimDataField.class));
+        queue.markDirty(this.claim);
+
+        final CompletableFuture<Void> future = queue.flush();
+        try {
+            future.get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(4, attempts.size());
+        // the second attempt is the drain armed by markDirty
+        final long[] delays = {20, 40};
+        for (int i = 0; i < delays.length; i++) {
+            final long gap = attempts.get(i + 2) - attempts.get(i + 1);
+            assertTrue(gap >= TimeUnit.MILLISECONDS.toNanos(delays[i]), "retry " + (i + 2) + " after " + gap + "ns");
+        }
+
+        // retries ran out, the claim stays pending until marked again
+        Thread.sleep(100);
+        assertEquals(4, attempts.size());
+        assertEquals(1, queue.getPendingCount());
+
+        failing.set(false);
+        queue.markDirty(this.claim);
+        assertTrue(writtenLatch.await(10, TimeUnit.SECONDS));
+        assertEquals(1, written.size());
+        queue.shutdown().get(10, TimeUnit.SECONDS);
+        assertEquals(0, queue.getPendingCount());
+    }
+
+    @Test
+    public void flushCompletesOnceRetrySucceeds() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final List<Claim> written = new CopyOnWriteArrayList<>();
+        final ClaimSaveQueue queue = new ClaimSaveQueue(claims -> {
+            if (attempts.incrementAndGet() <= 2) {
+                throw new IOException("disk busy");
+            }
+            written.addAll(claims);
+        }, new ClaimSaveQueue.Listener() {}, 0, TimeUnit.MILLISECONDS, 16, 10, 5);
+        this.claim.getData().markDirty(EnumSet.allOf(ClaimDataField.class));
+        queue.markDirty(this.claim);
+
+        queue.flush().get(10, TimeUnit.SECONDS);
+        assertEquals(3, attempts.get());
+        assertEquals(1, written.size());
+        assertEquals(0, queue.getPendingCount());
+        queue.shutdown().get(10, TimeUnit.SECONDS);
+    }
+}
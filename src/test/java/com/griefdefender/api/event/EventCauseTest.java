@@ -0,0 +1,108 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+public class EventCauseTest {
+
+    private final EventCause cause = EventCause.of("root", 1, 2.0, "leaf", 3L);
+
+    @Test
+    public void firstAndLastFindTheOuterMatches() {
+        assertEquals(Optional.of("root"), this.cause.first(String.class));
+        assertEquals(Optional.of("leaf"), this.cause.last(String.class));
+        assertEquals(Optional.of(1), this.cause.first(Number.class));
+        assertEquals(Optional.of(3L), this.cause.last(Number.class));
+        assertFalse(this.cause.first(Boolean.class).isPresent());
+        assertFalse(this.cause.last(Boolean.class).isPresent());
+    }
+
+    @Test
+    public void repeatedLookupsReturnCachedInstances() {
+        final Optional<String> first = this.cause.first(String.class);
+        final Optional<String> last = this.cause.last(String.class);
+        assertSame(first, this.cause.first(String.class));
+        assertSame(last, this.cause.last(String.class));
+    }
+
+    @Test
+    public void alternatingLookupsReturnCachedInstances() {
+        final Optional<String> string = this.cause.first(String.class);
+        final Optional<Integer> integer = this.cause.first(Integer.class);
+        final Optional<Boolean> missing = this.cause.first(Boolean.class);
+        for (int i = 0; i < 3; i++) {
+            assertSame(string, this.cause.first(String.class));
+            assertSame(integer, this.cause.first(Integer.class));
+            assertSame(missing, this.cause.first(Boolean.class));
+        }
+    }
+
+    @Test
+    public void moreTypesThanSlotsStayCorrect() {
+        final Class<?>[] types = {String.class, Integer.class, Double.class, Long.class, Number.class, Object.class, Boolean.class};
+        for (int round = 0; round < 2; round++) {
+            assertEquals(Optional.of("root"), this.cause.first(String.class));
+            assertEquals(Optional.of(1), this.cause.first(Integer.class));
+            assertEquals(Optional.of(2.0), this.cause.first(Double.class));
+            assertEquals(Optional.of(3L), this.cause.first(Long.class));
+            assertEquals(Optional.of(1), this.cause.first(Number.class));
+            assertEquals(Optional.of("root"), this.cause.first(Object.class));
+            assertFalse(this.cause.first(Boolean.class).isPresent());
+            for (Class<?> type : types) {
+                assertEquals(this.cause.containsType(type), this.cause.last(type).isPresent());
+            }
+        }
+    }
+
+    @Test
+    public void causeStackReusesCauseForSameStack() {
+        final CauseStack stack = new CauseStack("plugin");
+        assertEquals(EventCause.of("plugin"), stack.getCurrentCause());
+
+        final int frame = stack.pushCauseFrame();
+        stack.pushCause("player").pushCause(42);
+        final EventCause cause = stack.getCurrentCause();
+        assertEquals(42, cause.root());
+        assertEquals(EventCause.of(42, "player"), cause);
+        assertSame(cause, stack.getCurrentCause());
+
+        stack.popCause();
+        stack.pushCause(42);
+        assertSame(cause, stack.getCurrentCause());
+
+        stack.popCauseFrame(frame);
+        assertEquals(0, stack.getDepth());
+        assertEquals(EventCause.of("plugin"), stack.getCurrentCause());
+        assertNull(stack.peekCause());
+    }
+}
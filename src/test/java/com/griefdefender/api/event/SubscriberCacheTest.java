@@ -0,0 +1,88 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.griefdefender.api.testkit.InMemoryEventManager;
+import com.griefdefender.api.testkit.InMemoryGriefDefender;
+import net.kyori.event.EventSubscriber;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SubscriberCacheTest {
+
+    @Test
+    public void resultsAreCachedUntilInvalidated() {
+        final Set<Class<?>> subscribed = new HashSet<>();
+        final AtomicInteger queries = new AtomicInteger();
+        final SubscriberCache cache = new SubscriberCache(type -> {
+            queries.incrementAndGet();
+            return subscribed.contains(type);
+        });
+
+        assertFalse(cache.hasSubscribers(QueryPermissionEvent.class));
+        assertFalse(cache.hasSubscribers(QueryPermissionEvent.class));
+        assertEquals(1, queries.get());
+
+        subscribed.add(QueryPermissionEvent.class);
+        assertFalse(cache.hasSubscribers(QueryPermissionEvent.class));
+        cache.invalidate();
+        assertTrue(cache.hasSubscribers(QueryPermissionEvent.class));
+        assertTrue(cache.hasSubscribers(QueryPermissionEvent.class));
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void typesAreCachedSeparately() {
+        final SubscriberCache cache = new SubscriberCache(type -> type == BatchClaimEvent.Trust.class);
+
+        assertTrue(cache.hasSubscribers(BatchClaimEvent.Trust.class));
+        assertFalse(cache.hasSubscribers(BatchClaimEvent.Remove.class));
+        assertTrue(cache.hasSubscribers(BatchClaimEvent.Trust.class));
+        assertFalse(cache.hasSubscribers(BatchClaimEvent.Remove.class));
+    }
+
+    @Test
+    public void eventManagerInvalidatesOnRegisterAndUnregister() {
+        final InMemoryEventManager eventManager = InMemoryGriefDefender.install().getEventManager();
+        try {
+            assertFalse(eventManager.hasSubscribers(BatchClaimEvent.Remove.class));
+            final EventSubscriber<BatchClaimEvent.Remove> subscriber = event -> {};
+            eventManager.getBus().register(BatchClaimEvent.Remove.class, subscriber);
+            assertTrue(eventManager.hasSubscribers(BatchClaimEvent.Remove.class));
+
+            eventManager.getBus().unregister(subscriber);
+            assertFalse(eventManager.hasSubscribers(BatchClaimEvent.Remove.class));
+        } finally {
+            InMemoryGriefDefender.uninstall();
+        }
+    }
+}
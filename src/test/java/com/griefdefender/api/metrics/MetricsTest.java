@@ -0,0 +1,74 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class MetricsTest {
+
+    @AfterEach
+    public void tearDown() {
+        Metrics.setBackend(null);
+    }
+
+    @Test
+    public void handlesBindToBackendRegisteredLater() {
+        final Counter counter = Metrics.counter("test.counter");
+        final Histogram histogram = Metrics.histogram("test.histogram");
+        counter.increment();
+        assertFalse(Metrics.isEnabled());
+
+        final InMemoryMetricsBackend backend = new InMemoryMetricsBackend();
+        Metrics.setBackend(backend);
+        assertTrue(Metrics.isEnabled());
+        counter.increment();
+        counter.increment(2);
+        histogram.record(42);
+        assertEquals(3, backend.getCount("test.counter"));
+        assertEquals(42, backend.getHistogram("test.histogram").getMax());
+
+        final InMemoryMetricsBackend next = new InMemoryMetricsBackend();
+        Metrics.setBackend(next);
+        counter.increment();
+        assertEquals(3, backend.getCount("test.counter"));
+        assertEquals(1, next.getCount("test.counter"));
+    }
+
+    @Test
+    public void timerRecordsNanosOnlyWhileEnabled() {
+        final Timer timer = Metrics.timer("test.timer");
+        timer.stop(timer.start());
+
+        final InMemoryMetricsBackend backend = new InMemoryMetricsBackend();
+        Metrics.setBackend(backend);
+        timer.stop(timer.start());
+        assertEquals(1, backend.getTimer("test.timer").getCount());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class PercentileHistogramTest {
+
+    @Test
+    public void smallValuesAreExact() {
+        for (long value = 0; value < 64; value++) {
+            assertEquals(value, PercentileHistogram.bucketUpperBound(PercentileHistogram.bucketIndex(value)));
+        }
+    }
+
+    @Test
+    public void bucketsAreContiguous() {
+        int index = 0;
+        while (PercentileHistogram.bucketUpperBound(index) != Long.MAX_VALUE) {
+            final long upperBound = PercentileHistogram.bucketUpperBound(index);
+            assertEquals(index, PercentileHistogram.bucketIndex(upperBound));
+            assertEquals(index + 1, PercentileHistogram.bucketIndex(upperBound + 1));
+            index++;
+        }
+        assertEquals(index, PercentileHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void upperBoundIsWithinRelativeError() {
+        for (long value = 64; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 / 2 + 7) {
+            final long upperBound = PercentileHistogram.bucketUpperBound(PercentileHistogram.bucketIndex(value));
+            assertTrue(upperBound >= value);
+            assertTrue((double) (upperBound - value) / value <= 1.0 / 32, "value " + value);
+        }
+    }
+
+    @Test
+    public void percentilesOfUniformValues() {
+        final PercentileHistogram histogram = new PercentileHistogram();
+        for (long value = 1; value <= 10000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(10000, histogram.getCount());
+        assertEquals(10000, histogram.getMax());
+        assertEquals(5000.5, histogram.getMean());
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            final double expected = percentile * 100;
+            final long actual = histogram.getValueAtPercentile(percentile);
+            assertTrue(actual >= expected && actual <= expected * (1 + 1.0 / 32), percentile + " -> " + actual);
+        }
+        assertEquals(10000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void percentileIsCappedAtMaxAndResets() {
+        final PercentileHistogram histogram = new PercentileHistogram();
+        histogram.record(1000);
+        histogram.record(-5);
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+        assertEquals(0, histogram.getValueAtPercentile(50));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+}
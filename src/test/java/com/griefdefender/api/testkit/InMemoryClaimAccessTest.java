@@ -0,0 +1,102 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.Tristate;
+import com.griefdefender.api.claim.ClaimAccessFastPath;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.api.claim.TrustTypes;
+import com.griefdefender.api.permission.flag.Flags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+public class InMemoryClaimAccessTest {
+
+    private InMemoryGriefDefender griefDefender;
+    private InMemoryUser user;
+    private InMemoryClaim parent;
+    private InMemoryClaim child;
+
+    @BeforeEach
+    public void setUp() {
+        this.griefDefender = InMemoryGriefDefender.install();
+        final InMemoryClaimManager claimManager = this.griefDefender.getCore().createWorld(UUID.randomUUID(), "world");
+        this.user = this.griefDefender.getCore().createUser(UUID.randomUUID(), "user");
+        final UUID owner = UUID.randomUUID();
+        this.parent = claimManager.createClaim(owner, ClaimTypes.BASIC, new Vector3i(0, 0, 0), new Vector3i(99, 255, 99), null);
+        this.child = claimManager.createClaim(owner, ClaimTypes.SUBDIVISION, new Vector3i(10, 0, 10), new Vector3i(19, 255, 19), this.parent);
+        this.child.addUserTrust(this.user.getUniqueId(), TrustTypes.BUILDER);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        InMemoryGriefDefender.uninstall();
+    }
+
+    @Test
+    public void parentDenyIsHonored() {
+        assertFalse(this.child.hasDenyOverrides());
+        assertEquals(Tristate.TRUE, ClaimAccessFastPath.checkBuild(this.child, this.user));
+
+        this.parent.setFlagValue(Flags.BLOCK_BREAK, Tristate.FALSE);
+        assertTrue(this.child.hasDenyOverrides());
+        assertEquals(Tristate.UNDEFINED, ClaimAccessFastPath.checkBuild(this.child, this.user));
+        assertFalse(this.child.canBreak("source", "location", this.user));
+
+        this.parent.setFlagValue(Flags.BLOCK_BREAK, Tristate.UNDEFINED);
+        assertFalse(this.child.hasDenyOverrides());
+        assertTrue(this.child.canBreak("source", "location", this.user));
+    }
+
+    @Test
+    public void defaultDenyIsHonored() {
+        assertFalse(this.child.hasDenyOverrides());
+
+        this.griefDefender.getPermissionManager().setDefaultFlagValue(Flags.BLOCK_BREAK, Tristate.FALSE);
+        assertTrue(this.child.hasDenyOverrides());
+        assertFalse(this.child.canBreak("source", "location", this.user));
+    }
+
+    @Test
+    public void parentDenyFollowsInheritance() {
+        this.parent.setFlagValue(Flags.BLOCK_BREAK, Tristate.FALSE);
+        assertTrue(this.child.hasDenyOverrides());
+
+        this.child.getData().setInheritParent(false);
+        assertFalse(this.child.hasDenyOverrides());
+        assertTrue(this.child.canBreak("source", "location", this.user));
+
+        this.child.getData().setInheritParent(true);
+        assertTrue(this.child.hasDenyOverrides());
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.claim.ClaimTypes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+public class InMemoryClaimManagerTest {
+
+    private final UUID worldUniqueId = UUID.randomUUID();
+    private InMemoryClaimManager claimManager;
+    private InMemoryClaim[] claims;
+
+    @BeforeEach
+    public void setUp() {
+        this.claimManager = InMemoryGriefDefender.install().getCore().createWorld(this.worldUniqueId, "world");
+        this.claims = new InMemoryClaim[] {
+            this.newClaim(new Vector3i(0, 0, 0), new Vector3i(15, 255, 15)),
+            this.newClaim(new Vector3i(32, 0, 32), new Vector3i(47, 255, 47))
+        };
+    }
+
+    @AfterEach
+    public void tearDown() {
+        InMemoryGriefDefender.uninstall();
+    }
+
+    @Test
+    public void completePersistedIndexIsUsed() {
+        final MapIndex index = new MapIndex();
+        index.chunks.put(InMemoryClaimManager.chunkHash(0, 0), new int[] {0});
+        index.chunks.put(InMemoryClaimManager.chunkHash(2, 2), new int[] {1});
+
+        assertTrue(this.claimManager.addIndexedClaims(this.claims, new int[] {-1, -1}, index));
+        assertEquals(this.claims[0], this.claimManager.getClaimAt(8, 64, 8));
+        assertEquals(this.claims[1], this.claimManager.getClaimAt(40, 64, 40));
+    }
+
+    @Test
+    public void persistedIndexMissingClaimIsRebuilt() {
+        final MapIndex index = new MapIndex();
+        index.chunks.put(InMemoryClaimManager.chunkHash(0, 0), new int[] {0});
+
+        assertFalse(this.claimManager.addIndexedClaims(this.claims, new int[] {-1, -1}, index));
+        assertEquals(this.claims[0], this.claimManager.getClaimAt(8, 64, 8));
+        assertEquals(this.claims[1], this.claimManager.getClaimAt(40, 64, 40));
+    }
+
+    @Test
+    public void persistedIndexWrongChunkIsRebuiltOnLookup() {
+        final MapIndex index = new MapIndex();
+        index.chunks.put(InMemoryClaimManager.chunkHash(0, 0), new int[] {1});
+        index.chunks.put(InMemoryClaimManager.chunkHash(2, 2), new int[] {0});
+
+        assertTrue(this.claimManager.addIndexedClaims(this.claims, new int[] {-1, -1}, index));
+        assertEquals(this.claims[0], this.claimManager.getClaimAt(8, 64, 8));
+        assertEquals(this.claims[1], this.claimManager.getClaimAt(40, 64, 40));
+        assertEquals(2, this.claimManager.getChunksToClaimsMap().size());
+    }
+
+    @Test
+    public void persistedIndexChunksCanBeChanged() {
+        final MapIndex index = new MapIndex();
+        index.chunks.put(InMemoryClaimManager.chunkHash(0, 0), new int[] {0});
+        index.chunks.put(InMemoryClaimManager.chunkHash(2, 2), new int[] {1});
+        assertTrue(this.claimManager.addIndexedClaims(this.claims, new int[] {-1, -1}, index));
+
+        this.claimManager.deleteClaim(this.claims[0], true);
+        final InMemoryClaim claim = this.newClaim(new Vector3i(40, 0, 0), new Vector3i(41, 255, 1));
+        this.claimManager.addClaim(claim, null);
+
+        assertEquals(this.claimManager.getWildernessClaim(), this.claimManager.getClaimAt(8, 64, 8));
+        assertEquals(this.claims[1], this.claimManager.getClaimAt(40, 64, 40));
+        assertEquals(claim, this.claimManager.getClaimAt(40, 64, 0));
+        assertEquals(2, this.claimManager.getChunksToClaimsMap().size());
+    }
+
+    @Test
+    public void reparentingLazyClaimRefreshesInheritanceChains() {
+        final InMemoryClaim other = this.claimManager.createClaim(UUID.randomUUID(), ClaimTypes.BASIC, new Vector3i(200, 0, 200), new Vector3i(299, 255, 299), null);
+        this.claimManager.addClaim(this.claims[0], null);
+        final InMemoryClaim child = this.newLazyClaim(this.claims[0], true);
+        final InMemoryClaim grandchild = this.newLazyClaim(child, false);
+        this.claimManager.addClaim(child, this.claims[0]);
+        this.claimManager.addClaim(grandchild, child);
+        assertEquals(Arrays.asList(child, this.claims[0]), grandchild.getParents(true));
+        assertFalse(child.isMaterialized());
+
+        child.setParent(other);
+        assertFalse(child.isMaterialized());
+        assertEquals(Arrays.asList(child, other), grandchild.getParents(true));
+    }
+
+    private InMemoryClaim newLazyClaim(InMemoryClaim parent, boolean inheritParent) {
+        final Vector3i lesser = new Vector3i(4, 0, 4);
+        final Vector3i greater = new Vector3i(8, 255, 8);
+        final UUID owner = UUID.randomUUID();
+        final ClaimHeader header = new ClaimHeader(this.worldUniqueId, owner, ClaimTypes.SUBDIVISION, parent.getUniqueId(), lesser, greater, false);
+        return new InMemoryClaim(UUID.randomUUID(), this.claimManager, header, () -> {
+            final InMemoryClaimData data = new InMemoryClaimData(this.worldUniqueId, owner, ClaimTypes.SUBDIVISION, lesser, greater);
+            data.setParentUniqueId(parent.getUniqueId());
+            data.setInheritParent(inheritParent);
+            return data;
+        });
+    }
+
+    private InMemoryClaim newClaim(Vector3i lesser, Vector3i greater) {
+        final InMemoryClaimData data = new InMemoryClaimData(this.worldUniqueId, UUID.randomUUID(), ClaimTypes.BASIC, lesser, greater);
+        return new InMemoryClaim(UUID.randomUUID(), this.claimManager, data);
+    }
+
+    private static final class MapIndex implements PersistedChunkIndex {
+
+        private final Map<Long, int[]> chunks = new TreeMap<>();
+
+        @Override
+        public int size() {
+            return this.chunks.size();
+        }
+
+        @Override
+        public int indexOf(long chunkHash) {
+            return new ArrayList<>(this.chunks.keySet()).indexOf(chunkHash);
+        }
+
+        @Override
+        public long getChunkHash(int index) {
+            return new ArrayList<>(this.chunks.keySet()).get(index);
+        }
+
+        @Override
+        public int[] getClaimPositions(int index) {
+            final List<int[]> positions = new ArrayList<>(this.chunks.values());
+            return positions.get(index);
+        }
+
+        @Override
+        public long getEntryCount() {
+            return this.chunks.values().stream().mapToLong(positions -> positions.length).sum();
+        }
+    }
+}
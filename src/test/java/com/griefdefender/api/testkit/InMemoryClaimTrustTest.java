@@ -0,0 +1,239 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.Clan;
+import com.griefdefender.api.ClanPlayer;
+import com.griefdefender.api.Tristate;
+import com.griefdefender.api.claim.ClaimAccessFastPath;
+import com.griefdefender.api.claim.ClaimResultType;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.api.claim.TrustTypes;
+import com.griefdefender.api.clan.Rank;
+import com.griefdefender.api.event.BatchClaimEvent;
+import com.griefdefender.api.event.ClaimEventBatch;
+import com.griefdefender.api.event.ClanTrustClaimEvent;
+import com.griefdefender.api.event.TrustClaimEvent;
+import com.griefdefender.api.provider.ClanProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class InMemoryClaimTrustTest {
+
+    private InMemoryGriefDefender griefDefender;
+    private InMemoryClaimManager claimManager;
+    private InMemoryUser user;
+    private InMemoryClaim parent;
+    private InMemoryClaim child;
+
+    @BeforeEach
+    public void setUp() {
+        this.griefDefender = InMemoryGriefDefender.install();
+        this.claimManager = this.griefDefender.getCore().createWorld(UUID.randomUUID(), "world");
+        this.user = this.griefDefender.getCore().createUser(UUID.randomUUID(), "user");
+        final UUID owner = UUID.randomUUID();
+        this.parent = this.claimManager.createClaim(owner, ClaimTypes.BASIC, new Vector3i(0, 0, 0), new Vector3i(99, 255, 99), null);
+        this.child = this.claimManager.createClaim(owner, ClaimTypes.SUBDIVISION, new Vector3i(10, 0, 10), new Vector3i(19, 255, 19), this.parent);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        InMemoryGriefDefender.uninstall();
+    }
+
+    @Test
+    public void removingParentTrustRevokesChildTrust() {
+        this.parent.addUserTrust(this.user.getUniqueId(), TrustTypes.BUILDER);
+        assertEquals(TrustTypes.BUILDER, this.child.getEffectiveTrust(this.user.getUniqueId()));
+        assertEquals(Tristate.TRUE, ClaimAccessFastPath.checkBuild(this.child, this.user));
+
+        this.parent.removeUserTrust(this.user.getUniqueId(), TrustTypes.BUILDER);
+        assertEquals(TrustTypes.NONE, this.child.getEffectiveTrust(this.user.getUniqueId()));
+        assertEquals(Tristate.UNDEFINED, ClaimAccessFastPath.checkBuild(this.child, this.user));
+    }
+
+    @Test
+    public void disablingInheritRevokesChildTrust() {
+        this.parent.addUserTrust(this.user.getUniqueId(), TrustTypes.BUILDER);
+        assertEquals(TrustTypes.BUILDER, this.child.getEffectiveTrust(this.user.getUniqueId()));
+
+        this.child.getData().setInheritParent(false);
+        assertEquals(TrustTypes.NONE, this.child.getEffectiveTrust(this.user.getUniqueId()));
+    }
+
+    @Test
+    public void detachingChildRevokesParentTrust() {
+        this.parent.addUserTrust(this.user.getUniqueId(), TrustTypes.BUILDER);
+        assertEquals(TrustTypes.BUILDER, this.child.getEffectiveTrust(this.user.getUniqueId()));
+
+        this.child.setParent(null);
+        assertEquals(TrustTypes.NONE, this.child.getEffectiveTrust(this.user.getUniqueId()));
+    }
+
+    @Test
+    public void groupTrustIsCombined() {
+        this.griefDefender.getPermissionManager().setUserGroups(this.user.getUniqueId(), Collections.singleton("staff"));
+        this.child.addUserTrust(this.user.getUniqueId(), TrustTypes.ACCESSOR);
+        assertEquals(TrustTypes.ACCESSOR, this.child.getEffectiveTrust(this.user.getUniqueId()));
+
+        this.child.addGroupTrust("staff", TrustTypes.BUILDER);
+        assertEquals(TrustTypes.BUILDER, this.child.getEffectiveTrust(this.user.getUniqueId()));
+
+        this.child.removeGroupTrust("staff", TrustTypes.BUILDER);
+        assertEquals(TrustTypes.ACCESSOR, this.child.getEffectiveTrust(this.user.getUniqueId()));
+    }
+
+    @Test
+    public void parentGroupTrustChangeReachesChild() {
+        this.griefDefender.getPermissionManager().setUserGroups(this.user.getUniqueId(), Collections.singleton("staff"));
+        this.parent.addGroupTrust("staff", TrustTypes.MANAGER);
+        assertEquals(TrustTypes.MANAGER, this.child.getEffectiveTrust(this.user.getUniqueId()));
+
+        this.griefDefender.getPermissionManager().setUserGroups(this.user.getUniqueId(), Collections.emptySet());
+        assertEquals(TrustTypes.NONE, this.child.getEffectiveTrust(this.user.getUniqueId()));
+
+        this.griefDefender.getPermissionManager().setUserGroups(this.user.getUniqueId(), Collections.singleton("staff"));
+        this.parent.removeAllGroupTrusts();
+        assertEquals(TrustTypes.NONE, this.child.getEffectiveTrust(this.user.getUniqueId()));
+    }
+
+    @Test
+    public void clanTrustIsCombined() {
+        final Map<UUID, String> clanTags = new HashMap<>();
+        this.griefDefender.getRegistry().registerClanProvider(new TagClanProvider(clanTags));
+        clanTags.put(this.user.getUniqueId(), "abc");
+
+        this.parent.addClanTrust("ABC", TrustTypes.CONTAINER);
+        assertTrue(this.parent.isClanTrusted("abc", TrustTypes.ACCESSOR));
+        assertFalse(this.parent.isClanTrusted("abc", TrustTypes.BUILDER));
+        assertEquals(TrustTypes.CONTAINER, this.child.getEffectiveTrust(this.user.getUniqueId()));
+
+        this.parent.removeClanTrust("abc", TrustTypes.NONE);
+        assertFalse(this.parent.isClanTrusted("abc", TrustTypes.NONE));
+        assertEquals(TrustTypes.NONE, this.child.getEffectiveTrust(this.user.getUniqueId()));
+    }
+
+    @Test
+    public void clanTrustChangesPostEvents() {
+        final List<ClanTrustClaimEvent> events = new CopyOnWriteArrayList<>();
+        this.griefDefender.getEventManager().getBus().register(ClanTrustClaimEvent.class, event -> {
+            events.add(event);
+            if (((InMemoryClanTrustClaimEvent) event).getClanTags().contains("denied")) {
+                event.cancelled(true);
+            }
+        });
+
+        assertTrue(this.parent.addClanTrust("ABC", TrustTypes.CONTAINER).successful());
+        assertEquals(1, events.size());
+        assertTrue(events.get(0) instanceof ClanTrustClaimEvent.Add);
+        assertEquals(Collections.singleton("abc"), ((InMemoryClanTrustClaimEvent) events.get(0)).getClanTags());
+        assertEquals(TrustTypes.CONTAINER, events.get(0).getTrustType());
+
+        assertEquals(ClaimResultType.CLAIM_EVENT_CANCELLED, this.parent.addClanTrust("denied", TrustTypes.BUILDER).getResultType());
+        assertFalse(this.parent.isClanTrusted("denied", TrustTypes.NONE));
+
+        this.parent.removeAllTrusts();
+        assertEquals(3, events.size());
+        assertTrue(events.get(2) instanceof ClanTrustClaimEvent.Remove);
+        assertEquals(Collections.singleton("abc"), ((InMemoryClanTrustClaimEvent) events.get(2)).getClanTags());
+        assertEquals(TrustTypes.CONTAINER, events.get(2).getTrustType());
+        assertFalse(this.parent.isClanTrusted("abc", TrustTypes.NONE));
+    }
+
+    @Test
+    public void clanTrustChangesAreBatched() {
+        final List<BatchClaimEvent.Trust> batches = new CopyOnWriteArrayList<>();
+        this.griefDefender.getEventManager().getBus().register(BatchClaimEvent.Trust.class, batches::add);
+
+        try (ClaimEventBatch batch = this.griefDefender.getEventManager().openBatch()) {
+            this.parent.addClanTrust("abc", TrustTypes.BUILDER);
+            this.parent.removeClanTrust("abc", TrustTypes.NONE);
+            this.parent.removeClanTrust("xyz", TrustTypes.NONE);
+        }
+
+        assertEquals(1, batches.size());
+        final List<TrustClaimEvent> events = batches.get(0).getEvents();
+        assertEquals(2, events.size());
+        assertTrue(events.get(0) instanceof ClanTrustClaimEvent.Add);
+        assertTrue(events.get(1) instanceof ClanTrustClaimEvent.Remove);
+    }
+
+    private static final class TagClanProvider implements ClanProvider {
+
+        private final Map<UUID, String> clanTags;
+
+        TagClanProvider(Map<UUID, String> clanTags) {
+            this.clanTags = clanTags;
+        }
+
+        @Override
+        public List<Clan> getAllClans() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<ClanPlayer> getAllClanPlayers() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<ClanPlayer> getClanPlayers(String tag) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<Rank> getClanRanks(String tag) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Clan getClan(String tag) {
+            return null;
+        }
+
+        @Override
+        public ClanPlayer getClanPlayer(UUID playerUniqueId) {
+            return null;
+        }
+
+        @Override
+        public String getClanTag(UUID playerUniqueId) {
+            return this.clanTags.get(playerUniqueId);
+        }
+    }
+}
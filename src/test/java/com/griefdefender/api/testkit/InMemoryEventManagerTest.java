@@ -0,0 +1,251 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.Subject;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.api.claim.TrustTypes;
+import com.griefdefender.api.event.BatchClaimEvent;
+import com.griefdefender.api.event.ClaimEventBatch;
+import com.griefdefender.api.event.Event;
+import com.griefdefender.api.event.EventCause;
+import com.griefdefender.api.event.EventScope;
+import com.griefdefender.api.event.GroupTrustClaimEvent;
+import com.griefdefender.api.event.ListenerProfiler;
+import com.griefdefender.api.event.ListenerStats;
+import com.griefdefender.api.event.QueryPermissionEvent;
+import com.griefdefender.api.event.Subscribe;
+import com.griefdefender.api.event.TrustClaimEvent;
+import com.griefdefender.api.event.UserTrustClaimEvent;
+import com.griefdefender.api.permission.Context;
+import net.kyori.adventure.text.Component;
+import net.kyori.event.EventSubscriber;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class InMemoryEventManagerTest {
+
+    private InMemoryGriefDefender griefDefender;
+    private InMemoryClaimManager claimManager;
+    private InMemoryClaim claim;
+
+    @BeforeEach
+    public void setUp() {
+        this.griefDefender = InMemoryGriefDefender.install();
+        this.claimManager = this.griefDefender.getCore().createWorld(UUID.randomUUID(), "world");
+        this.claim = this.claimManager.createClaim(UUID.randomUUID(), ClaimTypes.BASIC, new Vector3i(0, 0, 0), new Vector3i(99, 255, 99), null);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        InMemoryGriefDefender.uninstall();
+    }
+
+    @Test
+    public void pooledEventsReachBroadAsyncSubscriberOnPostingThread() {
+        final List<Thread> threads = new CopyOnWriteArrayList<>();
+        this.griefDefender.getEventManager().registerAsync(Event.class, event -> {
+            if (event instanceof QueryPermissionEvent) {
+                threads.add(Thread.currentThread());
+            }
+        });
+
+        this.claim.canBreak("source", "location", null);
+        assertFalse(threads.isEmpty());
+        for (Thread thread : threads) {
+            assertEquals(Thread.currentThread(), thread);
+        }
+    }
+
+    @Test
+    public void unregisteredSubscriberLeavesProfilerStats() {
+        final ListenerProfiler profiler = this.griefDefender.getEventManager().getListenerProfiler();
+        final EventSubscriber<QueryPermissionEvent.Pre> subscriber = event -> {};
+        this.griefDefender.getEventManager().getBus().register(QueryPermissionEvent.Pre.class, subscriber);
+        profiler.setEnabled(true);
+
+        this.claim.canBreak("source", "location", null);
+        assertEquals(1, profiler.getStats().size());
+
+        this.griefDefender.getEventManager().getBus().unregister(subscriber);
+        assertTrue(profiler.getStats().isEmpty());
+    }
+
+    @Test
+    public void scopedSubscribersAreProfiledOneByOne() {
+        final ListenerProfiler profiler = this.griefDefender.getEventManager().getListenerProfiler();
+        final EventSubscriber<QueryPermissionEvent.Pre> first = event -> {};
+        final EventSubscriber<QueryPermissionEvent.Pre> second = event -> {};
+        this.griefDefender.getEventManager().registerScoped(QueryPermissionEvent.Pre.class, EventScope.claim(this.claim), first);
+        this.griefDefender.getEventManager().registerScoped(QueryPermissionEvent.Pre.class, EventScope.claim(this.claim), second);
+        profiler.setEnabled(true);
+
+        this.claim.canBreak("source", "location", null);
+        final List<ListenerStats> stats = profiler.getStats();
+        assertEquals(2, stats.size());
+        for (ListenerStats stat : stats) {
+            assertEquals(getClass().getName() + " (lambda)", stat.getSubscriberName());
+            assertEquals(1, stat.getInvocationCount());
+        }
+
+        this.griefDefender.getEventManager().unregisterScoped(first);
+        assertEquals(1, profiler.getStats().size());
+    }
+
+    @Test
+    public void listenerMethodsAreProfiledByMethodName() {
+        final ListenerProfiler profiler = this.griefDefender.getEventManager().getListenerProfiler();
+        this.griefDefender.getEventManager().registerListeners(new PermissionListener());
+        profiler.setEnabled(true);
+
+        this.claim.canBreak("source", "location", null);
+        final List<ListenerStats> stats = profiler.getStats();
+        assertEquals(1, stats.size());
+        assertEquals(PermissionListener.class.getName() + "#onQuery", stats.get(0).getSubscriberName());
+    }
+
+    @Test
+    public void claimScopeMatchesClaimOfQueryContexts() {
+        final InMemoryClaim other = this.claimManager.createClaim(UUID.randomUUID(), ClaimTypes.BASIC, new Vector3i(200, 0, 200), new Vector3i(299, 255, 299), null);
+        final List<QueryPermissionEvent> received = new CopyOnWriteArrayList<>();
+        this.griefDefender.getEventManager().registerScoped(QueryPermissionEvent.class, EventScope.claim(this.claim), received::add);
+
+        final Subject subject = this.griefDefender.getPermissionManager().getDefaultSubject();
+        final QueryPermissionEvent otherEvent = new ContextQueryEvent(subject, Collections.singleton(other.getContext()));
+        this.griefDefender.getEventManager().post(otherEvent);
+        assertTrue(received.isEmpty());
+
+        final QueryPermissionEvent event = new ContextQueryEvent(subject, Collections.singleton(this.claim.getContext()));
+        assertEquals(this.claim, event.getClaim());
+        this.griefDefender.getEventManager().post(event);
+        assertEquals(Collections.singletonList(event), received);
+    }
+
+    @Test
+    public void trustBatchHoldsOnlyAppliedChanges() {
+        final List<BatchClaimEvent.Trust> batches = new CopyOnWriteArrayList<>();
+        this.griefDefender.getEventManager().getBus().register(BatchClaimEvent.Trust.class, batches::add);
+        this.griefDefender.getEventManager().getBus().register(GroupTrustClaimEvent.Add.class, event -> {
+            if (event.getGroups().contains("denied")) {
+                event.cancelled(true);
+            }
+        });
+        final UUID user = UUID.randomUUID();
+        this.claim.addUserTrust(user, TrustTypes.BUILDER);
+
+        try (ClaimEventBatch batch = this.griefDefender.getEventManager().openBatch()) {
+            this.claim.addUserTrust(user, TrustTypes.BUILDER);
+            this.claim.addGroupTrust("denied", TrustTypes.BUILDER);
+            this.claim.addGroupTrust("admins", TrustTypes.MANAGER);
+            this.claim.removeUserTrust(UUID.randomUUID(), TrustTypes.NONE);
+            assertEquals(1, batches.size());
+        }
+
+        assertEquals(2, batches.size());
+        final List<TrustClaimEvent> events = batches.get(1).getEvents();
+        assertEquals(1, events.size());
+        assertTrue(events.get(0) instanceof GroupTrustClaimEvent.Add);
+        assertEquals(Collections.singleton("admins"), ((GroupTrustClaimEvent) events.get(0)).getGroups());
+        assertTrue(batches.get(0).getEvents().get(0) instanceof UserTrustClaimEvent.Add);
+    }
+
+    public static final class PermissionListener {
+
+        @Subscribe
+        public void onQuery(QueryPermissionEvent.Pre event) {
+        }
+    }
+
+    // relies on the default getClaim()
+    private static final class ContextQueryEvent implements QueryPermissionEvent {
+
+        private final EventCause cause = EventCause.of("test");
+        private final Subject subject;
+        private final Set<Context> contexts;
+        private boolean cancelled;
+
+        ContextQueryEvent(Subject subject, Set<Context> contexts) {
+            this.subject = subject;
+            this.contexts = contexts;
+        }
+
+        @Override
+        public EventCause getCause() {
+            return this.cause;
+        }
+
+        @Override
+        public String getPermission() {
+            return "griefdefender.flag.block-break";
+        }
+
+        @Override
+        public Subject getSubject() {
+            return this.subject;
+        }
+
+        @Override
+        public Set<Context> getContexts() {
+            return this.contexts;
+        }
+
+        @Override
+        public void setMessage(Component message) {
+        }
+
+        @Override
+        public Optional<Component> getMessage() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Object getLocation() {
+            return null;
+        }
+
+        @Override
+        public boolean cancelled() {
+            return this.cancelled;
+        }
+
+        @Override
+        public void cancelled(boolean cancelled) {
+            this.cancelled = cancelled;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.Tristate;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.api.permission.Context;
+import com.griefdefender.api.permission.ContextKeys;
+import com.griefdefender.api.permission.flag.Flags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.UUID;
+
+public class InMemoryPermissionManagerTest {
+
+    private InMemoryGriefDefender griefDefender;
+    private InMemoryPermissionManager permissionManager;
+    private InMemoryClaim parent;
+    private InMemoryClaim child;
+
+    @BeforeEach
+    public void setUp() {
+        this.griefDefender = InMemoryGriefDefender.install();
+        this.permissionManager = this.griefDefender.getPermissionManager();
+        final InMemoryClaimManager claimManager = this.griefDefender.getCore().createWorld(UUID.randomUUID(), "world");
+        final UUID owner = UUID.randomUUID();
+        this.parent = claimManager.createClaim(owner, ClaimTypes.BASIC, new Vector3i(0, 0, 0), new Vector3i(99, 255, 99), null);
+        this.child = claimManager.createClaim(owner, ClaimTypes.SUBDIVISION, new Vector3i(10, 0, 10), new Vector3i(19, 255, 19), this.parent);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        InMemoryGriefDefender.uninstall();
+    }
+
+    @Test
+    public void claimFlagPermissionIsInherited() {
+        assertTrue(this.permissionManager.setFlagPermission(Flags.BLOCK_BREAK, Tristate.FALSE, Collections.singleton(this.parent.getContext())).join().successful());
+        assertEquals(Tristate.FALSE, this.permissionManager.getFlagPermissionValue(Flags.BLOCK_BREAK, Collections.singleton(this.parent.getContext())));
+        assertEquals(Tristate.UNDEFINED, this.permissionManager.getFlagPermissionValue(Flags.BLOCK_BREAK, Collections.singleton(this.child.getContext())));
+        assertEquals(Tristate.FALSE, this.permissionManager.getActiveFlagValue(this.child, Flags.BLOCK_BREAK));
+        assertFalse(this.child.canBreak("source", "location", null));
+
+        this.permissionManager.clearFlagPermissions(Collections.singleton(this.parent.getContext())).join();
+        assertTrue(this.child.canBreak("source", "location", null));
+    }
+
+    @Test
+    public void globalFlagPermissionIsDefault() {
+        this.permissionManager.setFlagPermission(Flags.BLOCK_BREAK, Tristate.FALSE, Collections.emptySet()).join();
+        assertEquals(Tristate.FALSE, this.permissionManager.getActiveFlagValue(this.child, Flags.BLOCK_BREAK));
+        assertEquals(Collections.singletonMap("griefdefender.flag.block-break", false), this.permissionManager.getFlagPermissions(Collections.emptySet()));
+    }
+
+    @Test
+    public void unknownContextIsRejected() {
+        assertFalse(this.permissionManager.setFlagPermission(Flags.BLOCK_BREAK, Tristate.FALSE,
+                Collections.singleton(new Context(ContextKeys.CLAIM, UUID.randomUUID().toString()))).join().successful());
+    }
+
+    @Test
+    public void claimOptionIsParsedAndInherited() {
+        final InMemoryOption<Integer> option = new InMemoryOption<>("test-limit", Integer.class, 5);
+        assertEquals(Integer.valueOf(5), this.permissionManager.getActiveOptionValue(this.child, option));
+
+        assertTrue(this.permissionManager.setOption(option, "12", Collections.singleton(this.parent.getContext())).join().successful());
+        assertFalse(this.permissionManager.setOption(option, "twelve", Collections.singleton(this.parent.getContext())).join().successful());
+        assertEquals("12", this.permissionManager.getOptionValue(option, Collections.singleton(this.parent.getContext())));
+        assertNull(this.permissionManager.getOptionValue(option, Collections.singleton(this.child.getContext())));
+        assertEquals(Integer.valueOf(12), this.permissionManager.getActiveOptionValue(this.child, option));
+
+        this.permissionManager.clearOptions().join();
+        assertEquals(Integer.valueOf(5), this.permissionManager.getActiveOptionValue(this.child, option));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.api.claim.TrustTypes;
+import com.griefdefender.api.data.ClaimData;
+import com.griefdefender.api.data.ClaimDataField;
+import com.griefdefender.api.data.ClaimSaveQueue;
+import com.griefdefender.api.testkit.InMemoryClaim;
+import com.griefdefender.api.testkit.InMemoryClaimManager;
+import com.griefdefender.api.testkit.InMemoryGriefDefender;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+public class ClaimFileStoreTest {
+
+    private Path directory;
+    private ClaimFileStore store;
+    private ClaimSaveQueue queue;
+    private InMemoryClaim claim;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("claims");
+        this.store = new ClaimFileStore(this.directory);
+        final InMemoryClaimManager claimManager = InMemoryGriefDefender.install().getCore().createWorld(UUID.randomUUID(), "world");
+        this.queue = claimManager.enableWriteBehind(this.store, 1, TimeUnit.HOURS, 16);
+        this.claim = claimManager.createClaim(UUID.randomUUID(), ClaimTypes.BASIC, new Vector3i(0, 0, 0), new Vector3i(99, 255, 99), null);
+        this.claim.getData().setGreeting(Component.text("Welcome"));
+        this.claim.getData().save();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        this.queue.shutdown().get(10, TimeUnit.SECONDS);
+        InMemoryGriefDefender.uninstall();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory)) {
+            for (Path file : stream) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(this.directory);
+    }
+
+    @Test
+    public void changedFieldsAreAppendedAndReplayed() throws Exception {
+        this.flush();
+        final Path record = this.recordFile();
+        final byte[] recordBytes = Files.readAllBytes(record);
+        assertFalse(Files.exists(this.patchFile()));
+
+        final UUID builder = UUID.randomUUID();
+        this.claim.addUserTrust(builder, TrustTypes.BUILDER);
+        this.claim.getData().save();
+        this.flush();
+        assertTrue(Files.exists(this.patchFile()));
+
+        this.claim.getData().setGreeting(null);
+        this.claim.getData().setInheritParent(false);
+        this.claim.getData().save();
+        this.flush();
+        final String patches = new String(Files.readAllBytes(this.patchFile()), "UTF-8");
+        assertTrue(patches.contains("-greeting\n"), patches);
+        assertFalse(patches.contains("owner="), patches);
+        assertEquals(recordBytes.length, Files.readAllBytes(record).length);
+
+        final ClaimData read = this.store.read(record).getData();
+        assertFalse(read.getGreeting().isPresent());
+        assertFalse(read.doesInheritParent());
+        assertEquals(Collections.singleton(builder), read.getBuilders());
+        assertEquals(ClaimTextFormat.encode(this.claim.getUniqueId(), this.claim.getData()), ClaimTextFormat.encode(this.claim.getUniqueId(), read));
+    }
+
+    @Test
+    public void patchesOutgrowingRecordRewriteIt() throws Exception {
+        this.flush();
+        final long recordSize = Files.size(this.recordFile());
+
+        final StringBuilder name = new StringBuilder();
+        while (name.length() <= recordSize) {
+            name.append("Claim ");
+        }
+        this.claim.getData().setDisplayName(Component.text(name.toString()));
+        this.claim.getData().save();
+        this.flush();
+        assertFalse(Files.exists(this.patchFile()));
+        assertTrue(Files.size(this.recordFile()) > recordSize);
+        assertEquals(Optional.of(name.toString()), this.store.read(this.recordFile()).getData().getDisplayNameComponent()
+                .map(PlainTextComponentSerializer.plainText()::serialize));
+    }
+
+    @Test
+    public void fullPatchRewritesRecordAndDeleteRemovesFiles() throws Exception {
+        this.flush();
+        this.claim.getData().setResizable(false);
+        this.claim.getData().save();
+        this.flush();
+        assertTrue(Files.exists(this.patchFile()));
+
+        this.claim.getData().markDirty(EnumSet.allOf(ClaimDataField.class));
+        this.claim.getData().save();
+        this.flush();
+        assertFalse(Files.exists(this.patchFile()));
+        assertFalse(this.store.read(this.recordFile()).getData().isResizable());
+
+        this.store.delete(Collections.singletonList(this.claim.getUniqueId()));
+        assertFalse(Files.exists(this.recordFile()));
+        assertTrue(this.store.loadAll().isEmpty());
+    }
+
+    private void flush() throws Exception {
+        this.queue.flush().get(10, TimeUnit.SECONDS);
+    }
+
+    private Path recordFile() {
+        return this.directory.resolve(this.claim.getUniqueId() + ClaimFileStore.EXTENSION);
+    }
+
+    private Path patchFile() {
+        return this.directory.resolve(this.claim.getUniqueId() + ClaimFileStore.PATCH_EXTENSION);
+    }
+}
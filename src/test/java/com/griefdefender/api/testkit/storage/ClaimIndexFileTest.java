@@ -0,0 +1,127 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.api.testkit.InMemoryClaimData;
+import com.griefdefender.api.testkit.InMemoryClaimManager;
+import com.griefdefender.api.testkit.InMemoryGriefDefender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+public class ClaimIndexFileTest {
+
+    private final UUID worldUniqueId = UUID.randomUUID();
+    private final UUID[] uniqueIds = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+    private InMemoryGriefDefender griefDefender;
+    private Path segmentFile;
+    private Path indexFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.griefDefender = InMemoryGriefDefender.install();
+        this.segmentFile = Files.createTempFile("claims", ClaimSegment.EXTENSION);
+        this.indexFile = this.segmentFile.resolveSibling(this.segmentFile.getFileName() + ClaimIndexFile.EXTENSION);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        InMemoryGriefDefender.uninstall();
+        Files.delete(this.segmentFile);
+        Files.deleteIfExists(this.indexFile);
+    }
+
+    @Test
+    public void matchingIndexFileIsUsed() throws IOException {
+        final ClaimSegment segment = this.writeSegment(3);
+        ClaimIndexFile.write(this.indexFile, segment);
+        final byte[] written = Files.readAllBytes(this.indexFile);
+
+        final InMemoryClaimManager claimManager = this.createWorld();
+        assertTrue(ClaimIndexFile.loadInto(segment, this.indexFile, claimManager));
+        assertTrue(Arrays.equals(written, Files.readAllBytes(this.indexFile)));
+        this.assertClaimsFound(claimManager, 3);
+        assertEquals(this.uniqueIds[1], claimManager.getClaimAt(40, 64, 40).getParent().getUniqueId());
+    }
+
+    @Test
+    public void staleIndexFileIsRewritten() throws IOException {
+        ClaimIndexFile.write(this.indexFile, this.writeSegment(2));
+        final ClaimSegment segment = this.writeSegment(3);
+
+        final InMemoryClaimManager claimManager = this.createWorld();
+        assertFalse(ClaimIndexFile.loadInto(segment, this.indexFile, claimManager));
+        this.assertClaimsFound(claimManager, 3);
+
+        final InMemoryClaimManager reloaded = this.createWorld();
+        assertTrue(ClaimIndexFile.loadInto(segment, this.indexFile, reloaded));
+        this.assertClaimsFound(reloaded, 3);
+    }
+
+    // Claim 0 spans chunks 0..1, claim 1 chunk 2 and claim 2 is a child of claim 1
+    private ClaimSegment writeSegment(int claimCount) throws IOException {
+        final List<ClaimRecord> records = new ArrayList<>();
+        records.add(new ClaimRecord(this.uniqueIds[0], this.createData(new Vector3i(0, 0, 0), new Vector3i(31, 255, 15), null)));
+        records.add(new ClaimRecord(this.uniqueIds[1], this.createData(new Vector3i(32, 0, 32), new Vector3i(47, 255, 47), null)));
+        if (claimCount > 2) {
+            records.add(new ClaimRecord(this.uniqueIds[2], this.createData(new Vector3i(36, 0, 36), new Vector3i(44, 255, 44), this.uniqueIds[1])));
+        }
+        ClaimSegmentWriter.write(this.segmentFile, this.worldUniqueId, records, false);
+        return ClaimSegment.open(this.segmentFile);
+    }
+
+    private InMemoryClaimData createData(Vector3i lesser, Vector3i greater, UUID parentUniqueId) {
+        final InMemoryClaimData data = new InMemoryClaimData(this.worldUniqueId, UUID.randomUUID(),
+                parentUniqueId == null ? ClaimTypes.BASIC : ClaimTypes.SUBDIVISION, lesser, greater);
+        data.setParentUniqueId(parentUniqueId);
+        return data;
+    }
+
+    private InMemoryClaimManager createWorld() {
+        return this.griefDefender.getCore().createWorld(UUID.randomUUID(), "world");
+    }
+
+    private void assertClaimsFound(InMemoryClaimManager claimManager, int claimCount) {
+        assertEquals(this.uniqueIds[0], claimManager.getClaimAt(8, 64, 8).getUniqueId());
+        assertEquals(this.uniqueIds[0], claimManager.getClaimAt(24, 64, 8).getUniqueId());
+        assertEquals(this.uniqueIds[claimCount > 2 ? 2 : 1], claimManager.getClaimAt(40, 64, 40).getUniqueId());
+        assertEquals(claimManager.getWildernessClaim(), claimManager.getClaimAt(8, 64, 40));
+        assertEquals(3, claimManager.getChunksToClaimsMap().size());
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.claim.ClaimAttribute;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.api.data.ClaimData;
+import com.griefdefender.api.data.ClanData;
+import com.griefdefender.api.data.EconomyData;
+import com.griefdefender.api.economy.PaymentType;
+import com.griefdefender.api.economy.TransactionResultType;
+import com.griefdefender.api.economy.TransactionType;
+import com.griefdefender.api.event.LoadClaimEvent;
+import com.griefdefender.api.testkit.InMemoryClaim;
+import com.griefdefender.api.testkit.InMemoryClaimData;
+import com.griefdefender.api.testkit.InMemoryClaimManager;
+import com.griefdefender.api.testkit.InMemoryGriefDefender;
+import com.griefdefender.api.testkit.InMemoryPaymentTransaction;
+import com.griefdefender.api.testkit.InMemoryRegistry;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+public class ClaimSegmentTest {
+
+    private static final ClaimAttribute ATTRIBUTE = new ClaimAttribute() {
+
+        @Override
+        public String getId() {
+            return "test:shop";
+        }
+
+        @Override
+        public String getName() {
+            return "shop";
+        }
+    };
+
+    private final UUID worldUniqueId = UUID.randomUUID();
+    private InMemoryGriefDefender griefDefender;
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.griefDefender = InMemoryGriefDefender.install();
+        this.griefDefender.getRegistry().registerType(ClaimAttribute.class, ATTRIBUTE);
+        this.file = Files.createTempFile("claims", ClaimSegment.EXTENSION);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        InMemoryGriefDefender.uninstall();
+        Files.delete(this.file);
+    }
+
+    @Test
+    public void segmentKeepsEveryField() throws IOException {
+        for (boolean compress : new boolean[] {false, true}) {
+            final UUID uniqueId = UUID.randomUUID();
+            final InMemoryClaimData data = this.createData();
+            ClaimSegmentWriter.write(this.file, this.worldUniqueId, Collections.singletonList(new ClaimRecord(uniqueId, data)), compress);
+            final ClaimRecord read = ClaimSegment.open(this.file).read(0);
+            assertEquals(uniqueId, read.getUniqueId());
+            assertClaimDataEquals(data, read.getData());
+        }
+    }
+
+    @Test
+    public void textFormatKeepsEveryField() {
+        final UUID uniqueId = UUID.randomUUID();
+        final InMemoryClaimData data = this.createData();
+        final ClaimRecord read = ClaimTextFormat.decode(ClaimTextFormat.encode(uniqueId, data));
+        assertEquals(uniqueId, read.getUniqueId());
+        assertClaimDataEquals(data, read.getData());
+    }
+
+    @Test
+    public void claimWithoutOptionalDataRoundTrips() throws IOException {
+        final UUID owner = UUID.randomUUID();
+        final InMemoryClaimData data = new InMemoryClaimData(this.worldUniqueId, owner, ClaimTypes.BASIC, new Vector3i(0, 0, 0), new Vector3i(9, 9, 9));
+        data.setEnterTitle(Title.title(Component.text("Enter"), Component.empty(), null));
+        ClaimSegmentWriter.write(this.file, this.worldUniqueId, Collections.singletonList(new ClaimRecord(UUID.randomUUID(), data)), false);
+        final ClaimData read = ClaimSegment.open(this.file).read(0).getData();
+        assertNull(read.getClanData());
+        assertNull(read.getEconomyData());
+        assertClaimDataEquals(data, read);
+        assertClaimDataEquals(data, ClaimTextFormat.decode(ClaimTextFormat.encode(UUID.randomUUID(), data)).getData());
+    }
+
+    @Test
+    public void versionOneTextRecordsAreRead() {
+        final UUID uniqueId = UUID.randomUUID();
+        final UUID owner = UUID.randomUUID();
+        final String text = "version=1\nid=" + uniqueId + "\nworld=" + this.worldUniqueId + "\nowner=" + owner + "\ntype=" + InMemoryRegistry.getCatalogId(ClaimTypes.BASIC) + "\n"
+                + "lesser=0,0,0\ngreater=9,9,9\ngreeting=Welcome\nenter-title=Hello\nenter-subtitle=there\n"
+                + "date-created=2020-01-01T00:00:00Z\ndate-last-active=2020-01-02T00:00:00Z\n";
+        final ClaimData read = ClaimTextFormat.decode(text).getData();
+        assertEquals(Component.text("Welcome"), read.getGreeting().orElse(null));
+        assertEquals(Title.title(Component.text("Hello"), Component.text("there")), read.getEnterTitle().orElse(null));
+        assertEquals(Collections.emptySet(), read.getAttributes());
+        assertNull(read.getEconomyData());
+    }
+
+    @Test
+    public void lazilyLoadedClaimsMaterializeOnFirstAccess() throws IOException {
+        final UUID parentUniqueId = UUID.randomUUID();
+        final UUID childUniqueId = UUID.randomUUID();
+        final InMemoryClaimData parentData = new InMemoryClaimData(this.worldUniqueId, UUID.randomUUID(), ClaimTypes.TOWN, new Vector3i(0, 0, 0),
+                new Vector3i(99, 255, 99));
+        final InMemoryClaimData childData = this.createChildData(parentUniqueId);
+        // the child is written first, loading adds its parent ahead of it
+        ClaimSegmentWriter.write(this.file, this.worldUniqueId, Arrays.asList(new ClaimRecord(childUniqueId, childData),
+                new ClaimRecord(parentUniqueId, parentData)), false);
+        final InMemoryClaimManager claimManager = this.griefDefender.getCore().createWorld(this.worldUniqueId, "world");
+        final List<String> events = new ArrayList<>();
+        this.griefDefender.getEventManager().getBus().register(LoadClaimEvent.Pre.class, event -> {
+            // reading the claim within Pre must not post again
+            event.getClaim().getData().getGreeting();
+            events.add("pre " + event.getClaim().getUniqueId());
+        });
+        this.griefDefender.getEventManager().getBus().register(LoadClaimEvent.Post.class, event -> events.add("post " + event.getClaim().getUniqueId()));
+
+        assertEquals(2, ClaimSegment.open(this.file).loadLazily(claimManager));
+        final InMemoryClaim parent = (InMemoryClaim) claimManager.getClaimByUUID(parentUniqueId);
+        final InMemoryClaim child = (InMemoryClaim) claimManager.getClaimByUUID(childUniqueId);
+        assertSame(child, claimManager.getClaimAt(15, 64, 15));
+        assertSame(parent, child.getParent());
+        assertTrue(parent.getChildren(false).contains(child));
+        assertEquals(childData.getOwnerUniqueId(), child.getOwnerUniqueId());
+        assertEquals(childData.getGreaterBoundaryCorner(), child.getGreaterBoundaryCorner());
+        assertFalse(parent.isMaterialized());
+        assertFalse(child.isMaterialized());
+        assertTrue(events.isEmpty(), events.toString());
+
+        assertClaimDataEquals(childData, child.getData());
+        assertTrue(child.isMaterialized());
+        assertFalse(parent.isMaterialized());
+        assertEquals(Arrays.asList("pre " + childUniqueId, "post " + childUniqueId), events);
+        child.getData().getFarewell();
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    public void claimReparentedBeforeMaterializingKeepsNewParent() throws IOException {
+        final UUID parentUniqueId = UUID.randomUUID();
+        final UUID childUniqueId = UUID.randomUUID();
+        final InMemoryClaimData parentData = new InMemoryClaimData(this.worldUniqueId, UUID.randomUUID(), ClaimTypes.TOWN, new Vector3i(0, 0, 0),
+                new Vector3i(99, 255, 99));
+        ClaimSegmentWriter.write(this.file, this.worldUniqueId, Arrays.asList(new ClaimRecord(parentUniqueId, parentData),
+                new ClaimRecord(childUniqueId, this.createChildData(parentUniqueId))), false);
+        final InMemoryClaimManager claimManager = this.griefDefender.getCore().createWorld(this.worldUniqueId, "world");
+        ClaimSegment.open(this.file).loadLazily(claimManager);
+        final InMemoryClaim child = (InMemoryClaim) claimManager.getClaimByUUID(childUniqueId);
+
+        assertTrue(claimManager.deleteClaim(claimManager.getClaimByUUID(parentUniqueId), false).successful());
+        assertFalse(child.isMaterialized());
+        assertNull(child.getParent());
+        assertSame(child, claimManager.getClaimAt(15, 64, 15));
+        assertNull(child.getData().getParentUniqueId());
+    }
+
+    private InMemoryClaimData createChildData(UUID parentUniqueId) {
+        final InMemoryClaimData data = new InMemoryClaimData(this.worldUniqueId, UUID.randomUUID(), ClaimTypes.BASIC, new Vector3i(10, 0, 10),
+                new Vector3i(19, 255, 19));
+        data.setParentUniqueId(parentUniqueId);
+        data.setGreeting(Component.text("Welcome"));
+        data.setFarewell(Component.text("Bye"));
+        return data;
+    }
+
+    private InMemoryClaimData createData() {
+        final InMemoryClaimData data = new InMemoryClaimData(this.worldUniqueId, UUID.randomUUID(), ClaimTypes.TOWN, new Vector3i(-100, 10, 200),
+                new Vector3i(-50, 120, 260));
+        data.setParentUniqueId(UUID.randomUUID());
+        data.setClaimGroupUniqueId(UUID.randomUUID());
+        data.setSpawnPos(-60, 64, 230);
+        data.setDisplayName(Component.text("Market"));
+        data.setGreeting(Component.text("Welcome to the market, stranger"));
+        data.setFarewell(Component.text("Bye"));
+        data.setEnterActionBar(Component.text("Entering"));
+        data.setExitActionBar(Component.text("Leaving"));
+        data.setEnterTitle(Title.title(Component.text("Market"), Component.text("Trade here"),
+                Title.Times.times(Duration.ofMillis(250), Duration.ofSeconds(2), Duration.ofMillis(500))));
+        data.setExitTitle(Title.title(Component.text("Wilderness"), Component.empty(), null));
+        data.setDateCreated(Instant.parse("2021-03-04T05:06:07.123456789Z"));
+        data.setDateLastActive(Instant.parse("2022-01-01T00:00:00Z"));
+        data.setDenyMessages(true);
+        data.setAllowExpiration(false);
+        data.setCuboid(true);
+        data.setInheritParent(false);
+        data.setResizable(true);
+        data.setExpired(false);
+        data.setRequiresClaimBlocks(true);
+        data.setSizeRestrictions(false);
+        data.setAccessors(new HashSet<>(Arrays.asList(UUID.randomUUID(), UUID.randomUUID())));
+        data.setBuilders(new HashSet<>(Collections.singletonList(UUID.randomUUID())));
+        data.setManagerGroups(new HashSet<>(Arrays.asList("mods", "admins, all")));
+        data.setAttributes(new HashSet<>(Collections.singletonList(ATTRIBUTE)));
+
+        final ClanData clanData = data.getOrCreateClanData();
+        clanData.setBuilderTags(new HashSet<>(Arrays.asList("red", "blue")));
+        clanData.setManagerTags(new HashSet<>(Collections.singletonList("gold")));
+
+        final UUID renter = UUID.randomUUID();
+        final EconomyData economy = data.getOrCreateEconomyData();
+        economy.setPaymentType(PaymentType.WEEKLY);
+        economy.setForRent(true);
+        economy.setRentStripNbt(true);
+        economy.setRentRate(12.5);
+        economy.setRentMinTime(2);
+        economy.setRentMaxTime(-1);
+        economy.setSalePrice(1000.25);
+        economy.setTaxBalance(-3.75);
+        economy.setRentSignPosition(-99, 70, 201);
+        economy.setRentStartDate(Instant.parse("2022-02-01T12:00:00Z"));
+        economy.setTaxPastDueDate(Instant.parse("2022-03-01T00:00:00.5Z"));
+        economy.getRenters().add(renter);
+        economy.setRentBalance(renter, 25.0);
+        economy.addPaymentTransaction(new InMemoryPaymentTransaction(TransactionType.RENT, TransactionResultType.SUCCESS, renter,
+                Instant.parse("2022-02-08T12:00:00Z"), 12.5));
+        economy.addPaymentTransaction(new InMemoryPaymentTransaction(TransactionType.TAX, TransactionResultType.FAIL, null,
+                Instant.parse("2022-02-09T00:00:00Z"), 3.75));
+        return data;
+    }
+
+    private static void assertClaimDataEquals(ClaimData expected, ClaimData actual) {
+        assertEquals(expected.getWorldUniqueId(), actual.getWorldUniqueId());
+        assertEquals(expected.getOwnerUniqueId(), actual.getOwnerUniqueId());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getLesserBoundaryCorner(), actual.getLesserBoundaryCorner());
+        assertEquals(expected.getGreaterBoundaryCorner(), actual.getGreaterBoundaryCorner());
+        assertEquals(expected.getParentUniqueId(), actual.getParentUniqueId());
+        assertEquals(expected.getClaimGroupUniqueId(), actual.getClaimGroupUniqueId());
+        assertEquals(expected.getSpawnPos(), actual.getSpawnPos());
+        assertEquals(expected.getDisplayNameComponent(), actual.getDisplayNameComponent());
+        assertEquals(expected.getGreeting(), actual.getGreeting());
+        assertEquals(expected.getFarewell(), actual.getFarewell());
+        assertEquals(expected.getEnterActionBar(), actual.getEnterActionBar());
+        assertEquals(expected.getExitActionBar(), actual.getExitActionBar());
+        assertEquals(expected.getEnterTitle(), actual.getEnterTitle());
+        assertEquals(expected.getExitTitle(), actual.getExitTitle());
+        assertEquals(expected.getDateCreated(), actual.getDateCreated());
+        assertEquals(expected.getDateLastActive(), actual.getDateLastActive());
+        assertEquals(expected.allowDenyMessages(), actual.allowDenyMessages());
+        assertEquals(expected.allowExpiration(), actual.allowExpiration());
+        assertEquals(expected.isCuboid(), actual.isCuboid());
+        assertEquals(expected.doesInheritParent(), actual.doesInheritParent());
+        assertEquals(expected.isResizable(), actual.isResizable());
+        assertEquals(expected.isExpired(), actual.isExpired());
+        assertEquals(expected.requiresClaimBlocks(), actual.requiresClaimBlocks());
+        assertEquals(expected.hasSizeRestrictions(), actual.hasSizeRestrictions());
+        assertEquals(expected.getAccessors(), actual.getAccessors());
+        assertEquals(expected.getBuilders(), actual.getBuilders());
+        assertEquals(expected.getContainers(), actual.getContainers());
+        assertEquals(expected.getManagers(), actual.getManagers());
+        assertEquals(expected.getResidents(), actual.getResidents());
+        assertEquals(expected.getAccessorGroups(), actual.getAccessorGroups());
+        assertEquals(expected.getBuilderGroups(), actual.getBuilderGroups());
+        assertEquals(expected.getContainerGroups(), actual.getContainerGroups());
+        assertEquals(expected.getManagerGroups(), actual.getManagerGroups());
+        assertEquals(expected.getResidentGroups(), actual.getResidentGroups());
+        assertEquals(expected.getAttributes(), actual.getAttributes());
+
+        final ClanData expectedClan = expected.getClanData();
+        final ClanData actualClan = actual.getClanData();
+        assertEquals(expectedClan == null, actualClan == null);
+        if (expectedClan != null) {
+            assertEquals(expectedClan.getAccessorTags(), actualClan.getAccessorTags());
+            assertEquals(expectedClan.getBuilderTags(), actualClan.getBuilderTags());
+            assertEquals(expectedClan.getContainerTags(), actualClan.getContainerTags());
+            assertEquals(expectedClan.getManagerTags(), actualClan.getManagerTags());
+            assertEquals(expectedClan.getResidentTags(), actualClan.getResidentTags());
+        }
+
+        final EconomyData expectedEconomy = expected.getEconomyData();
+        final EconomyData actualEconomy = actual.getEconomyData();
+        assertEquals(expectedEconomy == null, actualEconomy == null);
+        if (expectedEconomy != null) {
+            assertEquals(expectedEconomy.getPaymentType(), actualEconomy.getPaymentType());
+            assertEquals(expectedEconomy.isForSale(), actualEconomy.isForSale());
+            assertEquals(expectedEconomy.isForRent(), actualEconomy.isForRent());
+            assertEquals(expectedEconomy.getRentBreakAbility(), actualEconomy.getRentBreakAbility());
+            assertEquals(expectedEconomy.getRentStripNbt(), actualEconomy.getRentStripNbt());
+            assertEquals(expectedEconomy.getRentRate(), actualEconomy.getRentRate());
+            assertEquals(expectedEconomy.getRentMinTime(), actualEconomy.getRentMinTime());
+            assertEquals(expectedEconomy.getRentMaxTime(), actualEconomy.getRentMaxTime());
+            assertEquals(expectedEconomy.getSalePrice(), actualEconomy.getSalePrice());
+            assertEquals(expectedEconomy.getTaxBalance(), actualEconomy.getTaxBalance());
+            assertEquals(expectedEconomy.getRentSignPosition(), actualEconomy.getRentSignPosition());
+            assertEquals(expectedEconomy.getSaleSignPosition(), actualEconomy.getSaleSignPosition());
+            assertEquals(expectedEconomy.getRentPastDueDate(), actualEconomy.getRentPastDueDate());
+            assertEquals(expectedEconomy.getTaxPastDueDate(), actualEconomy.getTaxPastDueDate());
+            assertEquals(expectedEconomy.getRentStartDate(), actualEconomy.getRentStartDate());
+            assertEquals(expectedEconomy.getRentEndDate(), actualEconomy.getRentEndDate());
+            assertEquals(expectedEconomy.getRentPaymentDueDate(), actualEconomy.getRentPaymentDueDate());
+            assertEquals(expectedEconomy.getSaleEndDate(), actualEconomy.getSaleEndDate());
+            assertEquals(expectedEconomy.getRenters(), actualEconomy.getRenters());
+            assertEquals(expectedEconomy.getDelinquentRenters(), actualEconomy.getDelinquentRenters());
+            assertEquals(expectedEconomy.getRentBalances(), actualEconomy.getRentBalances());
+            for (TransactionType type : TransactionType.values()) {
+                assertEquals(expectedEconomy.getPaymentTransactions(type), actualEconomy.getPaymentTransactions(type));
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.api.testkit.InMemoryClaimData;
+import com.griefdefender.api.testkit.InMemoryClaimManager;
+import com.griefdefender.api.testkit.InMemoryGriefDefender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+public class ParallelClaimLoaderTest {
+
+    // spans several leaves so shards of parents and children are merged
+    private static final int PARENTS = 400;
+
+    private InMemoryGriefDefender griefDefender;
+    private ForkJoinPool pool;
+    private final Map<UUID, Integer> progress = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> totals = new ConcurrentHashMap<>();
+    private ParallelClaimLoader loader;
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.griefDefender = InMemoryGriefDefender.install();
+        this.pool = new ForkJoinPool(4);
+        this.loader = new ParallelClaimLoader(this.pool, (worldUniqueId, loaded, total) -> {
+            this.progress.merge(worldUniqueId, loaded, Math::max);
+            final Integer previous = this.totals.putIfAbsent(worldUniqueId, total);
+            assertTrue(previous == null || previous == total);
+            assertTrue(loaded <= total);
+        });
+        this.directory = Files.createTempDirectory("claims");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        this.pool.shutdown();
+        this.pool.awaitTermination(10, TimeUnit.SECONDS);
+        InMemoryGriefDefender.uninstall();
+        delete(this.directory);
+    }
+
+    @Test
+    public void segmentShardsAreMergedAndLinked() throws IOException {
+        for (boolean lazy : new boolean[] {false, true}) {
+            final UUID worldUniqueId = UUID.randomUUID();
+            final List<ClaimRecord> records = createRecords(worldUniqueId);
+            final Path file = this.directory.resolve(worldUniqueId + ClaimSegment.EXTENSION);
+            ClaimSegmentWriter.write(file, worldUniqueId, records, false);
+            final InMemoryClaimManager claimManager = this.griefDefender.getCore().createWorld(worldUniqueId, "world");
+
+            assertEquals(records.size(), this.loader.load(ClaimSegment.open(file), claimManager, lazy));
+            this.assertLoaded(claimManager, records);
+        }
+    }
+
+    @Test
+    public void worldsAreLoadedFromFileStores() throws IOException {
+        final Map<InMemoryClaimManager, ClaimFileStore> worlds = new LinkedHashMap<>();
+        final Map<InMemoryClaimManager, List<ClaimRecord>> records = new LinkedHashMap<>();
+        for (int i = 0; i < 2; i++) {
+            final UUID worldUniqueId = UUID.randomUUID();
+            final ClaimFileStore store = new ClaimFileStore(this.directory.resolve(worldUniqueId.toString()));
+            final InMemoryClaimManager claimManager = this.griefDefender.getCore().createWorld(worldUniqueId, "world" + i);
+            records.put(claimManager, createRecords(worldUniqueId));
+            store.writeRecords(records.get(claimManager));
+            worlds.put(claimManager, store);
+        }
+
+        assertEquals(4 * PARENTS, this.loader.loadWorlds(worlds));
+        for (Map.Entry<InMemoryClaimManager, List<ClaimRecord>> entry : records.entrySet()) {
+            this.assertLoaded(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Test
+    public void readFailureIsRethrownAsIOException() throws IOException {
+        final UUID worldUniqueId = UUID.randomUUID();
+        final ClaimFileStore store = new ClaimFileStore(this.directory.resolve(worldUniqueId.toString()));
+        store.writeRecords(createRecords(worldUniqueId));
+        // listed as a record, but cannot be read
+        Files.createDirectory(store.getDirectory().resolve(UUID.randomUUID() + ClaimFileStore.EXTENSION));
+        final InMemoryClaimManager claimManager = this.griefDefender.getCore().createWorld(worldUniqueId, "world");
+
+        assertThrows(IOException.class, () -> this.loader.load(store, claimManager));
+        final Map<InMemoryClaimManager, ClaimFileStore> worlds = new LinkedHashMap<>();
+        worlds.put(this.griefDefender.getCore().createWorld(UUID.randomUUID(), "empty"), new ClaimFileStore(this.directory.resolve("empty")));
+        worlds.put(claimManager, store);
+        assertThrows(IOException.class, () -> this.loader.loadWorlds(worlds));
+    }
+
+    private void assertLoaded(InMemoryClaimManager claimManager, List<ClaimRecord> records) {
+        final UUID worldUniqueId = claimManager.getWorldId();
+        assertEquals(records.size(), (int) this.totals.get(worldUniqueId));
+        assertEquals(records.size(), (int) this.progress.get(worldUniqueId));
+        assertEquals(records.size(), claimManager.getWorldClaims().size());
+        for (int i = 0; i < PARENTS; i++) {
+            final Claim parent = claimManager.getClaimByUUID(records.get(i).getUniqueId());
+            final Claim child = claimManager.getClaimByUUID(records.get(PARENTS + i).getUniqueId());
+            assertNull(parent.getParent());
+            assertSame(parent, child.getParent());
+            assertSame(child, claimManager.getClaimAt(i * 100 + 15, 64, 15));
+            assertSame(parent, claimManager.getClaimAt(i * 100 + 40, 64, 40));
+        }
+    }
+
+    /**
+     * Creates parents followed by one child each, so a child and its parent
+     * are read by different leaves.
+     */
+    private static List<ClaimRecord> createRecords(UUID worldUniqueId) {
+        final List<ClaimRecord> records = new ArrayList<>(PARENTS * 2);
+        for (int i = 0; i < PARENTS; i++) {
+            final InMemoryClaimData data = new InMemoryClaimData(worldUniqueId, UUID.randomUUID(), ClaimTypes.TOWN, new Vector3i(i * 100, 0, 0),
+                    new Vector3i(i * 100 + 49, 255, 49));
+            records.add(new ClaimRecord(UUID.randomUUID(), data));
+        }
+        for (int i = 0; i < PARENTS; i++) {
+            final InMemoryClaimData data = new InMemoryClaimData(worldUniqueId, UUID.randomUUID(), ClaimTypes.BASIC, new Vector3i(i * 100 + 10, 0, 10),
+                    new Vector3i(i * 100 + 19, 255, 19));
+            data.setParentUniqueId(records.get(i).getUniqueId());
+            records.add(new ClaimRecord(UUID.randomUUID(), data));
+        }
+        return records;
+    }
+
+    private static void delete(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+                for (Path child : stream) {
+                    delete(child);
+                }
+            }
+        }
+        Files.delete(path);
+    }
+}
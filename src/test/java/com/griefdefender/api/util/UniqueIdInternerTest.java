@@ -0,0 +1,63 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class UniqueIdInternerTest {
+
+    @Test
+    public void idsAreDenseAndStable() {
+        final UniqueIdInterner interner = new UniqueIdInterner();
+        final List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            final UUID uuid = UUID.randomUUID();
+            uuids.add(uuid);
+            assertEquals(i, interner.intern(uuid));
+        }
+        assertEquals(1000, interner.size());
+        for (int i = 0; i < uuids.size(); i++) {
+            assertEquals(i, interner.intern(uuids.get(i)));
+            assertEquals(i, interner.getId(uuids.get(i)));
+            assertEquals(uuids.get(i), interner.getUniqueId(i));
+        }
+    }
+
+    @Test
+    public void lookupsDoNotIntern() {
+        final UniqueIdInterner interner = new UniqueIdInterner();
+        assertEquals(-1, interner.getId(UUID.randomUUID()));
+        assertNull(interner.getUniqueId(0));
+        assertNull(interner.getUniqueId(-1));
+        assertEquals(0, interner.size());
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.util.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.griefdefender.api.event.Event;
+import com.griefdefender.api.event.EventCause;
+import com.griefdefender.api.event.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventInvokerProviderTest {
+
+    @Test
+    public void invokerCallsListenerMethod() throws Throwable {
+        final ClassListener listener = new ClassListener();
+        final List<EventInvoker> invokers = EventInvokerProvider.createFor(listener);
+        assertEquals(1, invokers.size());
+
+        final EventInvoker invoker = invokers.get(0);
+        assertSame(listener, invoker.getListener());
+        assertSame(TestEvent.class, invoker.getEventType());
+        assertEquals(5, invoker.postOrder());
+        assertFalse(invoker.consumeCancelledEvents());
+        assertEquals(ClassListener.class.getMethod("onEvent", TestEvent.class), invoker.getMethod());
+        assertEquals(ClassListener.class.getName() + "#onEvent", invoker.toString());
+
+        final TestEvent event = new TestEvent();
+        invoker.invoke(event);
+        assertEquals(1, listener.received.size());
+        assertSame(event, listener.received.get(0));
+    }
+
+    @Test
+    public void invokerCallsInterfaceMethodOfNonPublicListener() throws Throwable {
+        final InterfaceListenerImpl listener = new InterfaceListenerImpl();
+        final List<EventInvoker> invokers = EventInvokerProvider.createFor(listener);
+        assertEquals(1, invokers.size());
+        assertEquals(InterfaceListener.class.getName() + "#onEvent", invokers.get(0).toString());
+
+        invokers.get(0).invoke(new TestEvent());
+        assertEquals(1, listener.count);
+    }
+
+    @Test
+    public void invokerCallsInheritedMethodOfNonPublicListener() throws Throwable {
+        final ClassListenerImpl listener = new ClassListenerImpl();
+        final List<EventInvoker> invokers = EventInvokerProvider.createFor(listener);
+        assertEquals(1, invokers.size());
+        assertTrue(invokers.get(0).consumeCancelledEvents());
+
+        invokers.get(0).invoke(new TestEvent());
+        assertEquals(1, listener.received.size());
+    }
+
+    @Test
+    public void listenersOfOneClassShareInvokerClasses() {
+        final EventInvoker first = EventInvokerProvider.createFor(new ClassListener()).get(0);
+        final EventInvoker second = EventInvokerProvider.createFor(new ClassListener()).get(0);
+        assertSame(first.getClass(), second.getClass());
+        assertTrue(first.getClass().getClassLoader() instanceof GeneratorUtils.LocalClassLoader);
+    }
+
+    @Test
+    public void nonPublicMethodsAreNotSubscribed() {
+        assertTrue(EventInvokerProvider.createFor(new NonPublicMethodListener()).isEmpty());
+    }
+
+    @Test
+    public void invalidMethodsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> EventInvokerProvider.createFor(new NonPublicClassListener()));
+        assertThrows(IllegalArgumentException.class, () -> EventInvokerProvider.createFor(new StaticMethodListener()));
+        assertThrows(IllegalArgumentException.class, () -> EventInvokerProvider.createFor(new ReturningMethodListener()));
+        assertThrows(IllegalArgumentException.class, () -> EventInvokerProvider.createFor(new NonEventMethodListener()));
+    }
+
+    @Test
+    public void customInvokerHasNoMethod() {
+        final EventInvoker invoker = new EventInvoker(new Object(), TestEvent.class, 0, true) {
+
+            @Override
+            public void invoke(Object event) {
+            }
+        };
+        assertNull(invoker.getMethod());
+    }
+
+    public static final class TestEvent implements Event {
+
+        private final EventCause cause = EventCause.of("test");
+
+        @Override
+        public EventCause getCause() {
+            return this.cause;
+        }
+    }
+
+    public static class ClassListener {
+
+        final List<TestEvent> received = new ArrayList<>();
+
+        @Subscribe(order = 5, consumeCancelled = false)
+        public void onEvent(TestEvent event) {
+            this.received.add(event);
+        }
+    }
+
+    private static final class ClassListenerImpl extends PublicBaseListener {
+    }
+
+    public static class PublicBaseListener {
+
+        final List<TestEvent> received = new ArrayList<>();
+
+        @Subscribe
+        public void onEvent(TestEvent event) {
+            this.received.add(event);
+        }
+    }
+
+    public interface InterfaceListener {
+
+        @Subscribe
+        default void onEvent(TestEvent event) {
+            this.increment();
+        }
+
+        void increment();
+    }
+
+    private static final class InterfaceListenerImpl implements InterfaceListener {
+
+        int count;
+
+        @Override
+        public void increment() {
+            this.count++;
+        }
+    }
+
+    public static final class NonPublicMethodListener {
+
+        @Subscribe
+        void onEvent(TestEvent event) {
+        }
+
+        @Subscribe
+        protected void onOtherEvent(TestEvent event) {
+        }
+    }
+
+    static final class NonPublicClassListener {
+
+        @Subscribe
+        public void onEvent(TestEvent event) {
+        }
+    }
+
+    public static final class StaticMethodListener {
+
+        @Subscribe
+        public static void onEvent(TestEvent event) {
+        }
+    }
+
+    public static final class ReturningMethodListener {
+
+        @Subscribe
+        public boolean onEvent(TestEvent event) {
+            return true;
+        }
+    }
+
+    public static final class NonEventMethodListener {
+
+        @Subscribe
+        public void onEvent(Object event) {
+        }
+    }
+}
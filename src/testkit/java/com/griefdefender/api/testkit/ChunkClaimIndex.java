@@ -0,0 +1,169 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Maps chunk hashes to the top level claims touching the chunk.
+ * 
+ * <br><br>Uses open addressing over primitive keys so lookups neither box
+ * the hash nor depend on {@link Long#hashCode()}, which collides heavily
+ * for packed chunk coordinates and degrades a {@link java.util.HashMap}
+ * into tree bins.
+ */
+final class ChunkClaimIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] keys;
+    private List<InMemoryClaim>[] values;
+    private int size;
+    private int mask;
+
+    ChunkClaimIndex() {
+        this.allocate(INITIAL_CAPACITY);
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    void clear() {
+        this.size = 0;
+        this.allocate(INITIAL_CAPACITY);
+    }
+
+    @Nullable List<InMemoryClaim> get(long hash) {
+        int slot = mix(hash) & this.mask;
+        List<InMemoryClaim> value;
+        while ((value = this.values[slot]) != null) {
+            if (this.keys[slot] == hash) {
+                return value;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return null;
+    }
+
+    List<InMemoryClaim> getOrCreate(long hash) {
+        int slot = mix(hash) & this.mask;
+        List<InMemoryClaim> value;
+        while ((value = this.values[slot]) != null) {
+            if (this.keys[slot] == hash) {
+                return value;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        value = new ArrayList<>(1);
+        this.keys[slot] = hash;
+        this.values[slot] = value;
+        if (++this.size > (this.mask + 1) >> 1) {
+            this.rehash();
+        }
+        return value;
+    }
+
+    void remove(long hash) {
+        int slot = mix(hash) & this.mask;
+        while (this.values[slot] != null) {
+            if (this.keys[slot] == hash) {
+                this.shiftBack(slot);
+                this.size--;
+                return;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+    }
+
+    /**
+     * Appends the claims of another index to the lists of this index.
+     */
+    void addAll(ChunkClaimIndex other) {
+        for (int i = 0; i < other.values.length; i++) {
+            if (other.values[i] != null) {
+                this.getOrCreate(other.keys[i]).addAll(other.values[i]);
+            }
+        }
+    }
+
+    void forEach(BiConsumer<Long, List<InMemoryClaim>> consumer) {
+        for (int i = 0; i < this.values.length; i++) {
+            if (this.values[i] != null) {
+                consumer.accept(this.keys[i], this.values[i]);
+            }
+        }
+    }
+
+    // Moves following entries of the probe sequence into the freed slot
+    private void shiftBack(int slot) {
+        int free = slot;
+        int next = (free + 1) & this.mask;
+        while (this.values[next] != null) {
+            final int home = mix(this.keys[next]) & this.mask;
+            if (((next - home) & this.mask) >= ((next - free) & this.mask)) {
+                this.keys[free] = this.keys[next];
+                this.values[free] = this.values[next];
+                free = next;
+            }
+            next = (next + 1) & this.mask;
+        }
+        this.values[free] = null;
+    }
+
+    private void rehash() {
+        final long[] oldKeys = this.keys;
+        final List<InMemoryClaim>[] oldValues = this.values;
+        this.allocate(oldValues.length << 1);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = mix(oldKeys[i]) & this.mask;
+                while (this.values[slot] != null) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new List[capacity];
+        this.mask = capacity - 1;
+    }
+
+    private static int mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.claim.ClaimType;
+
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The part of a claim kept in memory before its {@link InMemoryClaimData}
+ * is materialized, enough to index and find the claim.
+ */
+public final class ClaimHeader {
+
+    private final UUID worldUniqueId;
+    private final UUID ownerUniqueId;
+    private final ClaimType type;
+    private final @Nullable UUID parentUniqueId;
+    private final Vector3i lesserBoundaryCorner;
+    private final Vector3i greaterBoundaryCorner;
+    private final boolean cuboid;
+
+    public ClaimHeader(UUID worldUniqueId, UUID ownerUniqueId, ClaimType type, @Nullable UUID parentUniqueId, Vector3i lesser, Vector3i greater,
+            boolean cuboid) {
+        this.worldUniqueId = worldUniqueId;
+        this.ownerUniqueId = ownerUniqueId;
+        this.type = type;
+        this.parentUniqueId = parentUniqueId;
+        this.lesserBoundaryCorner = lesser;
+        this.greaterBoundaryCorner = greater;
+        this.cuboid = cuboid;
+    }
+
+    public UUID getWorldUniqueId() {
+        return this.worldUniqueId;
+    }
+
+    public UUID getOwnerUniqueId() {
+        return this.ownerUniqueId;
+    }
+
+    public ClaimType getType() {
+        return this.type;
+    }
+
+    public @Nullable UUID getParentUniqueId() {
+        return this.parentUniqueId;
+    }
+
+    public Vector3i getLesserBoundaryCorner() {
+        return this.lesserBoundaryCorner;
+    }
+
+    public Vector3i getGreaterBoundaryCorner() {
+        return this.greaterBoundaryCorner;
+    }
+
+    public boolean isCuboid() {
+        return this.cuboid;
+    }
+}
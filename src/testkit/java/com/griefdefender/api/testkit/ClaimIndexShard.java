@@ -0,0 +1,101 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A part of the claims of a world built apart from its
+ * {@link InMemoryClaimManager}, such as on a loader thread.
+ * 
+ * <br><br>Top level claims are indexed by chunk as they are added, so the
+ * manager only has to merge the index. Parents are linked by
+ * {@link InMemoryClaimManager#addClaims(ClaimIndexShard)} once every shard
+ * is known.
+ * 
+ * <br><br>Note: A shard is not thread-safe, each thread builds its own and
+ * shards are combined with {@link #merge(ClaimIndexShard)}.
+ */
+public final class ClaimIndexShard {
+
+    private final List<InMemoryClaim> claims = new ArrayList<>();
+    private final List<UUID> parentUniqueIds = new ArrayList<>();
+    private final ChunkClaimIndex index = new ChunkClaimIndex();
+
+    /**
+     * Adds a claim.
+     * 
+     * @param claim The claim
+     * @param parentUniqueId The unique id of its parent, or null for a top
+     *     level claim
+     */
+    public void add(InMemoryClaim claim, @Nullable UUID parentUniqueId) {
+        this.claims.add(claim);
+        this.parentUniqueIds.add(parentUniqueId);
+        if (parentUniqueId == null) {
+            for (Long hash : claim.getChunkHashes()) {
+                this.index.getOrCreate(hash).add(claim);
+            }
+        }
+    }
+
+    /**
+     * Moves the claims of another shard into this shard.
+     * 
+     * @param other The other shard
+     * @return This shard
+     */
+    public ClaimIndexShard merge(ClaimIndexShard other) {
+        this.claims.addAll(other.claims);
+        this.parentUniqueIds.addAll(other.parentUniqueIds);
+        this.index.addAll(other.index);
+        return this;
+    }
+
+    /**
+     * Gets the amount of claims in this shard.
+     * 
+     * @return The amount of claims
+     */
+    public int size() {
+        return this.claims.size();
+    }
+
+    List<InMemoryClaim> getClaims() {
+        return this.claims;
+    }
+
+    List<UUID> getParentUniqueIds() {
+        return this.parentUniqueIds;
+    }
+
+    ChunkClaimIndex getIndex() {
+        return this.index;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.event.BatchClaimEvent;
+import com.griefdefender.api.event.ClaimEvent;
+import com.griefdefender.api.event.EventCause;
+import com.griefdefender.api.event.RemoveClaimEvent;
+import com.griefdefender.api.event.TrustClaimEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A {@link BatchClaimEvent} posted when an {@link InMemoryClaimEventBatch}
+ * closes.
+ */
+abstract class InMemoryBatchClaimEvent<E extends ClaimEvent> extends InMemoryClaimEvent implements BatchClaimEvent<E> {
+
+    private final Class<E> eventType;
+    private final List<E> events;
+
+    InMemoryBatchClaimEvent(EventCause cause, Class<E> eventType, List<E> events) {
+        super(cause, affectedClaims(events));
+        this.eventType = eventType;
+        this.events = Collections.unmodifiableList(events);
+    }
+
+    private static List<Claim> affectedClaims(List<? extends ClaimEvent> events) {
+        final Set<Claim> claims = new LinkedHashSet<>();
+        for (ClaimEvent event : events) {
+            claims.addAll(event.getClaims());
+        }
+        return Collections.unmodifiableList(new ArrayList<>(claims));
+    }
+
+    @Override
+    public Class<E> getEventType() {
+        return this.eventType;
+    }
+
+    @Override
+    public List<E> getEvents() {
+        return this.events;
+    }
+
+    static final class Trust extends InMemoryBatchClaimEvent<TrustClaimEvent> implements BatchClaimEvent.Trust {
+
+        Trust(EventCause cause, List<TrustClaimEvent> events) {
+            super(cause, TrustClaimEvent.class, events);
+        }
+    }
+
+    static final class Remove extends InMemoryBatchClaimEvent<RemoveClaimEvent> implements BatchClaimEvent.Remove {
+
+        Remove(EventCause cause, List<RemoveClaimEvent> events) {
+            super(cause, RemoveClaimEvent.class, events);
+        }
+    }
+}
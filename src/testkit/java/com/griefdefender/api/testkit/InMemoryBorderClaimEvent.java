@@ -0,0 +1,189 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.User;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.event.BorderClaimEvent;
+import com.griefdefender.api.event.EventCause;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link BorderClaimEvent} for a {@link User} moving between claims.
+ * 
+ * <br><br>Messages and titles start out as the greeting, farewell and
+ * titles of the claims involved, matching what the plugin presents
+ * when no listener changes them.
+ */
+public class InMemoryBorderClaimEvent implements BorderClaimEvent {
+
+    private final EventCause cause;
+    private final Claim exitClaim;
+    private final List<Claim> claims;
+    private final User user;
+    private @Nullable Component message;
+    private @Nullable Component enterChatMessage;
+    private @Nullable Component exitChatMessage;
+    private @Nullable Component enterActionBar;
+    private @Nullable Component exitActionBar;
+    private @Nullable Title enterTitle;
+    private @Nullable Title exitTitle;
+    private boolean cancelled;
+
+    public InMemoryBorderClaimEvent(EventCause cause, Claim exitClaim, Claim enterClaim, User user) {
+        this.cause = cause;
+        this.exitClaim = exitClaim;
+        this.claims = Collections.singletonList(enterClaim);
+        this.user = user;
+        this.enterChatMessage = enterClaim.getData().getGreeting().orElse(null);
+        this.exitChatMessage = exitClaim.getData().getFarewell().orElse(null);
+        this.enterTitle = enterClaim.getData().getEnterTitle().orElse(null);
+        this.exitTitle = exitClaim.getData().getExitTitle().orElse(null);
+    }
+
+    @Override
+    public EventCause getCause() {
+        return this.cause;
+    }
+
+    @Override
+    public Object getSource() {
+        return this.user;
+    }
+
+    @Override
+    public @Nullable User getSourceUser() {
+        return this.user;
+    }
+
+    @Override
+    public List<Claim> getClaims() {
+        return this.claims;
+    }
+
+    @Override
+    public void setMessage(Component message) {
+        this.message = message;
+    }
+
+    @Override
+    public Optional<Component> getMessage() {
+        return Optional.ofNullable(this.message);
+    }
+
+    @Override
+    public Claim getExitClaim() {
+        return this.exitClaim;
+    }
+
+    @Override
+    public UUID getEntityUniqueId() {
+        return this.user.getUniqueId();
+    }
+
+    @Override
+    public @Nullable User getUser() {
+        return this.user;
+    }
+
+    @Override
+    public Optional<Component> getEnterChatMessage() {
+        return Optional.ofNullable(this.enterChatMessage);
+    }
+
+    @Override
+    public Optional<Component> getExitChatMessage() {
+        return Optional.ofNullable(this.exitChatMessage);
+    }
+
+    @Override
+    public Optional<Component> getEnterActionBar() {
+        return Optional.ofNullable(this.enterActionBar);
+    }
+
+    @Override
+    public Optional<Component> getExitActionBar() {
+        return Optional.ofNullable(this.exitActionBar);
+    }
+
+    @Override
+    public Optional<Title> getEnterTitle() {
+        return Optional.ofNullable(this.enterTitle);
+    }
+
+    @Override
+    public Optional<Title> getExitTitle() {
+        return Optional.ofNullable(this.exitTitle);
+    }
+
+    @Override
+    public void setEnterChatMessage(@Nullable Component message) {
+        this.enterChatMessage = message;
+    }
+
+    @Override
+    public void setExitChatMessage(@Nullable Component message) {
+        this.exitChatMessage = message;
+    }
+
+    @Override
+    public void setEnterActionBar(@Nullable Component message) {
+        this.enterActionBar = message;
+    }
+
+    @Override
+    public void setExitActionBar(@Nullable Component message) {
+        this.exitActionBar = message;
+    }
+
+    @Override
+    public void setEnterTitle(@Nullable Title title) {
+        this.enterTitle = title;
+    }
+
+    @Override
+    public void setExitTitle(@Nullable Title title) {
+        this.exitTitle = title;
+    }
+
+    @Override
+    public boolean cancelled() {
+        return this.cancelled;
+    }
+
+    @Override
+    public void cancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+}
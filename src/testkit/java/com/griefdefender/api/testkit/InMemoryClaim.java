@@ -0,0 +1,1358 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.Clan;
+import com.griefdefender.api.Subject;
+import com.griefdefender.api.Tristate;
+import com.griefdefender.api.User;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.claim.ClaimAccessFastPath;
+import com.griefdefender.api.claim.ClaimAttribute;
+import com.griefdefender.api.claim.ClaimContexts;
+import com.griefdefender.api.claim.ClaimGroup;
+import com.griefdefender.api.claim.ClaimManager;
+import com.griefdefender.api.claim.ClaimResult;
+import com.griefdefender.api.claim.ClaimResultType;
+import com.griefdefender.api.claim.ClaimSchematic;
+import com.griefdefender.api.claim.ClaimSnapshot;
+import com.griefdefender.api.claim.ClaimType;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.api.claim.ClaimVisual;
+import com.griefdefender.api.claim.EffectiveTrustCache;
+import com.griefdefender.api.claim.InheritanceChain;
+import com.griefdefender.api.claim.SnapshotCreateSettings;
+import com.griefdefender.api.claim.TrustTable;
+import com.griefdefender.api.claim.TrustType;
+import com.griefdefender.api.claim.TrustTypes;
+import com.griefdefender.api.data.ClaimData;
+import com.griefdefender.api.data.ClaimDataField;
+import com.griefdefender.api.data.ClanData;
+import com.griefdefender.api.event.BatchClaimEvent;
+import com.griefdefender.api.event.ClaimEventBatch;
+import com.griefdefender.api.event.ClanTrustClaimEvent;
+import com.griefdefender.api.event.GroupTrustClaimEvent;
+import com.griefdefender.api.event.LoadClaimEvent;
+import com.griefdefender.api.event.UserTrustClaimEvent;
+import com.griefdefender.api.permission.Context;
+import com.griefdefender.api.permission.ContextKeys;
+import com.griefdefender.api.permission.PermissionResult;
+import com.griefdefender.api.permission.flag.Flag;
+import com.griefdefender.api.permission.flag.FlagDefinition;
+import com.griefdefender.api.permission.flag.Flags;
+import com.griefdefender.api.permission.option.Option;
+import com.griefdefender.api.metrics.MetricKeys;
+import com.griefdefender.api.metrics.Metrics;
+import com.griefdefender.api.metrics.Timer;
+import com.griefdefender.api.permission.option.OptionDefinition;
+import com.griefdefender.api.provider.ClanProvider;
+
+import net.kyori.adventure.text.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link Claim} kept in memory.
+ * 
+ * <br><br>Bounds, hierarchy, user, group and clan trust, flag values and
+ * options are implemented. Clans are resolved through the registered
+ * {@link ClanProvider}. Operations that need a server, such as snapshots,
+ * resizing, changing the owner or type, friendly identifiers and
+ * definitions, throw {@link UnsupportedOperationException}.
+ * 
+ * <br><br>A claim created from a {@link ClaimHeader} materializes its data
+ * on first access, timed under {@link MetricKeys#CLAIM_MATERIALIZE}.
+ */
+public class InMemoryClaim implements Claim {
+
+    private static final Timer MATERIALIZE_TIMER = Metrics.timer(MetricKeys.CLAIM_MATERIALIZE);
+
+    // indexed by trust level
+    private static final ClaimDataField[] USER_TRUST_FIELDS = {null, ClaimDataField.ACCESSORS, ClaimDataField.RESIDENTS,
+            ClaimDataField.CONTAINERS, ClaimDataField.BUILDERS, ClaimDataField.MANAGERS};
+    private static final ClaimDataField[] GROUP_TRUST_FIELDS = {null, ClaimDataField.ACCESSOR_GROUPS, ClaimDataField.RESIDENT_GROUPS,
+            ClaimDataField.CONTAINER_GROUPS, ClaimDataField.BUILDER_GROUPS, ClaimDataField.MANAGER_GROUPS};
+
+    private final UUID uniqueId;
+    private final InMemoryClaimManager claimManager;
+    private final @Nullable ClaimHeader header;
+    private @Nullable Supplier<InMemoryClaimData> loader;
+    private volatile @Nullable InMemoryClaimData data;
+    // guarded by this
+    private boolean materializing;
+    private final Context context;
+    private final List<InMemoryClaim> children = new ArrayList<>();
+    private final Map<Flag, Tristate> flagValues = new ConcurrentHashMap<>();
+    private final Map<Option<?>, Object> optionValues = new ConcurrentHashMap<>();
+    private final EffectiveTrustCache trustCache = new EffectiveTrustCache();
+    private final ToIntFunction<UUID> trustResolver = this::resolveTrustLevel;
+    private @Nullable InMemoryClaim parent;
+    private volatile @Nullable InheritanceChain inheritanceChain;
+    private volatile @Nullable TrustTable trustTable;
+    // flag values version << 1 | deny bit, -1 until computed
+    private volatile long denyOverrides = -1;
+
+    public InMemoryClaim(UUID uniqueId, InMemoryClaimManager claimManager, InMemoryClaimData data) {
+        this.uniqueId = uniqueId;
+        this.claimManager = claimManager;
+        this.header = null;
+        this.data = data;
+        this.context = new Context(ContextKeys.CLAIM, uniqueId.toString());
+        data.setClaim(this);
+    }
+
+    /**
+     * Creates a claim materializing its data on first access.
+     * 
+     * <br><br>Until then, only the header is kept and lookups of bounds,
+     * owner, type and hierarchy do not load the data.
+     * 
+     * @param uniqueId The unique id of claim
+     * @param claimManager The claim manager
+     * @param header The header of claim
+     * @param loader Loads the data of claim
+     */
+    public InMemoryClaim(UUID uniqueId, InMemoryClaimManager claimManager, ClaimHeader header, Supplier<InMemoryClaimData> loader) {
+        this.uniqueId = uniqueId;
+        this.claimManager = claimManager;
+        this.header = header;
+        this.loader = loader;
+        this.context = new Context(ContextKeys.CLAIM, uniqueId.toString());
+    }
+
+    /**
+     * Gets whether the data of this claim is in memory.
+     * 
+     * @return Whether materialized
+     */
+    public boolean isMaterialized() {
+        return this.data != null;
+    }
+
+    private InMemoryClaimData data() {
+        final InMemoryClaimData data = this.data;
+        return data != null ? data : this.materialize();
+    }
+
+    /**
+     * Loads the data, posting {@link LoadClaimEvent.Pre} and
+     * {@link LoadClaimEvent.Post} around it. Pre subscribers reading the
+     * claim load the data without further events.
+     */
+    private synchronized InMemoryClaimData materialize() {
+        if (this.data != null) {
+            return this.data;
+        }
+        final InMemoryEventManager eventManager = this.materializing ? null : this.claimManager.getPermissionManager().getEventManager();
+        this.materializing = true;
+        try {
+            if (eventManager != null && eventManager.hasSubscribers(LoadClaimEvent.Pre.class)) {
+                eventManager.post(new InMemoryLoadClaimEvent.Pre(eventManager.getCauseStackManager().getCurrentCause(), this));
+            }
+            if (this.data == null) {
+                this.load();
+            }
+        } finally {
+            this.materializing = false;
+        }
+        if (eventManager != null && eventManager.hasSubscribers(LoadClaimEvent.Post.class)) {
+            eventManager.post(new InMemoryLoadClaimEvent.Post(eventManager.getCauseStackManager().getCurrentCause(), this));
+        }
+        return this.data;
+    }
+
+    // guarded by this
+    private void load() {
+        final long start = MATERIALIZE_TIMER.start();
+        final InMemoryClaimData data = this.loader.get();
+        data.setClaim(this);
+        final UUID parentUniqueId = this.parent == null ? null : this.parent.getUniqueId();
+        if (!Objects.equals(parentUniqueId, data.getParentUniqueId())) {
+            // reparented while only the header was in memory
+            data.setParentUniqueId(parentUniqueId);
+        }
+        this.data = data;
+        this.loader = null;
+        MATERIALIZE_TIMER.stop(start);
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Not supported by the in-memory implementation");
+    }
+
+    void setParent(@Nullable InMemoryClaim parent) {
+        if (this.parent != null) {
+            this.parent.children.remove(this);
+        }
+        this.parent = parent;
+        if (parent != null) {
+            parent.children.add(this);
+        }
+        final InMemoryClaimData data = this.data;
+        final UUID parentUniqueId = parent == null ? null : parent.getUniqueId();
+        if (data != null && !Objects.equals(parentUniqueId, data.getParentUniqueId())) {
+            data.setParentUniqueId(parentUniqueId);
+        }
+        this.inheritanceChanged();
+    }
+
+    // inherited trust and flag values of this claim and its children change
+    void inheritanceChanged() {
+        // data may not be loaded, so its setters cannot be relied on
+        InheritanceChain.invalidate(this);
+        this.invalidateTrustCaches();
+        this.claimManager.getPermissionManager().flagValuesChanged();
+    }
+
+    List<InMemoryClaim> getChildClaims() {
+        return this.children;
+    }
+
+    private void userTrustsChanged(int level) {
+        if (level != TrustTable.LEVEL_NONE) {
+            this.data().markDirty(USER_TRUST_FIELDS[level]);
+        }
+    }
+
+    private void groupTrustsChanged(int level) {
+        if (level != TrustTable.LEVEL_NONE) {
+            this.data().markDirty(GROUP_TRUST_FIELDS[level]);
+        }
+    }
+
+    void trustChanged() {
+        this.trustTable = null;
+        this.invalidateTrustCaches();
+    }
+
+    // children inheriting this claim cache levels resolved from it
+    private void invalidateTrustCaches() {
+        this.trustCache.invalidate();
+        for (int i = 0; i < this.children.size(); i++) {
+            this.children.get(i).invalidateTrustCaches();
+        }
+    }
+
+    public Tristate getFlagValue(Flag flag) {
+        final Tristate value = this.flagValues.get(flag);
+        return value == null ? Tristate.UNDEFINED : value;
+    }
+
+    public void setFlagValue(Flag flag, Tristate value) {
+        if (value == Tristate.UNDEFINED) {
+            this.flagValues.remove(flag);
+        } else {
+            this.flagValues.put(flag, value);
+        }
+        this.claimManager.getPermissionManager().flagValuesChanged();
+    }
+
+    boolean hasFlagValue(Tristate value) {
+        return this.flagValues.containsValue(value);
+    }
+
+    Map<Flag, Tristate> getFlagValues() {
+        return this.flagValues;
+    }
+
+    void clearFlagValues() {
+        this.flagValues.clear();
+        this.claimManager.getPermissionManager().flagValuesChanged();
+    }
+
+    public @Nullable Object getOptionValue(Option<?> option) {
+        return this.optionValues.get(option);
+    }
+
+    public <T> void setOptionValue(Option<T> option, @Nullable T value) {
+        if (value == null) {
+            this.optionValues.remove(option);
+        } else {
+            this.optionValues.put(option, value);
+        }
+    }
+
+    void clearOptionValues() {
+        this.optionValues.clear();
+    }
+
+    private int resolveTrustLevel(UUID uuid) {
+        int level = this.getTrustTable().getTrustLevel(uuid);
+        if (level < TrustTable.LEVEL_MANAGER) {
+            level = Math.max(level, this.resolveGroupTrustLevel(uuid));
+        }
+        if (level < TrustTable.LEVEL_MANAGER) {
+            level = Math.max(level, this.resolveClanTrustLevel(uuid));
+        }
+        if (level == TrustTable.LEVEL_NONE && this.data().doesInheritParent() && this.parent != null) {
+            level = TrustTable.getLevel(this.parent.getEffectiveTrust(uuid));
+        }
+        return level;
+    }
+
+    private int resolveGroupTrustLevel(UUID uuid) {
+        final Set<String> groups = this.claimManager.getPermissionManager().getUserGroups(uuid);
+        if (groups.isEmpty()) {
+            return TrustTable.LEVEL_NONE;
+        }
+        for (int level = TrustTable.LEVEL_MANAGER; level >= TrustTable.LEVEL_ACCESSOR; level--) {
+            final Set<String> trusted = this.getGroupTrustSet(TrustTable.getType(level));
+            for (String group : groups) {
+                if (trusted.contains(group)) {
+                    return level;
+                }
+            }
+        }
+        return TrustTable.LEVEL_NONE;
+    }
+
+    private int resolveClanTrustLevel(UUID uuid) {
+        final ClanData clanData = this.data().getClanData();
+        if (clanData == null) {
+            return TrustTable.LEVEL_NONE;
+        }
+        final String tag = this.claimManager.getPermissionManager().getClanTag(uuid);
+        return tag == null ? TrustTable.LEVEL_NONE : this.getClanTrustLevel(clanData, tag);
+    }
+
+    private int getClanTrustLevel(ClanData clanData, String tag) {
+        for (int level = TrustTable.LEVEL_MANAGER; level >= TrustTable.LEVEL_ACCESSOR; level--) {
+            for (String trusted : getClanTrustTags(clanData, level)) {
+                if (trusted.equalsIgnoreCase(tag)) {
+                    return level;
+                }
+            }
+        }
+        return TrustTable.LEVEL_NONE;
+    }
+
+    private static Set<String> getClanTrustTags(ClanData clanData, int level) {
+        switch (level) {
+            case TrustTable.LEVEL_ACCESSOR:
+                return clanData.getAccessorTags();
+            case TrustTable.LEVEL_RESIDENT:
+                return clanData.getResidentTags();
+            case TrustTable.LEVEL_CONTAINER:
+                return clanData.getContainerTags();
+            case TrustTable.LEVEL_BUILDER:
+                return clanData.getBuilderTags();
+            case TrustTable.LEVEL_MANAGER:
+                return clanData.getManagerTags();
+            default:
+                return Collections.emptySet();
+        }
+    }
+
+    @Override
+    public UUID getUniqueId() {
+        return this.uniqueId;
+    }
+
+    @Override
+    public ClaimType getType() {
+        final InMemoryClaimData data = this.data;
+        return data != null ? data.getType() : this.header.getType();
+    }
+
+    @Override
+    public UUID getWorldUniqueId() {
+        final InMemoryClaimData data = this.data;
+        return data != null ? data.getWorldUniqueId() : this.header.getWorldUniqueId();
+    }
+
+    @Override
+    public UUID getOwnerUniqueId() {
+        final InMemoryClaimData data = this.data;
+        return data != null ? data.getOwnerUniqueId() : this.header.getOwnerUniqueId();
+    }
+
+    @Override
+    public Context getContext() {
+        return this.context;
+    }
+
+    @Override
+    public String getWorldName() {
+        return this.claimManager.getWorldName();
+    }
+
+    @Override
+    public Optional<Component> getDisplayNameComponent() {
+        return this.data().getDisplayNameComponent();
+    }
+
+    @Override
+    public @Nullable String getDisplayName() {
+        return this.data().getDisplayName();
+    }
+
+    @Override
+    public @Nullable String getFriendlyIdentifier() {
+        return null;
+    }
+
+    @Override
+    public @Nullable ClaimGroup getClaimGroup() {
+        return null;
+    }
+
+    @Override
+    public void setFriendlyIdentifier(String name) {
+        throw unsupported();
+    }
+
+    @Override
+    public @Nullable ClaimVisual getClaimVisual() {
+        return null;
+    }
+
+    @Override
+    public String getOwnerName() {
+        return this.getOwnerUniqueId().toString();
+    }
+
+    @Override
+    public Component getOwnerDisplayName() {
+        return Component.text(this.getOwnerName());
+    }
+
+    @Override
+    public void addAttribute(ClaimAttribute attribute) {
+        this.data().getAttributes().add(attribute);
+        this.data().markDirty(ClaimDataField.ATTRIBUTES);
+    }
+
+    @Override
+    public void removeAttribute(String id) {
+        if (this.data().getAttributes().removeIf(attribute -> attribute.getId().equalsIgnoreCase(id))) {
+            this.data().markDirty(ClaimDataField.ATTRIBUTES);
+        }
+    }
+
+    @Override
+    public void removeAllAttributes() {
+        this.data().getAttributes().clear();
+        this.data().markDirty(ClaimDataField.ATTRIBUTES);
+    }
+
+    @Override
+    public boolean hasAttribute(String id) {
+        for (ClaimAttribute attribute : this.data().getAttributes()) {
+            if (attribute.getId().equalsIgnoreCase(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Set<ClaimAttribute> getAttributes() {
+        return Collections.unmodifiableSet(this.data().getAttributes());
+    }
+
+    @Override
+    public @Nullable Claim getParent() {
+        return this.parent;
+    }
+
+    @Override
+    public InheritanceChain getInheritanceChain() {
+        InheritanceChain chain = this.inheritanceChain;
+        if (chain == null) {
+            chain = InheritanceChain.resolve(this);
+            this.inheritanceChain = chain;
+        }
+        return chain;
+    }
+
+    @Override
+    public void invalidateInheritanceChain() {
+        this.inheritanceChain = null;
+    }
+
+    boolean isInheritanceChainCached() {
+        return this.inheritanceChain != null;
+    }
+
+    @Override
+    public TrustTable getTrustTable() {
+        TrustTable table = this.trustTable;
+        if (table == null) {
+            table = TrustTable.from(this.data());
+            this.trustTable = table;
+        }
+        return table;
+    }
+
+    @Override
+    public TrustType getEffectiveTrust(UUID uuid) {
+        return this.trustCache.getTrust(uuid, this.trustResolver);
+    }
+
+    @Override
+    public boolean hasDenyOverrides() {
+        final InMemoryPermissionManager permissionManager = this.claimManager.getPermissionManager();
+        final int version = permissionManager.getFlagValuesVersion();
+        long denyOverrides = this.denyOverrides;
+        if (denyOverrides == -1 || (int) (denyOverrides >>> 1) != version) {
+            denyOverrides = (version & 0xFFFFFFFFL) << 1 | (permissionManager.hasDenyOverrides(this) ? 1 : 0);
+            this.denyOverrides = denyOverrides;
+        }
+        return (denyOverrides & 1) != 0;
+    }
+
+    @Override
+    public Vector3i getLesserBoundaryCorner() {
+        final InMemoryClaimData data = this.data;
+        return data != null ? data.getLesserBoundaryCorner() : this.header.getLesserBoundaryCorner();
+    }
+
+    @Override
+    public Vector3i getGreaterBoundaryCorner() {
+        final InMemoryClaimData data = this.data;
+        return data != null ? data.getGreaterBoundaryCorner() : this.header.getGreaterBoundaryCorner();
+    }
+
+    @Override
+    public boolean isCuboid() {
+        final InMemoryClaimData data = this.data;
+        return data != null ? data.isCuboid() : this.header.isCuboid();
+    }
+
+    @Override
+    public boolean isParent(Claim claim) {
+        return this.getInheritanceChain().contains(claim);
+    }
+
+    @Override
+    public int getClaimBlocks() {
+        return this.isCuboid() ? this.getVolume() : this.getArea();
+    }
+
+    @Override
+    public int getArea() {
+        return this.getWidth() * this.getLength();
+    }
+
+    @Override
+    public int getVolume() {
+        return this.getArea() * this.getHeight();
+    }
+
+    @Override
+    public int getWidth() {
+        return this.getGreaterBoundaryCorner().getX() - this.getLesserBoundaryCorner().getX() + 1;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.getGreaterBoundaryCorner().getY() - this.getLesserBoundaryCorner().getY() + 1;
+    }
+
+    @Override
+    public int getLength() {
+        return this.getGreaterBoundaryCorner().getZ() - this.getLesserBoundaryCorner().getZ() + 1;
+    }
+
+    @Override
+    public List<Vector3i> getChunkPositions() {
+        final List<Vector3i> positions = new ArrayList<>();
+        final Vector3i lesser = this.getLesserBoundaryCorner();
+        final Vector3i greater = this.getGreaterBoundaryCorner();
+        for (int chunkX = lesser.getX() >> 4; chunkX <= greater.getX() >> 4; chunkX++) {
+            for (int chunkZ = lesser.getZ() >> 4; chunkZ <= greater.getZ() >> 4; chunkZ++) {
+                positions.add(new Vector3i(chunkX, 0, chunkZ));
+            }
+        }
+        return positions;
+    }
+
+    @Override
+    public Set<Long> getChunkHashes() {
+        final Set<Long> hashes = new HashSet<>();
+        for (Vector3i pos : this.getChunkPositions()) {
+            hashes.add(InMemoryClaimManager.chunkHash(pos.getX(), pos.getZ()));
+        }
+        return hashes;
+    }
+
+    @Override
+    public List<UUID> getPlayers() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public ClaimResult transferOwner(UUID ownerUniqueId) {
+        throw unsupported();
+    }
+
+    @Override
+    public ClaimResult changeType(ClaimType type, @Nullable UUID owner) {
+        throw unsupported();
+    }
+
+    @Override
+    public ClaimResult resize(int x1, int x2, int y1, int y2, int z1, int z2) {
+        throw unsupported();
+    }
+
+    @Override
+    public Set<Claim> getChildren(boolean recursive) {
+        final Set<Claim> children = new LinkedHashSet<>();
+        for (InMemoryClaim child : this.children) {
+            children.add(child);
+            if (recursive) {
+                children.addAll(child.getChildren(true));
+            }
+        }
+        return Collections.unmodifiableSet(children);
+    }
+
+    @Override
+    public Set<UUID> getUserTrusts() {
+        final Set<UUID> trusts = new HashSet<>();
+        trusts.addAll(this.data().getAccessors());
+        trusts.addAll(this.data().getResidents());
+        trusts.addAll(this.data().getContainers());
+        trusts.addAll(this.data().getBuilders());
+        trusts.addAll(this.data().getManagers());
+        return Collections.unmodifiableSet(trusts);
+    }
+
+    @Override
+    public Set<UUID> getUserTrusts(TrustType type) {
+        return Collections.unmodifiableSet(this.getUserTrustSet(type));
+    }
+
+    Set<UUID> getUserTrustSet(TrustType type) {
+        if (type == TrustTypes.ACCESSOR) {
+            return this.data().getAccessors();
+        }
+        if (type == TrustTypes.RESIDENT) {
+            return this.data().getResidents();
+        }
+        if (type == TrustTypes.CONTAINER) {
+            return this.data().getContainers();
+        }
+        if (type == TrustTypes.BUILDER) {
+            return this.data().getBuilders();
+        }
+        if (type == TrustTypes.MANAGER) {
+            return this.data().getManagers();
+        }
+        return new HashSet<>();
+    }
+
+    @Override
+    public Set<String> getGroupTrusts() {
+        final Set<String> trusts = new HashSet<>();
+        trusts.addAll(this.data().getAccessorGroups());
+        trusts.addAll(this.data().getResidentGroups());
+        trusts.addAll(this.data().getContainerGroups());
+        trusts.addAll(this.data().getBuilderGroups());
+        trusts.addAll(this.data().getManagerGroups());
+        return Collections.unmodifiableSet(trusts);
+    }
+
+    @Override
+    public Set<String> getGroupTrusts(TrustType type) {
+        return Collections.unmodifiableSet(this.getGroupTrustSet(type));
+    }
+
+    Set<String> getGroupTrustSet(TrustType type) {
+        if (type == TrustTypes.ACCESSOR) {
+            return this.data().getAccessorGroups();
+        }
+        if (type == TrustTypes.RESIDENT) {
+            return this.data().getResidentGroups();
+        }
+        if (type == TrustTypes.CONTAINER) {
+            return this.data().getContainerGroups();
+        }
+        if (type == TrustTypes.BUILDER) {
+            return this.data().getBuilderGroups();
+        }
+        if (type == TrustTypes.MANAGER) {
+            return this.data().getManagerGroups();
+        }
+        return new HashSet<>();
+    }
+
+    @Override
+    public ClaimResult removeAllTrusts() {
+        try (ClaimEventBatch batch = this.openBatch()) {
+            this.removeAllUserTrusts();
+            this.removeAllGroupTrusts();
+            return this.removeAllClanTrusts();
+        }
+    }
+
+    @Override
+    public ClaimResult removeAllUserTrusts() {
+        try (ClaimEventBatch batch = this.openBatch()) {
+            for (int level = TrustTable.LEVEL_ACCESSOR; level <= TrustTable.LEVEL_MANAGER; level++) {
+                final TrustType type = TrustTable.getType(level);
+                final Set<UUID> users = this.getUserTrustSet(type);
+                if (users.isEmpty()) {
+                    continue;
+                }
+                final InMemoryClaimEvent event = this.postUserTrustChange(false, users, type);
+                if (event == null || !event.cancelled()) {
+                    users.clear();
+                    this.userTrustsChanged(level);
+                    this.claimChanged(event);
+                }
+            }
+            this.trustChanged();
+            return InMemoryClaimResult.success(this);
+        }
+    }
+
+    @Override
+    public ClaimResult removeAllGroupTrusts() {
+        try (ClaimEventBatch batch = this.openBatch()) {
+            for (int level = TrustTable.LEVEL_ACCESSOR; level <= TrustTable.LEVEL_MANAGER; level++) {
+                final TrustType type = TrustTable.getType(level);
+                final Set<String> groups = this.getGroupTrustSet(type);
+                if (groups.isEmpty()) {
+                    continue;
+                }
+                final InMemoryClaimEvent event = this.postGroupTrustChange(false, groups, type);
+                if (event == null || !event.cancelled()) {
+                    groups.clear();
+                    this.groupTrustsChanged(level);
+                    this.claimChanged(event);
+                }
+            }
+            this.trustChanged();
+            return InMemoryClaimResult.success(this);
+        }
+    }
+
+    @Override
+    public Set<Clan> getClanTrusts() {
+        final Set<Clan> clans = new HashSet<>();
+        for (int level = TrustTable.LEVEL_ACCESSOR; level <= TrustTable.LEVEL_MANAGER; level++) {
+            this.addClans(clans, level);
+        }
+        return clans;
+    }
+
+    @Override
+    public Set<Clan> getClanTrusts(TrustType type) {
+        final Set<Clan> clans = new HashSet<>();
+        final int level = TrustTable.getLevel(type);
+        if (level != TrustTable.LEVEL_NONE) {
+            this.addClans(clans, level);
+        }
+        return clans;
+    }
+
+    private void addClans(Set<Clan> clans, int level) {
+        final ClanData clanData = this.data().getClanData();
+        final ClanProvider provider = this.claimManager.getPermissionManager().getClanProvider();
+        if (clanData == null || provider == null) {
+            return;
+        }
+        for (String tag : getClanTrustTags(clanData, level)) {
+            final Clan clan = provider.getClan(tag);
+            if (clan != null) {
+                clans.add(clan);
+            }
+        }
+    }
+
+    @Override
+    public ClaimResult removeAllClanTrusts() {
+        final ClanData clanData = this.data().getClanData();
+        if (clanData == null) {
+            return InMemoryClaimResult.success(this);
+        }
+        try (ClaimEventBatch batch = this.openBatch()) {
+            for (int level = TrustTable.LEVEL_ACCESSOR; level <= TrustTable.LEVEL_MANAGER; level++) {
+                final Set<String> tags = getClanTrustTags(clanData, level);
+                if (tags.isEmpty()) {
+                    continue;
+                }
+                final InMemoryClaimEvent event = this.postClanTrustChange(false, tags, TrustTable.getType(level));
+                if (event == null || !event.cancelled()) {
+                    tags.clear();
+                    this.clanTrustsChanged();
+                    this.claimChanged(event);
+                }
+            }
+            return InMemoryClaimResult.success(this);
+        }
+    }
+
+    @Override
+    public ClaimResult addUserTrust(UUID uuid, TrustType type) {
+        return this.addUserTrusts(Collections.singleton(uuid), type);
+    }
+
+    @Override
+    public ClaimResult addUserTrusts(Set<UUID> uuid, TrustType type) {
+        try (ClaimEventBatch batch = this.openBatch()) {
+            final InMemoryClaimEvent event = this.postUserTrustChange(true, uuid, type);
+            if (event != null && event.cancelled()) {
+                return InMemoryClaimResult.failure(ClaimResultType.CLAIM_EVENT_CANCELLED);
+            }
+            if (this.getUserTrustSet(type).addAll(uuid)) {
+                this.userTrustsChanged(TrustTable.getLevel(type));
+                this.claimChanged(event);
+            }
+            this.trustChanged();
+            return InMemoryClaimResult.success(this);
+        }
+    }
+
+    @Override
+    public ClaimResult removeUserTrust(UUID uuid, TrustType type) {
+        return this.removeUserTrusts(Collections.singleton(uuid), type);
+    }
+
+    @Override
+    public ClaimResult removeUserTrusts(Set<UUID> uuid, TrustType type) {
+        try (ClaimEventBatch batch = this.openBatch()) {
+            final InMemoryClaimEvent event = this.postUserTrustChange(false, uuid, type);
+            if (event != null && event.cancelled()) {
+                return InMemoryClaimResult.failure(ClaimResultType.CLAIM_EVENT_CANCELLED);
+            }
+            boolean changed = false;
+            if (type == TrustTypes.NONE) {
+                for (int level = TrustTable.LEVEL_ACCESSOR; level <= TrustTable.LEVEL_MANAGER; level++) {
+                    if (this.getUserTrustSet(TrustTable.getType(level)).removeAll(uuid)) {
+                        this.userTrustsChanged(level);
+                        changed = true;
+                    }
+                }
+            } else if (this.getUserTrustSet(type).removeAll(uuid)) {
+                this.userTrustsChanged(TrustTable.getLevel(type));
+                changed = true;
+            }
+            if (changed) {
+                this.claimChanged(event);
+            }
+            this.trustChanged();
+            return InMemoryClaimResult.success(this);
+        }
+    }
+
+    private ClaimEventBatch openBatch() {
+        return InMemoryClaimEventBatch.openIfPosting(this.claimManager.getPermissionManager().getEventManager());
+    }
+
+    private @Nullable InMemoryClaimEvent postUserTrustChange(boolean add, Set<UUID> users, TrustType type) {
+        final InMemoryEventManager eventManager = this.claimManager.getPermissionManager().getEventManager();
+        if (eventManager == null) {
+            return null;
+        }
+        if (add) {
+            return eventManager.postClaimChange(UserTrustClaimEvent.Add.class, BatchClaimEvent.Trust.class,
+                    () -> new InMemoryUserTrustClaimEvent.Add(eventManager.getCauseStackManager().getCurrentCause(), this, new HashSet<>(users), type));
+        }
+        return eventManager.postClaimChange(UserTrustClaimEvent.Remove.class, BatchClaimEvent.Trust.class,
+                () -> new InMemoryUserTrustClaimEvent.Remove(eventManager.getCauseStackManager().getCurrentCause(), this, new HashSet<>(users), type));
+    }
+
+    private @Nullable InMemoryClaimEvent postGroupTrustChange(boolean add, Set<String> groups, TrustType type) {
+        final InMemoryEventManager eventManager = this.claimManager.getPermissionManager().getEventManager();
+        if (eventManager == null) {
+            return null;
+        }
+        if (add) {
+            return eventManager.postClaimChange(GroupTrustClaimEvent.Add.class, BatchClaimEvent.Trust.class,
+                    () -> new InMemoryGroupTrustClaimEvent.Add(eventManager.getCauseStackManager().getCurrentCause(), this, new HashSet<>(groups), type));
+        }
+        return eventManager.postClaimChange(GroupTrustClaimEvent.Remove.class, BatchClaimEvent.Trust.class,
+                () -> new InMemoryGroupTrustClaimEvent.Remove(eventManager.getCauseStackManager().getCurrentCause(), this, new HashSet<>(groups), type));
+    }
+
+    private @Nullable InMemoryClaimEvent postClanTrustChange(boolean add, Collection<String> tags, TrustType type) {
+        final InMemoryEventManager eventManager = this.claimManager.getPermissionManager().getEventManager();
+        if (eventManager == null) {
+            return null;
+        }
+        final ClanProvider provider = this.claimManager.getPermissionManager().getClanProvider();
+        if (add) {
+            return eventManager.postClaimChange(ClanTrustClaimEvent.Add.class, BatchClaimEvent.Trust.class,
+                    () -> new InMemoryClanTrustClaimEvent.Add(eventManager.getCauseStackManager().getCurrentCause(), this, new HashSet<>(tags), type, provider));
+        }
+        return eventManager.postClaimChange(ClanTrustClaimEvent.Remove.class, BatchClaimEvent.Trust.class,
+                () -> new InMemoryClanTrustClaimEvent.Remove(eventManager.getCauseStackManager().getCurrentCause(), this, new HashSet<>(tags), type, provider));
+    }
+
+    private void claimChanged(@Nullable InMemoryClaimEvent event) {
+        final InMemoryEventManager eventManager = this.claimManager.getPermissionManager().getEventManager();
+        if (eventManager != null) {
+            eventManager.claimChanged(event, BatchClaimEvent.Trust.class);
+        }
+    }
+
+    @Override
+    public ClaimResult addGroupTrust(String group, TrustType type) {
+        return this.addGroupTrusts(Collections.singleton(group), type);
+    }
+
+    @Override
+    public ClaimResult addGroupTrusts(Set<String> groups, TrustType type) {
+        try (ClaimEventBatch batch = this.openBatch()) {
+            final InMemoryClaimEvent event = this.postGroupTrustChange(true, groups, type);
+            if (event != null && event.cancelled()) {
+                return InMemoryClaimResult.failure(ClaimResultType.CLAIM_EVENT_CANCELLED);
+            }
+            if (this.getGroupTrustSet(type).addAll(groups)) {
+                this.groupTrustsChanged(TrustTable.getLevel(type));
+                this.claimChanged(event);
+            }
+            this.trustChanged();
+            return InMemoryClaimResult.success(this);
+        }
+    }
+
+    @Override
+    public ClaimResult removeGroupTrust(String group, TrustType type) {
+        return this.removeGroupTrusts(Collections.singleton(group), type);
+    }
+
+    @Override
+    public ClaimResult removeGroupTrusts(Set<String> groups, TrustType type) {
+        try (ClaimEventBatch batch = this.openBatch()) {
+            final InMemoryClaimEvent event = this.postGroupTrustChange(false, groups, type);
+            if (event != null && event.cancelled()) {
+                return InMemoryClaimResult.failure(ClaimResultType.CLAIM_EVENT_CANCELLED);
+            }
+            boolean changed = false;
+            if (type == TrustTypes.NONE) {
+                for (int level = TrustTable.LEVEL_ACCESSOR; level <= TrustTable.LEVEL_MANAGER; level++) {
+                    if (this.getGroupTrustSet(TrustTable.getType(level)).removeAll(groups)) {
+                        this.groupTrustsChanged(level);
+                        changed = true;
+                    }
+                }
+            } else if (this.getGroupTrustSet(type).removeAll(groups)) {
+                this.groupTrustsChanged(TrustTable.getLevel(type));
+                changed = true;
+            }
+            if (changed) {
+                this.claimChanged(event);
+            }
+            this.trustChanged();
+            return InMemoryClaimResult.success(this);
+        }
+    }
+
+    @Override
+    public ClaimResult addClanTrust(Clan clan, TrustType type) {
+        return this.addClanTrust(clan.getTag(), type);
+    }
+
+    @Override
+    public ClaimResult addClanTrusts(Set<Clan> clans, TrustType type) {
+        return this.addClanTrusts(getClanTags(clans), type);
+    }
+
+    @Override
+    public ClaimResult addClanTrust(String clanTag, TrustType type) {
+        return this.addClanTrusts(Collections.singleton(clanTag.toLowerCase(Locale.ENGLISH)), type);
+    }
+
+    private ClaimResult addClanTrusts(Collection<String> tags, TrustType type) {
+        final int level = TrustTable.getLevel(type);
+        if (level == TrustTable.LEVEL_NONE) {
+            return InMemoryClaimResult.failure(ClaimResultType.FAILURE);
+        }
+        try (ClaimEventBatch batch = this.openBatch()) {
+            final InMemoryClaimEvent event = this.postClanTrustChange(true, tags, type);
+            if (event != null && event.cancelled()) {
+                return InMemoryClaimResult.failure(ClaimResultType.CLAIM_EVENT_CANCELLED);
+            }
+            if (getClanTrustTags(this.data().getOrCreateClanData(), level).addAll(tags)) {
+                this.clanTrustsChanged();
+                this.claimChanged(event);
+            }
+            return InMemoryClaimResult.success(this);
+        }
+    }
+
+    @Override
+    public ClaimResult removeClanTrust(Clan clan, TrustType type) {
+        return this.removeClanTrust(clan.getTag(), type);
+    }
+
+    @Override
+    public ClaimResult removeClanTrust(String clanTag, TrustType type) {
+        return this.removeClanTrusts(Collections.singleton(clanTag.toLowerCase(Locale.ENGLISH)), type);
+    }
+
+    @Override
+    public ClaimResult removeClanTrusts(Set<Clan> clans, TrustType type) {
+        return this.removeClanTrusts(getClanTags(clans), type);
+    }
+
+    private ClaimResult removeClanTrusts(Collection<String> tags, TrustType type) {
+        try (ClaimEventBatch batch = this.openBatch()) {
+            final InMemoryClaimEvent event = this.postClanTrustChange(false, tags, type);
+            if (event != null && event.cancelled()) {
+                return InMemoryClaimResult.failure(ClaimResultType.CLAIM_EVENT_CANCELLED);
+            }
+            final ClanData clanData = this.data().getClanData();
+            if (clanData == null) {
+                return InMemoryClaimResult.success(this);
+            }
+            boolean changed = false;
+            if (type == TrustTypes.NONE) {
+                for (int level = TrustTable.LEVEL_ACCESSOR; level <= TrustTable.LEVEL_MANAGER; level++) {
+                    changed |= getClanTrustTags(clanData, level).removeAll(tags);
+                }
+            } else {
+                changed = getClanTrustTags(clanData, TrustTable.getLevel(type)).removeAll(tags);
+            }
+            if (changed) {
+                this.clanTrustsChanged();
+                this.claimChanged(event);
+            }
+            return InMemoryClaimResult.success(this);
+        }
+    }
+
+    private static List<String> getClanTags(Set<Clan> clans) {
+        final List<String> tags = new ArrayList<>(clans.size());
+        for (Clan clan : clans) {
+            tags.add(clan.getTag().toLowerCase(Locale.ENGLISH));
+        }
+        return tags;
+    }
+
+    private void clanTrustsChanged() {
+        this.data().clanDataChanged();
+    }
+
+    @Override
+    public boolean isUserTrusted(UUID uuid, TrustType type) {
+        if (uuid.equals(this.getOwnerUniqueId())) {
+            return true;
+        }
+        return this.getTrustTable().isTrusted(uuid, type);
+    }
+
+    @Override
+    public boolean isGroupTrusted(String group, TrustType type) {
+        final int required = TrustTable.getLevel(type);
+        for (int level = TrustTable.LEVEL_MANAGER; level >= Math.max(required, TrustTable.LEVEL_ACCESSOR); level--) {
+            if (this.getGroupTrustSet(TrustTable.getType(level)).contains(group)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isClanTrusted(Clan clan, TrustType type) {
+        return this.isClanTrusted(clan.getTag(), type);
+    }
+
+    @Override
+    public boolean isClanTrusted(String clanTag, TrustType type) {
+        final ClanData clanData = this.data().getClanData();
+        if (clanData == null) {
+            return false;
+        }
+        final int level = this.getClanTrustLevel(clanData, clanTag);
+        return level != TrustTable.LEVEL_NONE && level >= TrustTable.getLevel(type);
+    }
+
+    @Override
+    public boolean isInTown() {
+        return false;
+    }
+
+    @Override
+    public @Nullable Claim getTown() {
+        return null;
+    }
+
+    @Override
+    public InMemoryClaimManager getClaimManager() {
+        return this.claimManager;
+    }
+
+    @Override
+    public Claim getWilderness() {
+        return this.claimManager.getWildernessClaim();
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z, boolean excludeChildren) {
+        final Vector3i lesser = this.getLesserBoundaryCorner();
+        final Vector3i greater = this.getGreaterBoundaryCorner();
+        if (x < lesser.getX() || x > greater.getX() || z < lesser.getZ() || z > greater.getZ()) {
+            return false;
+        }
+        if (this.isCuboid() && (y < lesser.getY() || y > greater.getY())) {
+            return false;
+        }
+        if (excludeChildren) {
+            for (int i = 0; i < this.children.size(); i++) {
+                if (this.children.get(i).contains(x, y, z, false)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean overlaps(Claim otherClaim) {
+        final Vector3i lesser = this.getLesserBoundaryCorner();
+        final Vector3i greater = this.getGreaterBoundaryCorner();
+        final Vector3i otherLesser = otherClaim.getLesserBoundaryCorner();
+        final Vector3i otherGreater = otherClaim.getGreaterBoundaryCorner();
+        return lesser.getX() <= otherGreater.getX() && greater.getX() >= otherLesser.getX()
+                && lesser.getZ() <= otherGreater.getZ() && greater.getZ() >= otherLesser.getZ();
+    }
+
+    @Override
+    public boolean extend(int newDepth) {
+        return false;
+    }
+
+    @Override
+    public boolean isInside(Claim otherClaim) {
+        final Vector3i lesser = this.getLesserBoundaryCorner();
+        final Vector3i greater = this.getGreaterBoundaryCorner();
+        return otherClaim.contains(lesser.getX(), lesser.getY(), lesser.getZ())
+                && otherClaim.contains(greater.getX(), greater.getY(), greater.getZ());
+    }
+
+    @Override
+    public ClaimResult deleteChildren() {
+        return this.deleteChildren(null);
+    }
+
+    @Override
+    public ClaimResult deleteChildren(@Nullable ClaimType type) {
+        final List<Claim> deleted = new ArrayList<>();
+        try (ClaimEventBatch batch = this.openBatch()) {
+            for (InMemoryClaim child : new ArrayList<>(this.children)) {
+                if ((type == null || child.getType() == type) && this.claimManager.deleteClaim(child, true).successful()) {
+                    deleted.add(child);
+                }
+            }
+        }
+        return InMemoryClaimResult.success(deleted.toArray(new Claim[0]));
+    }
+
+    @Override
+    public ClaimResult deleteChild(Claim child) {
+        if (child.getParent() != this) {
+            return InMemoryClaimResult.failure(ClaimResultType.CLAIM_NOT_FOUND);
+        }
+        return this.claimManager.deleteClaim(child, true);
+    }
+
+    @Override
+    public ClaimData getData() {
+        return this.data();
+    }
+
+    @Override
+    public boolean deleteSchematic(String schematic) {
+        return false;
+    }
+
+    @Override
+    public Map<String, ClaimSchematic> getSchematics() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public ClaimSnapshot createSnapshot(String name, Component description, SnapshotCreateSettings settings) {
+        throw unsupported();
+    }
+
+    @Override
+    public ClaimSnapshot createSnapshot(String name, boolean includeChildren) {
+        throw unsupported();
+    }
+
+    @Override
+    public ClaimSnapshot createSnapshot(String name, Component description, boolean includeChildren) {
+        throw unsupported();
+    }
+
+    @Override
+    public boolean deleteSnapshot(String name) {
+        return false;
+    }
+
+    @Override
+    public Map<String, ClaimSnapshot> getSnapshots() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public @Nullable UUID getEconomyAccountId() {
+        return null;
+    }
+
+    @Override
+    public @Nullable Claim getRentedClaim() {
+        return null;
+    }
+
+    @Override
+    public boolean hasActiveVisual(User user) {
+        return false;
+    }
+
+    @Override
+    public boolean isPvpAllowed() {
+        return false;
+    }
+
+    @Override
+    public boolean allowEdit(UUID uuid) {
+        return this.isUserTrusted(uuid, TrustTypes.MANAGER);
+    }
+
+    private boolean checkFlag(Flag flag, Object source, Object target, @Nullable User user, TrustType trustType) {
+        if (ClaimAccessFastPath.check(this, user, trustType) == Tristate.TRUE) {
+            return true;
+        }
+        final Subject subject = user == null ? this.claimManager.getPermissionManager().getDefaultSubject() : user;
+        return this.claimManager.getPermissionManager().getActiveFlagPermissionValue(this, subject, flag, source, target, new HashSet<>(), trustType, true) != Tristate.FALSE;
+    }
+
+    @Override
+    public boolean canBreak(Object source, Object location, @Nullable User user) {
+        return this.checkFlag(Flags.BLOCK_BREAK, source, location, user, TrustTypes.BUILDER);
+    }
+
+    @Override
+    public boolean canPlace(Object source, Object placedItem, Object location, @Nullable User user) {
+        return this.checkFlag(Flags.BLOCK_PLACE, source, placedItem, user, TrustTypes.BUILDER);
+    }
+
+    @Override
+    public boolean canHurtEntity(Object source, Object itemStack, Object entity, @Nullable User user) {
+        return this.checkFlag(Flags.ENTITY_DAMAGE, source, entity, user, TrustTypes.BUILDER);
+    }
+
+    @Override
+    public boolean canInteractWithEntity(Object source, Object itemStack, Object entity, @Nullable User user, TrustType trustType) {
+        return this.checkFlag(Flags.INTERACT_ENTITY_SECONDARY, source, entity, user, trustType);
+    }
+
+    @Override
+    public boolean canUseBlock(Object source, Object location, @Nullable User user, TrustType trustType, boolean leftClick, boolean shift) {
+        return this.checkFlag(leftClick ? Flags.INTERACT_BLOCK_PRIMARY : Flags.INTERACT_BLOCK_SECONDARY, source, location, user, trustType);
+    }
+
+    @Override
+    public boolean canUseItem(Object source, Object itemStack, Object location, @Nullable User user, TrustType trustType, boolean leftClick, boolean shift) {
+        return this.checkFlag(leftClick ? Flags.INTERACT_ITEM_PRIMARY : Flags.INTERACT_ITEM_SECONDARY, source, itemStack, user, trustType);
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> setFlagDefinition(Subject subject, FlagDefinition definition, Tristate value) {
+        throw unsupported();
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> setOptionDefinition(Subject subject, OptionDefinition definition, String value) {
+        throw unsupported();
+    }
+
+    @Override
+    public String getOptionValue(Option<?> option, Subject subject, Set<Context> contexts) {
+        final Object value = this.claimManager.getPermissionManager().getActiveOptionValue(this, option);
+        return value == null ? null : String.valueOf(value);
+    }
+
+    @Override
+    public String getActiveOptionDefinitionValue(Subject subject, OptionDefinition definition) {
+        throw unsupported();
+    }
+
+    @Override
+    public Context getDefaultTypeContext() {
+        final ClaimType type = this.getType();
+        if (type == ClaimTypes.ADMIN) {
+            return ClaimContexts.ADMIN_DEFAULT_CONTEXT;
+        }
+        if (type == ClaimTypes.TOWN) {
+            return ClaimContexts.TOWN_DEFAULT_CONTEXT;
+        }
+        if (type == ClaimTypes.SUBDIVISION) {
+            return ClaimContexts.SUBDIVISION_DEFAULT_CONTEXT;
+        }
+        if (type == ClaimTypes.WILDERNESS) {
+            return ClaimContexts.WILDERNESS_DEFAULT_CONTEXT;
+        }
+        return ClaimContexts.BASIC_DEFAULT_CONTEXT;
+    }
+
+    @Override
+    public Context getOverrideTypeContext() {
+        final ClaimType type = this.getType();
+        if (type == ClaimTypes.ADMIN) {
+            return ClaimContexts.ADMIN_OVERRIDE_CONTEXT;
+        }
+        if (type == ClaimTypes.TOWN) {
+            return ClaimContexts.TOWN_OVERRIDE_CONTEXT;
+        }
+        if (type == ClaimTypes.SUBDIVISION) {
+            return ClaimContexts.SUBDIVISION_OVERRIDE_CONTEXT;
+        }
+        if (type == ClaimTypes.WILDERNESS) {
+            return ClaimContexts.WILDERNESS_OVERRIDE_CONTEXT;
+        }
+        return ClaimContexts.BASIC_OVERRIDE_CONTEXT;
+    }
+
+    @Override
+    public String toString() {
+        return "InMemoryClaim{" + this.uniqueId + "}";
+    }
+}
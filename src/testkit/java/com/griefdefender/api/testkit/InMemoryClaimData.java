@@ -0,0 +1,673 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.claim.ClaimAttribute;
+import com.griefdefender.api.claim.ClaimType;
+import com.griefdefender.api.claim.InheritanceChain;
+import com.griefdefender.api.data.ClaimData;
+import com.griefdefender.api.data.ClaimDataField;
+import com.griefdefender.api.data.ClaimSaveQueue;
+import com.griefdefender.api.data.ClanData;
+import com.griefdefender.api.data.EconomyData;
+import com.griefdefender.api.jfr.ClaimSaveEvent;
+import com.griefdefender.api.jfr.JfrSupport;
+import com.griefdefender.api.metrics.MetricKeys;
+import com.griefdefender.api.metrics.Metrics;
+import com.griefdefender.api.metrics.Timer;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Plain field backed {@link ClaimData} kept in memory.
+ * 
+ * <br><br>{@link #save()} marks the claim dirty on the
+ * {@link ClaimSaveQueue} of its claim manager, if write-behind is enabled.
+ * 
+ * <br><br>Every setter marks its {@link ClaimDataField} dirty in a bit mask,
+ * starting with every field for a claim never saved. Collections returned by
+ * the getters are live, callers changing them directly call
+ * {@link #markDirty(Set)}.
+ */
+public class InMemoryClaimData implements ClaimData {
+
+    private static final Timer CLAIM_SAVE_TIMER = Metrics.timer(MetricKeys.CLAIM_SAVE);
+    private static final boolean JFR_AVAILABLE = JfrSupport.isAvailable();
+    private static final ClaimDataField[] FIELDS = ClaimDataField.values();
+    private static final long ALL_FIELDS = (1L << FIELDS.length) - 1;
+
+    private InMemoryClaim claim;
+    private UUID worldUniqueId;
+    private UUID ownerUniqueId;
+    private @Nullable UUID parentUniqueId;
+    private @Nullable UUID claimGroupUniqueId;
+    private ClaimType type;
+    private Vector3i lesserBoundaryCorner;
+    private Vector3i greaterBoundaryCorner;
+    private @Nullable Vector3i spawnPos;
+    private @Nullable Component displayName;
+    private @Nullable Component greeting;
+    private @Nullable Component farewell;
+    private @Nullable Component enterActionBar;
+    private @Nullable Component exitActionBar;
+    private @Nullable Title enterTitle;
+    private @Nullable Title exitTitle;
+    private Instant dateCreated = Instant.now();
+    private Instant dateLastActive = Instant.now();
+    private boolean denyMessages = true;
+    private boolean expiration = true;
+    private boolean cuboid;
+    private boolean inheritParent = true;
+    private boolean resizable = true;
+    private boolean expired;
+    private boolean requiresClaimBlocks = true;
+    private boolean sizeRestrictions = true;
+    private @Nullable ClanData clanData;
+    private @Nullable EconomyData economyData;
+    private Set<ClaimAttribute> attributes = new HashSet<>();
+    private Set<UUID> accessors = new HashSet<>();
+    private Set<UUID> builders = new HashSet<>();
+    private Set<UUID> containers = new HashSet<>();
+    private Set<UUID> managers = new HashSet<>();
+    private Set<UUID> residents = new HashSet<>();
+    private Set<String> accessorGroups = new HashSet<>();
+    private Set<String> builderGroups = new HashSet<>();
+    private Set<String> containerGroups = new HashSet<>();
+    private Set<String> managerGroups = new HashSet<>();
+    private Set<String> residentGroups = new HashSet<>();
+    private final AtomicLong dirtyFields = new AtomicLong(ALL_FIELDS);
+
+    public InMemoryClaimData(UUID worldUniqueId, UUID ownerUniqueId, ClaimType type, Vector3i lesser, Vector3i greater) {
+        this.worldUniqueId = worldUniqueId;
+        this.ownerUniqueId = ownerUniqueId;
+        this.type = type;
+        this.lesserBoundaryCorner = lesser;
+        this.greaterBoundaryCorner = greater;
+    }
+
+    void setClaim(InMemoryClaim claim) {
+        this.claim = claim;
+    }
+
+    @Override
+    public @Nullable UUID getWorldUniqueId() {
+        return this.worldUniqueId;
+    }
+
+    @Override
+    public @Nullable Vector3i getLesserBoundaryCorner() {
+        return this.lesserBoundaryCorner;
+    }
+
+    @Override
+    public @Nullable Vector3i getGreaterBoundaryCorner() {
+        return this.greaterBoundaryCorner;
+    }
+
+    @Override
+    public @Nullable Vector3i getSpawnPos() {
+        return this.spawnPos;
+    }
+
+    @Override
+    public @Nullable UUID getClaimGroupUniqueId() {
+        return this.claimGroupUniqueId;
+    }
+
+    @Override
+    public Optional<Component> getDisplayNameComponent() {
+        return Optional.ofNullable(this.displayName);
+    }
+
+    @Override
+    public @Nullable String getDisplayName() {
+        return null;
+    }
+
+    @Override
+    public ClaimType getType() {
+        return this.type;
+    }
+
+    @Override
+    public Set<ClaimAttribute> getAttributes() {
+        return this.attributes;
+    }
+
+    @Override
+    public @Nullable UUID getParentUniqueId() {
+        return this.parentUniqueId;
+    }
+
+    @Override
+    public @Nullable UUID getOwnerUniqueId() {
+        return this.ownerUniqueId;
+    }
+
+    @Override
+    public Optional<Component> getGreeting() {
+        return Optional.ofNullable(this.greeting);
+    }
+
+    @Override
+    public Optional<Component> getFarewell() {
+        return Optional.ofNullable(this.farewell);
+    }
+
+    @Override
+    public Optional<Component> getEnterActionBar() {
+        return Optional.ofNullable(this.enterActionBar);
+    }
+
+    @Override
+    public Optional<Component> getExitActionBar() {
+        return Optional.ofNullable(this.exitActionBar);
+    }
+
+    @Override
+    public Optional<Title> getEnterTitle() {
+        return Optional.ofNullable(this.enterTitle);
+    }
+
+    @Override
+    public Optional<Title> getExitTitle() {
+        return Optional.ofNullable(this.exitTitle);
+    }
+
+    @Override
+    public Instant getDateCreated() {
+        return this.dateCreated;
+    }
+
+    @Override
+    public Instant getDateLastActive() {
+        return this.dateLastActive;
+    }
+
+    @Override
+    public boolean allowDenyMessages() {
+        return this.denyMessages;
+    }
+
+    @Override
+    public boolean allowExpiration() {
+        return this.expiration;
+    }
+
+    @Override
+    public boolean isCuboid() {
+        return this.cuboid;
+    }
+
+    @Override
+    public boolean doesInheritParent() {
+        return this.inheritParent;
+    }
+
+    @Override
+    public boolean isResizable() {
+        return this.resizable;
+    }
+
+    @Override
+    public boolean isExpired() {
+        return this.expired;
+    }
+
+    @Override
+    public boolean requiresClaimBlocks() {
+        return this.requiresClaimBlocks;
+    }
+
+    @Override
+    public boolean hasSizeRestrictions() {
+        return this.sizeRestrictions;
+    }
+
+    @Override
+    public @Nullable ClanData getClanData() {
+        return this.clanData;
+    }
+
+    @Override
+    public @Nullable EconomyData getEconomyData() {
+        return this.economyData;
+    }
+
+    @Override
+    public Set<UUID> getAccessors() {
+        return this.accessors;
+    }
+
+    @Override
+    public Set<UUID> getBuilders() {
+        return this.builders;
+    }
+
+    @Override
+    public Set<UUID> getContainers() {
+        return this.containers;
+    }
+
+    @Override
+    public Set<UUID> getManagers() {
+        return this.managers;
+    }
+
+    @Override
+    public Set<UUID> getResidents() {
+        return this.residents;
+    }
+
+    @Override
+    public Set<String> getAccessorGroups() {
+        return this.accessorGroups;
+    }
+
+    @Override
+    public Set<String> getBuilderGroups() {
+        return this.builderGroups;
+    }
+
+    @Override
+    public Set<String> getContainerGroups() {
+        return this.containerGroups;
+    }
+
+    @Override
+    public Set<String> getManagerGroups() {
+        return this.managerGroups;
+    }
+
+    @Override
+    public Set<String> getResidentGroups() {
+        return this.residentGroups;
+    }
+
+    @Override
+    public boolean setClaimGroupUniqueId(UUID uuid) {
+        this.claimGroupUniqueId = uuid;
+        this.markDirty(ClaimDataField.CLAIM_GROUP);
+        return true;
+    }
+
+    @Override
+    public void setLesserBoundaryCorner(Vector3i pos) {
+        this.lesserBoundaryCorner = pos;
+        this.markDirty(ClaimDataField.BOUNDARIES);
+    }
+
+    @Override
+    public void setLesserBoundaryCorner(int x, int y, int z) {
+        this.lesserBoundaryCorner = new Vector3i(x, y, z);
+        this.markDirty(ClaimDataField.BOUNDARIES);
+    }
+
+    @Override
+    public void setGreaterBoundaryCorner(Vector3i pos) {
+        this.greaterBoundaryCorner = pos;
+        this.markDirty(ClaimDataField.BOUNDARIES);
+    }
+
+    @Override
+    public void setGreaterBoundaryCorner(int x, int y, int z) {
+        this.greaterBoundaryCorner = new Vector3i(x, y, z);
+        this.markDirty(ClaimDataField.BOUNDARIES);
+    }
+
+    @Override
+    public void setSpawnPos(@Nullable Vector3i pos) {
+        this.spawnPos = pos;
+        this.markDirty(ClaimDataField.SPAWN);
+    }
+
+    @Override
+    public void setSpawnPos(int x, int y, int z) {
+        this.spawnPos = new Vector3i(x, y, z);
+        this.markDirty(ClaimDataField.SPAWN);
+    }
+
+    @Override
+    public void setWorldUniqueId(UUID worldUniqueId) {
+        this.worldUniqueId = worldUniqueId;
+        this.markDirty(ClaimDataField.WORLD);
+    }
+
+    @Override
+    public void setDisplayName(Component name) {
+        this.displayName = name;
+        this.markDirty(ClaimDataField.DISPLAY_NAME);
+    }
+
+    @Override
+    public void setOwnerUniqueId(UUID ownerUniqueId) {
+        this.ownerUniqueId = ownerUniqueId;
+        this.markDirty(ClaimDataField.OWNER);
+    }
+
+    @Override
+    public void setType(ClaimType type) {
+        this.type = type;
+        this.markDirty(ClaimDataField.TYPE);
+    }
+
+    @Override
+    public void setAttributes(Set<ClaimAttribute> attributes) {
+        this.attributes = attributes;
+        this.markDirty(ClaimDataField.ATTRIBUTES);
+    }
+
+    @Override
+    public void setFarewell(Component farewell) {
+        this.farewell = farewell;
+        this.markDirty(ClaimDataField.FAREWELL);
+    }
+
+    @Override
+    public void setGreeting(Component greeting) {
+        this.greeting = greeting;
+        this.markDirty(ClaimDataField.GREETING);
+    }
+
+    @Override
+    public void setEnterActionBar(Component message) {
+        this.enterActionBar = message;
+        this.markDirty(ClaimDataField.ENTER_ACTION_BAR);
+    }
+
+    @Override
+    public void setExitActionBar(Component message) {
+        this.exitActionBar = message;
+        this.markDirty(ClaimDataField.EXIT_ACTION_BAR);
+    }
+
+    @Override
+    public void setEnterTitle(Title title) {
+        this.enterTitle = title;
+        this.markDirty(ClaimDataField.ENTER_TITLE);
+    }
+
+    @Override
+    public void setExitTitle(Title title) {
+        this.exitTitle = title;
+        this.markDirty(ClaimDataField.EXIT_TITLE);
+    }
+
+    @Override
+    public void setExpired(boolean expired) {
+        this.expired = expired;
+        this.markDirty(ClaimDataField.EXPIRED);
+    }
+
+    public void setDateCreated(Instant date) {
+        this.dateCreated = date;
+        this.markDirty(ClaimDataField.DATE_CREATED);
+    }
+
+    @Override
+    public void setDateLastActive(Instant date) {
+        this.dateLastActive = date;
+        this.markDirty(ClaimDataField.DATE_LAST_ACTIVE);
+    }
+
+    @Override
+    public void setInheritParent(boolean inherit) {
+        this.inheritParent = inherit;
+        this.markDirty(ClaimDataField.INHERIT_PARENT);
+        if (this.claim != null) {
+            this.claim.inheritanceChanged();
+        }
+    }
+
+    @Override
+    public void setResizable(boolean allowResize) {
+        this.resizable = allowResize;
+        this.markDirty(ClaimDataField.RESIZABLE);
+    }
+
+    @Override
+    public void setCuboid(boolean cuboid) {
+        this.cuboid = cuboid;
+        this.markDirty(ClaimDataField.CUBOID);
+    }
+
+    @Override
+    public void setDenyMessages(boolean allowDenyMessages) {
+        this.denyMessages = allowDenyMessages;
+        this.markDirty(ClaimDataField.DENY_MESSAGES);
+    }
+
+    @Override
+    public void setAllowExpiration(boolean allowExpire) {
+        this.expiration = allowExpire;
+        this.markDirty(ClaimDataField.EXPIRATION);
+    }
+
+    @Override
+    public void setParentUniqueId(UUID uniqueId) {
+        this.parentUniqueId = uniqueId;
+        this.markDirty(ClaimDataField.PARENT);
+        if (this.claim != null) {
+            InheritanceChain.invalidate(this.claim);
+        }
+    }
+
+    @Override
+    public void setRequiresClaimBlocks(boolean requiresClaimBlocks) {
+        this.requiresClaimBlocks = requiresClaimBlocks;
+        this.markDirty(ClaimDataField.REQUIRES_CLAIM_BLOCKS);
+    }
+
+    @Override
+    public void setSizeRestrictions(boolean sizeRestrictions) {
+        this.sizeRestrictions = sizeRestrictions;
+        this.markDirty(ClaimDataField.SIZE_RESTRICTIONS);
+    }
+
+    @Override
+    public void setAccessors(Set<UUID> accessors) {
+        this.accessors = accessors;
+        this.markDirty(ClaimDataField.ACCESSORS);
+        this.trustChanged();
+    }
+
+    @Override
+    public void setBuilders(Set<UUID> builders) {
+        this.builders = builders;
+        this.markDirty(ClaimDataField.BUILDERS);
+        this.trustChanged();
+    }
+
+    @Override
+    public void setContainers(Set<UUID> containers) {
+        this.containers = containers;
+        this.markDirty(ClaimDataField.CONTAINERS);
+        this.trustChanged();
+    }
+
+    @Override
+    public void setManagers(Set<UUID> managers) {
+        this.managers = managers;
+        this.markDirty(ClaimDataField.MANAGERS);
+        this.trustChanged();
+    }
+
+    @Override
+    public void setResidents(Set<UUID> residents) {
+        this.residents = residents;
+        this.markDirty(ClaimDataField.RESIDENTS);
+        this.trustChanged();
+    }
+
+    @Override
+    public void setAccessorGroups(Set<String> accessorGroups) {
+        this.accessorGroups = accessorGroups;
+        this.markDirty(ClaimDataField.ACCESSOR_GROUPS);
+        this.trustChanged();
+    }
+
+    @Override
+    public void setBuilderGroups(Set<String> builderGroups) {
+        this.builderGroups = builderGroups;
+        this.markDirty(ClaimDataField.BUILDER_GROUPS);
+        this.trustChanged();
+    }
+
+    @Override
+    public void setContainerGroups(Set<String> containerGroups) {
+        this.containerGroups = containerGroups;
+        this.markDirty(ClaimDataField.CONTAINER_GROUPS);
+        this.trustChanged();
+    }
+
+    @Override
+    public void setManagerGroups(Set<String> managerGroups) {
+        this.managerGroups = managerGroups;
+        this.markDirty(ClaimDataField.MANAGER_GROUPS);
+        this.trustChanged();
+    }
+
+    @Override
+    public void setResidentGroups(Set<String> residentGroups) {
+        this.residentGroups = residentGroups;
+        this.markDirty(ClaimDataField.RESIDENT_GROUPS);
+        this.trustChanged();
+    }
+
+    @Override
+    public void setClanData(ClanData clanData) {
+        this.clanData = clanData;
+        this.clanDataChanged();
+    }
+
+    @Override
+    public void setEconomyData(EconomyData economyData) {
+        this.economyData = economyData;
+        this.markDirty(ClaimDataField.ECONOMY_DATA);
+    }
+
+    /**
+     * Gets the clan data, creating empty clan data if none was set.
+     * 
+     * @return The clan data
+     */
+    public ClanData getOrCreateClanData() {
+        if (this.clanData == null) {
+            this.setClanData(new InMemoryClanData(this));
+        }
+        return this.clanData;
+    }
+
+    /**
+     * Gets the economy data, creating empty economy data if none was set.
+     * 
+     * @return The economy data
+     */
+    public EconomyData getOrCreateEconomyData() {
+        if (this.economyData == null) {
+            this.setEconomyData(new InMemoryEconomyData(this));
+        }
+        return this.economyData;
+    }
+
+    @Override
+    public void save() {
+        final long start = CLAIM_SAVE_TIMER.start();
+        final ClaimSaveQueue saveQueue = this.claim == null ? null : this.claim.getClaimManager().getSaveQueue();
+        if (saveQueue != null) {
+            saveQueue.markDirty(this.claim);
+        }
+        CLAIM_SAVE_TIMER.stop(start);
+        if (JFR_AVAILABLE && this.claim != null) {
+            final ClaimSaveEvent event = new ClaimSaveEvent();
+            if (event.shouldCommit()) {
+                event.claimId = this.claim.getUniqueId().toString();
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public Set<ClaimDataField> getDirtyFields() {
+        return toFields(this.dirtyFields.get());
+    }
+
+    @Override
+    public Set<ClaimDataField> clearDirtyFields() {
+        return toFields(this.dirtyFields.getAndSet(0));
+    }
+
+    @Override
+    public void markDirty(Set<ClaimDataField> fields) {
+        for (ClaimDataField field : fields) {
+            this.markDirty(field);
+        }
+    }
+
+    void markDirty(ClaimDataField field) {
+        final long bit = 1L << field.ordinal();
+        long mask;
+        do {
+            mask = this.dirtyFields.get();
+        } while ((mask & bit) == 0 && !this.dirtyFields.compareAndSet(mask, mask | bit));
+    }
+
+    private static Set<ClaimDataField> toFields(long mask) {
+        final Set<ClaimDataField> fields = EnumSet.noneOf(ClaimDataField.class);
+        for (int i = 0; i < FIELDS.length; i++) {
+            if ((mask & (1L << i)) != 0) {
+                fields.add(FIELDS[i]);
+            }
+        }
+        return fields;
+    }
+
+    void economyDataChanged() {
+        this.markDirty(ClaimDataField.ECONOMY_DATA);
+    }
+
+    void clanDataChanged() {
+        this.markDirty(ClaimDataField.CLAN_DATA);
+        this.trustChanged();
+    }
+
+    private void trustChanged() {
+        if (this.claim != null) {
+            this.claim.trustChanged();
+        }
+    }
+}
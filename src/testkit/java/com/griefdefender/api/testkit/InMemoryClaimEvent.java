@@ -0,0 +1,90 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.User;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.event.ClaimEvent;
+import com.griefdefender.api.event.EventCause;
+import net.kyori.adventure.text.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The state shared by the in-memory {@link ClaimEvent}s.
+ */
+abstract class InMemoryClaimEvent implements ClaimEvent {
+
+    private final EventCause cause;
+    private final List<Claim> claims;
+    private @Nullable Component message;
+    private boolean cancelled;
+
+    InMemoryClaimEvent(EventCause cause, List<Claim> claims) {
+        this.cause = cause;
+        this.claims = claims;
+    }
+
+    @Override
+    public EventCause getCause() {
+        return this.cause;
+    }
+
+    @Override
+    public Object getSource() {
+        return this.cause.root();
+    }
+
+    @Override
+    public @Nullable User getSourceUser() {
+        return this.cause.first(User.class).orElse(null);
+    }
+
+    @Override
+    public List<Claim> getClaims() {
+        return this.claims;
+    }
+
+    @Override
+    public void setMessage(Component message) {
+        this.message = message;
+    }
+
+    @Override
+    public Optional<Component> getMessage() {
+        return Optional.ofNullable(this.message);
+    }
+
+    public boolean cancelled() {
+        return this.cancelled;
+    }
+
+    public void cancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.event.BatchClaimEvent;
+import com.griefdefender.api.event.ClaimEventBatch;
+import com.griefdefender.api.event.RemoveClaimEvent;
+import com.griefdefender.api.event.TrustClaimEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link ClaimEventBatch} of the current thread.
+ * 
+ * <br><br>Opening a batch while one of the same event manager is open joins
+ * it, so only the outermost close posts the {@link BatchClaimEvent}s.
+ */
+final class InMemoryClaimEventBatch implements ClaimEventBatch {
+
+    static final ClaimEventBatch NONE = () -> {};
+    private static final ThreadLocal<InMemoryClaimEventBatch> CURRENT = new ThreadLocal<>();
+
+    private final InMemoryEventManager eventManager;
+    private final @Nullable InMemoryClaimEventBatch outer;
+    private final List<TrustClaimEvent> trustEvents = new ArrayList<>();
+    private final List<RemoveClaimEvent> removeEvents = new ArrayList<>();
+    private int depth = 1;
+
+    private InMemoryClaimEventBatch(InMemoryEventManager eventManager, @Nullable InMemoryClaimEventBatch outer) {
+        this.eventManager = eventManager;
+        this.outer = outer;
+    }
+
+    static InMemoryClaimEventBatch open(InMemoryEventManager eventManager) {
+        final InMemoryClaimEventBatch current = CURRENT.get();
+        if (current != null && current.eventManager == eventManager) {
+            current.depth++;
+            return current;
+        }
+        final InMemoryClaimEventBatch batch = new InMemoryClaimEventBatch(eventManager, current);
+        CURRENT.set(batch);
+        return batch;
+    }
+
+    static ClaimEventBatch openIfPosting(@Nullable InMemoryEventManager eventManager) {
+        return eventManager == null ? NONE : open(eventManager);
+    }
+
+    static @Nullable InMemoryClaimEventBatch current(InMemoryEventManager eventManager) {
+        final InMemoryClaimEventBatch current = CURRENT.get();
+        return current != null && current.eventManager == eventManager ? current : null;
+    }
+
+    void add(InMemoryClaimEvent event) {
+        if (event instanceof TrustClaimEvent) {
+            this.trustEvents.add((TrustClaimEvent) event);
+        } else if (event instanceof RemoveClaimEvent) {
+            this.removeEvents.add((RemoveClaimEvent) event);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.depth == 0 || --this.depth > 0) {
+            return;
+        }
+        if (this.outer != null) {
+            CURRENT.set(this.outer);
+        } else {
+            CURRENT.remove();
+        }
+        if (!this.trustEvents.isEmpty()) {
+            this.eventManager.post(new InMemoryBatchClaimEvent.Trust(this.eventManager.getCauseStackManager().getCurrentCause(), this.trustEvents));
+        }
+        if (!this.removeEvents.isEmpty()) {
+            this.eventManager.post(new InMemoryBatchClaimEvent.Remove(this.eventManager.getCauseStackManager().getCurrentCause(), this.removeEvents));
+        }
+    }
+}
@@ -0,0 +1,468 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.claim.ClaimManager;
+import com.griefdefender.api.claim.ClaimResult;
+import com.griefdefender.api.claim.ClaimResultType;
+import com.griefdefender.api.claim.ClaimType;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.api.claim.InheritanceChain;
+import com.griefdefender.api.data.ClaimData;
+import com.griefdefender.api.data.ClaimSaveQueue;
+import com.griefdefender.api.event.BatchClaimEvent;
+import com.griefdefender.api.event.ClaimEventBatch;
+import com.griefdefender.api.event.RemoveClaimEvent;
+import com.griefdefender.api.event.SaveClaimEvent;
+import com.griefdefender.api.jfr.ClaimLookupEvent;
+import com.griefdefender.api.jfr.JfrSupport;
+import com.griefdefender.api.metrics.Counter;
+import com.griefdefender.api.metrics.MetricKeys;
+import com.griefdefender.api.metrics.Metrics;
+import com.griefdefender.api.metrics.Timer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link ClaimManager} kept in memory.
+ * 
+ * <br><br>Top level claims are indexed by the chunks they cover and
+ * lookups descend into children from there, matching how claims are
+ * resolved on a server.
+ * 
+ * <br><br>Note: This class is not thread-safe. Populate it before sharing
+ * it between threads.
+ */
+public class InMemoryClaimManager implements ClaimManager {
+
+    private static final Timer CLAIM_LOOKUP_TIMER = Metrics.timer(MetricKeys.CLAIM_LOOKUP);
+    private static final Counter INDEX_REBUILD_COUNTER = Metrics.counter(MetricKeys.CLAIM_INDEX_REBUILD);
+    private static final boolean JFR_AVAILABLE = JfrSupport.isAvailable();
+
+    private final UUID worldUniqueId;
+    private final String worldName;
+    private final InMemoryPermissionManager permissionManager;
+    private final InMemoryClaim wilderness;
+    private final Map<UUID, InMemoryClaim> claims = new HashMap<>();
+    private final ChunkClaimIndex chunksToClaims = new ChunkClaimIndex();
+    // chunks not in chunksToClaims are looked up here
+    private @Nullable PersistedChunkClaims persistedChunks;
+    private final Map<UUID, Set<Claim>> playerClaims = new HashMap<>();
+    private volatile @Nullable ClaimSaveQueue saveQueue;
+
+    public InMemoryClaimManager(UUID worldUniqueId, String worldName, InMemoryPermissionManager permissionManager) {
+        this.worldUniqueId = worldUniqueId;
+        this.worldName = worldName;
+        this.permissionManager = permissionManager;
+        this.wilderness = new InMemoryClaim(worldUniqueId, this, new InMemoryClaimData(worldUniqueId, InMemoryCore.WILDERNESS_USER_UUID, ClaimTypes.WILDERNESS,
+                new Vector3i(-30000000, 0, -30000000), new Vector3i(30000000, 255, 30000000)));
+    }
+
+    /**
+     * Gets the chunk hash used to index claims.
+     * 
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return The chunk hash
+     */
+    public static long chunkHash(int chunkX, int chunkZ) {
+        return (chunkX & 0xffffffffL) | (chunkZ & 0xffffffffL) << 32;
+    }
+
+    public String getWorldName() {
+        return this.worldName;
+    }
+
+    public InMemoryPermissionManager getPermissionManager() {
+        return this.permissionManager;
+    }
+
+    public @Nullable ClaimSaveQueue getSaveQueue() {
+        return this.saveQueue;
+    }
+
+    /**
+     * Saves claims of this world behind {@link ClaimData#save()} and
+     * {@link #deleteClaim(Claim, boolean)}.
+     * 
+     * <br><br>{@link SaveClaimEvent.Pre} and {@link SaveClaimEvent.Post} are
+     * posted once per batch on the writer thread. Shut the returned queue
+     * down to write the remaining claims.
+     * 
+     * @param writer The batch writer
+     * @param window The coalescing window
+     * @param unit The unit of window
+     * @param maxBatchSize The most claims per batch
+     * @return The save queue
+     */
+    public ClaimSaveQueue enableWriteBehind(ClaimSaveQueue.BatchWriter writer, long window, TimeUnit unit, int maxBatchSize) {
+        final InMemoryEventManager eventManager = this.permissionManager.getEventManager();
+        final ClaimSaveQueue.Listener listener = eventManager == null ? new ClaimSaveQueue.Listener() {} : InMemorySaveClaimEvent.createListener(eventManager, this);
+        final ClaimSaveQueue saveQueue = new ClaimSaveQueue(writer, listener, window, unit, maxBatchSize);
+        this.saveQueue = saveQueue;
+        return saveQueue;
+    }
+
+    /**
+     * Creates and adds a claim.
+     * 
+     * <br><br>Note: Bounds are not validated against existing claims.
+     * 
+     * @param owner The owner of claim
+     * @param type The claim type
+     * @param lesser The lesser boundary corner
+     * @param greater The greater boundary corner
+     * @param parent The parent claim or null for a top level claim
+     * @return The new claim
+     */
+    public InMemoryClaim createClaim(UUID owner, ClaimType type, Vector3i lesser, Vector3i greater, @Nullable InMemoryClaim parent) {
+        final InMemoryClaimData data = new InMemoryClaimData(this.worldUniqueId, owner, type, lesser, greater);
+        final InMemoryClaim claim = new InMemoryClaim(UUID.randomUUID(), this, data);
+        this.addClaim(claim, parent);
+        return claim;
+    }
+
+    /**
+     * Adds a claim to this manager.
+     * 
+     * @param claim The claim
+     * @param parent The parent claim or null for a top level claim
+     */
+    public void addClaim(InMemoryClaim claim, @Nullable InMemoryClaim parent) {
+        claim.setParent(parent);
+        this.claims.put(claim.getUniqueId(), claim);
+        this.playerClaims.computeIfAbsent(claim.getOwnerUniqueId(), k -> new HashSet<>()).add(claim);
+        if (parent == null) {
+            this.indexChunks(claim);
+        }
+    }
+
+    /**
+     * Adds the claims of a shard, linking children to their parents.
+     * 
+     * <br><br>Note: A claim whose parent is in neither the shard nor this
+     * manager is added as a top level claim.
+     * 
+     * @param shard The shard
+     */
+    public void addClaims(ClaimIndexShard shard) {
+        final List<InMemoryClaim> claims = shard.getClaims();
+        for (InMemoryClaim claim : claims) {
+            this.claims.put(claim.getUniqueId(), claim);
+        }
+        final List<UUID> parentUniqueIds = shard.getParentUniqueIds();
+        for (int i = 0; i < claims.size(); i++) {
+            final InMemoryClaim claim = claims.get(i);
+            final UUID parentUniqueId = parentUniqueIds.get(i);
+            final InMemoryClaim parent = parentUniqueId == null ? null : this.claims.get(parentUniqueId);
+            claim.setParent(parent);
+            this.playerClaims.computeIfAbsent(claim.getOwnerUniqueId(), k -> new HashSet<>()).add(claim);
+            if (parent == null && parentUniqueId != null) {
+                this.indexChunks(claim);
+            }
+        }
+        if (this.persistedChunks == null) {
+            this.chunksToClaims.addAll(shard.getIndex());
+        } else {
+            shard.getIndex().forEach((hash, list) -> this.getOrCreateChunk(hash).addAll(list));
+        }
+    }
+
+    /**
+     * Adds claims along with a persisted chunk index, which is used as is
+     * instead of indexing the claims.
+     * 
+     * <br><br>Only the amount of chunk positions is checked up front against
+     * the chunks of the top level claims, if it differs the index is rebuilt
+     * with {@link #rebuildIndex()} instead. Each chunk is then checked on its
+     * first lookup. If a position is out of range, or names a claim that is
+     * not top level or does not touch the chunk, lookups switch to an index
+     * built from the claims.
+     * 
+     * <br><br>Note: A persisted index whose positions were moved to other
+     * chunks, keeping their amount, hides the claims of the chunks they were
+     * moved from until a moved position is looked up. Persisted indexes are
+     * checksummed by their writer, see {@code ClaimIndexFile}.
+     * 
+     * @param claims The claims
+     * @param parentIndices The position of the parent of each claim, or a
+     *     negative value for a top level claim
+     * @param index The persisted index
+     * @return Whether the persisted index was used
+     */
+    public boolean addIndexedClaims(InMemoryClaim[] claims, int[] parentIndices, PersistedChunkIndex index) {
+        for (InMemoryClaim claim : claims) {
+            this.claims.put(claim.getUniqueId(), claim);
+            this.playerClaims.computeIfAbsent(claim.getOwnerUniqueId(), k -> new HashSet<>()).add(claim);
+        }
+        for (int i = 0; i < claims.length; i++) {
+            claims[i].setParent(parentIndices[i] < 0 ? null : claims[parentIndices[i]]);
+        }
+        if (PersistedChunkClaims.getEntryCount(claims) != index.getEntryCount()) {
+            this.rebuildIndex();
+            return false;
+        }
+        final PersistedChunkClaims persisted = new PersistedChunkClaims(claims, index);
+        if (this.persistedChunks == null && this.chunksToClaims.isEmpty()) {
+            this.persistedChunks = persisted;
+            return true;
+        }
+        // chunks may already be indexed, merge the index into them
+        persisted.forEach((hash, list) -> this.getOrCreateChunk(hash).addAll(list));
+        return !persisted.isRebuilt();
+    }
+
+    /**
+     * Rebuilds the chunk index from the top level claims of this manager,
+     * dropping any persisted index.
+     */
+    public void rebuildIndex() {
+        INDEX_REBUILD_COUNTER.increment();
+        this.chunksToClaims.clear();
+        this.persistedChunks = null;
+        for (InMemoryClaim claim : this.claims.values()) {
+            if (claim.getParent() == null) {
+                this.indexChunks(claim);
+            }
+        }
+    }
+
+    private @Nullable List<InMemoryClaim> getChunk(long hash) {
+        final List<InMemoryClaim> claims = this.chunksToClaims.get(hash);
+        final PersistedChunkClaims persisted = this.persistedChunks;
+        return claims != null || persisted == null ? claims : persisted.get(hash);
+    }
+
+    // Copies the persisted claims of a chunk before it is changed
+    private List<InMemoryClaim> getOrCreateChunk(long hash) {
+        List<InMemoryClaim> claims = this.chunksToClaims.get(hash);
+        if (claims == null) {
+            final List<InMemoryClaim> persisted = this.persistedChunks == null ? null : this.persistedChunks.get(hash);
+            claims = this.chunksToClaims.getOrCreate(hash);
+            if (persisted != null) {
+                claims.addAll(persisted);
+            }
+        }
+        return claims;
+    }
+
+    private void indexChunks(InMemoryClaim claim) {
+        for (Long hash : claim.getChunkHashes()) {
+            this.getOrCreateChunk(hash).add(claim);
+        }
+    }
+
+    private void unindexChunks(InMemoryClaim claim) {
+        for (Long hash : claim.getChunkHashes()) {
+            if (this.getChunk(hash) == null) {
+                continue;
+            }
+            final List<InMemoryClaim> list = this.getOrCreateChunk(hash);
+            list.remove(claim);
+            // an empty list hides the persisted claims of the chunk
+            if (list.isEmpty() && (this.persistedChunks == null || !this.persistedChunks.contains(hash))) {
+                this.chunksToClaims.remove(hash);
+            }
+        }
+    }
+
+    @Override
+    public Claim getWildernessClaim() {
+        return this.wilderness;
+    }
+
+    @Override
+    public Claim getClaimAt(Vector3i pos) {
+        return this.getClaimAt(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    @Override
+    public Claim getClaimAt(int x, int y, int z) {
+        final long start = CLAIM_LOOKUP_TIMER.start();
+        final Claim claim = JFR_AVAILABLE ? this.findClaimAtRecorded(x, y, z) : this.findClaimAt(x, y, z);
+        CLAIM_LOOKUP_TIMER.stop(start);
+        return claim;
+    }
+
+    private Claim findClaimAtRecorded(int x, int y, int z) {
+        final ClaimLookupEvent event = new ClaimLookupEvent();
+        event.begin();
+        final Claim claim = this.findClaimAt(x, y, z);
+        event.end();
+        if (event.shouldCommit()) {
+            event.worldId = this.worldUniqueId.toString();
+            event.x = x;
+            event.y = y;
+            event.z = z;
+            event.claimId = claim.getUniqueId().toString();
+            event.cacheHit = this.getChunk(chunkHash(x >> 4, z >> 4)) != null;
+            event.commit();
+        }
+        return claim;
+    }
+
+    private Claim findClaimAt(int x, int y, int z) {
+        final List<InMemoryClaim> candidates = this.getChunk(chunkHash(x >> 4, z >> 4));
+        if (candidates == null) {
+            return this.wilderness;
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            InMemoryClaim claim = candidates.get(i);
+            if (!claim.contains(x, y, z, false)) {
+                continue;
+            }
+            descend:
+            while (true) {
+                final List<InMemoryClaim> children = claim.getChildClaims();
+                for (int j = 0; j < children.size(); j++) {
+                    final InMemoryClaim child = children.get(j);
+                    if (child.contains(x, y, z, false)) {
+                        claim = child;
+                        continue descend;
+                    }
+                }
+                return claim;
+            }
+        }
+        return this.wilderness;
+    }
+
+    @Override
+    public @Nullable Claim getClaimByUUID(UUID claimUniqueId) {
+        if (this.wilderness.getUniqueId().equals(claimUniqueId)) {
+            return this.wilderness;
+        }
+        return this.claims.get(claimUniqueId);
+    }
+
+    @Override
+    public List<Claim> getClaimsByDisplayName(String name) {
+        final List<Claim> result = new ArrayList<>();
+        for (InMemoryClaim claim : this.claims.values()) {
+            if (name.equalsIgnoreCase(claim.getDisplayName())) {
+                result.add(claim);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Set<Claim> getPlayerClaims(UUID playerUniqueId) {
+        final Set<Claim> claims = this.playerClaims.get(playerUniqueId);
+        return claims == null ? Collections.emptySet() : Collections.unmodifiableSet(claims);
+    }
+
+    @Override
+    public Set<Claim> getWorldClaims() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(this.claims.values()));
+    }
+
+    @Override
+    public Map<Long, Set<Claim>> getChunksToClaimsMap() {
+        final Map<Long, Set<Claim>> map = new HashMap<>();
+        final PersistedChunkClaims persisted = this.persistedChunks;
+        if (persisted != null) {
+            persisted.forEach((hash, claims) -> map.put(hash, new LinkedHashSet<>(claims)));
+        }
+        this.chunksToClaims.forEach((hash, claims) -> {
+            if (claims.isEmpty()) {
+                map.remove(hash);
+            } else {
+                map.put(hash, new LinkedHashSet<>(claims));
+            }
+        });
+        return map;
+    }
+
+    @Override
+    public ClaimResult deleteClaim(Claim claim, boolean deleteChildren) {
+        final InMemoryClaim inMemoryClaim = this.claims.get(claim.getUniqueId());
+        if (inMemoryClaim == null) {
+            return InMemoryClaimResult.failure(ClaimResultType.CLAIM_NOT_FOUND);
+        }
+        final InMemoryEventManager eventManager = this.permissionManager.getEventManager();
+        try (ClaimEventBatch batch = InMemoryClaimEventBatch.openIfPosting(eventManager)) {
+            if (eventManager == null) {
+                return this.removeClaim(inMemoryClaim, deleteChildren);
+            }
+            final InMemoryClaimEvent event = eventManager.postClaimChange(RemoveClaimEvent.Delete.class, BatchClaimEvent.Remove.class,
+                    () -> new InMemoryRemoveClaimEvent(eventManager.getCauseStackManager().getCurrentCause(), inMemoryClaim));
+            if (event != null && event.cancelled()) {
+                return InMemoryClaimResult.failure(ClaimResultType.CLAIM_EVENT_CANCELLED);
+            }
+            final ClaimResult result = this.removeClaim(inMemoryClaim, deleteChildren);
+            if (result.successful()) {
+                eventManager.claimChanged(event, BatchClaimEvent.Remove.class);
+            }
+            return result;
+        }
+    }
+
+    private ClaimResult removeClaim(InMemoryClaim inMemoryClaim, boolean deleteChildren) {
+        final InMemoryClaim parent = (InMemoryClaim) inMemoryClaim.getParent();
+        for (InMemoryClaim child : new ArrayList<>(inMemoryClaim.getChildClaims())) {
+            // children whose deletion is cancelled are kept like with deleteChildren off
+            if (!deleteChildren || !this.deleteClaim(child, true).successful()) {
+                child.setParent(parent);
+                if (parent == null) {
+                    this.indexChunks(child);
+                }
+            }
+        }
+        this.claims.remove(inMemoryClaim.getUniqueId());
+        final Set<Claim> owned = this.playerClaims.get(inMemoryClaim.getOwnerUniqueId());
+        if (owned != null) {
+            owned.remove(inMemoryClaim);
+        }
+        if (parent == null) {
+            this.unindexChunks(inMemoryClaim);
+        }
+        inMemoryClaim.setParent(null);
+        InheritanceChain.invalidate(inMemoryClaim);
+        final ClaimSaveQueue saveQueue = this.saveQueue;
+        if (saveQueue != null) {
+            saveQueue.markDeleted(inMemoryClaim.getUniqueId());
+        }
+        return InMemoryClaimResult.success(inMemoryClaim);
+    }
+
+    @Override
+    public UUID getWorldId() {
+        return this.worldUniqueId;
+    }
+}
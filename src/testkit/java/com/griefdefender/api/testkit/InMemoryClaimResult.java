@@ -0,0 +1,73 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.claim.ClaimResult;
+import com.griefdefender.api.claim.ClaimResultType;
+
+import net.kyori.adventure.text.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An immutable {@link ClaimResult}.
+ */
+public final class InMemoryClaimResult implements ClaimResult {
+
+    private final ClaimResultType resultType;
+    private final List<Claim> claims;
+
+    private InMemoryClaimResult(ClaimResultType resultType, List<Claim> claims) {
+        this.resultType = resultType;
+        this.claims = claims;
+    }
+
+    public static ClaimResult success(Claim... claims) {
+        return new InMemoryClaimResult(ClaimResultType.SUCCESS, Collections.unmodifiableList(Arrays.asList(claims)));
+    }
+
+    public static ClaimResult failure(ClaimResultType resultType) {
+        return new InMemoryClaimResult(resultType, Collections.emptyList());
+    }
+
+    @Override
+    public ClaimResultType getResultType() {
+        return this.resultType;
+    }
+
+    @Override
+    public Optional<Component> getMessage() {
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Claim> getClaims() {
+        return this.claims;
+    }
+}
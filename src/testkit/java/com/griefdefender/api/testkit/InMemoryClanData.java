@@ -0,0 +1,106 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.data.ClanData;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The {@link ClanData} of an {@link InMemoryClaimData}.
+ * 
+ * <br><br>Tags added by the claim are lowercase. Setting a tag set marks
+ * the clan data dirty and invalidates the trust of the claim, so edits of
+ * the returned sets should go through the clan trust methods of the claim.
+ */
+final class InMemoryClanData implements ClanData {
+
+    private final InMemoryClaimData data;
+    private Set<String> accessorTags = new HashSet<>();
+    private Set<String> builderTags = new HashSet<>();
+    private Set<String> containerTags = new HashSet<>();
+    private Set<String> managerTags = new HashSet<>();
+    private Set<String> residentTags = new HashSet<>();
+
+    InMemoryClanData(InMemoryClaimData data) {
+        this.data = data;
+    }
+
+    @Override
+    public Set<String> getAccessorTags() {
+        return this.accessorTags;
+    }
+
+    @Override
+    public Set<String> getBuilderTags() {
+        return this.builderTags;
+    }
+
+    @Override
+    public Set<String> getContainerTags() {
+        return this.containerTags;
+    }
+
+    @Override
+    public Set<String> getManagerTags() {
+        return this.managerTags;
+    }
+
+    @Override
+    public Set<String> getResidentTags() {
+        return this.residentTags;
+    }
+
+    @Override
+    public void setAccessorTags(Set<String> accessorTags) {
+        this.accessorTags = accessorTags;
+        this.data.clanDataChanged();
+    }
+
+    @Override
+    public void setBuilderTags(Set<String> builderTags) {
+        this.builderTags = builderTags;
+        this.data.clanDataChanged();
+    }
+
+    @Override
+    public void setContainerTags(Set<String> containerTags) {
+        this.containerTags = containerTags;
+        this.data.clanDataChanged();
+    }
+
+    @Override
+    public void setManagerTags(Set<String> managerTags) {
+        this.managerTags = managerTags;
+        this.data.clanDataChanged();
+    }
+
+    @Override
+    public void setResidentTags(Set<String> residentTags) {
+        this.residentTags = residentTags;
+        this.data.clanDataChanged();
+    }
+}
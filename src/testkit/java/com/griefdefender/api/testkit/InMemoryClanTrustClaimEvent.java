@@ -0,0 +1,107 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.Clan;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.claim.TrustType;
+import com.griefdefender.api.event.ClanTrustClaimEvent;
+import com.griefdefender.api.event.EventCause;
+import com.griefdefender.api.provider.ClanProvider;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link ClanTrustClaimEvent} fired before clan trust of a claim changes.
+ * 
+ * <br><br>Claims store clan trust by tag, so the clans are looked up from
+ * the {@link ClanProvider} when first requested. Tags of clans unknown to
+ * the provider are left out.
+ */
+abstract class InMemoryClanTrustClaimEvent extends InMemoryClaimEvent implements ClanTrustClaimEvent {
+
+    private final Set<String> tags;
+    private final TrustType trustType;
+    private final @Nullable ClanProvider provider;
+    private @Nullable Set<Clan> clans;
+
+    InMemoryClanTrustClaimEvent(EventCause cause, Claim claim, Set<String> tags, TrustType trustType, @Nullable ClanProvider provider) {
+        super(cause, Collections.singletonList(claim));
+        this.tags = Collections.unmodifiableSet(tags);
+        this.trustType = trustType;
+        this.provider = provider;
+    }
+
+    /**
+     * Gets the lower case tags of the clans.
+     * 
+     * @return The tags
+     */
+    Set<String> getClanTags() {
+        return this.tags;
+    }
+
+    @Override
+    public Set<Clan> getClans() {
+        Set<Clan> clans = this.clans;
+        if (clans == null) {
+            clans = new HashSet<>();
+            if (this.provider != null) {
+                for (String tag : this.tags) {
+                    final Clan clan = this.provider.getClan(tag);
+                    if (clan != null) {
+                        clans.add(clan);
+                    }
+                }
+            }
+            clans = Collections.unmodifiableSet(clans);
+            this.clans = clans;
+        }
+        return clans;
+    }
+
+    @Override
+    public TrustType getTrustType() {
+        return this.trustType;
+    }
+
+    static final class Add extends InMemoryClanTrustClaimEvent implements ClanTrustClaimEvent.Add {
+
+        Add(EventCause cause, Claim claim, Set<String> tags, TrustType trustType, @Nullable ClanProvider provider) {
+            super(cause, claim, tags, trustType, provider);
+        }
+    }
+
+    static final class Remove extends InMemoryClanTrustClaimEvent implements ClanTrustClaimEvent.Remove {
+
+        Remove(EventCause cause, Claim claim, Set<String> tags, TrustType trustType, @Nullable ClanProvider provider) {
+            super(cause, claim, tags, trustType, provider);
+        }
+    }
+}
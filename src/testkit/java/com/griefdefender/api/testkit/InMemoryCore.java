@@ -0,0 +1,343 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.CommandResult;
+import com.griefdefender.api.Core;
+import com.griefdefender.api.Group;
+import com.griefdefender.api.Subject;
+import com.griefdefender.api.User;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.claim.ClaimBlockSystem;
+import com.griefdefender.api.claim.ClaimGroup;
+import com.griefdefender.api.claim.ClaimManager;
+import com.griefdefender.api.claim.ClaimSnapshot;
+import com.griefdefender.api.claim.TrustType;
+import com.griefdefender.api.data.PlayerData;
+import com.griefdefender.api.permission.PermissionResult;
+import com.griefdefender.api.permission.flag.Flag;
+import com.griefdefender.api.provider.ClanProvider;
+import com.griefdefender.api.provider.WorldEditProvider;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link Core} backed by in-memory worlds and users.
+ * 
+ * <br><br>Worlds and users must be created through {@link #createWorld(UUID, String)}
+ * and {@link #createUser(UUID, String)}. Snapshots, claim groups and player
+ * data are not supported. Deleting claim groups, command checks and
+ * {@link #getClaimAt(Object)}, which needs a platform location, throw
+ * {@link UnsupportedOperationException}.
+ */
+public class InMemoryCore implements Core {
+
+    public static final UUID WILDERNESS_USER_UUID = new UUID(0, 0);
+    public static final UUID ADMIN_USER_UUID = new UUID(0, 1);
+
+    private final InMemoryPermissionManager permissionManager;
+    private final InMemoryRegistry registry;
+    private final Map<UUID, InMemoryClaimManager> worlds = new ConcurrentHashMap<>();
+    private final Map<UUID, InMemoryUser> users = new ConcurrentHashMap<>();
+    private final Map<String, Group> groups = new ConcurrentHashMap<>();
+    private final InMemoryUser adminUser = new InMemoryUser(ADMIN_USER_UUID, "administrator");
+    private final InMemoryUser wildernessUser = new InMemoryUser(WILDERNESS_USER_UUID, "wilderness");
+
+    public InMemoryCore(InMemoryPermissionManager permissionManager, InMemoryRegistry registry) {
+        this.permissionManager = permissionManager;
+        this.registry = registry;
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Not supported by the in-memory implementation");
+    }
+
+    /**
+     * Creates an empty world.
+     * 
+     * @param worldUniqueId The world uuid
+     * @param name The world name
+     * @return The claim manager of world
+     */
+    public InMemoryClaimManager createWorld(UUID worldUniqueId, String name) {
+        final InMemoryClaimManager claimManager = new InMemoryClaimManager(worldUniqueId, name, this.permissionManager);
+        if (this.worlds.putIfAbsent(worldUniqueId, claimManager) != null) {
+            throw new IllegalArgumentException("World " + worldUniqueId + " already exists");
+        }
+        return claimManager;
+    }
+
+    /**
+     * Creates a user and registers its name with the registry.
+     * 
+     * @param uuid The user uuid
+     * @param name The user name
+     * @return The user
+     */
+    public InMemoryUser createUser(UUID uuid, String name) {
+        final InMemoryUser user = new InMemoryUser(uuid, name);
+        this.users.put(uuid, user);
+        this.registry.registerUsername(uuid, name);
+        return user;
+    }
+
+    public Collection<InMemoryClaimManager> getWorlds() {
+        return Collections.unmodifiableCollection(this.worlds.values());
+    }
+
+    @Override
+    public boolean isEnabled(UUID worldUniqueId) {
+        return this.worlds.containsKey(worldUniqueId);
+    }
+
+    @Override
+    public ClaimBlockSystem getClaimBlockSystem() {
+        return ClaimBlockSystem.AREA;
+    }
+
+    @Override
+    public boolean isEconomyModeEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isProtectionModuleEnabled(Flag flag) {
+        return true;
+    }
+
+    @Override
+    public @Nullable PlayerData getPlayerData(UUID worldUniqueId, UUID playerUniqueId) {
+        return null;
+    }
+
+    @Override
+    public @Nullable Claim getClaim(UUID uuid) {
+        for (InMemoryClaimManager claimManager : this.worlds.values()) {
+            final Claim claim = claimManager.getClaimByUUID(uuid);
+            if (claim != null) {
+                return claim;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable Claim getClaim(UUID ownerUniqueId, String friendlyIdentifier) {
+        return null;
+    }
+
+    @Override
+    public @Nullable Claim getClaimAt(Object location) {
+        throw unsupported();
+    }
+
+    @Override
+    public @Nullable Claim getClaimAt(UUID worldUniqueId, int x, int y, int z) {
+        final InMemoryClaimManager claimManager = this.worlds.get(worldUniqueId);
+        if (claimManager == null) {
+            return null;
+        }
+        return claimManager.getClaimAt(x, y, z);
+    }
+
+    @Override
+    public @Nullable UUID getWorldUniqueId(Object world) {
+        if (world instanceof UUID && this.worlds.containsKey(world)) {
+            return (UUID) world;
+        }
+        return null;
+    }
+
+    @Override
+    public Map<UUID, Map<String, UUID>> getFriendlyIdentifierMapView() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public List<Claim> getAllClaims() {
+        final List<Claim> claims = new ArrayList<>();
+        for (InMemoryClaimManager claimManager : this.worlds.values()) {
+            claims.addAll(claimManager.getWorldClaims());
+        }
+        return claims;
+    }
+
+    @Override
+    public List<Claim> getAllPlayerClaims(UUID playerUniqueId) {
+        final List<Claim> claims = new ArrayList<>();
+        for (InMemoryClaimManager claimManager : this.worlds.values()) {
+            claims.addAll(claimManager.getPlayerClaims(playerUniqueId));
+        }
+        return claims;
+    }
+
+    @Override
+    public @Nullable ClaimManager getClaimManager(UUID worldUniqueId) {
+        return this.worlds.get(worldUniqueId);
+    }
+
+    @Override
+    public Subject getDefaultSubject() {
+        return this.permissionManager.getDefaultSubject();
+    }
+
+    @Override
+    public Subject getSubject(String identifier) {
+        try {
+            final User user = this.getUser(UUID.fromString(identifier));
+            if (user != null) {
+                return user;
+            }
+        } catch (IllegalArgumentException e) {
+            // not a user
+        }
+        return this.getGroup(identifier);
+    }
+
+    @Override
+    public User getAdminUser() {
+        return this.adminUser;
+    }
+
+    @Override
+    public User getWildernessUser() {
+        return this.wildernessUser;
+    }
+
+    @Override
+    public @Nullable User getUser(UUID uuid) {
+        if (ADMIN_USER_UUID.equals(uuid)) {
+            return this.adminUser;
+        }
+        if (WILDERNESS_USER_UUID.equals(uuid)) {
+            return this.wildernessUser;
+        }
+        return this.users.get(uuid);
+    }
+
+    @Override
+    public Group getDefaultFlagDefinitionGroup() {
+        return this.getGroup("griefdefender_definition");
+    }
+
+    @Override
+    public Group getDefaultOptionDefinitionGroup() {
+        return this.getGroup("griefdefender_option");
+    }
+
+    @Override
+    public Group getGroup(String name) {
+        return this.groups.computeIfAbsent(name, InMemoryGroup::new);
+    }
+
+    @Override
+    public @Nullable ClanProvider getClanProvider() {
+        return this.registry.getClanProvider();
+    }
+
+    @Override
+    public @Nullable WorldEditProvider getWorldEditProvider() {
+        return null;
+    }
+
+    @Override
+    public boolean deleteAdminClaimSnapshot(String name) {
+        return false;
+    }
+
+    @Override
+    public boolean deleteAdminClaimSnapshot(String group, String name) {
+        return false;
+    }
+
+    @Override
+    public boolean deletePublicClaimSnapshot(String name) {
+        return false;
+    }
+
+    @Override
+    public boolean deletePublicClaimSnapshot(String group, String name) {
+        return false;
+    }
+
+    @Override
+    public Map<String, Map<String, ClaimSnapshot>> getAdminClaimSnapshots() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Map<String, Map<String, ClaimSnapshot>> getPublicClaimSnapshots() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Map<String, ClaimGroup> getAdminClaimGroupsByName() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Map<UUID, ClaimGroup> getAdminClaimGroupsByUUID() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Map<String, ClaimGroup> getPlayerClaimGroupsByName(UUID playerUniqueId) {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Map<UUID, ClaimGroup> getPlayerClaimGroupsByUUID(UUID playerUniqueId) {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public @Nullable ClaimGroup getClaimGroupByUUID(UUID uuid) {
+        return null;
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> deleteAdminClaimGroup(String group) {
+        throw unsupported();
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> deletePlayerClaimGroup(UUID uuid, String group) {
+        throw unsupported();
+    }
+
+    @Override
+    public CommandResult canUseCommand(Object sender, TrustType trustType, @Nullable String claimIdentifier) {
+        throw unsupported();
+    }
+}
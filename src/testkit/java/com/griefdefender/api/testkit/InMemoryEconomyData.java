@@ -0,0 +1,363 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.data.EconomyData;
+import com.griefdefender.api.economy.PaymentTransaction;
+import com.griefdefender.api.economy.PaymentType;
+import com.griefdefender.api.economy.TransactionType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The {@link EconomyData} of an {@link InMemoryClaimData}.
+ * 
+ * <br><br>Every setter marks the economy data dirty. The renter lists are
+ * live, callers changing them directly mark the claim data dirty.
+ */
+final class InMemoryEconomyData implements EconomyData {
+
+    private final InMemoryClaimData data;
+    private @Nullable Vector3i rentSignPosition;
+    private @Nullable Vector3i saleSignPosition;
+    private final List<PaymentTransaction> transactions = new ArrayList<>();
+    private final List<UUID> renters = new ArrayList<>();
+    private final List<UUID> delinquentRenters = new ArrayList<>();
+    private final Map<UUID, Double> rentBalances = new LinkedHashMap<>();
+    private PaymentType paymentType = PaymentType.UNDEFINED;
+    private boolean forSale;
+    private boolean forRent;
+    private boolean rentBreakAbility;
+    private boolean rentStripNbt;
+    private double rentRate;
+    private int rentMinTime;
+    private int rentMaxTime;
+    private double salePrice;
+    private double taxBalance;
+    private @Nullable Instant rentPastDueDate;
+    private @Nullable Instant taxPastDueDate;
+    private @Nullable Instant rentStartDate;
+    private @Nullable Instant rentEndDate;
+    private @Nullable Instant saleEndDate;
+
+    InMemoryEconomyData(InMemoryClaimData data) {
+        this.data = data;
+    }
+
+    @Override
+    public @Nullable Vector3i getRentSignPosition() {
+        return this.rentSignPosition;
+    }
+
+    @Override
+    public @Nullable Vector3i getSaleSignPosition() {
+        return this.saleSignPosition;
+    }
+
+    @Override
+    public List<PaymentTransaction> getPaymentTransactions(TransactionType type) {
+        final List<PaymentTransaction> transactions = new ArrayList<>();
+        for (PaymentTransaction transaction : this.transactions) {
+            if (transaction.getType() == type) {
+                transactions.add(transaction);
+            }
+        }
+        return transactions;
+    }
+
+    @Override
+    public List<UUID> getRenters() {
+        return this.renters;
+    }
+
+    @Override
+    public List<UUID> getDelinquentRenters() {
+        return this.delinquentRenters;
+    }
+
+    @Override
+    public boolean isUserRenting(UUID uuid) {
+        return this.renters.contains(uuid);
+    }
+
+    @Override
+    public @Nullable Instant getRentPastDueDate() {
+        return this.rentPastDueDate;
+    }
+
+    @Override
+    public @Nullable Instant getTaxPastDueDate() {
+        return this.taxPastDueDate;
+    }
+
+    @Override
+    public PaymentType getPaymentType() {
+        return this.paymentType;
+    }
+
+    @Override
+    public boolean isForSale() {
+        return this.forSale;
+    }
+
+    @Override
+    public boolean isForRent() {
+        return this.forRent;
+    }
+
+    @Override
+    public boolean getRentBreakAbility() {
+        return this.rentBreakAbility;
+    }
+
+    @Override
+    public double getRentRate() {
+        return this.rentRate;
+    }
+
+    @Override
+    public int getRentMinTime() {
+        return this.rentMinTime;
+    }
+
+    @Override
+    public int getRentMaxTime() {
+        return this.rentMaxTime;
+    }
+
+    @Override
+    public boolean getRentStripNbt() {
+        return this.rentStripNbt;
+    }
+
+    @Override
+    public @Nullable Instant getRentStartDate() {
+        return this.rentStartDate;
+    }
+
+    @Override
+    public @Nullable Instant getRentEndDate() {
+        return this.rentEndDate;
+    }
+
+    /**
+     * Gets one payment period after the last rent payment, or after the
+     * start of the rent if none was made.
+     */
+    @Override
+    public @Nullable Instant getRentPaymentDueDate() {
+        Instant lastPayment = this.rentStartDate;
+        for (PaymentTransaction transaction : this.transactions) {
+            if (transaction.getType() == TransactionType.RENT && (lastPayment == null || transaction.getTimestamp().isAfter(lastPayment))) {
+                lastPayment = transaction.getTimestamp();
+            }
+        }
+        final Duration period = getPeriod(this.paymentType);
+        return lastPayment == null || period == null ? null : lastPayment.plus(period);
+    }
+
+    private static @Nullable Duration getPeriod(PaymentType type) {
+        switch (type) {
+            case HOURLY:
+                return ChronoUnit.HOURS.getDuration();
+            case DAILY:
+                return ChronoUnit.DAYS.getDuration();
+            case WEEKLY:
+                return ChronoUnit.WEEKS.getDuration();
+            case MONTHLY:
+                return ChronoUnit.MONTHS.getDuration();
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public @Nullable Instant getSaleEndDate() {
+        return this.saleEndDate;
+    }
+
+    @Override
+    public double getSalePrice() {
+        return this.salePrice;
+    }
+
+    @Override
+    public double getRentBalance(UUID uuid) {
+        final Double balance = this.rentBalances.get(uuid);
+        return balance == null ? 0 : balance;
+    }
+
+    @Override
+    public double getTaxBalance() {
+        return this.taxBalance;
+    }
+
+    @Override
+    public Map<UUID, Double> getRentBalances() {
+        return Collections.unmodifiableMap(this.rentBalances);
+    }
+
+    @Override
+    public void setRentSignPosition(@Nullable Vector3i pos) {
+        this.rentSignPosition = pos;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setRentSignPosition(int x, int y, int z) {
+        this.setRentSignPosition(new Vector3i(x, y, z));
+    }
+
+    @Override
+    public void setSaleSignPosition(@Nullable Vector3i pos) {
+        this.saleSignPosition = pos;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setSaleSignPosition(int x, int y, int z) {
+        this.setSaleSignPosition(new Vector3i(x, y, z));
+    }
+
+    @Override
+    public void setRentBalance(UUID uuid, double balance) {
+        this.rentBalances.put(uuid, balance);
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setRentBreakAbility(boolean breakAbility) {
+        this.rentBreakAbility = breakAbility;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void clearPaymentTransactions(TransactionType type) {
+        if (this.transactions.removeIf(transaction -> transaction.getType() == type)) {
+            this.data.economyDataChanged();
+        }
+    }
+
+    @Override
+    public void setPaymentType(PaymentType type) {
+        this.paymentType = type;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setRentMinTime(int min) {
+        this.rentMinTime = min;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setRentMaxTime(int max) {
+        this.rentMaxTime = max;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setRentPastDueDate(@Nullable Instant date) {
+        this.rentPastDueDate = date;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setRentStartDate(@Nullable Instant date) {
+        this.rentStartDate = date;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setRentEndDate(@Nullable Instant date) {
+        this.rentEndDate = date;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setRentRate(double rate) {
+        this.rentRate = rate;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setRentStripNbt(boolean stripNbt) {
+        this.rentStripNbt = stripNbt;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setSaleEndDate(@Nullable Instant date) {
+        this.saleEndDate = date;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setSalePrice(double price) {
+        this.salePrice = price;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setForRent(boolean forRent) {
+        this.forRent = forRent;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setForSale(boolean forSale) {
+        this.forSale = forSale;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setTaxBalance(double balance) {
+        this.taxBalance = balance;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void setTaxPastDueDate(@Nullable Instant date) {
+        this.taxPastDueDate = date;
+        this.data.economyDataChanged();
+    }
+
+    @Override
+    public void addPaymentTransaction(PaymentTransaction transaction) {
+        this.transactions.add(transaction);
+        this.data.economyDataChanged();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.event.Event;
+import com.griefdefender.api.event.ListenerProfiler;
+import com.griefdefender.api.event.SubscriberCache;
+import net.kyori.event.EventBus;
+import net.kyori.event.EventSubscriber;
+import net.kyori.event.PostResult;
+
+import java.util.function.Predicate;
+
+/**
+ * An {@link EventBus} invalidating a {@link SubscriberCache} whenever
+ * subscribers change and timing subscribers with a {@link ListenerProfiler}.
+ */
+final class InMemoryEventBus implements EventBus<Event> {
+
+    private final EventBus<Event> delegate = EventBus.create(Event.class);
+    private final SubscriberCache subscriberCache = new SubscriberCache(this.delegate::hasSubscribers);
+
+    private final ListenerProfiler profiler = new ListenerProfiler();
+
+    SubscriberCache getSubscriberCache() {
+        return this.subscriberCache;
+    }
+
+    ListenerProfiler getProfiler() {
+        return this.profiler;
+    }
+
+    @Override
+    public Class<Event> type() {
+        return this.delegate.type();
+    }
+
+    @Override
+    public PostResult post(Event event) {
+        return this.delegate.post(event);
+    }
+
+    @Override
+    public boolean hasSubscribers(Class<? extends Event> type) {
+        return this.subscriberCache.hasSubscribers(type);
+    }
+
+    @Override
+    public <T extends Event> void register(Class<T> clazz, EventSubscriber<? super T> subscriber) {
+        this.delegate.register(clazz, this.profiler.wrap(subscriber));
+        this.subscriberCache.invalidate();
+    }
+
+    @Override
+    public void unregister(EventSubscriber<?> subscriber) {
+        this.unregister((Predicate<EventSubscriber<?>>) registered -> registered == subscriber);
+    }
+
+    @Override
+    public void unregister(Predicate<EventSubscriber<?>> predicate) {
+        this.delegate.unregister((Predicate<EventSubscriber<?>>) registered -> {
+            if (!predicate.test(unwrap(registered))) {
+                return false;
+            }
+            this.profiler.unregistered(registered);
+            return true;
+        });
+        this.subscriberCache.invalidate();
+    }
+
+    @Override
+    public void unregisterAll() {
+        this.unregister((Predicate<EventSubscriber<?>>) registered -> true);
+    }
+
+    private static EventSubscriber<?> unwrap(EventSubscriber<?> subscriber) {
+        if (subscriber instanceof ListenerProfiler.ProfiledSubscriber) {
+            return ((ListenerProfiler.ProfiledSubscriber<?>) subscriber).getDelegate();
+        }
+        return subscriber;
+    }
+}
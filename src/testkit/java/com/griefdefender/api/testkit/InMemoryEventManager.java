@@ -0,0 +1,192 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.event.AsyncEventDispatcher;
+import com.griefdefender.api.event.BatchClaimEvent;
+import com.griefdefender.api.event.CauseStackManager;
+import com.griefdefender.api.event.ClaimEvent;
+import com.griefdefender.api.event.ClaimEventBatch;
+import com.griefdefender.api.event.Event;
+import com.griefdefender.api.event.EventManager;
+import com.griefdefender.api.event.ListenerProfiler;
+import com.griefdefender.api.event.ScopedSubscriptions;
+import com.griefdefender.api.jfr.EventPostEvent;
+import com.griefdefender.api.jfr.JfrSupport;
+import com.griefdefender.api.metrics.MetricKeys;
+import com.griefdefender.api.metrics.Metrics;
+import com.griefdefender.api.metrics.Timer;
+import net.kyori.event.Cancellable;
+import net.kyori.event.EventBus;
+import net.kyori.event.PostResult;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An {@link EventManager} posting to a plain {@link EventBus}.
+ * 
+ * <br><br>Subscriber checks are cached per event type until the bus
+ * changes.
+ */
+public class InMemoryEventManager implements EventManager {
+
+    private static final Timer EVENT_POST_TIMER = Metrics.timer(MetricKeys.EVENT_POST);
+    private static final boolean JFR_AVAILABLE = JfrSupport.isAvailable();
+
+    private final InMemoryEventBus bus = new InMemoryEventBus();
+    private final ScopedSubscriptions scopedSubscriptions = new ScopedSubscriptions(this.bus, this.bus.getProfiler());
+    private final InMemoryCauseStackManager causeStackManager = new InMemoryCauseStackManager();
+    private final List<Throwable> asyncFailures = new CopyOnWriteArrayList<>();
+    // lane threads only start once an async subscriber receives an event
+    private final AsyncEventDispatcher asyncDispatcher = new AsyncEventDispatcher(2, 1024, AsyncEventDispatcher.OverflowPolicy.DROP,
+            (event, t) -> this.asyncFailures.add(t));
+
+    @Override
+    public EventBus<Event> getBus() {
+        return this.bus;
+    }
+
+    @Override
+    public AsyncEventDispatcher getAsyncDispatcher() {
+        return this.asyncDispatcher;
+    }
+
+    @Override
+    public ScopedSubscriptions getScopedSubscriptions() {
+        return this.scopedSubscriptions;
+    }
+
+    @Override
+    public ClaimEventBatch openBatch() {
+        return InMemoryClaimEventBatch.open(this);
+    }
+
+    /**
+     * Posts the event of a claim change before it is applied.
+     * 
+     * <br><br>The event is only created if its type or the batch type has
+     * subscribers. Once the change is applied, pass the event to
+     * {@link #claimChanged(InMemoryClaimEvent, Class)} so it joins the
+     * open batch.
+     * 
+     * @param type The event type
+     * @param batchType The batch event type
+     * @param factory The event factory
+     * @return The event, cancelled if the change must not be applied, or
+     *     null if not created
+     */
+    @Nullable InMemoryClaimEvent postClaimChange(Class<? extends ClaimEvent> type, Class<? extends BatchClaimEvent<?>> batchType,
+            Supplier<? extends InMemoryClaimEvent> factory) {
+        final boolean listened = this.hasSubscribers(type);
+        if (!listened && (InMemoryClaimEventBatch.current(this) == null || !this.hasSubscribers(batchType))) {
+            return null;
+        }
+        final InMemoryClaimEvent event = factory.get();
+        if (listened) {
+            this.post(event);
+        }
+        return event;
+    }
+
+    /**
+     * Adds the event of an applied claim change to the open batch.
+     * 
+     * @param event The event returned by {@link #postClaimChange}
+     * @param batchType The batch event type
+     */
+    void claimChanged(@Nullable InMemoryClaimEvent event, Class<? extends BatchClaimEvent<?>> batchType) {
+        if (event == null || event.cancelled()) {
+            return;
+        }
+        final InMemoryClaimEventBatch batch = InMemoryClaimEventBatch.current(this);
+        if (batch != null && this.hasSubscribers(batchType)) {
+            batch.add(event);
+        }
+    }
+
+    @Override
+    public ListenerProfiler getListenerProfiler() {
+        return this.bus.getProfiler();
+    }
+
+    /**
+     * Gets the exceptions thrown by async subscribers.
+     * 
+     * @return The failures
+     */
+    public List<Throwable> getAsyncFailures() {
+        return this.asyncFailures;
+    }
+
+    /**
+     * Delivers queued async events and stops the dispatcher.
+     * 
+     * @param timeout The most time to wait
+     * @param unit The unit of timeout
+     * @return Whether all queued events were delivered in time
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        this.asyncDispatcher.shutdown();
+        return this.asyncDispatcher.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public boolean hasSubscribers(Class<? extends Event> type) {
+        return this.bus.getSubscriberCache().hasSubscribers(type);
+    }
+
+    @Override
+    public PostResult post(Event event) {
+        final long start = EVENT_POST_TIMER.start();
+        final PostResult result;
+        if (JFR_AVAILABLE) {
+            final EventPostEvent postEvent = new EventPostEvent();
+            postEvent.begin();
+            result = this.bus.post(event);
+            postEvent.end();
+            if (postEvent.shouldCommit()) {
+                postEvent.eventType = event.getClass();
+                postEvent.cancelled = event instanceof Cancellable && ((Cancellable) event).cancelled();
+                postEvent.failed = !result.wasSuccessful();
+                postEvent.commit();
+            }
+        } else {
+            result = this.bus.post(event);
+        }
+        EVENT_POST_TIMER.stop(start);
+        return result;
+    }
+
+    @Override
+    public CauseStackManager getCauseStackManager() {
+        return this.causeStackManager;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.GriefDefender;
+import com.griefdefender.api.Version;
+
+import java.lang.reflect.Field;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Installs the in-memory implementations into {@link GriefDefender}.
+ * 
+ * <br><br>This replaces the injection done by the plugin so code using
+ * the static {@link GriefDefender} getters can run headless. The
+ * audience provider and NBT util are left unset.
+ * 
+ * <br><br>Note: Catalog constants such as {@link com.griefdefender.api.claim.ClaimTypes}
+ * are generated with ASM, which must be on the runtime classpath.
+ */
+public final class InMemoryGriefDefender {
+
+    private static final String IMPLEMENTATION_VERSION = "testkit";
+
+    private final InMemoryCore core;
+    private final InMemoryEventManager eventManager;
+    private final InMemoryPermissionManager permissionManager;
+    private final InMemoryRegistry registry;
+    private final InMemoryScheduler scheduler;
+
+    private InMemoryGriefDefender() {
+        this.permissionManager = new InMemoryPermissionManager();
+        this.registry = new InMemoryRegistry();
+        this.core = new InMemoryCore(this.permissionManager, this.registry);
+        this.eventManager = new InMemoryEventManager();
+        this.permissionManager.setEventManager(this.eventManager);
+        this.permissionManager.setRegistry(this.registry);
+        this.permissionManager.setCore(this.core);
+        this.scheduler = new InMemoryScheduler();
+    }
+
+    /**
+     * Creates a new set of in-memory implementations and installs them,
+     * replacing any previous installation.
+     * 
+     * @return The installation
+     */
+    public static InMemoryGriefDefender install() {
+        final InMemoryGriefDefender instance = new InMemoryGriefDefender();
+        setField("core", instance.core);
+        setField("eventManager", instance.eventManager);
+        setField("permissionManager", instance.permissionManager);
+        setField("registry", instance.registry);
+        setField("scheduler", instance.scheduler);
+        setField("version", new TestkitVersion());
+        return instance;
+    }
+
+    /**
+     * Removes the installed implementations from {@link GriefDefender}.
+     */
+    public static void uninstall() {
+        setField("core", null);
+        setField("eventManager", null);
+        setField("permissionManager", null);
+        setField("registry", null);
+        setField("scheduler", null);
+        setField("version", null);
+    }
+
+    private static void setField(String name, @Nullable Object value) {
+        try {
+            final Field field = GriefDefender.class.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(null, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not install " + name, e);
+        }
+    }
+
+    public InMemoryCore getCore() {
+        return this.core;
+    }
+
+    public InMemoryEventManager getEventManager() {
+        return this.eventManager;
+    }
+
+    public InMemoryPermissionManager getPermissionManager() {
+        return this.permissionManager;
+    }
+
+    public InMemoryRegistry getRegistry() {
+        return this.registry;
+    }
+
+    public InMemoryScheduler getScheduler() {
+        return this.scheduler;
+    }
+
+    private static final class TestkitVersion implements Version {
+
+        @Override
+        public double getApiVersion() {
+            return 2.1;
+        }
+
+        @Override
+        public String getImplementationVersion() {
+            return IMPLEMENTATION_VERSION;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.claim.TrustType;
+import com.griefdefender.api.event.EventCause;
+import com.griefdefender.api.event.GroupTrustClaimEvent;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A {@link GroupTrustClaimEvent} fired before group trust of a claim changes.
+ */
+abstract class InMemoryGroupTrustClaimEvent extends InMemoryClaimEvent implements GroupTrustClaimEvent {
+
+    private final Set<String> groups;
+    private final TrustType trustType;
+
+    InMemoryGroupTrustClaimEvent(EventCause cause, Claim claim, Set<String> groups, TrustType trustType) {
+        super(cause, Collections.singletonList(claim));
+        this.groups = Collections.unmodifiableSet(groups);
+        this.trustType = trustType;
+    }
+
+    @Override
+    public Set<String> getGroups() {
+        return this.groups;
+    }
+
+    @Override
+    public TrustType getTrustType() {
+        return this.trustType;
+    }
+
+    static final class Add extends InMemoryGroupTrustClaimEvent implements GroupTrustClaimEvent.Add {
+
+        Add(EventCause cause, Claim claim, Set<String> groups, TrustType trustType) {
+            super(cause, claim, groups, trustType);
+        }
+    }
+
+    static final class Remove extends InMemoryGroupTrustClaimEvent implements GroupTrustClaimEvent.Remove {
+
+        Remove(EventCause cause, Claim claim, Set<String> groups, TrustType trustType) {
+            super(cause, claim, groups, trustType);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.permission.option.Option;
+
+import net.kyori.adventure.text.Component;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A simple {@link Option} with a fixed default value.
+ * 
+ * <br><br>Note: The catalog constants in {@link com.griefdefender.api.permission.option.Options}
+ * are placeholders until the plugin registers them, so the testkit uses
+ * its own options when a default value is needed.
+ */
+public final class InMemoryOption<T> implements Option<T> {
+
+    private final String id;
+    private final Class<T> allowedType;
+    private final T defaultValue;
+
+    public InMemoryOption(String id, Class<T> allowedType, T defaultValue) {
+        this.id = id;
+        this.allowedType = allowedType;
+        this.defaultValue = defaultValue;
+    }
+
+    @Override
+    public String getId() {
+        return "griefdefender:" + this.id;
+    }
+
+    @Override
+    public String getName() {
+        return this.id;
+    }
+
+    @Override
+    public boolean isGlobal() {
+        return false;
+    }
+
+    @Override
+    public boolean multiValued() {
+        return false;
+    }
+
+    @Override
+    public Set<String> getRequiredContextKeys() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public String getPermission() {
+        return "griefdefender.option." + this.id;
+    }
+
+    @Override
+    public Component getDescription() {
+        return Component.text(this.id);
+    }
+
+    @Override
+    public T getDefaultValue() {
+        return this.defaultValue;
+    }
+
+    @Override
+    public Class<T> getAllowedType() {
+        return this.allowedType;
+    }
+}
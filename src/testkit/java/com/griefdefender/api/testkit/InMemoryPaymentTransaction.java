@@ -0,0 +1,101 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.economy.PaymentTransaction;
+import com.griefdefender.api.economy.TransactionResultType;
+import com.griefdefender.api.economy.TransactionType;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An immutable {@link PaymentTransaction}.
+ */
+public final class InMemoryPaymentTransaction implements PaymentTransaction {
+
+    private final TransactionType type;
+    private final TransactionResultType resultType;
+    private final @Nullable UUID source;
+    private final Instant timestamp;
+    private final double amount;
+
+    public InMemoryPaymentTransaction(TransactionType type, TransactionResultType resultType, @Nullable UUID source, Instant timestamp, double amount) {
+        this.type = type;
+        this.resultType = resultType;
+        this.source = source;
+        this.timestamp = timestamp;
+        this.amount = amount;
+    }
+
+    @Override
+    public TransactionType getType() {
+        return this.type;
+    }
+
+    @Override
+    public TransactionResultType getResultType() {
+        return this.resultType;
+    }
+
+    @Override
+    public @Nullable UUID getSource() {
+        return this.source;
+    }
+
+    @Override
+    public Instant getTimestamp() {
+        return this.timestamp;
+    }
+
+    @Override
+    public Double getAmount() {
+        return this.amount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof InMemoryPaymentTransaction)) {
+            return false;
+        }
+        final InMemoryPaymentTransaction other = (InMemoryPaymentTransaction) o;
+        return this.type == other.type && this.resultType == other.resultType && Objects.equals(this.source, other.source)
+                && this.timestamp.equals(other.timestamp) && Double.compare(this.amount, other.amount) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.type, this.resultType, this.source, this.timestamp, this.amount);
+    }
+
+    @Override
+    public String toString() {
+        return "InMemoryPaymentTransaction{type=" + this.type + ", result=" + this.resultType + ", source=" + this.source
+                + ", timestamp=" + this.timestamp + ", amount=" + this.amount + "}";
+    }
+}
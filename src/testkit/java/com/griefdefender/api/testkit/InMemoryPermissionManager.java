@@ -0,0 +1,670 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.CatalogType;
+import com.griefdefender.api.Subject;
+import com.griefdefender.api.Tristate;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.claim.ClaimContexts;
+import com.griefdefender.api.claim.EffectiveTrustCache;
+import com.griefdefender.api.claim.InheritanceChain;
+import com.griefdefender.api.claim.TrustType;
+import com.griefdefender.api.event.EventPool;
+import com.griefdefender.api.event.QueryPermissionEvent;
+import com.griefdefender.api.jfr.FlagQueryEvent;
+import com.griefdefender.api.jfr.JfrSupport;
+import com.griefdefender.api.jfr.OptionQueryEvent;
+import com.griefdefender.api.metrics.MetricKeys;
+import com.griefdefender.api.metrics.Metrics;
+import com.griefdefender.api.metrics.Timer;
+import com.griefdefender.api.permission.Context;
+import com.griefdefender.api.permission.ContextKeys;
+import com.griefdefender.api.permission.PermissionManager;
+import com.griefdefender.api.permission.PermissionResult;
+import com.griefdefender.api.permission.ResultTypes;
+import com.griefdefender.api.permission.flag.Flag;
+import com.griefdefender.api.permission.flag.FlagDefinition;
+import com.griefdefender.api.permission.option.Option;
+import com.griefdefender.api.permission.option.OptionDefinition;
+import com.griefdefender.api.provider.ClanProvider;
+import io.leangen.geantyref.TypeToken;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link PermissionManager} kept in memory.
+ * 
+ * <br><br>Values are resolved from the claim, then its inherited parents
+ * and finally the global defaults. Flag permissions and options are
+ * stored for the default subject only, in either no contexts or
+ * {@link ClaimContexts#GLOBAL_DEFAULT_CONTEXT} for the defaults, or a
+ * single {@link ContextKeys#CLAIM} context for a claim. Other subjects or
+ * contexts return a failed {@link PermissionResult}, as do option list
+ * values. Definitions throw {@link UnsupportedOperationException}.
+ * 
+ * <br><br>Flag permission queries post pooled {@link QueryPermissionEvent}s
+ * when they have subscribers.
+ * 
+ * <br><br>Group membership of users is set through
+ * {@link #setUserGroups(UUID, Set)} and clan membership is read from the
+ * registered {@link ClanProvider}, both feeding claim group and clan trust.
+ */
+public class InMemoryPermissionManager implements PermissionManager {
+
+    private static final Timer FLAG_QUERY_TIMER = Metrics.timer(MetricKeys.FLAG_QUERY);
+    private static final Timer OPTION_QUERY_TIMER = Metrics.timer(MetricKeys.OPTION_QUERY);
+    private static final boolean JFR_AVAILABLE = JfrSupport.isAvailable();
+
+    private static final EventPool<InMemoryQueryPermissionEvent.Pre> PRE_EVENT_POOL = new EventPool<>(InMemoryQueryPermissionEvent.Pre::new);
+    private static final EventPool<InMemoryQueryPermissionEvent.Post> POST_EVENT_POOL = new EventPool<>(InMemoryQueryPermissionEvent.Post::new);
+
+    private final Subject defaultSubject = new InMemorySubject("default", "default");
+    private final Map<Flag, Tristate> defaultFlagValues = new ConcurrentHashMap<>();
+    private final Map<Option<?>, Object> defaultOptionValues = new ConcurrentHashMap<>();
+    private final Map<Flag, String> flagPermissions = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<String>> userGroups = new ConcurrentHashMap<>();
+    private @Nullable InMemoryEventManager eventManager;
+    private @Nullable InMemoryRegistry registry;
+    private @Nullable InMemoryCore core;
+    // bumped on every flag value change so claims recompute their deny overrides
+    private volatile int flagValuesVersion;
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Not supported by the in-memory implementation");
+    }
+
+    public Subject getDefaultSubject() {
+        return this.defaultSubject;
+    }
+
+    @Nullable InMemoryEventManager getEventManager() {
+        return this.eventManager;
+    }
+
+    void setEventManager(InMemoryEventManager eventManager) {
+        this.eventManager = eventManager;
+    }
+
+    void setRegistry(InMemoryRegistry registry) {
+        this.registry = registry;
+    }
+
+    void setCore(InMemoryCore core) {
+        this.core = core;
+    }
+
+    /**
+     * Gets the groups of a user.
+     * 
+     * @param uuid The user uuid
+     * @return The group names, empty if none
+     */
+    public Set<String> getUserGroups(UUID uuid) {
+        final Set<String> groups = this.userGroups.get(uuid);
+        return groups == null ? Collections.emptySet() : groups;
+    }
+
+    /**
+     * Sets the groups of a user, invalidating the effective trust of the
+     * user in every claim.
+     * 
+     * @param uuid The user uuid
+     * @param groups The group names
+     */
+    public void setUserGroups(UUID uuid, Set<String> groups) {
+        if (groups.isEmpty()) {
+            this.userGroups.remove(uuid);
+        } else {
+            this.userGroups.put(uuid, Collections.unmodifiableSet(new HashSet<>(groups)));
+        }
+        EffectiveTrustCache.invalidateMembership(uuid);
+    }
+
+    /**
+     * Gets the clan tag of a user from the registered {@link ClanProvider}.
+     * 
+     * @param uuid The user uuid
+     * @return The lowercase clan tag, or null if user is not in a clan
+     */
+    public @Nullable String getClanTag(UUID uuid) {
+        final ClanProvider provider = this.getClanProvider();
+        if (provider == null) {
+            return null;
+        }
+        return provider.getClanTag(uuid);
+    }
+
+    @Nullable ClanProvider getClanProvider() {
+        return this.registry == null ? null : this.registry.getClanProvider();
+    }
+
+    public void setDefaultFlagValue(Flag flag, Tristate value) {
+        if (value == Tristate.UNDEFINED) {
+            this.defaultFlagValues.remove(flag);
+        } else {
+            this.defaultFlagValues.put(flag, value);
+        }
+        this.flagValuesChanged();
+    }
+
+    int getFlagValuesVersion() {
+        return this.flagValuesVersion;
+    }
+
+    synchronized void flagValuesChanged() {
+        this.flagValuesVersion++;
+    }
+
+    public <T> void setDefaultOptionValue(Option<T> option, T value) {
+        this.defaultOptionValues.put(option, value);
+    }
+
+    /**
+     * Gets the active flag value of a claim.
+     * 
+     * @param claim The claim
+     * @param flag The flag
+     * @return The active value
+     */
+    public Tristate getActiveFlagValue(Claim claim, Flag flag) {
+        return this.getActiveFlagValue(claim, this.defaultSubject, flag);
+    }
+
+    private Tristate getActiveFlagValue(Claim claim, Subject subject, Flag flag) {
+        final long start = FLAG_QUERY_TIMER.start();
+        final Tristate value;
+        if (JFR_AVAILABLE) {
+            final FlagQueryEvent event = new FlagQueryEvent();
+            final boolean cacheHit = ((InMemoryClaim) claim).getFlagValue(flag) != Tristate.UNDEFINED
+                    || ((InMemoryClaim) claim).isInheritanceChainCached();
+            event.begin();
+            value = this.resolveFlagValue(claim, flag);
+            event.end();
+            if (event.shouldCommit()) {
+                event.flagId = InMemoryRegistry.getCatalogId(flag);
+                event.claimId = claim.getUniqueId().toString();
+                event.subject = subject.getIdentifier();
+                event.result = value.name();
+                event.cacheHit = cacheHit;
+                event.commit();
+            }
+        } else {
+            value = this.resolveFlagValue(claim, flag);
+        }
+        FLAG_QUERY_TIMER.stop(start);
+        return value;
+    }
+
+    private Tristate resolveFlagValue(Claim claim, Flag flag) {
+        Tristate value = ((InMemoryClaim) claim).getFlagValue(flag);
+        if (value != Tristate.UNDEFINED) {
+            return value;
+        }
+        final InheritanceChain chain = claim.getInheritanceChain();
+        for (int i = 0; i < chain.getInheritedDepth(); i++) {
+            value = ((InMemoryClaim) chain.get(i)).getFlagValue(flag);
+            if (value != Tristate.UNDEFINED) {
+                return value;
+            }
+        }
+        value = this.defaultFlagValues.get(flag);
+        return value == null ? Tristate.UNDEFINED : value;
+    }
+
+    /**
+     * Checks if any flag value read by {@link #getActiveFlagValue(Claim, Flag)}
+     * for a claim is false, from the claim, its inherited parents or the
+     * defaults.
+     * 
+     * @param claim The claim
+     * @return Whether claim has deny overrides
+     */
+    boolean hasDenyOverrides(InMemoryClaim claim) {
+        if (claim.hasFlagValue(Tristate.FALSE) || this.defaultFlagValues.containsValue(Tristate.FALSE)) {
+            return true;
+        }
+        final InheritanceChain chain = claim.getInheritanceChain();
+        for (int i = 0; i < chain.getInheritedDepth(); i++) {
+            if (((InMemoryClaim) chain.get(i)).hasFlagValue(Tristate.FALSE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the active option value of a claim.
+     * 
+     * @param claim The claim
+     * @param option The option
+     * @return The active value
+     */
+    public <T> T getActiveOptionValue(Claim claim, Option<T> option) {
+        return this.getActiveOptionValue(claim, this.defaultSubject, option);
+    }
+
+    private <T> T getActiveOptionValue(Claim claim, Subject subject, Option<T> option) {
+        final long start = OPTION_QUERY_TIMER.start();
+        final T value;
+        if (JFR_AVAILABLE) {
+            final OptionQueryEvent event = new OptionQueryEvent();
+            final boolean cacheHit = ((InMemoryClaim) claim).getOptionValue(option) != null
+                    || ((InMemoryClaim) claim).isInheritanceChainCached();
+            event.begin();
+            value = this.resolveOptionValue(claim, option);
+            event.end();
+            if (event.shouldCommit()) {
+                event.optionId = InMemoryRegistry.getCatalogId(option);
+                event.claimId = claim.getUniqueId().toString();
+                event.subject = subject.getIdentifier();
+                event.cacheHit = cacheHit;
+                event.commit();
+            }
+        } else {
+            value = this.resolveOptionValue(claim, option);
+        }
+        OPTION_QUERY_TIMER.stop(start);
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T resolveOptionValue(Claim claim, Option<T> option) {
+        Object value = ((InMemoryClaim) claim).getOptionValue(option);
+        if (value != null) {
+            return (T) value;
+        }
+        final InheritanceChain chain = claim.getInheritanceChain();
+        for (int i = 0; i < chain.getInheritedDepth(); i++) {
+            value = ((InMemoryClaim) chain.get(i)).getOptionValue(option);
+            if (value != null) {
+                return (T) value;
+            }
+        }
+        value = this.defaultOptionValues.get(option);
+        return value == null ? option.getDefaultValue() : (T) value;
+    }
+
+    @Override
+    public Tristate getActiveFlagPermissionValue(Claim claim, Subject subject, Flag flag, Object source, Object target, Set<Context> contexts, TrustType type, boolean checkOverride) {
+        return this.queryFlagPermission(null, claim, subject, flag, contexts);
+    }
+
+    @Override
+    public Tristate getActiveFlagPermissionValue(Object event, Object location, Claim claim, Subject subject, Flag flag, Object source, Object target, Set<Context> contexts, TrustType type, boolean checkOverride) {
+        return this.queryFlagPermission(location, claim, subject, flag, contexts);
+    }
+
+    @Override
+    public Tristate getActiveFlagPermissionValue(Object event, int blockX, int blockY, int blockZ, Claim claim, Subject subject, Flag flag, Object source, Object target, Set<Context> contexts, TrustType type, boolean checkOverride) {
+        return this.queryFlagPermission(null, claim, subject, flag, contexts);
+    }
+
+    private Tristate queryFlagPermission(@Nullable Object location, Claim claim, Subject subject, Flag flag, Set<Context> contexts) {
+        final InMemoryEventManager eventManager = this.eventManager;
+        if (eventManager == null) {
+            return this.getActiveFlagValue(claim, subject, flag);
+        }
+        final String permission = this.getFlagPermission(flag);
+        if (eventManager.hasSubscribers(QueryPermissionEvent.Pre.class)) {
+            final InMemoryQueryPermissionEvent.Pre event = PRE_EVENT_POOL.acquire();
+            try {
+                event.init(eventManager.getCauseStackManager().getCurrentCause(), permission, subject, contexts, location, claim);
+                eventManager.post(event);
+                if (event.cancelled()) {
+                    return Tristate.FALSE;
+                }
+                if (event.getFinalResult() != Tristate.UNDEFINED) {
+                    return event.getFinalResult();
+                }
+            } finally {
+                PRE_EVENT_POOL.release(event);
+            }
+        }
+        final Tristate value = this.getActiveFlagValue(claim, subject, flag);
+        if (!eventManager.hasSubscribers(QueryPermissionEvent.Post.class)) {
+            return value;
+        }
+        final InMemoryQueryPermissionEvent.Post event = POST_EVENT_POOL.acquire();
+        try {
+            event.init(eventManager.getCauseStackManager().getCurrentCause(), permission, subject, contexts, location, claim, value);
+            eventManager.post(event);
+            return event.cancelled() ? Tristate.FALSE : event.getFinalResult();
+        } finally {
+            POST_EVENT_POOL.release(event);
+        }
+    }
+
+    private String getFlagPermission(Flag flag) {
+        return this.flagPermissions.computeIfAbsent(flag, InMemoryPermissionManager::createFlagPermission);
+    }
+
+    private static String createFlagPermission(Flag flag) {
+        final String id = InMemoryRegistry.getCatalogId(flag);
+        return "griefdefender.flag." + id.substring(id.indexOf(':') + 1);
+    }
+
+    @Override
+    public String getActiveOptionDefinitionValue(Claim claim, OptionDefinition definition) {
+        throw unsupported();
+    }
+
+    @Override
+    public String getActiveOptionDefinitionValue(Claim claim, Subject subject, OptionDefinition definition) {
+        throw unsupported();
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> clearAllFlagPermissions(Subject subject) {
+        if (!this.isDefaultSubject(subject)) {
+            return InMemoryPermissionResult.failure(ResultTypes.SUBJECT_DOES_NOT_EXIST);
+        }
+        this.defaultFlagValues.clear();
+        for (Claim claim : this.getAllClaims()) {
+            ((InMemoryClaim) claim).clearFlagValues();
+        }
+        this.flagValuesChanged();
+        return InMemoryPermissionResult.success();
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> clearFlagPermissions(Set<Context> contexts) {
+        return this.clearFlagPermissions(this.defaultSubject, contexts);
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> clearFlagPermissions(Subject subject, Set<Context> contexts) {
+        if (!this.isDefaultSubject(subject)) {
+            return InMemoryPermissionResult.failure(ResultTypes.SUBJECT_DOES_NOT_EXIST);
+        }
+        if (isGlobal(contexts)) {
+            this.defaultFlagValues.clear();
+            this.flagValuesChanged();
+            return InMemoryPermissionResult.success();
+        }
+        final InMemoryClaim claim = this.getContextClaim(contexts);
+        if (claim == null) {
+            return InMemoryPermissionResult.failure(ResultTypes.CONTEXT_NOT_VALID);
+        }
+        claim.clearFlagValues();
+        return InMemoryPermissionResult.success();
+    }
+
+    @Override
+    public Tristate getFlagPermissionValue(Flag flag, Set<Context> contexts) {
+        return this.getFlagPermissionValue(flag, this.defaultSubject, contexts);
+    }
+
+    @Override
+    public Tristate getFlagPermissionValue(Flag flag, Subject subject, Set<Context> contexts) {
+        final Map<Flag, Tristate> values = this.getFlagValues(subject, contexts);
+        final Tristate value = values == null ? null : values.get(flag);
+        return value == null ? Tristate.UNDEFINED : value;
+    }
+
+    @Override
+    public Map<String, Boolean> getFlagPermissions(Set<Context> contexts) {
+        return this.getFlagPermissions(this.defaultSubject, contexts);
+    }
+
+    @Override
+    public Map<String, Boolean> getFlagPermissions(Subject subject, Set<Context> contexts) {
+        final Map<Flag, Tristate> values = this.getFlagValues(subject, contexts);
+        if (values == null) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Boolean> permissions = new HashMap<>();
+        for (Map.Entry<Flag, Tristate> entry : values.entrySet()) {
+            permissions.put(this.getFlagPermission(entry.getKey()), entry.getValue().asBoolean());
+        }
+        return permissions;
+    }
+
+    // values stored for exactly the given contexts, null if not supported
+    private @Nullable Map<Flag, Tristate> getFlagValues(Subject subject, Set<Context> contexts) {
+        if (!this.isDefaultSubject(subject)) {
+            return null;
+        }
+        if (isGlobal(contexts)) {
+            return this.defaultFlagValues;
+        }
+        final InMemoryClaim claim = this.getContextClaim(contexts);
+        return claim == null ? null : claim.getFlagValues();
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> setFlagPermission(Flag flag, Tristate value, Set<Context> contexts) {
+        return this.setFlagPermission(flag, this.defaultSubject, value, contexts);
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> setFlagPermission(Flag flag, Subject subject, Tristate value, Set<Context> contexts) {
+        if (!this.isDefaultSubject(subject)) {
+            return InMemoryPermissionResult.failure(ResultTypes.SUBJECT_DOES_NOT_EXIST);
+        }
+        if (isGlobal(contexts)) {
+            this.setDefaultFlagValue(flag, value);
+            return InMemoryPermissionResult.success();
+        }
+        final InMemoryClaim claim = this.getContextClaim(contexts);
+        if (claim == null) {
+            return InMemoryPermissionResult.failure(ResultTypes.CONTEXT_NOT_VALID);
+        }
+        claim.setFlagValue(flag, value);
+        return InMemoryPermissionResult.success();
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> setFlagDefinition(Subject subject, FlagDefinition definition, Tristate value) {
+        throw unsupported();
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> setOptionDefinition(Subject subject, OptionDefinition definition, String value) {
+        throw unsupported();
+    }
+
+    @Override
+    public <T> T getActiveOptionValue(TypeToken<T> type, Option<T> option, Subject subject, Claim claim) {
+        // contexts are not read, so skip the set created by the default
+        return this.getActiveOptionValue(claim, subject, option);
+    }
+
+    @Override
+    public <T> T getActiveOptionValue(TypeToken<T> type, Option<T> option, Subject subject, Claim claim, Set<Context> contexts) {
+        return this.getActiveOptionValue(claim, subject, option);
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> setOption(Option option, String value, Set<Context> contexts) {
+        return this.setOption(option, this.defaultSubject, value, contexts);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<PermissionResult> setOption(Option option, Subject subject, String value, Set<Context> contexts) {
+        if (!this.isDefaultSubject(subject)) {
+            return InMemoryPermissionResult.failure(ResultTypes.SUBJECT_DOES_NOT_EXIST);
+        }
+        final Object parsed = this.parseOptionValue(option, value);
+        if (parsed == null) {
+            return InMemoryPermissionResult.failure(ResultTypes.FAILURE);
+        }
+        if (isGlobal(contexts)) {
+            this.defaultOptionValues.put(option, parsed);
+            return InMemoryPermissionResult.success();
+        }
+        final InMemoryClaim claim = this.getContextClaim(contexts);
+        if (claim == null) {
+            return InMemoryPermissionResult.failure(ResultTypes.CONTEXT_NOT_VALID);
+        }
+        claim.setOptionValue(option, parsed);
+        return InMemoryPermissionResult.success();
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> addOptionListValue(Subject subject, Option option, String value, Set<Context> contexts) {
+        return InMemoryPermissionResult.failure(ResultTypes.FAILURE);
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> removeOptionListValue(Subject subject, Option option, String value, Set<Context> contexts) {
+        return InMemoryPermissionResult.failure(ResultTypes.FAILURE);
+    }
+
+    @Override
+    public @Nullable String getOptionValue(Option option, Set<Context> contexts) {
+        return this.getOptionValue(this.defaultSubject, option, contexts);
+    }
+
+    @Override
+    public <T> T getOptionValue(TypeToken<T> type, Option<T> option, Set<Context> contexts) {
+        return this.getOptionValue(type, this.defaultSubject, option, contexts);
+    }
+
+    @Override
+    public @Nullable String getOptionValue(Subject subject, Option option, Set<Context> contexts) {
+        final Object value = this.getStoredOptionValue(subject, option, contexts);
+        return value == null ? null : String.valueOf(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getOptionValue(TypeToken<T> type, Subject subject, Option<T> option, Set<Context> contexts) {
+        final Object value = this.getStoredOptionValue(subject, option, contexts);
+        return value == null ? option.getDefaultValue() : (T) value;
+    }
+
+    // value stored for exactly the given contexts
+    private @Nullable Object getStoredOptionValue(Subject subject, Option<?> option, Set<Context> contexts) {
+        if (!this.isDefaultSubject(subject)) {
+            return null;
+        }
+        if (isGlobal(contexts)) {
+            return this.defaultOptionValues.get(option);
+        }
+        final InMemoryClaim claim = this.getContextClaim(contexts);
+        return claim == null ? null : claim.getOptionValue(option);
+    }
+
+    private @Nullable Object parseOptionValue(Option<?> option, String value) {
+        final Class<?> type = option.getAllowedType();
+        if (type == String.class) {
+            return value;
+        }
+        try {
+            if (type == Integer.class) {
+                return Integer.valueOf(value);
+            }
+            if (type == Double.class) {
+                return Double.valueOf(value);
+            }
+            if (type == Tristate.class) {
+                return Tristate.valueOf(value.toUpperCase(Locale.ENGLISH));
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (type == Boolean.class) {
+            return value.equalsIgnoreCase("true") ? Boolean.TRUE : value.equalsIgnoreCase("false") ? Boolean.FALSE : null;
+        }
+        if (CatalogType.class.isAssignableFrom(type) && this.registry != null) {
+            return this.registry.getType(type.asSubclass(CatalogType.class), value).orElse(null);
+        }
+        return null;
+    }
+
+    @Override
+    public Tristate getPermissionValue(Subject subject, String permission) {
+        return Tristate.UNDEFINED;
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> clearOptions() {
+        this.defaultOptionValues.clear();
+        for (Claim claim : this.getAllClaims()) {
+            ((InMemoryClaim) claim).clearOptionValues();
+        }
+        return InMemoryPermissionResult.success();
+    }
+
+    @Override
+    public CompletableFuture<PermissionResult> clearOptions(Set<Context> contexts) {
+        if (isGlobal(contexts)) {
+            this.defaultOptionValues.clear();
+            return InMemoryPermissionResult.success();
+        }
+        final InMemoryClaim claim = this.getContextClaim(contexts);
+        if (claim == null) {
+            return InMemoryPermissionResult.failure(ResultTypes.CONTEXT_NOT_VALID);
+        }
+        claim.clearOptionValues();
+        return InMemoryPermissionResult.success();
+    }
+
+    private boolean isDefaultSubject(Subject subject) {
+        return subject == this.defaultSubject || subject.getIdentifier().equals(this.defaultSubject.getIdentifier());
+    }
+
+    private static boolean isGlobal(Set<Context> contexts) {
+        return contexts.isEmpty() || contexts.size() == 1 && contexts.contains(ClaimContexts.GLOBAL_DEFAULT_CONTEXT);
+    }
+
+    // claim of a single claim context, null otherwise
+    private @Nullable InMemoryClaim getContextClaim(Set<Context> contexts) {
+        final InMemoryCore core = this.core;
+        if (core == null || contexts.size() != 1) {
+            return null;
+        }
+        final Context context = contexts.iterator().next();
+        if (!context.getKey().equals(ContextKeys.CLAIM)) {
+            return null;
+        }
+        try {
+            return (InMemoryClaim) core.getClaim(UUID.fromString(context.getValue()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private List<Claim> getAllClaims() {
+        return this.core == null ? Collections.emptyList() : this.core.getAllClaims();
+    }
+
+    @Override
+    public void addItemEnchantmentContexts(Object item, Set<Context> contexts) {
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.permission.PermissionResult;
+import com.griefdefender.api.permission.ResultType;
+import com.griefdefender.api.permission.ResultTypes;
+
+import net.kyori.adventure.text.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An immutable {@link PermissionResult}.
+ */
+public final class InMemoryPermissionResult implements PermissionResult {
+
+    private final ResultType resultType;
+
+    private InMemoryPermissionResult(ResultType resultType) {
+        this.resultType = resultType;
+    }
+
+    public static CompletableFuture<PermissionResult> success() {
+        return CompletableFuture.completedFuture(new InMemoryPermissionResult(ResultTypes.SUCCESS));
+    }
+
+    public static CompletableFuture<PermissionResult> failure(ResultType resultType) {
+        return CompletableFuture.completedFuture(new InMemoryPermissionResult(resultType));
+    }
+
+    @Override
+    public ResultType getResultType() {
+        return this.resultType;
+    }
+
+    @Override
+    public Optional<Component> getMessage() {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.Subject;
+import com.griefdefender.api.Tristate;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.event.EventCause;
+import com.griefdefender.api.event.PooledEvent;
+import com.griefdefender.api.event.QueryPermissionEvent;
+import com.griefdefender.api.permission.Context;
+import net.kyori.adventure.text.Component;
+
+import java.util.Optional;
+import java.util.Set;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A pooled {@link QueryPermissionEvent}.
+ */
+abstract class InMemoryQueryPermissionEvent implements QueryPermissionEvent, PooledEvent {
+
+    private @Nullable EventCause cause;
+    private @Nullable String permission;
+    private @Nullable Subject subject;
+    private @Nullable Set<Context> contexts;
+    private @Nullable Object location;
+    private @Nullable Claim claim;
+    private @Nullable Component message;
+    private boolean cancelled;
+    private boolean released;
+
+    void init(EventCause cause, String permission, Subject subject, Set<Context> contexts, @Nullable Object location, Claim claim) {
+        this.cause = cause;
+        this.permission = permission;
+        this.subject = subject;
+        this.contexts = contexts;
+        this.location = location;
+        this.claim = claim;
+    }
+
+    final void checkNotReleased() {
+        if (this.released) {
+            throw new IllegalStateException("Pooled event " + this.getClass().getSimpleName() + " was accessed after being released");
+        }
+    }
+
+    @Override
+    public EventCause getCause() {
+        this.checkNotReleased();
+        return this.cause;
+    }
+
+    @Override
+    public String getPermission() {
+        this.checkNotReleased();
+        return this.permission;
+    }
+
+    @Override
+    public Subject getSubject() {
+        this.checkNotReleased();
+        return this.subject;
+    }
+
+    @Override
+    public Set<Context> getContexts() {
+        this.checkNotReleased();
+        return this.contexts;
+    }
+
+    @Override
+    public @Nullable Object getLocation() {
+        this.checkNotReleased();
+        return this.location;
+    }
+
+    @Override
+    public @Nullable Claim getClaim() {
+        this.checkNotReleased();
+        return this.claim;
+    }
+
+    @Override
+    public void setMessage(Component message) {
+        this.checkNotReleased();
+        this.message = message;
+    }
+
+    @Override
+    public Optional<Component> getMessage() {
+        this.checkNotReleased();
+        return Optional.ofNullable(this.message);
+    }
+
+    @Override
+    public boolean cancelled() {
+        this.checkNotReleased();
+        return this.cancelled;
+    }
+
+    @Override
+    public void cancelled(boolean cancelled) {
+        this.checkNotReleased();
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public void reset() {
+        this.cause = null;
+        this.permission = null;
+        this.subject = null;
+        this.contexts = null;
+        this.location = null;
+        this.claim = null;
+        this.message = null;
+        this.cancelled = false;
+    }
+
+    @Override
+    public void release() {
+        this.reset();
+        this.released = true;
+    }
+
+    static final class Pre extends InMemoryQueryPermissionEvent implements QueryPermissionEvent.Pre {
+
+        private Tristate finalResult = Tristate.UNDEFINED;
+
+        @Override
+        public Tristate getFinalResult() {
+            this.checkNotReleased();
+            return this.finalResult;
+        }
+
+        @Override
+        public void setFinalResult(Tristate result) {
+            this.checkNotReleased();
+            this.finalResult = result;
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            this.finalResult = Tristate.UNDEFINED;
+        }
+    }
+
+    static final class Post extends InMemoryQueryPermissionEvent implements QueryPermissionEvent.Post {
+
+        private Tristate originalResult = Tristate.UNDEFINED;
+        private @Nullable Tristate newResult;
+
+        void init(EventCause cause, String permission, Subject subject, Set<Context> contexts, @Nullable Object location, Claim claim,
+                Tristate originalResult) {
+            this.init(cause, permission, subject, contexts, location, claim);
+            this.originalResult = originalResult;
+        }
+
+        @Override
+        public Tristate getOriginalResult() {
+            this.checkNotReleased();
+            return this.originalResult;
+        }
+
+        @Override
+        public Tristate getFinalResult() {
+            this.checkNotReleased();
+            return this.newResult != null ? this.newResult : this.originalResult;
+        }
+
+        @Override
+        public void setNewResult(Tristate result) {
+            this.checkNotReleased();
+            this.newResult = result;
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            this.originalResult = Tristate.UNDEFINED;
+            this.newResult = null;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.CatalogType;
+import com.griefdefender.api.Registry;
+import com.griefdefender.api.provider.ClanProvider;
+import com.griefdefender.api.registry.CatalogRegistryModule;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link Registry} kept in memory.
+ * 
+ * <br><br>Catalog types and builders must be registered by the test
+ * before they are looked up.
+ */
+public class InMemoryRegistry implements Registry {
+
+    private final Map<Class<?>, Supplier<?>> builderSuppliers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Module<?>> modules = new ConcurrentHashMap<>();
+    private final Map<UUID, String> usernames = new ConcurrentHashMap<>();
+    private final Map<String, UUID> userUniqueIds = new ConcurrentHashMap<>();
+    private volatile @Nullable ClanProvider clanProvider;
+
+    /**
+     * Registers a catalog type.
+     * 
+     * @param typeClass The catalog class
+     * @param type The type to register
+     */
+    public <T extends CatalogType> void registerType(Class<T> typeClass, T type) {
+        this.getModule(typeClass).registerCustomType(type);
+    }
+
+    /**
+     * Registers a username used by the lookup methods.
+     * 
+     * @param uuid The user uuid
+     * @param username The username
+     */
+    public void registerUsername(UUID uuid, String username) {
+        this.usernames.put(uuid, username);
+        this.userUniqueIds.put(username.toLowerCase(Locale.ENGLISH), uuid);
+    }
+
+    public @Nullable ClanProvider getClanProvider() {
+        return this.clanProvider;
+    }
+
+    /**
+     * Gets the id of a catalog type.
+     * 
+     * <br><br>Note: Catalog constants that were never registered by a plugin
+     * are placeholders throwing on every method, their field name is used
+     * instead.
+     * 
+     * @param type The catalog type
+     * @return The id
+     */
+    /**
+     * Gets the id of a catalog type, falling back to the constant name for
+     * the generated dummies of unregistered constants.
+     * 
+     * @param type The catalog type
+     * @return The id
+     */
+    public static String getCatalogId(CatalogType type) {
+        try {
+            return type.getId();
+        } catch (UnsupportedOperationException e) {
+            try {
+                final Field field = type.getClass().getDeclaredField("fieldName");
+                field.setAccessible(true);
+                return String.valueOf(field.get(type));
+            } catch (ReflectiveOperationException ex) {
+                return type.getClass().getName();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends CatalogType> Module<T> getModule(Class<T> typeClass) {
+        return (Module<T>) this.modules.computeIfAbsent(typeClass, k -> new Module<>());
+    }
+
+    @Override
+    public <T> Registry registerBuilderSupplier(Class<T> builderClass, Supplier<? extends T> supplier) {
+        this.builderSuppliers.put(builderClass, supplier);
+        return this;
+    }
+
+    @Override
+    public <T> T createBuilder(Class<T> builderClass) throws IllegalArgumentException {
+        final Supplier<?> supplier = this.builderSuppliers.get(builderClass);
+        if (supplier == null) {
+            throw new IllegalArgumentException("No builder registered for " + builderClass.getName());
+        }
+        return builderClass.cast(supplier.get());
+    }
+
+    @Override
+    public <T extends CatalogType> Optional<T> getType(Class<T> typeClass, String id) {
+        return this.getModule(typeClass).getById(id);
+    }
+
+    @Override
+    public <T extends CatalogType> Collection<T> getAllOf(Class<T> typeClass) {
+        return this.getModule(typeClass).getAll();
+    }
+
+    @Override
+    public <T extends CatalogType> Collection<T> getAllFor(String pluginId, Class<T> typeClass) {
+        final String prefix = pluginId.toLowerCase(Locale.ENGLISH) + ":";
+        final List<T> types = new ArrayList<>();
+        for (T type : this.getModule(typeClass).getAll()) {
+            if (type.getId().toLowerCase(Locale.ENGLISH).startsWith(prefix)) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    @Override
+    public <T extends CatalogType> Optional<CatalogRegistryModule<T>> getRegistryModuleFor(Class<T> catalogClass) {
+        return Optional.of(this.getModule(catalogClass));
+    }
+
+    @Override
+    public void registerClanProvider(ClanProvider provider) {
+        this.clanProvider = provider;
+    }
+
+    @Override
+    public @Nullable String lookupId(Object object) {
+        if (object instanceof CatalogType) {
+            return getCatalogId((CatalogType) object);
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable String lookupUsername(UUID uuid) {
+        return this.usernames.get(uuid);
+    }
+
+    @Override
+    public @Nullable UUID lookupUserUniqueId(String username) {
+        return this.userUniqueIds.get(username.toLowerCase(Locale.ENGLISH));
+    }
+
+    private static final class Module<T extends CatalogType> implements CatalogRegistryModule<T> {
+
+        private final Map<String, T> types = new ConcurrentHashMap<>();
+
+        @Override
+        public Optional<T> getById(String id) {
+            return Optional.ofNullable(this.types.get(id.toLowerCase(Locale.ENGLISH)));
+        }
+
+        @Override
+        public Collection<T> getAll() {
+            return Collections.unmodifiableCollection(this.types.values());
+        }
+
+        @Override
+        public void registerCustomType(T type) {
+            this.types.put(type.getId().toLowerCase(Locale.ENGLISH), type);
+        }
+    }
+}
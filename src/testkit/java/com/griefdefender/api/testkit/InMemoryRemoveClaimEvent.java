@@ -0,0 +1,56 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.event.EventCause;
+import com.griefdefender.api.event.RemoveClaimEvent;
+
+import java.util.Collections;
+
+/**
+ * A {@link RemoveClaimEvent.Delete} fired before a claim is deleted.
+ * 
+ * <br><br>Note: The in-memory implementation has no terrain to restore,
+ * {@link #shouldRestore(boolean)} is only recorded.
+ */
+final class InMemoryRemoveClaimEvent extends InMemoryClaimEvent implements RemoveClaimEvent.Delete {
+
+    private boolean restore;
+
+    InMemoryRemoveClaimEvent(EventCause cause, Claim claim) {
+        super(cause, Collections.singletonList(claim));
+    }
+
+    @Override
+    public boolean isRestoring() {
+        return this.restore;
+    }
+
+    @Override
+    public void shouldRestore(boolean restore) {
+        this.restore = restore;
+    }
+}
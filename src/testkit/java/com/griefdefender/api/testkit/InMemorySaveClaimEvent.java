@@ -0,0 +1,85 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.data.ClaimSaveQueue;
+import com.griefdefender.api.event.EventCause;
+import com.griefdefender.api.event.SaveClaimEvent;
+
+import java.util.List;
+
+/**
+ * A {@link SaveClaimEvent} posted once per batch written by a
+ * {@link ClaimSaveQueue}.
+ */
+abstract class InMemorySaveClaimEvent extends InMemoryClaimEvent implements SaveClaimEvent {
+
+    InMemorySaveClaimEvent(EventCause cause, List<Claim> claims) {
+        super(cause, claims);
+    }
+
+    /**
+     * Creates a listener posting the events of each batch, on the writer
+     * thread of the queue.
+     * 
+     * @param eventManager The event manager
+     * @param source The cause of the events
+     * @return The listener
+     */
+    static ClaimSaveQueue.Listener createListener(InMemoryEventManager eventManager, Object source) {
+        final EventCause cause = EventCause.of(source);
+        return new ClaimSaveQueue.Listener() {
+
+            @Override
+            public void preSave(List<Claim> claims) {
+                if (eventManager.hasSubscribers(SaveClaimEvent.Pre.class)) {
+                    eventManager.post(new Pre(cause, claims));
+                }
+            }
+
+            @Override
+            public void postSave(List<Claim> claims, Throwable failure) {
+                if (failure == null && eventManager.hasSubscribers(SaveClaimEvent.Post.class)) {
+                    eventManager.post(new Post(cause, claims));
+                }
+            }
+        };
+    }
+
+    static final class Pre extends InMemorySaveClaimEvent implements SaveClaimEvent.Pre {
+
+        Pre(EventCause cause, List<Claim> claims) {
+            super(cause, claims);
+        }
+    }
+
+    static final class Post extends InMemorySaveClaimEvent implements SaveClaimEvent.Post {
+
+        Post(EventCause cause, List<Claim> claims) {
+            super(cause, claims);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.scheduler.Scheduler;
+import com.griefdefender.api.scheduler.Task;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link Scheduler} driven by explicit {@link #tick()} calls.
+ * 
+ * <br><br>Sync tasks run on the thread calling {@link #tick()} once they
+ * are due. Async tasks are handed to an executor once they are due, so
+ * tests control exactly when scheduled work happens.
+ */
+public class InMemoryScheduler implements Scheduler {
+
+    private final ExecutorService asyncExecutor;
+    private final List<InMemoryTask> tasks = new ArrayList<>();
+    private long currentTick;
+
+    public InMemoryScheduler() {
+        this(Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "GriefDefender-Testkit-Async");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public InMemoryScheduler(ExecutorService asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    private Task schedule(Object plugin, @Nullable Object sender, Runnable runnable, boolean sync, long delay, long period) {
+        if (plugin == null || runnable == null) {
+            throw new IllegalArgumentException("Plugin and runnable cannot be null");
+        }
+        if (delay < 0 || period < 0) {
+            throw new IllegalArgumentException("Delay and period cannot be negative");
+        }
+        synchronized (this.tasks) {
+            final InMemoryTask task = new InMemoryTask(plugin, sender, runnable, sync, this.currentTick + Math.max(1, delay), period);
+            this.tasks.add(task);
+            return task;
+        }
+    }
+
+    /**
+     * Gets the amount of ticks processed.
+     * 
+     * @return The current tick
+     */
+    public long getCurrentTick() {
+        synchronized (this.tasks) {
+            return this.currentTick;
+        }
+    }
+
+    /**
+     * Gets the amount of tasks waiting to run.
+     * 
+     * @return The pending task count
+     */
+    public int getPendingTaskCount() {
+        synchronized (this.tasks) {
+            return this.tasks.size();
+        }
+    }
+
+    /**
+     * Advances one tick, running all tasks that are due.
+     */
+    public void tick() {
+        this.tick(1);
+    }
+
+    /**
+     * Advances the given amount of ticks, running all tasks that are due.
+     * 
+     * @param ticks The amount of ticks
+     */
+    public void tick(int ticks) {
+        final List<InMemoryTask> due = new ArrayList<>();
+        for (int i = 0; i < ticks; i++) {
+            synchronized (this.tasks) {
+                this.currentTick++;
+                final Iterator<InMemoryTask> iterator = this.tasks.iterator();
+                while (iterator.hasNext()) {
+                    final InMemoryTask task = iterator.next();
+                    if (task.isCancelled()) {
+                        iterator.remove();
+                    } else if (task.getNextTick() <= this.currentTick) {
+                        due.add(task);
+                        if (task.getPeriod() > 0) {
+                            task.reschedule();
+                        } else {
+                            iterator.remove();
+                        }
+                    }
+                }
+            }
+            for (InMemoryTask task : due) {
+                if (task.isSync()) {
+                    task.getRunnable().run();
+                } else {
+                    this.asyncExecutor.execute(task.getRunnable());
+                }
+            }
+            due.clear();
+        }
+    }
+
+    /**
+     * Cancels all pending tasks and stops the async executor.
+     */
+    public void shutdown() {
+        synchronized (this.tasks) {
+            for (InMemoryTask task : this.tasks) {
+                task.cancel();
+            }
+            this.tasks.clear();
+        }
+        this.asyncExecutor.shutdown();
+    }
+
+    @Override
+    public boolean runTask(Object plugin, Runnable runnable) throws IllegalArgumentException {
+        this.schedule(plugin, null, runnable, true, 0, 0);
+        return true;
+    }
+
+    @Override
+    public boolean runTask(Object plugin, Object sender, Runnable runnable) throws IllegalArgumentException {
+        this.schedule(plugin, sender, runnable, true, 0, 0);
+        return true;
+    }
+
+    @Override
+    public Task runTaskAsynchronously(Object plugin, Runnable runnable) throws IllegalArgumentException {
+        return this.schedule(plugin, null, runnable, false, 0, 0);
+    }
+
+    @Override
+    public Task runTaskAsynchronously(Object plugin, Object sender, Runnable runnable) throws IllegalArgumentException {
+        return this.schedule(plugin, sender, runnable, false, 0, 0);
+    }
+
+    @Override
+    public Task runTaskLater(Object plugin, Runnable runnable, long delay) throws IllegalArgumentException {
+        return this.schedule(plugin, null, runnable, true, delay, 0);
+    }
+
+    @Override
+    public Task runTaskLater(Object plugin, Object sender, Runnable runnable, long delay) throws IllegalArgumentException {
+        return this.schedule(plugin, sender, runnable, true, delay, 0);
+    }
+
+    @Override
+    public Task runTaskLaterAsynchronously(Object plugin, Runnable runnable, long delay) throws IllegalArgumentException {
+        return this.schedule(plugin, null, runnable, false, delay, 0);
+    }
+
+    @Override
+    public Task runTaskLaterAsynchronously(Object plugin, Object sender, Runnable runnable, long delay) throws IllegalArgumentException {
+        return this.schedule(plugin, sender, runnable, false, delay, 0);
+    }
+
+    @Override
+    public Task runTaskTimer(Object plugin, Runnable runnable, long delay, long period) throws IllegalArgumentException {
+        return this.schedule(plugin, null, runnable, true, delay, period);
+    }
+
+    @Override
+    public Task runTaskTimer(Object plugin, Object sender, Runnable runnable, long delay, long period) throws IllegalArgumentException {
+        return this.schedule(plugin, sender, runnable, true, delay, period);
+    }
+}
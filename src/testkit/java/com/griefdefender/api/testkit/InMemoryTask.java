@@ -0,0 +1,93 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.scheduler.Task;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link Task} of {@link InMemoryScheduler}.
+ */
+final class InMemoryTask implements Task {
+
+    private final Object plugin;
+    private final @Nullable Object sender;
+    private final Runnable runnable;
+    private final boolean sync;
+    private final long period;
+    private long nextTick;
+    private volatile boolean cancelled;
+
+    InMemoryTask(Object plugin, @Nullable Object sender, Runnable runnable, boolean sync, long nextTick, long period) {
+        this.plugin = plugin;
+        this.sender = sender;
+        this.runnable = runnable;
+        this.sync = sync;
+        this.nextTick = nextTick;
+        this.period = period;
+    }
+
+    Runnable getRunnable() {
+        return this.runnable;
+    }
+
+    long getNextTick() {
+        return this.nextTick;
+    }
+
+    long getPeriod() {
+        return this.period;
+    }
+
+    void reschedule() {
+        this.nextTick += this.period;
+    }
+
+    @Override
+    public Object getPlugin() {
+        return this.plugin;
+    }
+
+    @Override
+    public @Nullable Object getCommandSender() {
+        return this.sender;
+    }
+
+    @Override
+    public boolean isSync() {
+        return this.sync;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    @Override
+    public void cancel() {
+        this.cancelled = true;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.griefdefender.api.User;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.data.PlayerData;
+
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An offline {@link User} kept in memory.
+ * 
+ * <br><br>Note: {@link #getPlayerData()} is not supported, so the
+ * {@link User} permission helpers are not available. Check access through
+ * the {@link Claim} instead.
+ */
+public class InMemoryUser implements User {
+
+    private final UUID uniqueId;
+    private final String name;
+    private volatile @Nullable Claim currentClaim;
+
+    public InMemoryUser(UUID uniqueId, String name) {
+        this.uniqueId = uniqueId;
+        this.name = name;
+    }
+
+    @Override
+    public UUID getUniqueId() {
+        return this.uniqueId;
+    }
+
+    @Override
+    public String getFriendlyName() {
+        return this.name;
+    }
+
+    @Override
+    public String getIdentifier() {
+        return this.uniqueId.toString();
+    }
+
+    @Override
+    public PlayerData getPlayerData() {
+        throw new UnsupportedOperationException("Not supported by the in-memory implementation");
+    }
+
+    @Override
+    public boolean isOnline() {
+        return false;
+    }
+
+    @Override
+    public @Nullable Object getOnlinePlayer() {
+        return null;
+    }
+
+    @Override
+    public @Nullable Claim getCurrentClaim() {
+        return this.currentClaim;
+    }
+
+    public void setCurrentClaim(@Nullable Claim claim) {
+        this.currentClaim = claim;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.metrics.Counter;
+import com.griefdefender.api.metrics.MetricKeys;
+import com.griefdefender.api.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The claims of each chunk of a {@link PersistedChunkIndex}, resolved from
+ * the index on the first lookup of the chunk.
+ * 
+ * <br><br>Lookups do not change the claim manager and may run on several
+ * threads. A chunk is checked as it is resolved and its list is published
+ * once, threads racing on the same chunk resolve equal lists. If a chunk
+ * fails its check, the index is replaced by one built from the top level
+ * claims, which is published as a whole and never changed afterwards.
+ * 
+ * <br><br>Note: Resolved lists are unmodifiable. The claim manager copies
+ * the list of a chunk into its own index before changing it.
+ */
+final class PersistedChunkClaims {
+
+    private static final Counter INDEX_REBUILD_COUNTER = Metrics.counter(MetricKeys.CLAIM_INDEX_REBUILD);
+
+    private final InMemoryClaim[] claims;
+    private final PersistedChunkIndex index;
+    private final AtomicReferenceArray<List<InMemoryClaim>> resolved;
+    private volatile @Nullable ChunkClaimIndex rebuilt;
+
+    PersistedChunkClaims(InMemoryClaim[] claims, PersistedChunkIndex index) {
+        this.claims = claims;
+        this.index = index;
+        this.resolved = new AtomicReferenceArray<>(index.size());
+    }
+
+    /**
+     * Gets the amount of chunk positions the top level claims need, to be
+     * compared with {@link PersistedChunkIndex#getEntryCount()}.
+     */
+    static long getEntryCount(InMemoryClaim[] claims) {
+        long entries = 0;
+        for (InMemoryClaim claim : claims) {
+            if (claim.getParent() == null) {
+                final Vector3i lesser = claim.getLesserBoundaryCorner();
+                final Vector3i greater = claim.getGreaterBoundaryCorner();
+                entries += ((long) (greater.getX() >> 4) - (lesser.getX() >> 4) + 1) * ((long) (greater.getZ() >> 4) - (lesser.getZ() >> 4) + 1);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Gets whether a chunk failed its check and the index was rebuilt.
+     * 
+     * @return Whether rebuilt
+     */
+    boolean isRebuilt() {
+        return this.rebuilt != null;
+    }
+
+    boolean contains(long hash) {
+        final ChunkClaimIndex rebuilt = this.rebuilt;
+        return rebuilt != null ? rebuilt.get(hash) != null : this.index.indexOf(hash) >= 0;
+    }
+
+    @Nullable List<InMemoryClaim> get(long hash) {
+        final ChunkClaimIndex rebuilt = this.rebuilt;
+        if (rebuilt != null) {
+            return rebuilt.get(hash);
+        }
+        final int chunk = this.index.indexOf(hash);
+        if (chunk < 0) {
+            return null;
+        }
+        final List<InMemoryClaim> claims = this.resolved.get(chunk);
+        if (claims != null) {
+            return claims;
+        }
+        final List<InMemoryClaim> loaded = this.resolve(chunk, hash);
+        if (loaded == null) {
+            return this.rebuild().get(hash);
+        }
+        this.resolved.compareAndSet(chunk, null, loaded);
+        return this.resolved.get(chunk);
+    }
+
+    /**
+     * Resolves every chunk.
+     */
+    void forEach(BiConsumer<Long, List<InMemoryClaim>> consumer) {
+        if (this.rebuilt == null) {
+            for (int i = 0; i < this.index.size(); i++) {
+                this.get(this.index.getChunkHash(i));
+            }
+        }
+        final ChunkClaimIndex rebuilt = this.rebuilt;
+        if (rebuilt != null) {
+            rebuilt.forEach(consumer);
+            return;
+        }
+        for (int i = 0; i < this.index.size(); i++) {
+            consumer.accept(this.index.getChunkHash(i), this.resolved.get(i));
+        }
+    }
+
+    // Returns null unless every position names a distinct top level claim touching the chunk
+    private @Nullable List<InMemoryClaim> resolve(int chunk, long hash) {
+        final int[] positions = this.index.getClaimPositions(chunk);
+        final InMemoryClaim[] claims = new InMemoryClaim[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            final int position = positions[i];
+            final InMemoryClaim claim = position >= 0 && position < this.claims.length ? this.claims[position] : null;
+            if (claim == null || claim.getParent() != null || !touchesChunk(claim, hash)) {
+                return null;
+            }
+            for (int j = 0; j < i; j++) {
+                if (claims[j] == claim) {
+                    return null;
+                }
+            }
+            claims[i] = claim;
+        }
+        return Collections.unmodifiableList(Arrays.asList(claims));
+    }
+
+    private ChunkClaimIndex rebuild() {
+        ChunkClaimIndex rebuilt = this.rebuilt;
+        if (rebuilt != null) {
+            return rebuilt;
+        }
+        // racing threads build equal indexes, the first one published wins
+        rebuilt = new ChunkClaimIndex();
+        for (InMemoryClaim claim : this.claims) {
+            if (claim.getParent() == null) {
+                for (Long hash : claim.getChunkHashes()) {
+                    rebuilt.getOrCreate(hash).add(claim);
+                }
+            }
+        }
+        synchronized (this) {
+            if (this.rebuilt == null) {
+                INDEX_REBUILD_COUNTER.increment();
+                this.rebuilt = rebuilt;
+            }
+            return this.rebuilt;
+        }
+    }
+
+    static boolean touchesChunk(InMemoryClaim claim, long hash) {
+        final int chunkX = (int) hash;
+        final int chunkZ = (int) (hash >>> 32);
+        final Vector3i lesser = claim.getLesserBoundaryCorner();
+        final Vector3i greater = claim.getGreaterBoundaryCorner();
+        return chunkX >= lesser.getX() >> 4 && chunkX <= greater.getX() >> 4
+                && chunkZ >= lesser.getZ() >> 4 && chunkZ <= greater.getZ() >> 4;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+/**
+ * A chunk index read from storage, naming top level claims by their
+ * position in the claim array passed to
+ * {@link InMemoryClaimManager#addIndexedClaims(InMemoryClaim[], int[], PersistedChunkIndex)}.
+ * 
+ * <br><br>Chunks are numbered from 0 to {@link #size()}. Implementations
+ * are read from several threads at once.
+ */
+public interface PersistedChunkIndex {
+
+    /**
+     * Gets the amount of chunks in this index.
+     * 
+     * @return The amount of chunks
+     */
+    int size();
+
+    /**
+     * Gets the number of a chunk.
+     * 
+     * @param chunkHash The chunk hash
+     * @return The number of the chunk, or a negative value if no claim
+     *     touches the chunk
+     */
+    int indexOf(long chunkHash);
+
+    /**
+     * Gets the hash of a chunk.
+     * 
+     * @param index The number of the chunk
+     * @return The chunk hash
+     */
+    long getChunkHash(int index);
+
+    /**
+     * Gets the positions of the top level claims touching a chunk.
+     * 
+     * @param index The number of the chunk
+     * @return The claim positions
+     */
+    int[] getClaimPositions(int index);
+
+    /**
+     * Gets the amount of claim positions of every chunk together.
+     * 
+     * @return The amount of claim positions
+     */
+    long getEntryCount();
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.flowpowered.math.vector.Vector3i;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The result of {@link WorkloadGenerator#generate(InMemoryCore)}.
+ */
+public final class Workload {
+
+    private final InMemoryClaimManager claimManager;
+    private final List<InMemoryUser> players;
+    private final int sideLength;
+    private final int claimCount;
+
+    Workload(InMemoryClaimManager claimManager, List<InMemoryUser> players, int sideLength, int claimCount) {
+        this.claimManager = claimManager;
+        this.players = Collections.unmodifiableList(players);
+        this.sideLength = sideLength;
+        this.claimCount = claimCount;
+    }
+
+    public InMemoryClaimManager getClaimManager() {
+        return this.claimManager;
+    }
+
+    public InMemoryPermissionManager getPermissionManager() {
+        return this.claimManager.getPermissionManager();
+    }
+
+    /**
+     * Gets the generated players.
+     * 
+     * @return The players
+     */
+    public List<InMemoryUser> getPlayers() {
+        return this.players;
+    }
+
+    /**
+     * Gets the amount of claims generated, excluding wilderness.
+     * 
+     * @return The claim count
+     */
+    public int getClaimCount() {
+        return this.claimCount;
+    }
+
+    /**
+     * Gets the length of one side of the generated area in blocks.
+     * 
+     * @return The side length
+     */
+    public int getSideLength() {
+        return this.sideLength;
+    }
+
+    /**
+     * Gets a random position inside the generated area.
+     * 
+     * @param random The random to use
+     * @return The position
+     */
+    public Vector3i randomPosition(Random random) {
+        return new Vector3i(random.nextInt(this.sideLength), random.nextInt(256), random.nextInt(this.sideLength));
+    }
+}
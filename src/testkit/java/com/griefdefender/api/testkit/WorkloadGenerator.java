@@ -0,0 +1,213 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.Tristate;
+import com.griefdefender.api.claim.ClaimType;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.api.claim.TrustTable;
+import com.griefdefender.api.permission.flag.Flag;
+import com.griefdefender.api.permission.flag.Flags;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generates a synthetic world of claims, players and permissions.
+ * 
+ * <br><br>Top level claims are laid out on a grid of 64 block cells and
+ * each one holds a chain of nested children, so lookups at random
+ * positions hit every depth of the hierarchy. Generation is seeded and
+ * repeatable.
+ */
+public final class WorkloadGenerator {
+
+    public static final int CELL_SIZE = 64;
+    public static final InMemoryOption<Integer> MAX_LEVEL = new InMemoryOption<>("max-level", Integer.class, 255);
+
+    private static final int CLAIM_INSET = 8;
+    private static final int CHILD_INSET = 4;
+
+    private int claimCount = 1000;
+    private int depth = 1;
+    private int playerCount = -1;
+    private int trustsPerClaim = 4;
+    private double flagValueChance = 0.125;
+    private double optionValueChance = 0.25;
+    private List<Flag> flags = Collections.singletonList(Flags.BLOCK_BREAK);
+    private long seed;
+
+    /**
+     * Sets the total amount of claims to generate including children.
+     * 
+     * @param claimCount The claim count
+     * @return The generator, for chaining
+     */
+    public WorkloadGenerator claimCount(int claimCount) {
+        this.claimCount = claimCount;
+        return this;
+    }
+
+    /**
+     * Sets the depth of each claim hierarchy.
+     * 
+     * <br><br>Note: A depth of 1 generates top level claims only.
+     * 
+     * @param depth The depth, between 1 and 6
+     * @return The generator, for chaining
+     */
+    public WorkloadGenerator depth(int depth) {
+        if (depth < 1 || depth > (CELL_SIZE / 2 - CLAIM_INSET) / CHILD_INSET) {
+            throw new IllegalArgumentException("Unsupported depth " + depth);
+        }
+        this.depth = depth;
+        return this;
+    }
+
+    /**
+     * Sets the amount of players owning and trusted in claims.
+     * 
+     * <br><br>By default a quarter of the claim count is used.
+     * 
+     * @param playerCount The player count
+     * @return The generator, for chaining
+     */
+    public WorkloadGenerator players(int playerCount) {
+        this.playerCount = playerCount;
+        return this;
+    }
+
+    /**
+     * Sets the amount of random user trusts added to each claim.
+     * 
+     * @param trustsPerClaim The trust count
+     * @return The generator, for chaining
+     */
+    public WorkloadGenerator trustsPerClaim(int trustsPerClaim) {
+        this.trustsPerClaim = trustsPerClaim;
+        return this;
+    }
+
+    /**
+     * Sets the flags that receive random claim values.
+     * 
+     * <br><br>Each flag defaults to {@link Tristate#TRUE} globally.
+     * 
+     * @param flags The flags
+     * @return The generator, for chaining
+     */
+    public WorkloadGenerator flags(Flag... flags) {
+        this.flags = Arrays.asList(flags);
+        return this;
+    }
+
+    /**
+     * Sets the chance of a claim having its own value for each flag.
+     * 
+     * @param flagValueChance The chance between 0 and 1
+     * @return The generator, for chaining
+     */
+    public WorkloadGenerator flagValueChance(double flagValueChance) {
+        this.flagValueChance = flagValueChance;
+        return this;
+    }
+
+    /**
+     * Sets the chance of a claim having its own {@link #MAX_LEVEL} value.
+     * 
+     * @param optionValueChance The chance between 0 and 1
+     * @return The generator, for chaining
+     */
+    public WorkloadGenerator optionValueChance(double optionValueChance) {
+        this.optionValueChance = optionValueChance;
+        return this;
+    }
+
+    public WorkloadGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Generates a new world with its players in core.
+     * 
+     * @param core The core to populate
+     * @return The generated workload
+     */
+    public Workload generate(InMemoryCore core) {
+        final Random random = new Random(this.seed);
+        final UUID worldUniqueId = new UUID(random.nextLong(), random.nextLong());
+        final InMemoryClaimManager claimManager = core.createWorld(worldUniqueId, "workload-" + Long.toHexString(this.seed));
+        final InMemoryPermissionManager permissionManager = claimManager.getPermissionManager();
+        final int playerCount = this.playerCount > 0 ? this.playerCount : Math.max(16, this.claimCount / 4);
+        final List<InMemoryUser> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            players.add(core.createUser(new UUID(random.nextLong(), random.nextLong()), "player" + i));
+        }
+        for (Flag flag : this.flags) {
+            permissionManager.setDefaultFlagValue(flag, Tristate.TRUE);
+        }
+
+        final int topLevelCount = (this.claimCount + this.depth - 1) / this.depth;
+        final int gridSize = (int) Math.ceil(Math.sqrt(topLevelCount));
+        int created = 0;
+        for (int cell = 0; cell < topLevelCount && created < this.claimCount; cell++) {
+            final int baseX = (cell % gridSize) * CELL_SIZE;
+            final int baseZ = (cell / gridSize) * CELL_SIZE;
+            final UUID owner = players.get(random.nextInt(playerCount)).getUniqueId();
+            InMemoryClaim parent = null;
+            for (int level = 0; level < this.depth && created < this.claimCount; level++) {
+                final int inset = CLAIM_INSET + level * CHILD_INSET;
+                final ClaimType type = level == 0 ? ClaimTypes.BASIC : ClaimTypes.SUBDIVISION;
+                final InMemoryClaimData data = new InMemoryClaimData(worldUniqueId, owner, type,
+                        new Vector3i(baseX + inset, 0, baseZ + inset),
+                        new Vector3i(baseX + CELL_SIZE - 1 - inset, 255, baseZ + CELL_SIZE - 1 - inset));
+                final InMemoryClaim claim = new InMemoryClaim(new UUID(random.nextLong(), random.nextLong()), claimManager, data);
+                claimManager.addClaim(claim, parent);
+                for (int i = 0; i < this.trustsPerClaim; i++) {
+                    final UUID trusted = players.get(random.nextInt(playerCount)).getUniqueId();
+                    claim.getUserTrustSet(TrustTable.getType(TrustTable.LEVEL_ACCESSOR + random.nextInt(TrustTable.LEVEL_MANAGER))).add(trusted);
+                }
+                for (Flag flag : this.flags) {
+                    if (random.nextDouble() < this.flagValueChance) {
+                        claim.setFlagValue(flag, random.nextBoolean() ? Tristate.TRUE : Tristate.FALSE);
+                    }
+                }
+                if (random.nextDouble() < this.optionValueChance) {
+                    claim.setOptionValue(MAX_LEVEL, random.nextInt(256));
+                }
+                claim.trustChanged();
+                parent = claim;
+                created++;
+            }
+        }
+        return new Workload(claimManager, players, gridSize * CELL_SIZE, created);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit.allocation;
+
+import java.util.function.IntFunction;
+
+/**
+ * An operation paired with the most bytes it may allocate per call.
+ */
+public final class AllocationBudget {
+
+    private final String name;
+    private final long maxBytesPerCall;
+    private final IntFunction<?> operation;
+
+    /**
+     * Creates a new budget.
+     * 
+     * @param name The name used in reports
+     * @param maxBytesPerCall The most bytes allowed per call
+     * @param operation The operation, receiving the call index
+     */
+    public AllocationBudget(String name, long maxBytesPerCall, IntFunction<?> operation) {
+        this.name = name;
+        this.maxBytesPerCall = maxBytesPerCall;
+        this.operation = operation;
+    }
+
+    /**
+     * Gets the name used in reports.
+     * 
+     * @return The name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the most bytes allowed per call.
+     * 
+     * @return The budget in bytes
+     */
+    public long getMaxBytesPerCall() {
+        return this.maxBytesPerCall;
+    }
+
+    /**
+     * Gets the measured operation.
+     * 
+     * @return The operation
+     */
+    public IntFunction<?> getOperation() {
+        return this.operation;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit.allocation;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.Subject;
+import com.griefdefender.api.Tristate;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.claim.ClaimContexts;
+import com.griefdefender.api.claim.TrustTypes;
+import com.griefdefender.api.event.CauseStack;
+import com.griefdefender.api.event.EventCause;
+import com.griefdefender.api.event.QueryPermissionEvent;
+import com.griefdefender.api.permission.Context;
+import com.griefdefender.api.permission.ContextKeys;
+import com.griefdefender.api.permission.flag.Flags;
+import com.griefdefender.api.testkit.InMemoryClaimManager;
+import com.griefdefender.api.testkit.InMemoryGriefDefender;
+import com.griefdefender.api.testkit.InMemoryPermissionManager;
+import com.griefdefender.api.testkit.Workload;
+import com.griefdefender.api.testkit.WorkloadGenerator;
+import io.leangen.geantyref.TypeToken;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Checks the bytes allocated per call of the hot API paths against the
+ * testkit and exits with a non-zero status when a budget is exceeded.
+ * 
+ * <br><br>Budgets hold the allocations the current API requires. When a
+ * path is made cheaper its budget should be lowered so the improvement
+ * cannot regress unnoticed.
+ * 
+ * <br><br>Measurements are taken after warmup, so budgets of zero bytes
+ * depend on the JIT removing short-lived objects through escape
+ * analysis. Results can differ between JVMs and runs, so the check does
+ * not run as part of <code>check</code>.
+ * 
+ * <br><br>Usage: <code>./gradlew allocationCheck</code>. Pass
+ * <code>--report-only</code> to print the measurements without failing.
+ */
+public final class AllocationCheck {
+
+    private static final int INPUT_MASK = 4095;
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int ITERATIONS = 100_000;
+    private static final TypeToken<Integer> INTEGER_TOKEN = new TypeToken<Integer>() {};
+
+    private AllocationCheck() {
+    }
+
+    public static void main(String[] args) {
+        final boolean reportOnly = args.length > 0 && args[0].equals("--report-only");
+        if (!AllocationProbe.isSupported()) {
+            System.out.println("Thread allocation measurement is not supported by this JVM, skipping allocation check");
+            return;
+        }
+
+        final AllocationProbe probe = new AllocationProbe(WARMUP_ITERATIONS, ITERATIONS);
+        int failures = 0;
+        System.out.println(String.format("%-60s %12s %12s", "Operation", "Bytes/call", "Budget"));
+        for (AllocationBudget budget : createBudgets()) {
+            final double bytes = probe.bytesPerCall(budget.getOperation());
+            final boolean exceeded = bytes > budget.getMaxBytesPerCall();
+            if (exceeded) {
+                failures++;
+            }
+            System.out.println(String.format("%-60s %12.1f %12d%s", budget.getName(), bytes, budget.getMaxBytesPerCall(), exceeded ? "  EXCEEDED" : ""));
+        }
+        InMemoryGriefDefender.uninstall();
+
+        if (failures > 0 && !reportOnly) {
+            System.err.println(failures + " allocation budget(s) exceeded");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Creates the budgets checked against a generated workload.
+     * 
+     * @return The budgets
+     */
+    public static List<AllocationBudget> createBudgets() {
+        // a separate installation whose query events have a subscriber
+        final InMemoryGriefDefender listened = InMemoryGriefDefender.install();
+        final InMemoryPermissionManager listenedPermissionManager = listened.getPermissionManager();
+        listened.getEventManager().getBus().register(QueryPermissionEvent.Pre.class, event -> {});
+        listened.getEventManager().getBus().register(QueryPermissionEvent.Post.class, event -> {
+            if (event.getOriginalResult() == Tristate.FALSE) {
+                event.setNewResult(Tristate.TRUE);
+            }
+        });
+
+        final Workload workload = new WorkloadGenerator()
+                .claimCount(10000)
+                .depth(3)
+                .seed(42L)
+                .generate(InMemoryGriefDefender.install().getCore());
+        final InMemoryClaimManager claimManager = workload.getClaimManager();
+        final InMemoryPermissionManager permissionManager = workload.getPermissionManager();
+        final Subject subject = permissionManager.getDefaultSubject();
+        final Set<Context> contexts = new HashSet<>();
+
+        final Random random = new Random(7L);
+        final int[] positions = new int[(INPUT_MASK + 1) * 3];
+        for (int i = 0; i <= INPUT_MASK; i++) {
+            final Vector3i pos = workload.randomPosition(random);
+            positions[i * 3] = pos.getX();
+            positions[i * 3 + 1] = pos.getY();
+            positions[i * 3 + 2] = pos.getZ();
+        }
+        final List<Claim> worldClaims = new ArrayList<>(claimManager.getWorldClaims());
+        final Claim[] claims = new Claim[INPUT_MASK + 1];
+        for (int i = 0; i < claims.length; i++) {
+            claims[i] = worldClaims.get(random.nextInt(worldClaims.size()));
+        }
+
+        final String claimId = UUID.randomUUID().toString();
+        final Context claimContext = new Context(ContextKeys.CLAIM, claimId);
+        final Context equalContext = new Context(ContextKeys.CLAIM, new String(claimId));
+        final Set<Context> contextSet = new HashSet<>();
+        contextSet.add(ClaimContexts.BASIC_DEFAULT_CONTEXT);
+        contextSet.add(ClaimContexts.GLOBAL_DEFAULT_CONTEXT);
+        contextSet.add(claimContext);
+        final EventCause cause = EventCause.of(UUID.randomUUID(), "plugin", Integer.valueOf(3));
+        final CauseStack causeStack = new CauseStack("plugin");
+
+        final List<AllocationBudget> budgets = new ArrayList<>();
+        budgets.add(new AllocationBudget("ClaimManager#getClaimAt", 0, i -> {
+            final int n = (i & INPUT_MASK) * 3;
+            return claimManager.getClaimAt(positions[n], positions[n + 1], positions[n + 2]);
+        }));
+        budgets.add(new AllocationBudget("Claim#contains", 0, i -> {
+            final int n = i & INPUT_MASK;
+            return claims[n].contains(positions[n * 3], positions[n * 3 + 1], positions[n * 3 + 2]);
+        }));
+        budgets.add(new AllocationBudget("PermissionManager#getActiveFlagPermissionValue", 0, i -> {
+            final Claim claim = claims[i & INPUT_MASK];
+            return permissionManager.getActiveFlagPermissionValue(claim, subject, Flags.BLOCK_BREAK, subject, claim, contexts, TrustTypes.BUILDER, true);
+        }));
+        // pooled query events must not allocate once the pools are warm
+        budgets.add(new AllocationBudget("PermissionManager#getActiveFlagPermissionValue (listened)", 0, i -> {
+            final Claim claim = claims[i & INPUT_MASK];
+            return listenedPermissionManager.getActiveFlagPermissionValue(claim, subject, Flags.BLOCK_BREAK, subject, claim, contexts, TrustTypes.BUILDER, true);
+        }));
+        budgets.add(new AllocationBudget("PermissionManager#getActiveOptionValue", 0, i -> {
+            return permissionManager.getActiveOptionValue(INTEGER_TOKEN, WorkloadGenerator.MAX_LEVEL, subject, claims[i & INPUT_MASK], contexts);
+        }));
+        budgets.add(new AllocationBudget("PermissionManager#getActiveOptionValue (no contexts)", 0, i -> {
+            return permissionManager.getActiveOptionValue(INTEGER_TOKEN, WorkloadGenerator.MAX_LEVEL, subject, claims[i & INPUT_MASK]);
+        }));
+        budgets.add(new AllocationBudget("Context#hashCode", 0, i -> claimContext.hashCode() == i ? claimContext : null));
+        budgets.add(new AllocationBudget("Context#equals", 0, i -> claimContext.equals(equalContext)));
+        budgets.add(new AllocationBudget("Set<Context>#contains", 0, i -> contextSet.contains(equalContext)));
+        budgets.add(new AllocationBudget("EventCause#first", 0, i -> cause.first(Integer.class)));
+        budgets.add(new AllocationBudget("EventCause#last", 0, i -> cause.last(UUID.class)));
+        // a listener asking for the cause of an event posted with a pushed cause
+        budgets.add(new AllocationBudget("CauseStack push, getCurrentCause, pop", 0, i -> {
+            causeStack.pushCause(subject);
+            final EventCause current = causeStack.getCurrentCause();
+            causeStack.popCause();
+            return current;
+        }));
+        return budgets;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit.allocation;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntFunction;
+
+/**
+ * Measures the bytes allocated per call of an operation on the current
+ * thread using {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}.
+ * 
+ * <br><br>Each measurement warms the operation up first so the JIT has a
+ * chance to eliminate allocations through escape analysis, then takes
+ * the lowest of several rounds to filter out one-off allocations such as
+ * class loading or deoptimization.
+ * 
+ * <br><br>Note: The probe only works on JVMs that expose
+ * {@link com.sun.management.ThreadMXBean}, see {@link #isSupported()}.
+ */
+public final class AllocationProbe {
+
+    private static final int ROUNDS = 5;
+
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final int warmupIterations;
+    private final int iterations;
+    private final double baseline;
+    private int sink;
+
+    /**
+     * Creates a probe measuring with the given amount of calls.
+     * 
+     * @param warmupIterations The calls to make before measuring
+     * @param iterations The calls to make per measured round
+     */
+    public AllocationProbe(int warmupIterations, int iterations) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Thread allocation measurement is not supported by this JVM");
+        }
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("iterations must be positive");
+        }
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.threadBean.setThreadAllocatedMemoryEnabled(true);
+        this.warmupIterations = warmupIterations;
+        this.iterations = iterations;
+        // the bookkeeping of the probe itself is subtracted from every result
+        this.baseline = this.measureRaw(i -> null);
+    }
+
+    /**
+     * Gets if the current JVM supports measuring thread allocations.
+     * 
+     * @return Whether the probe can be used
+     */
+    public static boolean isSupported() {
+        try {
+            final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            return bean instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the average bytes allocated per call of the operation.
+     * 
+     * <br><br>The operation receives the call index, which can be used to
+     * cycle through prepared inputs. Its result is consumed so the call
+     * cannot be eliminated.
+     * 
+     * @param operation The operation to measure
+     * @return The bytes allocated per call
+     */
+    public double bytesPerCall(IntFunction<?> operation) {
+        return Math.max(0, this.measureRaw(operation) - this.baseline);
+    }
+
+    private double measureRaw(IntFunction<?> operation) {
+        final long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < this.warmupIterations; i++) {
+            this.consume(operation.apply(i));
+        }
+        long lowest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long start = this.threadBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < this.iterations; i++) {
+                this.consume(operation.apply(i));
+            }
+            final long allocated = this.threadBean.getThreadAllocatedBytes(threadId) - start;
+            if (allocated < lowest) {
+                lowest = allocated;
+            }
+        }
+        return (double) lowest / this.iterations;
+    }
+
+    private void consume(Object result) {
+        if (result != null) {
+            this.sink ^= System.identityHashCode(result);
+        }
+    }
+
+    /**
+     * Gets a value derived from every measured result.
+     * 
+     * <br><br>Note: This only exists so the JIT cannot remove the measured
+     * calls.
+     * 
+     * @return The sink value
+     */
+    public int getSink() {
+        return this.sink;
+    }
+}
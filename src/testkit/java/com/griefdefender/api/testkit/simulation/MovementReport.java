@@ -0,0 +1,167 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit.simulation;
+
+import com.griefdefender.api.metrics.PercentileHistogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The result of {@link MovementSimulator#run}.
+ * 
+ * <br><br>Durations are in nanoseconds. Percentiles are within about 3%
+ * of the recorded value, see {@link PercentileHistogram}.
+ */
+public final class MovementReport {
+
+    private final int playerCount;
+    private final PercentileHistogram tickNanos;
+    private final PercentileHistogram moveNanos;
+    private final PercentileHistogram crossingNanos;
+    private final long moves;
+    private final long crossings;
+    private final long denied;
+    private final long cancelled;
+    private final long rendered;
+
+    MovementReport(int playerCount, PercentileHistogram tickNanos, PercentileHistogram moveNanos, PercentileHistogram crossingNanos,
+            long moves, long crossings, long denied, long cancelled, long rendered) {
+        this.playerCount = playerCount;
+        this.tickNanos = tickNanos;
+        this.moveNanos = moveNanos;
+        this.crossingNanos = crossingNanos;
+        this.moves = moves;
+        this.crossings = crossings;
+        this.denied = denied;
+        this.cancelled = cancelled;
+        this.rendered = rendered;
+    }
+
+    public int getPlayerCount() {
+        return this.playerCount;
+    }
+
+    public long getTickCount() {
+        return this.tickNanos.getCount();
+    }
+
+    /**
+     * Gets the time spent processing all players per tick.
+     * 
+     * @return The tick durations
+     */
+    public PercentileHistogram getTickNanos() {
+        return this.tickNanos;
+    }
+
+    /**
+     * Gets the time spent processing a single move to another block.
+     * 
+     * @return The move durations
+     */
+    public PercentileHistogram getMoveNanos() {
+        return this.moveNanos;
+    }
+
+    /**
+     * Gets the time spent processing a move into another claim, including
+     * flag checks, the border event, rendering and options.
+     * 
+     * @return The border crossing durations
+     */
+    public PercentileHistogram getCrossingNanos() {
+        return this.crossingNanos;
+    }
+
+    /**
+     * Gets the amount of moves to another block.
+     * 
+     * @return The move count
+     */
+    public long getMoveCount() {
+        return this.moves;
+    }
+
+    /**
+     * Gets the amount of moves into another claim.
+     * 
+     * @return The border crossing count
+     */
+    public long getCrossingCount() {
+        return this.crossings;
+    }
+
+    /**
+     * Gets the amount of crossings denied by the enter or exit flag.
+     * 
+     * @return The denied count
+     */
+    public long getDeniedCount() {
+        return this.denied;
+    }
+
+    /**
+     * Gets the amount of crossings cancelled by a border event listener.
+     * 
+     * @return The cancelled count
+     */
+    public long getCancelledCount() {
+        return this.cancelled;
+    }
+
+    /**
+     * Gets the amount of messages and title lines rendered.
+     * 
+     * @return The rendered count
+     */
+    public long getRenderedCount() {
+        return this.rendered;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d players, %d ticks, %d moves, %d crossings (%d denied, %d cancelled), %d rendered%n"
+                + "tick     mean %s  p50 %s  p99 %s  max %s%n"
+                + "move     mean %s  p50 %s  p99 %s  max %s%n"
+                + "crossing mean %s  p50 %s  p99 %s  max %s",
+                this.playerCount, this.getTickCount(), this.moves, this.crossings, this.denied, this.cancelled, this.rendered,
+                format((long) this.tickNanos.getMean()), format(this.tickNanos.getValueAtPercentile(50)),
+                format(this.tickNanos.getValueAtPercentile(99)), format(this.tickNanos.getMax()),
+                format((long) this.moveNanos.getMean()), format(this.moveNanos.getValueAtPercentile(50)),
+                format(this.moveNanos.getValueAtPercentile(99)), format(this.moveNanos.getMax()),
+                format((long) this.crossingNanos.getMean()), format(this.crossingNanos.getValueAtPercentile(50)),
+                format(this.crossingNanos.getValueAtPercentile(99)), format(this.crossingNanos.getMax()));
+    }
+
+    private static String format(long nanos) {
+        if (nanos >= TimeUnit.MILLISECONDS.toNanos(1)) {
+            return String.format("%.2fms", nanos / 1_000_000.0);
+        }
+        if (nanos >= TimeUnit.MICROSECONDS.toNanos(1)) {
+            return String.format("%.2fus", nanos / 1_000.0);
+        }
+        return nanos + "ns";
+    }
+}
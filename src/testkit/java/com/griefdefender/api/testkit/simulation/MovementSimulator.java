@@ -0,0 +1,438 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit.simulation;
+
+import com.griefdefender.api.Tristate;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.event.BorderClaimEvent;
+import com.griefdefender.api.event.CauseStackManager;
+import com.griefdefender.api.metrics.PercentileHistogram;
+import com.griefdefender.api.permission.Context;
+import com.griefdefender.api.permission.flag.Flags;
+import com.griefdefender.api.testkit.InMemoryBorderClaimEvent;
+import com.griefdefender.api.testkit.InMemoryClaim;
+import com.griefdefender.api.testkit.InMemoryClaimManager;
+import com.griefdefender.api.testkit.InMemoryEventManager;
+import com.griefdefender.api.testkit.InMemoryGriefDefender;
+import com.griefdefender.api.testkit.InMemoryOption;
+import com.griefdefender.api.testkit.InMemoryPermissionManager;
+import com.griefdefender.api.testkit.InMemoryUser;
+import com.griefdefender.api.testkit.Workload;
+import com.griefdefender.api.testkit.WorkloadGenerator;
+import io.leangen.geantyref.TypeToken;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import net.kyori.adventure.title.Title;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Drives virtual players along random walks through a generated world
+ * and processes their movement the way the plugin does on every move.
+ * 
+ * <br><br>For each block change of a player the claim at the new position
+ * is looked up. Crossing into another claim checks {@link Flags#EXIT_CLAIM}
+ * and {@link Flags#ENTER_CLAIM}, posts an {@link InMemoryBorderClaimEvent},
+ * renders the greeting, farewell and titles and applies the enter options
+ * of the new claim. Denied or cancelled moves send the player back.
+ * The event is only built when {@link BorderClaimEvent} has subscribers.
+ * 
+ * <br><br>Note: Running the simulator decorates the claims of the workload
+ * with messages, enter/exit flag values and option values.
+ */
+public final class MovementSimulator {
+
+    public static final InMemoryOption<Double> PLAYER_WALK_SPEED = new InMemoryOption<>("player-walk-speed", Double.class, -1.0);
+    public static final InMemoryOption<Double> PLAYER_FLY_SPEED = new InMemoryOption<>("player-fly-speed", Double.class, -1.0);
+    public static final InMemoryOption<Boolean> PLAYER_DENY_FLIGHT = new InMemoryOption<>("player-deny-flight", Boolean.class, false);
+    public static final InMemoryOption<Double> PLAYER_HEALTH_REGEN = new InMemoryOption<>("player-health-regen", Double.class, -1.0);
+
+    private static final List<InMemoryOption<?>> ENTER_OPTIONS = Arrays.asList(PLAYER_WALK_SPEED, PLAYER_FLY_SPEED, PLAYER_DENY_FLIGHT, PLAYER_HEALTH_REGEN);
+    private static final double TURN_CHANCE = 0.05;
+
+    private int playerCount = 300;
+    private int ticks = 1200;
+    private int warmupTicks = 200;
+    private double speed = 0.6;
+    private double denyChance = 0.05;
+    private double messageChance = 0.5;
+    private double optionValueChance = 0.25;
+    private long seed;
+
+    /**
+     * Sets the amount of simulated players.
+     * 
+     * <br><br>Players missing from the workload are created.
+     * 
+     * @param playerCount The player count
+     * @return The simulator, for chaining
+     */
+    public MovementSimulator players(int playerCount) {
+        this.playerCount = playerCount;
+        return this;
+    }
+
+    /**
+     * Sets the amount of measured ticks.
+     * 
+     * @param ticks The tick count
+     * @return The simulator, for chaining
+     */
+    public MovementSimulator ticks(int ticks) {
+        this.ticks = ticks;
+        return this;
+    }
+
+    /**
+     * Sets the amount of ticks run before measuring.
+     * 
+     * @param warmupTicks The tick count
+     * @return The simulator, for chaining
+     */
+    public MovementSimulator warmupTicks(int warmupTicks) {
+        this.warmupTicks = warmupTicks;
+        return this;
+    }
+
+    /**
+     * Sets the distance in blocks each player moves per tick.
+     * 
+     * <br><br>Note: Walking is about 0.2, sprinting 0.3 and flying
+     * with elytra 1.5 or more.
+     * 
+     * @param speed The speed in blocks per tick
+     * @return The simulator, for chaining
+     */
+    public MovementSimulator speed(double speed) {
+        this.speed = speed;
+        return this;
+    }
+
+    /**
+     * Sets the chance of a claim denying {@link Flags#ENTER_CLAIM} or
+     * {@link Flags#EXIT_CLAIM}.
+     * 
+     * @param denyChance The chance between 0 and 1
+     * @return The simulator, for chaining
+     */
+    public MovementSimulator denyChance(double denyChance) {
+        this.denyChance = denyChance;
+        return this;
+    }
+
+    /**
+     * Sets the chance of a claim having a greeting, farewell and titles.
+     * 
+     * @param messageChance The chance between 0 and 1
+     * @return The simulator, for chaining
+     */
+    public MovementSimulator messageChance(double messageChance) {
+        this.messageChance = messageChance;
+        return this;
+    }
+
+    /**
+     * Sets the chance of a claim having its own value for each enter option.
+     * 
+     * @param optionValueChance The chance between 0 and 1
+     * @return The simulator, for chaining
+     */
+    public MovementSimulator optionValueChance(double optionValueChance) {
+        this.optionValueChance = optionValueChance;
+        return this;
+    }
+
+    public MovementSimulator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Runs the simulation on the workload.
+     * 
+     * @param griefDefender The installation the workload was generated in
+     * @param workload The workload
+     * @return The report of the measured ticks
+     */
+    public MovementReport run(InMemoryGriefDefender griefDefender, Workload workload) {
+        final Random random = new Random(this.seed);
+        this.decorate(workload, griefDefender.getPermissionManager(), random);
+        final Run run = new Run(griefDefender, workload, this.createPlayers(griefDefender, workload, random), random);
+        for (int tick = 0; tick < this.warmupTicks; tick++) {
+            run.tick();
+        }
+        run.reset();
+        for (int tick = 0; tick < this.ticks; tick++) {
+            run.tick();
+        }
+        return run.report();
+    }
+
+    private void decorate(Workload workload, InMemoryPermissionManager permissionManager, Random random) {
+        permissionManager.setDefaultFlagValue(Flags.ENTER_CLAIM, Tristate.TRUE);
+        permissionManager.setDefaultFlagValue(Flags.EXIT_CLAIM, Tristate.TRUE);
+        for (Claim claim : workload.getClaimManager().getWorldClaims()) {
+            final InMemoryClaim inMemoryClaim = (InMemoryClaim) claim;
+            if (random.nextDouble() < this.denyChance) {
+                inMemoryClaim.setFlagValue(random.nextBoolean() ? Flags.ENTER_CLAIM : Flags.EXIT_CLAIM, Tristate.FALSE);
+            }
+            if (random.nextDouble() < this.messageChance) {
+                final String name = "claim " + claim.getUniqueId().toString().substring(0, 8);
+                claim.getData().setGreeting(Component.text("Welcome to " + name));
+                claim.getData().setFarewell(Component.text("Now leaving " + name));
+                claim.getData().setEnterTitle(Title.title(Component.text(name), Component.text("Entered")));
+                claim.getData().setExitTitle(Title.title(Component.text(name), Component.text("Left")));
+            }
+            if (random.nextDouble() < this.optionValueChance) {
+                inMemoryClaim.setOptionValue(PLAYER_WALK_SPEED, 0.1 + random.nextInt(5) / 10.0);
+            }
+            if (random.nextDouble() < this.optionValueChance) {
+                inMemoryClaim.setOptionValue(PLAYER_DENY_FLIGHT, true);
+            }
+        }
+    }
+
+    private List<InMemoryUser> createPlayers(InMemoryGriefDefender griefDefender, Workload workload, Random random) {
+        final List<InMemoryUser> players = new ArrayList<>(this.playerCount);
+        for (int i = 0; i < this.playerCount; i++) {
+            if (i < workload.getPlayers().size()) {
+                players.add(workload.getPlayers().get(i));
+            } else {
+                players.add(griefDefender.getCore().createUser(new UUID(random.nextLong(), random.nextLong()), "simulated" + i));
+            }
+        }
+        return players;
+    }
+
+    private final class Run {
+
+        private final InMemoryClaimManager claimManager;
+        private final InMemoryPermissionManager permissionManager;
+        private final InMemoryEventManager eventManager;
+        private final CauseStackManager causeStackManager;
+        private final PlainTextComponentSerializer serializer = PlainTextComponentSerializer.plainText();
+        private final List<TypeToken<?>> optionTypes = new ArrayList<>();
+        private final Set<Context> contexts = new HashSet<>();
+        private final Random random;
+        private final int sideLength;
+        private final InMemoryUser[] players;
+        private final double[] x;
+        private final double[] z;
+        private final int[] y;
+        private final double[] heading;
+
+        private final PercentileHistogram tickNanos = new PercentileHistogram();
+        private final PercentileHistogram moveNanos = new PercentileHistogram();
+        private final PercentileHistogram crossingNanos = new PercentileHistogram();
+        private long moves;
+        private long crossings;
+        private long denied;
+        private long cancelled;
+        private long rendered;
+        private int sink;
+
+        Run(InMemoryGriefDefender griefDefender, Workload workload, List<InMemoryUser> players, Random random) {
+            this.claimManager = workload.getClaimManager();
+            this.permissionManager = griefDefender.getPermissionManager();
+            this.eventManager = griefDefender.getEventManager();
+            this.causeStackManager = this.eventManager.getCauseStackManager();
+            this.random = random;
+            this.sideLength = workload.getSideLength();
+            for (InMemoryOption<?> option : ENTER_OPTIONS) {
+                this.optionTypes.add(TypeToken.get(option.getAllowedType()));
+            }
+            this.players = players.toArray(new InMemoryUser[0]);
+            this.x = new double[this.players.length];
+            this.z = new double[this.players.length];
+            this.y = new int[this.players.length];
+            this.heading = new double[this.players.length];
+            for (int i = 0; i < this.players.length; i++) {
+                this.x[i] = random.nextDouble() * this.sideLength;
+                this.z[i] = random.nextDouble() * this.sideLength;
+                this.y[i] = 64;
+                this.heading[i] = random.nextDouble() * Math.PI * 2;
+                this.players[i].setCurrentClaim(this.claimManager.getClaimAt((int) this.x[i], this.y[i], (int) this.z[i]));
+            }
+        }
+
+        void tick() {
+            final long tickStart = System.nanoTime();
+            for (int i = 0; i < this.players.length; i++) {
+                this.move(i);
+            }
+            this.tickNanos.record(System.nanoTime() - tickStart);
+        }
+
+        private void move(int player) {
+            if (this.random.nextDouble() < TURN_CHANCE) {
+                this.heading[player] += (this.random.nextDouble() - 0.5) * Math.PI;
+            }
+            final double fromX = this.x[player];
+            final double fromZ = this.z[player];
+            double toX = fromX + Math.cos(this.heading[player]) * MovementSimulator.this.speed;
+            double toZ = fromZ + Math.sin(this.heading[player]) * MovementSimulator.this.speed;
+            if (toX < 0 || toX >= this.sideLength || toZ < 0 || toZ >= this.sideLength) {
+                this.heading[player] += Math.PI;
+                toX = fromX;
+                toZ = fromZ;
+            }
+            this.x[player] = toX;
+            this.z[player] = toZ;
+            // the plugin ignores moves within the same block
+            if ((int) fromX == (int) toX && (int) fromZ == (int) toZ) {
+                return;
+            }
+
+            final long start = System.nanoTime();
+            if (!this.processMove(this.players[player], (int) toX, this.y[player], (int) toZ)) {
+                // pushed back players turn around instead of retrying
+                this.x[player] = fromX;
+                this.z[player] = fromZ;
+                this.heading[player] += Math.PI;
+            }
+            final long elapsed = System.nanoTime() - start;
+            this.moveNanos.record(elapsed);
+            this.moves++;
+        }
+
+        private boolean processMove(InMemoryUser user, int blockX, int blockY, int blockZ) {
+            final Claim fromClaim = user.getCurrentClaim();
+            final Claim toClaim = this.claimManager.getClaimAt(blockX, blockY, blockZ);
+            if (toClaim == fromClaim) {
+                return true;
+            }
+
+            final long start = System.nanoTime();
+            this.crossings++;
+            try {
+                if (this.permissionManager.getActiveFlagPermissionValue(fromClaim, user, Flags.EXIT_CLAIM, user, fromClaim, this.contexts, null, true) == Tristate.FALSE
+                        || this.permissionManager.getActiveFlagPermissionValue(toClaim, user, Flags.ENTER_CLAIM, user, toClaim, this.contexts, null, true) == Tristate.FALSE) {
+                    this.denied++;
+                    return false;
+                }
+
+                if (this.eventManager.hasSubscribers(BorderClaimEvent.class)) {
+                    final InMemoryBorderClaimEvent event;
+                    this.causeStackManager.pushCause(user);
+                    try {
+                        event = new InMemoryBorderClaimEvent(this.causeStackManager.getCurrentCause(), fromClaim, toClaim, user);
+                        this.eventManager.post(event);
+                    } finally {
+                        this.causeStackManager.popCause();
+                    }
+                    if (event.cancelled()) {
+                        this.cancelled++;
+                        return false;
+                    }
+                    event.getExitChatMessage().ifPresent(this::render);
+                    event.getEnterChatMessage().ifPresent(this::render);
+                    event.getExitActionBar().ifPresent(this::render);
+                    event.getEnterActionBar().ifPresent(this::render);
+                    event.getExitTitle().ifPresent(this::render);
+                    event.getEnterTitle().ifPresent(this::render);
+                } else {
+                    // nobody listens, so present the claim messages without building an event
+                    fromClaim.getData().getFarewell().ifPresent(this::render);
+                    toClaim.getData().getGreeting().ifPresent(this::render);
+                    fromClaim.getData().getExitTitle().ifPresent(this::render);
+                    toClaim.getData().getEnterTitle().ifPresent(this::render);
+                }
+                this.applyOptions(user, toClaim);
+                user.setCurrentClaim(toClaim);
+                return true;
+            } finally {
+                this.crossingNanos.record(System.nanoTime() - start);
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private void applyOptions(InMemoryUser user, Claim claim) {
+            for (int i = 0; i < ENTER_OPTIONS.size(); i++) {
+                final Object value = this.permissionManager.getActiveOptionValue((TypeToken) this.optionTypes.get(i), ENTER_OPTIONS.get(i), user, claim, this.contexts);
+                this.sink += value.hashCode();
+            }
+        }
+
+        private void render(Component component) {
+            this.sink += this.serializer.serialize(component).length();
+            this.rendered++;
+        }
+
+        private void render(Title title) {
+            this.render(title.title());
+            this.render(title.subtitle());
+        }
+
+        void reset() {
+            this.tickNanos.reset();
+            this.moveNanos.reset();
+            this.crossingNanos.reset();
+            this.moves = 0;
+            this.crossings = 0;
+            this.denied = 0;
+            this.cancelled = 0;
+            this.rendered = 0;
+        }
+
+        MovementReport report() {
+            return new MovementReport(this.players.length, this.tickNanos, this.moveNanos, this.crossingNanos,
+                    this.moves, this.crossings, this.denied, this.cancelled, this.rendered);
+        }
+    }
+
+    /**
+     * Runs a simulation and prints its report.
+     * 
+     * <br><br>Usage: <code>MovementSimulator [players] [claims] [ticks] [speed]</code>
+     * 
+     * @param args The arguments
+     */
+    public static void main(String[] args) {
+        final int players = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        final int claims = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        final int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 1200;
+        final double speed = args.length > 3 ? Double.parseDouble(args[3]) : 0.6;
+        final InMemoryGriefDefender griefDefender = InMemoryGriefDefender.install();
+        final Workload workload = new WorkloadGenerator()
+                .claimCount(claims)
+                .depth(3)
+                .seed(42L)
+                .generate(griefDefender.getCore());
+        final MovementReport report = new MovementSimulator()
+                .players(players)
+                .ticks(ticks)
+                .speed(speed)
+                .seed(7L)
+                .run(griefDefender, workload);
+        System.out.println(report);
+        InMemoryGriefDefender.uninstall();
+    }
+}
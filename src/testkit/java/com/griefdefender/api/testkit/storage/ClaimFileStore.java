@@ -0,0 +1,253 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit.storage;
+
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.data.ClaimData;
+import com.griefdefender.api.data.ClaimSaveQueue;
+import com.griefdefender.api.testkit.InMemoryClaim;
+import com.griefdefender.api.testkit.InMemoryClaimManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Stores claims as one text file per claim, using {@link ClaimTextFormat}.
+ * 
+ * <br><br>A claim with only some fields changed gets a patch appended to its
+ * <code>.patch</code> file instead of a rewrite. Once the patches outgrow the
+ * record, the claim is written in full and its patches are removed.
+ * 
+ * <br><br>Note: Records are replaced atomically so a crash during a batch
+ * leaves either the previous or the new record on disk.
+ */
+public final class ClaimFileStore implements ClaimSaveQueue.BatchWriter {
+
+    public static final String EXTENSION = ".conf";
+    public static final String PATCH_EXTENSION = ".patch";
+
+    private static final int ENCODE_ATTEMPTS = 3;
+
+    private final Path directory;
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    public ClaimFileStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * Gets the total number of bytes written by this store.
+     * 
+     * @return The bytes written
+     */
+    public long getBytesWritten() {
+        return this.bytesWritten.get();
+    }
+
+    @Override
+    public void write(List<Claim> claims) throws IOException {
+        Files.createDirectories(this.directory);
+        for (Claim claim : claims) {
+            this.writeRecord(claim.getUniqueId(), claim.getData());
+        }
+    }
+
+    /**
+     * Writes claim records in full.
+     * 
+     * @param records The claim records
+     * @throws IOException If a record could not be written
+     */
+    public void writeRecords(Collection<ClaimRecord> records) throws IOException {
+        Files.createDirectories(this.directory);
+        for (ClaimRecord record : records) {
+            this.writeRecord(record.getUniqueId(), record.getData());
+        }
+    }
+
+    @Override
+    public void writePatches(List<ClaimSaveQueue.Patch> patches) throws IOException {
+        Files.createDirectories(this.directory);
+        for (ClaimSaveQueue.Patch patch : patches) {
+            final Claim claim = patch.getClaim();
+            final Path record = this.directory.resolve(claim.getUniqueId() + EXTENSION);
+            if (patch.isFull() || !Files.exists(record)) {
+                this.writeRecord(claim.getUniqueId(), claim.getData());
+                continue;
+            }
+            final Path patchFile = this.directory.resolve(claim.getUniqueId() + PATCH_EXTENSION);
+            final byte[] bytes = encode(() -> ClaimTextFormat.encodePatch(claim.getData(), patch.getFields()));
+            final long patchSize = Files.exists(patchFile) ? Files.size(patchFile) : 0;
+            if (patchSize + bytes.length > Files.size(record)) {
+                this.writeRecord(claim.getUniqueId(), claim.getData());
+                continue;
+            }
+            Files.write(patchFile, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            this.bytesWritten.addAndGet(bytes.length);
+        }
+    }
+
+    private void writeRecord(UUID uniqueId, ClaimData data) throws IOException {
+        final byte[] bytes = encode(() -> ClaimTextFormat.encode(uniqueId, data));
+        final Path target = this.directory.resolve(uniqueId + EXTENSION);
+        final Path temp = this.directory.resolve(uniqueId + EXTENSION + ".tmp");
+        Files.write(temp, bytes);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(this.directory.resolve(uniqueId + PATCH_EXTENSION));
+        this.bytesWritten.addAndGet(bytes.length);
+    }
+
+    @Override
+    public void delete(List<UUID> claimIds) throws IOException {
+        for (UUID claimId : claimIds) {
+            Files.deleteIfExists(this.directory.resolve(claimId + EXTENSION));
+            Files.deleteIfExists(this.directory.resolve(claimId + PATCH_EXTENSION));
+        }
+    }
+
+    /**
+     * Encodes a claim, retrying if it was changed while being read.
+     */
+    private static byte[] encode(Supplier<String> encoder) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return encoder.get().getBytes(StandardCharsets.UTF_8);
+            } catch (ConcurrentModificationException e) {
+                if (attempt == ENCODE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads every claim record in the directory.
+     * 
+     * @return The claim records
+     * @throws IOException If a file could not be read
+     * @throws IllegalArgumentException If a file is not a valid record
+     */
+    public List<ClaimRecord> loadAll() throws IOException {
+        final List<ClaimRecord> records = new ArrayList<>();
+        for (Path file : this.listRecords()) {
+            records.add(this.read(file));
+        }
+        return records;
+    }
+
+    /**
+     * Lists the record files in the directory.
+     * 
+     * @return The record files
+     * @throws IOException If the directory could not be read
+     */
+    public List<Path> listRecords() throws IOException {
+        final List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(this.directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, "*" + EXTENSION)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Reads a record file, applying its patches.
+     * 
+     * @param file The record file
+     * @return The claim record
+     * @throws IOException If a file could not be read
+     * @throws IllegalArgumentException If the file is not a valid record
+     */
+    public ClaimRecord read(Path file) throws IOException {
+        String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        final String name = file.getFileName().toString();
+        final Path patchFile = file.resolveSibling(name.substring(0, name.length() - EXTENSION.length()) + PATCH_EXTENSION);
+        if (Files.exists(patchFile)) {
+            text += new String(Files.readAllBytes(patchFile), StandardCharsets.UTF_8);
+        }
+        return ClaimTextFormat.decode(text);
+    }
+
+    /**
+     * Loads every claim in the directory into a claim manager, adding
+     * parents before their children.
+     * 
+     * @param claimManager The claim manager
+     * @return The number of claims loaded
+     * @throws IOException If a file could not be read
+     */
+    public int loadInto(InMemoryClaimManager claimManager) throws IOException {
+        return load(claimManager, this.loadAll());
+    }
+
+    static int load(InMemoryClaimManager claimManager, Collection<ClaimRecord> all) {
+        final Map<UUID, ClaimRecord> records = new HashMap<>();
+        for (ClaimRecord record : all) {
+            records.put(record.getUniqueId(), record);
+        }
+        final Map<UUID, InMemoryClaim> loaded = new HashMap<>();
+        for (ClaimRecord record : records.values()) {
+            load(claimManager, record, records, loaded);
+        }
+        return loaded.size();
+    }
+
+    private static InMemoryClaim load(InMemoryClaimManager claimManager, ClaimRecord record, Map<UUID, ClaimRecord> records, Map<UUID, InMemoryClaim> loaded) {
+        final InMemoryClaim existing = loaded.get(record.getUniqueId());
+        if (existing != null) {
+            return existing;
+        }
+        final UUID parentId = record.getData().getParentUniqueId();
+        final ClaimRecord parentRecord = parentId == null ? null : records.get(parentId);
+        final InMemoryClaim parent = parentRecord == null ? null : load(claimManager, parentRecord, records, loaded);
+        final InMemoryClaim claim = new InMemoryClaim(record.getUniqueId(), claimManager, record.getData());
+        loaded.put(record.getUniqueId(), claim);
+        claimManager.addClaim(claim, parent);
+        claim.getData().clearDirtyFields();
+        return claim;
+    }
+}
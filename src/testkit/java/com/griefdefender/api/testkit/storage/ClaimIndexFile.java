@@ -0,0 +1,376 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit.storage;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.testkit.ClaimHeader;
+import com.griefdefender.api.testkit.ClaimIndexShard;
+import com.griefdefender.api.testkit.InMemoryClaim;
+import com.griefdefender.api.testkit.InMemoryClaimManager;
+import com.griefdefender.api.testkit.PersistedChunkIndex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A memory-mapped chunk index and parent graph of the claims of a
+ * {@link ClaimSegment}, stored next to it so claims can be looked up on
+ * boot without indexing them.
+ * 
+ * <br><br>The file starts with a fixed header holding the size and claim
+ * count of the segment it was built from and a CRC32 of each section. The
+ * claim section holds the parent and chunk range of every claim, the chunk
+ * section the sorted chunk hashes with the positions of the top level
+ * claims touching each chunk.
+ * 
+ * <br><br>{@link #loadInto(ClaimSegment, Path, InMemoryClaimManager)}
+ * compares the claim section against the segment, which is cheap as the
+ * segment headers are read anyway, and the amount of chunk positions
+ * against the chunks of the top level claims. Lookups are then served from
+ * the mapped chunk section, the claim manager checks the positions of a
+ * chunk on its first lookup and rebuilds the index from the claims if they
+ * are wrong. The index file is rewritten whenever a check at load fails.
+ * 
+ * <br><br>Note: The chunk section checksum is not checked at load, which
+ * would read every chunk before the first lookup. Call {@link #validate()}
+ * to check it on demand.
+ */
+public final class ClaimIndexFile implements PersistedChunkIndex {
+
+    public static final String EXTENSION = ".gdidx";
+    public static final int MAGIC = 0x47444958;
+    public static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 40;
+    static final int CLAIM_ENTRY_SIZE = 20;
+    // parent of a claim whose parent is not in the segment
+    static final int UNRESOLVED_PARENT = -2;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final int claimCount;
+    private final int chunkCount;
+    private final int hashesOffset;
+    private final int startsOffset;
+    private final int positionsOffset;
+
+    private ClaimIndexFile(Path file, ByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        this.claimCount = buffer.getInt(16);
+        this.chunkCount = buffer.getInt(20);
+        this.hashesOffset = HEADER_SIZE + this.claimCount * CLAIM_ENTRY_SIZE;
+        this.startsOffset = this.hashesOffset + this.chunkCount * 8;
+        this.positionsOffset = this.startsOffset + (this.chunkCount + 1) * 4;
+    }
+
+    /**
+     * Maps the index file of a segment.
+     * 
+     * <br><br>Note: Only the header and the claim section are checked,
+     * see {@link #validate()}.
+     * 
+     * @param file The index file
+     * @param segment The segment
+     * @return The index, or null if the file is missing, corrupt or was
+     *     built from another segment
+     * @throws IOException If the file could not be read
+     */
+    public static @Nullable ClaimIndexFile open(Path file, ClaimSegment segment) throws IOException {
+        final MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION
+                || buffer.getLong(8) != segment.byteSize() || buffer.getInt(16) != segment.size()) {
+            return null;
+        }
+        final ClaimIndexFile index = new ClaimIndexFile(file, buffer);
+        final long entryCount = buffer.getInt(24) & 0xffffffffL;
+        if (index.chunkCount < 0 || index.positionsOffset + entryCount * 4 != buffer.capacity()
+                || crc(buffer, HEADER_SIZE, index.hashesOffset) != buffer.getInt(28)) {
+            return null;
+        }
+        return index;
+    }
+
+    public Path getFile() {
+        return this.file;
+    }
+
+    /**
+     * Gets whether the chunk section matches its checksum.
+     * 
+     * @return Whether valid
+     */
+    public boolean validate() {
+        return crc(this.buffer, this.hashesOffset, this.buffer.capacity()) == this.buffer.getInt(32);
+    }
+
+    /**
+     * Gets the position of the parent of a claim.
+     * 
+     * @param index The position of the claim
+     * @return The position of its parent, or a negative value for a top
+     *     level claim
+     */
+    public int getParentIndex(int index) {
+        return this.buffer.getInt(this.claimEntry(index));
+    }
+
+    @Override
+    public int size() {
+        return this.chunkCount;
+    }
+
+    @Override
+    public int indexOf(long chunkHash) {
+        int low = 0;
+        int high = this.chunkCount - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final long hash = this.buffer.getLong(this.hashesOffset + mid * 8);
+            if (hash < chunkHash) {
+                low = mid + 1;
+            } else if (hash > chunkHash) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    @Override
+    public long getChunkHash(int index) {
+        return this.buffer.getLong(this.hashesOffset + index * 8);
+    }
+
+    @Override
+    public int[] getClaimPositions(int index) {
+        final int start = this.buffer.getInt(this.startsOffset + index * 4);
+        final int end = this.buffer.getInt(this.startsOffset + index * 4 + 4);
+        if (start < 0 || end < start || this.positionsOffset + (long) end * 4 > this.buffer.capacity()) {
+            // fails the check of the claim manager, an out of range position
+            return new int[] {-1};
+        }
+        final int[] positions = new int[end - start];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = this.buffer.getInt(this.positionsOffset + (start + i) * 4);
+        }
+        return positions;
+    }
+
+    @Override
+    public long getEntryCount() {
+        return this.buffer.getInt(24) & 0xffffffffL;
+    }
+
+    /**
+     * Loads the claims of a segment lazily into a claim manager, using its
+     * index file if it matches the segment and rewriting it otherwise.
+     * 
+     * @param segment The segment
+     * @param file The index file
+     * @param claimManager The claim manager
+     * @return Whether the index file was used
+     * @throws IOException If the index file could not be read or written
+     */
+    public static boolean loadInto(ClaimSegment segment, Path file, InMemoryClaimManager claimManager) throws IOException {
+        final int claimCount = segment.size();
+        final InMemoryClaim[] claims = new InMemoryClaim[claimCount];
+        final ClaimHeader[] headers = new ClaimHeader[claimCount];
+        for (int i = 0; i < claimCount; i++) {
+            final int index = i;
+            headers[i] = segment.readHeader(i);
+            claims[i] = new InMemoryClaim(segment.getUniqueId(i), claimManager, headers[i], () -> segment.read(index).getData());
+        }
+        final ClaimIndexFile indexFile = open(file, segment);
+        if (indexFile != null && indexFile.matches(segment, headers)) {
+            final int[] parentIndices = new int[claimCount];
+            for (int i = 0; i < claimCount; i++) {
+                parentIndices[i] = indexFile.getParentIndex(i);
+            }
+            if (claimManager.addIndexedClaims(claims, parentIndices, indexFile)) {
+                return true;
+            }
+            write(file, segment, headers);
+            return false;
+        }
+        final ClaimIndexShard shard = new ClaimIndexShard();
+        for (int i = 0; i < claimCount; i++) {
+            shard.add(claims[i], headers[i].getParentUniqueId());
+        }
+        claimManager.addClaims(shard);
+        write(file, segment, headers);
+        return false;
+    }
+
+    /**
+     * Writes the index file of a segment.
+     * 
+     * @param file The index file
+     * @param segment The segment
+     * @return The bytes written
+     * @throws IOException If the file could not be written
+     */
+    public static long write(Path file, ClaimSegment segment) throws IOException {
+        final ClaimHeader[] headers = new ClaimHeader[segment.size()];
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = segment.readHeader(i);
+        }
+        return write(file, segment, headers);
+    }
+
+    private static long write(Path file, ClaimSegment segment, ClaimHeader[] headers) throws IOException {
+        final Map<Long, List<Integer>> chunks = new HashMap<>();
+        final int[] parentIndices = new int[headers.length];
+        int entryCount = 0;
+        for (int i = 0; i < headers.length; i++) {
+            final UUID parentUniqueId = headers[i].getParentUniqueId();
+            parentIndices[i] = parentUniqueId == null ? -1 : segment.indexOf(parentUniqueId);
+            if (parentIndices[i] != -1) {
+                continue;
+            }
+            if (parentUniqueId != null) {
+                parentIndices[i] = UNRESOLVED_PARENT;
+            }
+            final Vector3i lesser = headers[i].getLesserBoundaryCorner();
+            final Vector3i greater = headers[i].getGreaterBoundaryCorner();
+            for (int chunkX = lesser.getX() >> 4; chunkX <= greater.getX() >> 4; chunkX++) {
+                for (int chunkZ = lesser.getZ() >> 4; chunkZ <= greater.getZ() >> 4; chunkZ++) {
+                    chunks.computeIfAbsent(InMemoryClaimManager.chunkHash(chunkX, chunkZ), k -> new ArrayList<>(1)).add(i);
+                    entryCount++;
+                }
+            }
+        }
+        final long[] hashes = new long[chunks.size()];
+        int chunkIndex = 0;
+        for (Long hash : chunks.keySet()) {
+            hashes[chunkIndex++] = hash;
+        }
+        Arrays.sort(hashes);
+
+        final int hashesOffset = HEADER_SIZE + headers.length * CLAIM_ENTRY_SIZE;
+        final int positionsOffset = hashesOffset + hashes.length * 12 + 4;
+        final ByteBuffer buffer = ByteBuffer.allocate(positionsOffset + entryCount * 4);
+        buffer.position(HEADER_SIZE);
+        for (int i = 0; i < headers.length; i++) {
+            buffer.putInt(parentIndices[i]);
+            putChunkRange(buffer, headers[i]);
+        }
+        for (long hash : hashes) {
+            buffer.putLong(hash);
+        }
+        int start = 0;
+        for (long hash : hashes) {
+            buffer.putInt(start);
+            start += chunks.get(hash).size();
+        }
+        buffer.putInt(start);
+        for (long hash : hashes) {
+            for (int position : chunks.get(hash)) {
+                buffer.putInt(position);
+            }
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, (short) VERSION);
+        buffer.putLong(8, segment.byteSize());
+        buffer.putInt(16, headers.length);
+        buffer.putInt(20, hashes.length);
+        buffer.putInt(24, entryCount);
+        buffer.putInt(28, crc(buffer, HEADER_SIZE, hashesOffset));
+        buffer.putInt(32, crc(buffer, hashesOffset, buffer.capacity()));
+
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, buffer.array());
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return buffer.capacity();
+    }
+
+    // Compares parents and chunk ranges with the segment headers
+    private boolean matches(ClaimSegment segment, ClaimHeader[] headers) {
+        final ByteBuffer expected = ByteBuffer.allocate(CLAIM_ENTRY_SIZE - 4);
+        for (int i = 0; i < headers.length; i++) {
+            final int entry = this.claimEntry(i);
+            final int parentIndex = this.buffer.getInt(entry);
+            final UUID parentUniqueId = headers[i].getParentUniqueId();
+            if (parentIndex == -1 ? parentUniqueId != null
+                    : parentIndex == UNRESOLVED_PARENT ? parentUniqueId == null
+                    : parentIndex < 0 || parentIndex >= headers.length || !segment.getUniqueId(parentIndex).equals(parentUniqueId)) {
+                return false;
+            }
+            expected.clear();
+            putChunkRange(expected, headers[i]);
+            for (int offset = 0; offset < expected.capacity(); offset += 4) {
+                if (this.buffer.getInt(entry + 4 + offset) != expected.getInt(offset)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private int claimEntry(int index) {
+        if (index < 0 || index >= this.claimCount) {
+            throw new IndexOutOfBoundsException("Claim index " + index + " of " + this.claimCount);
+        }
+        return HEADER_SIZE + index * CLAIM_ENTRY_SIZE;
+    }
+
+    private static void putChunkRange(ByteBuffer buffer, ClaimHeader header) {
+        buffer.putInt(header.getLesserBoundaryCorner().getX() >> 4);
+        buffer.putInt(header.getLesserBoundaryCorner().getZ() >> 4);
+        buffer.putInt(header.getGreaterBoundaryCorner().getX() >> 4);
+        buffer.putInt(header.getGreaterBoundaryCorner().getZ() >> 4);
+    }
+
+    private static int crc(ByteBuffer buffer, int from, int to) {
+        final ByteBuffer slice = buffer.duplicate();
+        slice.position(from);
+        slice.limit(to);
+        final CRC32 crc = new CRC32();
+        crc.update(slice);
+        return (int) crc.getValue();
+    }
+}
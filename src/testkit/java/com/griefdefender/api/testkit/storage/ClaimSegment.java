@@ -0,0 +1,618 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit.storage;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.claim.ClaimAttribute;
+import com.griefdefender.api.claim.ClaimType;
+import com.griefdefender.api.data.ClanData;
+import com.griefdefender.api.data.EconomyData;
+import com.griefdefender.api.economy.PaymentType;
+import com.griefdefender.api.economy.TransactionResultType;
+import com.griefdefender.api.economy.TransactionType;
+import com.griefdefender.api.testkit.ClaimHeader;
+import com.griefdefender.api.testkit.InMemoryClaim;
+import com.griefdefender.api.testkit.InMemoryClaimData;
+import com.griefdefender.api.testkit.InMemoryClaimManager;
+import com.griefdefender.api.testkit.InMemoryPaymentTransaction;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A memory-mapped segment holding the claims of one world, written by
+ * {@link ClaimSegmentWriter}.
+ * 
+ * <br><br>The file starts with a fixed header followed by a table of every
+ * {@link UUID} referenced, a pool of every string, an index of fixed width
+ * entries and the claim records. Records reference the tables by varint
+ * index and store boundaries as varints relative to the lesser corner.
+ * 
+ * <br><br>Opening a segment only reads the header and the offsets of the
+ * string pool. Records are decoded when read and strings on first use, so
+ * unused claims cost no more than their mapped pages.
+ * 
+ * <br><br>Note: A segment stores the same fields as {@link ClaimTextFormat},
+ * so {@link #exportTo(ClaimFileStore)} and {@link #importFrom(ClaimFileStore, Path, UUID, boolean)}
+ * convert between both formats without loss. Version 1 segments stored
+ * components as plain text and no attributes, clan or economy data.
+ */
+public final class ClaimSegment {
+
+    public static final String EXTENSION = ".gdseg";
+    public static final int MAGIC = 0x47445347;
+    public static final int VERSION = 2;
+
+    static final int HEADER_SIZE = 48;
+    static final int INDEX_ENTRY_SIZE = 8;
+    static final int COMPRESSED = 1;
+
+    // record flags
+    static final int DENY_MESSAGES = 1;
+    static final int EXPIRATION = 1 << 1;
+    static final int CUBOID = 1 << 2;
+    static final int INHERIT_PARENT = 1 << 3;
+    static final int RESIZABLE = 1 << 4;
+    static final int EXPIRED = 1 << 5;
+    static final int REQUIRES_CLAIM_BLOCKS = 1 << 6;
+    static final int SIZE_RESTRICTIONS = 1 << 7;
+    static final int HAS_PARENT = 1 << 8;
+    static final int HAS_GROUP = 1 << 9;
+    static final int HAS_SPAWN = 1 << 10;
+    static final int HAS_DISPLAY_NAME = 1 << 11;
+    static final int HAS_GREETING = 1 << 12;
+    static final int HAS_FAREWELL = 1 << 13;
+    static final int HAS_ENTER_ACTION_BAR = 1 << 14;
+    static final int HAS_EXIT_ACTION_BAR = 1 << 15;
+    static final int HAS_ENTER_TITLE = 1 << 16;
+    static final int HAS_EXIT_TITLE = 1 << 17;
+    static final int HAS_CLAN_DATA = 1 << 18;
+    static final int HAS_ECONOMY_DATA = 1 << 19;
+    static final int HAS_ENTER_TITLE_TIMES = 1 << 20;
+    static final int HAS_EXIT_TITLE_TIMES = 1 << 21;
+
+    // economy flags
+    static final int FOR_SALE = 1;
+    static final int FOR_RENT = 1 << 1;
+    static final int RENT_BREAK_ABILITY = 1 << 2;
+    static final int RENT_STRIP_NBT = 1 << 3;
+    static final int HAS_RENT_SIGN = 1 << 4;
+    static final int HAS_SALE_SIGN = 1 << 5;
+    static final int HAS_RENT_PAST_DUE = 1 << 6;
+    static final int HAS_TAX_PAST_DUE = 1 << 7;
+    static final int HAS_RENT_START = 1 << 8;
+    static final int HAS_RENT_END = 1 << 9;
+    static final int HAS_SALE_END = 1 << 10;
+
+    private static final PaymentType[] PAYMENT_TYPES = PaymentType.values();
+    private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+    private static final TransactionResultType[] TRANSACTION_RESULT_TYPES = TransactionResultType.values();
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final UUID worldUniqueId;
+    private final int version;
+    private final boolean compressed;
+    private final int claimCount;
+    private final int uniqueIdCount;
+    private final int indexOffset;
+    private final int recordsOffset;
+    private final int[] stringOffsets;
+    private final String[] strings;
+    private volatile @Nullable Map<UUID, Integer> claimIndex;
+
+    private ClaimSegment(Path file, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a claim segment");
+        }
+        this.version = buffer.getShort(4);
+        if (this.version < 1 || this.version > VERSION) {
+            throw new IOException("Unsupported claim segment version " + this.version + " in " + file);
+        }
+        this.compressed = (buffer.getShort(6) & COMPRESSED) != 0;
+        this.worldUniqueId = new UUID(buffer.getLong(8), buffer.getLong(16));
+        this.claimCount = buffer.getInt(24);
+        this.uniqueIdCount = buffer.getInt(28);
+        final int stringCount = buffer.getInt(32);
+        final int stringPoolOffset = buffer.getInt(36);
+        this.indexOffset = buffer.getInt(40);
+        this.recordsOffset = buffer.getInt(44);
+        if (stringPoolOffset != HEADER_SIZE + this.uniqueIdCount * 16 || this.indexOffset < stringPoolOffset
+                || this.recordsOffset != this.indexOffset + this.claimCount * INDEX_ENTRY_SIZE || this.recordsOffset > buffer.capacity()) {
+            throw new IOException("Corrupt claim segment header in " + file);
+        }
+        this.stringOffsets = new int[stringCount];
+        this.strings = new String[stringCount];
+        final ByteBuffer pool = this.slice(stringPoolOffset);
+        for (int i = 0; i < stringCount; i++) {
+            this.stringOffsets[i] = pool.position();
+            final int header = Varints.readVarInt(pool);
+            if ((header & 1) != 0) {
+                Varints.readVarInt(pool);
+            }
+            pool.position(pool.position() + (header >>> 1));
+        }
+        if (pool.position() != this.indexOffset) {
+            throw new IOException("Corrupt claim segment string pool in " + file);
+        }
+    }
+
+    /**
+     * Maps a segment file.
+     * 
+     * @param file The segment file
+     * @return The segment
+     * @throws IOException If the file could not be read or is not a segment
+     */
+    public static ClaimSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ClaimSegment(file, buffer);
+        }
+    }
+
+    public Path getFile() {
+        return this.file;
+    }
+
+    public UUID getWorldUniqueId() {
+        return this.worldUniqueId;
+    }
+
+    /**
+     * Gets whether long strings of this segment are compressed.
+     * 
+     * @return Whether compressed
+     */
+    public boolean isCompressed() {
+        return this.compressed;
+    }
+
+    /**
+     * Gets the amount of claims in this segment.
+     * 
+     * @return The amount of claims
+     */
+    public int size() {
+        return this.claimCount;
+    }
+
+    int byteSize() {
+        return this.buffer.capacity();
+    }
+
+    /**
+     * Gets the unique id of the claim at an index, without decoding it.
+     * 
+     * @param index The index
+     * @return The unique id
+     */
+    public UUID getUniqueId(int index) {
+        return this.uniqueId(this.buffer.getInt(this.indexEntry(index)));
+    }
+
+    /**
+     * Gets the index of a claim.
+     * 
+     * @param uniqueId The unique id of the claim
+     * @return The index, or -1 if not in this segment
+     */
+    public int indexOf(UUID uniqueId) {
+        Map<UUID, Integer> claimIndex = this.claimIndex;
+        if (claimIndex == null) {
+            claimIndex = new HashMap<>(this.claimCount * 4 / 3 + 1);
+            for (int i = 0; i < this.claimCount; i++) {
+                claimIndex.put(this.getUniqueId(i), i);
+            }
+            this.claimIndex = claimIndex;
+        }
+        final Integer index = claimIndex.get(uniqueId);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Decodes the claim at an index.
+     * 
+     * @param index The index
+     * @return The claim record
+     * @throws IllegalArgumentException If the record is malformed
+     */
+    public ClaimRecord read(int index) {
+        final int entry = this.indexEntry(index);
+        final UUID uniqueId = this.uniqueId(this.buffer.getInt(entry));
+        final ByteBuffer in = this.slice(this.recordsOffset + this.buffer.getInt(entry + 4));
+
+        final int flags = Varints.readVarInt(in);
+        final UUID owner = this.uniqueId(Varints.readVarInt(in));
+        final ClaimType type = this.claimType(Varints.readVarInt(in));
+        final int x = Varints.readSignedVarInt(in);
+        final int y = Varints.readSignedVarInt(in);
+        final int z = Varints.readSignedVarInt(in);
+        final Vector3i lesser = new Vector3i(x, y, z);
+        final Vector3i greater = new Vector3i(x + Varints.readSignedVarInt(in), y + Varints.readSignedVarInt(in), z + Varints.readSignedVarInt(in));
+        final InMemoryClaimData data = new InMemoryClaimData(this.worldUniqueId, owner, type, lesser, greater);
+        if ((flags & HAS_PARENT) != 0) {
+            data.setParentUniqueId(this.uniqueId(Varints.readVarInt(in)));
+        }
+        if ((flags & HAS_GROUP) != 0) {
+            data.setClaimGroupUniqueId(this.uniqueId(Varints.readVarInt(in)));
+        }
+        if ((flags & HAS_SPAWN) != 0) {
+            data.setSpawnPos(x + Varints.readSignedVarInt(in), y + Varints.readSignedVarInt(in), z + Varints.readSignedVarInt(in));
+        }
+        if ((flags & HAS_DISPLAY_NAME) != 0) {
+            data.setDisplayName(this.component(in));
+        }
+        if ((flags & HAS_GREETING) != 0) {
+            data.setGreeting(this.component(in));
+        }
+        if ((flags & HAS_FAREWELL) != 0) {
+            data.setFarewell(this.component(in));
+        }
+        if ((flags & HAS_ENTER_ACTION_BAR) != 0) {
+            data.setEnterActionBar(this.component(in));
+        }
+        if ((flags & HAS_EXIT_ACTION_BAR) != 0) {
+            data.setExitActionBar(this.component(in));
+        }
+        if ((flags & HAS_ENTER_TITLE) != 0) {
+            data.setEnterTitle(this.title(in, (flags & HAS_ENTER_TITLE_TIMES) != 0));
+        }
+        if ((flags & HAS_EXIT_TITLE) != 0) {
+            data.setExitTitle(this.title(in, (flags & HAS_EXIT_TITLE_TIMES) != 0));
+        }
+        final long created = Varints.readSignedVarLong(in);
+        data.setDateCreated(Instant.ofEpochSecond(created, Varints.readVarInt(in)));
+        final long lastActive = created + Varints.readSignedVarLong(in);
+        data.setDateLastActive(Instant.ofEpochSecond(lastActive, Varints.readVarInt(in)));
+        data.setDenyMessages((flags & DENY_MESSAGES) != 0);
+        data.setAllowExpiration((flags & EXPIRATION) != 0);
+        data.setCuboid((flags & CUBOID) != 0);
+        data.setInheritParent((flags & INHERIT_PARENT) != 0);
+        data.setResizable((flags & RESIZABLE) != 0);
+        data.setExpired((flags & EXPIRED) != 0);
+        data.setRequiresClaimBlocks((flags & REQUIRES_CLAIM_BLOCKS) != 0);
+        data.setSizeRestrictions((flags & SIZE_RESTRICTIONS) != 0);
+        data.setAccessors(this.uniqueIds(in));
+        data.setBuilders(this.uniqueIds(in));
+        data.setContainers(this.uniqueIds(in));
+        data.setManagers(this.uniqueIds(in));
+        data.setResidents(this.uniqueIds(in));
+        data.setAccessorGroups(this.strings(in));
+        data.setBuilderGroups(this.strings(in));
+        data.setContainerGroups(this.strings(in));
+        data.setManagerGroups(this.strings(in));
+        data.setResidentGroups(this.strings(in));
+        if (this.version > 1) {
+            final Set<ClaimAttribute> attributes = new LinkedHashSet<>();
+            for (String attribute : this.strings(in)) {
+                attributes.add(ClaimTextFormat.requireClaimAttribute(attribute));
+            }
+            data.setAttributes(attributes);
+        }
+        if ((flags & HAS_CLAN_DATA) != 0) {
+            final ClanData clanData = data.getOrCreateClanData();
+            clanData.setAccessorTags(this.strings(in));
+            clanData.setBuilderTags(this.strings(in));
+            clanData.setContainerTags(this.strings(in));
+            clanData.setManagerTags(this.strings(in));
+            clanData.setResidentTags(this.strings(in));
+        }
+        if ((flags & HAS_ECONOMY_DATA) != 0) {
+            this.readEconomy(in, data.getOrCreateEconomyData(), lesser);
+        }
+        // the record is what storage holds
+        data.clearDirtyFields();
+        return new ClaimRecord(uniqueId, data);
+    }
+
+    private void readEconomy(ByteBuffer in, EconomyData economy, Vector3i lesser) {
+        final int flags = Varints.readVarInt(in);
+        economy.setForSale((flags & FOR_SALE) != 0);
+        economy.setForRent((flags & FOR_RENT) != 0);
+        economy.setRentBreakAbility((flags & RENT_BREAK_ABILITY) != 0);
+        economy.setRentStripNbt((flags & RENT_STRIP_NBT) != 0);
+        economy.setPaymentType(ordinal(PAYMENT_TYPES, Varints.readVarInt(in)));
+        economy.setRentRate(in.getDouble());
+        economy.setSalePrice(in.getDouble());
+        economy.setTaxBalance(in.getDouble());
+        economy.setRentMinTime(Varints.readSignedVarInt(in));
+        economy.setRentMaxTime(Varints.readSignedVarInt(in));
+        if ((flags & HAS_RENT_SIGN) != 0) {
+            economy.setRentSignPosition(lesser.getX() + Varints.readSignedVarInt(in), lesser.getY() + Varints.readSignedVarInt(in),
+                    lesser.getZ() + Varints.readSignedVarInt(in));
+        }
+        if ((flags & HAS_SALE_SIGN) != 0) {
+            economy.setSaleSignPosition(lesser.getX() + Varints.readSignedVarInt(in), lesser.getY() + Varints.readSignedVarInt(in),
+                    lesser.getZ() + Varints.readSignedVarInt(in));
+        }
+        economy.setRentPastDueDate((flags & HAS_RENT_PAST_DUE) != 0 ? instant(in) : null);
+        economy.setTaxPastDueDate((flags & HAS_TAX_PAST_DUE) != 0 ? instant(in) : null);
+        economy.setRentStartDate((flags & HAS_RENT_START) != 0 ? instant(in) : null);
+        economy.setRentEndDate((flags & HAS_RENT_END) != 0 ? instant(in) : null);
+        economy.setSaleEndDate((flags & HAS_SALE_END) != 0 ? instant(in) : null);
+        economy.getRenters().addAll(this.uniqueIds(in));
+        economy.getDelinquentRenters().addAll(this.uniqueIds(in));
+        final int balances = Varints.readVarInt(in);
+        for (int i = 0; i < balances; i++) {
+            economy.setRentBalance(this.uniqueId(Varints.readVarInt(in)), in.getDouble());
+        }
+        final int transactions = Varints.readVarInt(in);
+        for (int i = 0; i < transactions; i++) {
+            final TransactionType type = ordinal(TRANSACTION_TYPES, Varints.readVarInt(in));
+            final TransactionResultType resultType = ordinal(TRANSACTION_RESULT_TYPES, Varints.readVarInt(in));
+            final int source = Varints.readVarInt(in);
+            economy.addPaymentTransaction(new InMemoryPaymentTransaction(type, resultType, source == 0 ? null : this.uniqueId(source - 1),
+                    instant(in), in.getDouble()));
+        }
+    }
+
+    /**
+     * Decodes the header of the claim at an index, the leading fields of
+     * its record.
+     * 
+     * @param index The index
+     * @return The claim header
+     * @throws IllegalArgumentException If the record is malformed
+     */
+    public ClaimHeader readHeader(int index) {
+        final int entry = this.indexEntry(index);
+        final ByteBuffer in = this.slice(this.recordsOffset + this.buffer.getInt(entry + 4));
+        final int flags = Varints.readVarInt(in);
+        final UUID owner = this.uniqueId(Varints.readVarInt(in));
+        final ClaimType type = this.claimType(Varints.readVarInt(in));
+        final int x = Varints.readSignedVarInt(in);
+        final int y = Varints.readSignedVarInt(in);
+        final int z = Varints.readSignedVarInt(in);
+        final Vector3i lesser = new Vector3i(x, y, z);
+        final Vector3i greater = new Vector3i(x + Varints.readSignedVarInt(in), y + Varints.readSignedVarInt(in), z + Varints.readSignedVarInt(in));
+        final UUID parent = (flags & HAS_PARENT) != 0 ? this.uniqueId(Varints.readVarInt(in)) : null;
+        return new ClaimHeader(this.worldUniqueId, owner, type, parent, lesser, greater, (flags & CUBOID) != 0);
+    }
+
+    /**
+     * Decodes every claim of this segment.
+     * 
+     * @return The claim records
+     */
+    public List<ClaimRecord> readAll() {
+        final List<ClaimRecord> records = new ArrayList<>(this.claimCount);
+        for (int i = 0; i < this.claimCount; i++) {
+            records.add(this.read(i));
+        }
+        return records;
+    }
+
+    /**
+     * Loads every claim of this segment into a claim manager, adding
+     * parents before their children.
+     * 
+     * @param claimManager The claim manager
+     * @return The number of claims loaded
+     */
+    public int loadInto(InMemoryClaimManager claimManager) {
+        return ClaimFileStore.load(claimManager, this.readAll());
+    }
+
+    /**
+     * Adds every claim of this segment to a claim manager with only its
+     * header decoded. The data of a claim is decoded from this segment when
+     * first accessed.
+     * 
+     * @param claimManager The claim manager
+     * @return The number of claims added
+     */
+    public int loadLazily(InMemoryClaimManager claimManager) {
+        final InMemoryClaim[] claims = new InMemoryClaim[this.claimCount];
+        final ClaimHeader[] headers = new ClaimHeader[this.claimCount];
+        for (int i = 0; i < this.claimCount; i++) {
+            final int index = i;
+            headers[i] = this.readHeader(i);
+            claims[i] = new InMemoryClaim(this.getUniqueId(i), claimManager, headers[i], () -> this.read(index).getData());
+        }
+        final boolean[] added = new boolean[this.claimCount];
+        for (int i = 0; i < this.claimCount; i++) {
+            this.addLazily(claimManager, i, claims, headers, added);
+        }
+        return this.claimCount;
+    }
+
+    private void addLazily(InMemoryClaimManager claimManager, int index, InMemoryClaim[] claims, ClaimHeader[] headers, boolean[] added) {
+        if (added[index]) {
+            return;
+        }
+        added[index] = true;
+        final UUID parentUniqueId = headers[index].getParentUniqueId();
+        final int parentIndex = parentUniqueId == null ? -1 : this.indexOf(parentUniqueId);
+        if (parentIndex != -1) {
+            this.addLazily(claimManager, parentIndex, claims, headers, added);
+        }
+        claimManager.addClaim(claims[index], parentIndex == -1 ? null : claims[parentIndex]);
+    }
+
+    /**
+     * Writes every claim of this segment to a file store in the text format.
+     * 
+     * @param store The file store
+     * @throws IOException If a record could not be written
+     */
+    public void exportTo(ClaimFileStore store) throws IOException {
+        store.writeRecords(this.readAll());
+    }
+
+    /**
+     * Writes every claim of a file store in a world to a segment.
+     * 
+     * @param store The file store
+     * @param file The segment file
+     * @param worldUniqueId The world of the claims
+     * @param compress Whether to compress long strings
+     * @return The segment
+     * @throws IOException If a file could not be read or written
+     */
+    public static ClaimSegment importFrom(ClaimFileStore store, Path file, UUID worldUniqueId, boolean compress) throws IOException {
+        ClaimSegmentWriter.write(file, worldUniqueId, store.loadAll(), compress);
+        return open(file);
+    }
+
+    private int indexEntry(int index) {
+        if (index < 0 || index >= this.claimCount) {
+            throw new IndexOutOfBoundsException("Claim index " + index + " of " + this.claimCount);
+        }
+        return this.indexOffset + index * INDEX_ENTRY_SIZE;
+    }
+
+    private ByteBuffer slice(int position) {
+        final ByteBuffer slice = this.buffer.duplicate();
+        slice.position(position);
+        return slice;
+    }
+
+    private ClaimType claimType(int id) {
+        final String typeId = this.string(id);
+        final ClaimType type = ClaimTextFormat.getClaimType(typeId);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown claim type " + typeId);
+        }
+        return type;
+    }
+
+    private UUID uniqueId(int id) {
+        if (id < 0 || id >= this.uniqueIdCount) {
+            throw new IllegalArgumentException("Unique id " + id + " out of table");
+        }
+        final int offset = HEADER_SIZE + id * 16;
+        return new UUID(this.buffer.getLong(offset), this.buffer.getLong(offset + 8));
+    }
+
+    private String string(int id) {
+        if (id < 0 || id >= this.strings.length) {
+            throw new IllegalArgumentException("String " + id + " out of pool");
+        }
+        String value = this.strings[id];
+        if (value == null) {
+            value = this.decodeString(this.stringOffsets[id]);
+            // racing threads decode the same string
+            this.strings[id] = value;
+        }
+        return value;
+    }
+
+    private String decodeString(int offset) {
+        final ByteBuffer in = this.slice(offset);
+        final int header = Varints.readVarInt(in);
+        final int length = header >>> 1;
+        if ((header & 1) == 0) {
+            final byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        final byte[] bytes = new byte[Varints.readVarInt(in)];
+        final byte[] input = new byte[length];
+        in.get(input);
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            if (inflater.inflate(bytes) != bytes.length || !inflater.finished()) {
+                throw new IllegalArgumentException("Malformed compressed string");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Malformed compressed string", e);
+        } finally {
+            inflater.end();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Component component(ByteBuffer in) {
+        final String value = this.string(Varints.readVarInt(in));
+        // version 1 stored plain text
+        return this.version == 1 ? Component.text(value) : ClaimTextFormat.parseComponent(value);
+    }
+
+    private Title title(ByteBuffer in, boolean hasTimes) {
+        final Component title = this.component(in);
+        final Component subtitle = this.component(in);
+        if (this.version == 1) {
+            return Title.title(title, subtitle);
+        }
+        return Title.title(title, subtitle, hasTimes ? Title.Times.times(duration(in), duration(in), duration(in)) : null);
+    }
+
+    private static Duration duration(ByteBuffer in) {
+        return Duration.ofSeconds(Varints.readSignedVarLong(in), Varints.readVarInt(in));
+    }
+
+    private static Instant instant(ByteBuffer in) {
+        return Instant.ofEpochSecond(Varints.readSignedVarLong(in), Varints.readVarInt(in));
+    }
+
+    private static <T> T ordinal(T[] values, int ordinal) {
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IllegalArgumentException("Ordinal " + ordinal + " out of range");
+        }
+        return values[ordinal];
+    }
+
+    private Set<UUID> uniqueIds(ByteBuffer in) {
+        final int size = Varints.readVarInt(in);
+        final Set<UUID> values = new LinkedHashSet<>();
+        for (int i = 0; i < size; i++) {
+            values.add(this.uniqueId(Varints.readVarInt(in)));
+        }
+        return values;
+    }
+
+    private Set<String> strings(ByteBuffer in) {
+        final int size = Varints.readVarInt(in);
+        final Set<String> values = new LinkedHashSet<>();
+        for (int i = 0; i < size; i++) {
+            values.add(this.string(Varints.readVarInt(in)));
+        }
+        return values;
+    }
+}
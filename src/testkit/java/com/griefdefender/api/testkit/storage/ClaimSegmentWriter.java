@@ -0,0 +1,454 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit.storage;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.data.ClaimDataGetter;
+import com.griefdefender.api.data.ClanDataGetter;
+import com.griefdefender.api.data.EconomyDataGetter;
+import com.griefdefender.api.economy.PaymentTransaction;
+import com.griefdefender.api.economy.TransactionType;
+import com.griefdefender.api.testkit.InMemoryRegistry;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Builds a {@link ClaimSegment} file from the claims of one world.
+ * 
+ * <br><br>Records are encoded as they are added, interning every
+ * {@link UUID} and string into the tables written ahead of them. Components
+ * are interned as JSON.
+ */
+public final class ClaimSegmentWriter {
+
+    private static final int COMPRESS_THRESHOLD = 64;
+
+    private final UUID worldUniqueId;
+    private final boolean compress;
+    private final Map<UUID, Integer> uniqueIds = new HashMap<>();
+    private final List<UUID> uniqueIdTable = new ArrayList<>();
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final ByteArrayOutputStream stringPool = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream records = new ByteArrayOutputStream();
+    private final List<int[]> index = new ArrayList<>();
+    private final @Nullable Deflater deflater;
+
+    /**
+     * Creates a writer.
+     * 
+     * @param worldUniqueId The world of the claims
+     * @param compress Whether to compress long strings such as component text
+     */
+    public ClaimSegmentWriter(UUID worldUniqueId, boolean compress) {
+        this.worldUniqueId = worldUniqueId;
+        this.compress = compress;
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+    }
+
+    /**
+     * Gets the amount of claims added.
+     * 
+     * @return The amount of claims
+     */
+    public int size() {
+        return this.index.size();
+    }
+
+    /**
+     * Adds a claim.
+     * 
+     * @param uniqueId The unique id of the claim
+     * @param data The claim data
+     * @throws IllegalArgumentException If the claim is of another world
+     */
+    public void add(UUID uniqueId, ClaimDataGetter data) {
+        if (!this.worldUniqueId.equals(data.getWorldUniqueId())) {
+            throw new IllegalArgumentException("Claim " + uniqueId + " is not in world " + this.worldUniqueId);
+        }
+        if (data.getOwnerUniqueId() == null || data.getLesserBoundaryCorner() == null || data.getGreaterBoundaryCorner() == null) {
+            throw new IllegalArgumentException("Claim " + uniqueId + " has no owner or boundaries");
+        }
+        final ByteArrayOutputStream out = this.records;
+        this.index.add(new int[] {this.uniqueId(uniqueId), out.size()});
+
+        final Vector3i lesser = data.getLesserBoundaryCorner();
+        final Vector3i greater = data.getGreaterBoundaryCorner();
+        final Vector3i spawn = data.getSpawnPos();
+        final UUID parent = data.getParentUniqueId();
+        final UUID group = data.getClaimGroupUniqueId();
+        final String displayName = text(data.getDisplayNameComponent());
+        final String greeting = text(data.getGreeting());
+        final String farewell = text(data.getFarewell());
+        final String enterActionBar = text(data.getEnterActionBar());
+        final String exitActionBar = text(data.getExitActionBar());
+        final Title enterTitle = data.getEnterTitle().orElse(null);
+        final Title exitTitle = data.getExitTitle().orElse(null);
+        final ClanDataGetter clanData = data.getClanData();
+        final EconomyDataGetter economyData = data.getEconomyData();
+        int flags = 0;
+        flags |= data.allowDenyMessages() ? ClaimSegment.DENY_MESSAGES : 0;
+        flags |= data.allowExpiration() ? ClaimSegment.EXPIRATION : 0;
+        flags |= data.isCuboid() ? ClaimSegment.CUBOID : 0;
+        flags |= data.doesInheritParent() ? ClaimSegment.INHERIT_PARENT : 0;
+        flags |= data.isResizable() ? ClaimSegment.RESIZABLE : 0;
+        flags |= data.isExpired() ? ClaimSegment.EXPIRED : 0;
+        flags |= data.requiresClaimBlocks() ? ClaimSegment.REQUIRES_CLAIM_BLOCKS : 0;
+        flags |= data.hasSizeRestrictions() ? ClaimSegment.SIZE_RESTRICTIONS : 0;
+        flags |= parent != null ? ClaimSegment.HAS_PARENT : 0;
+        flags |= group != null ? ClaimSegment.HAS_GROUP : 0;
+        flags |= spawn != null ? ClaimSegment.HAS_SPAWN : 0;
+        flags |= displayName != null ? ClaimSegment.HAS_DISPLAY_NAME : 0;
+        flags |= greeting != null ? ClaimSegment.HAS_GREETING : 0;
+        flags |= farewell != null ? ClaimSegment.HAS_FAREWELL : 0;
+        flags |= enterActionBar != null ? ClaimSegment.HAS_ENTER_ACTION_BAR : 0;
+        flags |= exitActionBar != null ? ClaimSegment.HAS_EXIT_ACTION_BAR : 0;
+        flags |= enterTitle != null ? ClaimSegment.HAS_ENTER_TITLE : 0;
+        flags |= exitTitle != null ? ClaimSegment.HAS_EXIT_TITLE : 0;
+        flags |= clanData != null ? ClaimSegment.HAS_CLAN_DATA : 0;
+        flags |= economyData != null ? ClaimSegment.HAS_ECONOMY_DATA : 0;
+        flags |= enterTitle != null && enterTitle.times() != null ? ClaimSegment.HAS_ENTER_TITLE_TIMES : 0;
+        flags |= exitTitle != null && exitTitle.times() != null ? ClaimSegment.HAS_EXIT_TITLE_TIMES : 0;
+
+        Varints.writeVarInt(out, flags);
+        Varints.writeVarInt(out, this.uniqueId(data.getOwnerUniqueId()));
+        Varints.writeVarInt(out, this.string(InMemoryRegistry.getCatalogId(data.getType())));
+        Varints.writeSignedVarInt(out, lesser.getX());
+        Varints.writeSignedVarInt(out, lesser.getY());
+        Varints.writeSignedVarInt(out, lesser.getZ());
+        // greater is stored as the size of claim, small and positive
+        Varints.writeSignedVarInt(out, greater.getX() - lesser.getX());
+        Varints.writeSignedVarInt(out, greater.getY() - lesser.getY());
+        Varints.writeSignedVarInt(out, greater.getZ() - lesser.getZ());
+        if (parent != null) {
+            Varints.writeVarInt(out, this.uniqueId(parent));
+        }
+        if (group != null) {
+            Varints.writeVarInt(out, this.uniqueId(group));
+        }
+        if (spawn != null) {
+            Varints.writeSignedVarInt(out, spawn.getX() - lesser.getX());
+            Varints.writeSignedVarInt(out, spawn.getY() - lesser.getY());
+            Varints.writeSignedVarInt(out, spawn.getZ() - lesser.getZ());
+        }
+        this.writeString(displayName);
+        this.writeString(greeting);
+        this.writeString(farewell);
+        this.writeString(enterActionBar);
+        this.writeString(exitActionBar);
+        if (enterTitle != null) {
+            this.writeTitle(enterTitle);
+        }
+        if (exitTitle != null) {
+            this.writeTitle(exitTitle);
+        }
+        final Instant created = data.getDateCreated();
+        final Instant lastActive = data.getDateLastActive();
+        Varints.writeSignedVarLong(out, created.getEpochSecond());
+        Varints.writeVarInt(out, created.getNano());
+        Varints.writeSignedVarLong(out, lastActive.getEpochSecond() - created.getEpochSecond());
+        Varints.writeVarInt(out, lastActive.getNano());
+        this.writeUniqueIds(data.getAccessors());
+        this.writeUniqueIds(data.getBuilders());
+        this.writeUniqueIds(data.getContainers());
+        this.writeUniqueIds(data.getManagers());
+        this.writeUniqueIds(data.getResidents());
+        this.writeStrings(data.getAccessorGroups());
+        this.writeStrings(data.getBuilderGroups());
+        this.writeStrings(data.getContainerGroups());
+        this.writeStrings(data.getManagerGroups());
+        this.writeStrings(data.getResidentGroups());
+        this.writeStrings(ClaimTextFormat.attributeIds(data.getAttributes()));
+        if (clanData != null) {
+            this.writeStrings(clanData.getAccessorTags());
+            this.writeStrings(clanData.getBuilderTags());
+            this.writeStrings(clanData.getContainerTags());
+            this.writeStrings(clanData.getManagerTags());
+            this.writeStrings(clanData.getResidentTags());
+        }
+        if (economyData != null) {
+            this.writeEconomy(economyData, lesser);
+        }
+    }
+
+    private void writeEconomy(EconomyDataGetter economy, Vector3i lesser) {
+        final ByteArrayOutputStream out = this.records;
+        final Vector3i rentSign = economy.getRentSignPosition();
+        final Vector3i saleSign = economy.getSaleSignPosition();
+        final Instant rentPastDue = economy.getRentPastDueDate();
+        final Instant taxPastDue = economy.getTaxPastDueDate();
+        final Instant rentStart = economy.getRentStartDate();
+        final Instant rentEnd = economy.getRentEndDate();
+        final Instant saleEnd = economy.getSaleEndDate();
+        int flags = 0;
+        flags |= economy.isForSale() ? ClaimSegment.FOR_SALE : 0;
+        flags |= economy.isForRent() ? ClaimSegment.FOR_RENT : 0;
+        flags |= economy.getRentBreakAbility() ? ClaimSegment.RENT_BREAK_ABILITY : 0;
+        flags |= economy.getRentStripNbt() ? ClaimSegment.RENT_STRIP_NBT : 0;
+        flags |= rentSign != null ? ClaimSegment.HAS_RENT_SIGN : 0;
+        flags |= saleSign != null ? ClaimSegment.HAS_SALE_SIGN : 0;
+        flags |= rentPastDue != null ? ClaimSegment.HAS_RENT_PAST_DUE : 0;
+        flags |= taxPastDue != null ? ClaimSegment.HAS_TAX_PAST_DUE : 0;
+        flags |= rentStart != null ? ClaimSegment.HAS_RENT_START : 0;
+        flags |= rentEnd != null ? ClaimSegment.HAS_RENT_END : 0;
+        flags |= saleEnd != null ? ClaimSegment.HAS_SALE_END : 0;
+
+        Varints.writeVarInt(out, flags);
+        Varints.writeVarInt(out, economy.getPaymentType().ordinal());
+        this.writeDouble(economy.getRentRate());
+        this.writeDouble(economy.getSalePrice());
+        this.writeDouble(economy.getTaxBalance());
+        Varints.writeSignedVarInt(out, economy.getRentMinTime());
+        Varints.writeSignedVarInt(out, economy.getRentMaxTime());
+        if (rentSign != null) {
+            Varints.writeSignedVarInt(out, rentSign.getX() - lesser.getX());
+            Varints.writeSignedVarInt(out, rentSign.getY() - lesser.getY());
+            Varints.writeSignedVarInt(out, rentSign.getZ() - lesser.getZ());
+        }
+        if (saleSign != null) {
+            Varints.writeSignedVarInt(out, saleSign.getX() - lesser.getX());
+            Varints.writeSignedVarInt(out, saleSign.getY() - lesser.getY());
+            Varints.writeSignedVarInt(out, saleSign.getZ() - lesser.getZ());
+        }
+        this.writeInstant(rentPastDue);
+        this.writeInstant(taxPastDue);
+        this.writeInstant(rentStart);
+        this.writeInstant(rentEnd);
+        this.writeInstant(saleEnd);
+        this.writeUniqueIds(economy.getRenters());
+        this.writeUniqueIds(economy.getDelinquentRenters());
+        final Map<UUID, Double> balances = economy.getRentBalances();
+        Varints.writeVarInt(out, balances.size());
+        for (Map.Entry<UUID, Double> balance : balances.entrySet()) {
+            Varints.writeVarInt(out, this.uniqueId(balance.getKey()));
+            this.writeDouble(balance.getValue());
+        }
+        final List<PaymentTransaction> transactions = new ArrayList<>();
+        for (TransactionType type : TransactionType.values()) {
+            transactions.addAll(economy.getPaymentTransactions(type));
+        }
+        Varints.writeVarInt(out, transactions.size());
+        for (PaymentTransaction transaction : transactions) {
+            final UUID source = transaction.getSource();
+            Varints.writeVarInt(out, transaction.getType().ordinal());
+            Varints.writeVarInt(out, transaction.getResultType().ordinal());
+            // 0 for no source
+            Varints.writeVarInt(out, source == null ? 0 : this.uniqueId(source) + 1);
+            this.writeInstant(transaction.getTimestamp());
+            this.writeDouble(transaction.getAmount());
+        }
+    }
+
+    /**
+     * Writes the segment, replacing any existing file atomically.
+     * 
+     * @param file The segment file
+     * @return The size of the file in bytes
+     * @throws IOException If the file could not be written
+     */
+    public long write(Path file) throws IOException {
+        final int uniqueIdTableOffset = ClaimSegment.HEADER_SIZE;
+        final int stringPoolOffset = uniqueIdTableOffset + this.uniqueIdTable.size() * 16;
+        final int indexOffset = stringPoolOffset + this.stringPool.size();
+        final int recordsOffset = indexOffset + this.index.size() * ClaimSegment.INDEX_ENTRY_SIZE;
+        final ByteBuffer buffer = ByteBuffer.allocate(recordsOffset + this.records.size());
+        buffer.putInt(ClaimSegment.MAGIC);
+        buffer.putShort((short) ClaimSegment.VERSION);
+        buffer.putShort((short) (this.compress ? ClaimSegment.COMPRESSED : 0));
+        buffer.putLong(this.worldUniqueId.getMostSignificantBits());
+        buffer.putLong(this.worldUniqueId.getLeastSignificantBits());
+        buffer.putInt(this.index.size());
+        buffer.putInt(this.uniqueIdTable.size());
+        buffer.putInt(this.strings.size());
+        buffer.putInt(stringPoolOffset);
+        buffer.putInt(indexOffset);
+        buffer.putInt(recordsOffset);
+        for (UUID uniqueId : this.uniqueIdTable) {
+            buffer.putLong(uniqueId.getMostSignificantBits());
+            buffer.putLong(uniqueId.getLeastSignificantBits());
+        }
+        buffer.put(this.stringPool.toByteArray());
+        for (int[] entry : this.index) {
+            buffer.putInt(entry[0]);
+            buffer.putInt(entry[1]);
+        }
+        buffer.put(this.records.toByteArray());
+
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, buffer.array());
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return buffer.capacity();
+    }
+
+    /**
+     * Writes every claim to a segment.
+     * 
+     * @param file The segment file
+     * @param worldUniqueId The world of the claims
+     * @param records The claims
+     * @param compress Whether to compress long strings
+     * @return The size of the file in bytes
+     * @throws IOException If the file could not be written
+     */
+    public static long write(Path file, UUID worldUniqueId, Collection<ClaimRecord> records, boolean compress) throws IOException {
+        final ClaimSegmentWriter writer = new ClaimSegmentWriter(worldUniqueId, compress);
+        for (ClaimRecord record : records) {
+            writer.add(record.getUniqueId(), record.getData());
+        }
+        return writer.write(file);
+    }
+
+    private void writeTitle(Title title) {
+        this.writeString(text(title.title()));
+        this.writeString(text(title.subtitle()));
+        final Title.Times times = title.times();
+        if (times != null) {
+            this.writeDuration(times.fadeIn());
+            this.writeDuration(times.stay());
+            this.writeDuration(times.fadeOut());
+        }
+    }
+
+    private void writeDuration(Duration duration) {
+        Varints.writeSignedVarLong(this.records, duration.getSeconds());
+        Varints.writeVarInt(this.records, duration.getNano());
+    }
+
+    private void writeInstant(@Nullable Instant instant) {
+        if (instant != null) {
+            Varints.writeSignedVarLong(this.records, instant.getEpochSecond());
+            Varints.writeVarInt(this.records, instant.getNano());
+        }
+    }
+
+    /**
+     * Writes the bits of a double as 8 big-endian bytes.
+     */
+    private void writeDouble(double value) {
+        final long bits = Double.doubleToRawLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            this.records.write((int) (bits >>> shift));
+        }
+    }
+
+    private void writeString(@Nullable String value) {
+        if (value != null) {
+            Varints.writeVarInt(this.records, this.string(value));
+        }
+    }
+
+    private void writeUniqueIds(Collection<UUID> values) {
+        Varints.writeVarInt(this.records, values.size());
+        for (UUID value : values) {
+            Varints.writeVarInt(this.records, this.uniqueId(value));
+        }
+    }
+
+    private void writeStrings(Collection<String> values) {
+        Varints.writeVarInt(this.records, values.size());
+        for (String value : values) {
+            Varints.writeVarInt(this.records, this.string(value));
+        }
+    }
+
+    private int uniqueId(UUID value) {
+        final Integer id = this.uniqueIds.get(value);
+        if (id != null) {
+            return id;
+        }
+        final int next = this.uniqueIdTable.size();
+        this.uniqueIds.put(value, next);
+        this.uniqueIdTable.add(value);
+        return next;
+    }
+
+    /**
+     * Interns a string into the pool, as <code>length &lt;&lt; 1 | compressed</code>
+     * followed by the UTF-8 bytes, or the raw length and the deflated bytes.
+     */
+    private int string(String value) {
+        final Integer id = this.strings.get(value);
+        if (id != null) {
+            return id;
+        }
+        final int next = this.strings.size();
+        this.strings.put(value, next);
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        final byte[] compressed = this.compress(bytes);
+        if (compressed != null) {
+            Varints.writeVarInt(this.stringPool, compressed.length << 1 | 1);
+            Varints.writeVarInt(this.stringPool, bytes.length);
+            this.stringPool.write(compressed, 0, compressed.length);
+        } else {
+            Varints.writeVarInt(this.stringPool, bytes.length << 1);
+            this.stringPool.write(bytes, 0, bytes.length);
+        }
+        return next;
+    }
+
+    private byte @Nullable [] compress(byte[] bytes) {
+        if (this.deflater == null || bytes.length < COMPRESS_THRESHOLD) {
+            return null;
+        }
+        this.deflater.reset();
+        this.deflater.setInput(bytes);
+        this.deflater.finish();
+        final byte[] output = new byte[bytes.length];
+        final int length = this.deflater.deflate(output);
+        if (!this.deflater.finished() || length >= bytes.length) {
+            return null;
+        }
+        final byte[] compressed = new byte[length];
+        System.arraycopy(output, 0, compressed, 0, length);
+        return compressed;
+    }
+
+    private static @Nullable String text(Optional<Component> component) {
+        return component.map(ClaimTextFormat::serialize).orElse(null);
+    }
+
+    private static String text(Component component) {
+        return ClaimTextFormat.serialize(component);
+    }
+}
@@ -0,0 +1,586 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit.storage;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.GriefDefender;
+import com.griefdefender.api.claim.ClaimAttribute;
+import com.griefdefender.api.claim.ClaimType;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.api.data.ClaimData;
+import com.griefdefender.api.data.ClaimDataField;
+import com.griefdefender.api.data.ClanData;
+import com.griefdefender.api.data.EconomyData;
+import com.griefdefender.api.economy.PaymentTransaction;
+import com.griefdefender.api.economy.PaymentType;
+import com.griefdefender.api.economy.TransactionResultType;
+import com.griefdefender.api.economy.TransactionType;
+import com.griefdefender.api.testkit.InMemoryClaimData;
+import com.griefdefender.api.testkit.InMemoryPaymentTransaction;
+import com.griefdefender.api.testkit.InMemoryRegistry;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import net.kyori.adventure.title.Title;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The human readable claim format, one <code>key=value</code> line per
+ * field, mirroring the per-claim config files of the plugin.
+ * 
+ * <br><br>A patch holds only the lines of changed fields and is appended to
+ * the record, later lines replace earlier ones and a <code>-key</code> line
+ * clears a field.
+ * 
+ * <br><br>Note: Components are stored as JSON, keeping their style, click
+ * and hover events. Version 1 records stored them as plain text and are
+ * still read. Patches carry the version they were written with.
+ */
+public final class ClaimTextFormat {
+
+    public static final int VERSION = 2;
+
+    private static final Set<String> COMPONENT_KEYS = new HashSet<>(Arrays.asList("display-name", "greeting", "farewell",
+            "enter-action-bar", "exit-action-bar", "enter-title", "enter-subtitle", "exit-title", "exit-subtitle"));
+
+    private static final Map<String, ClaimType> CLAIM_TYPES = new HashMap<>();
+
+    static {
+        for (Field field : ClaimTypes.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && ClaimType.class.isAssignableFrom(field.getType())) {
+                try {
+                    final ClaimType type = (ClaimType) field.get(null);
+                    if (type != null) {
+                        CLAIM_TYPES.put(InMemoryRegistry.getCatalogId(type), type);
+                    }
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Encodes a full claim record.
+     * 
+     * @param uniqueId The unique id of the claim
+     * @param data The claim data
+     * @return The record text
+     */
+    public static String encode(UUID uniqueId, ClaimData data) {
+        return encode(uniqueId, data, null);
+    }
+
+    /**
+     * Encodes the changed fields of a claim as a patch, to be appended to
+     * its record.
+     * 
+     * @param data The claim data
+     * @param fields The changed fields
+     * @return The patch text
+     */
+    public static String encodePatch(ClaimData data, Set<ClaimDataField> fields) {
+        return encode(null, data, fields);
+    }
+
+    private static String encode(@Nullable UUID uniqueId, ClaimData data, @Nullable Set<ClaimDataField> fields) {
+        final StringBuilder builder = new StringBuilder(fields == null ? 512 : 64);
+        append(builder, "version", String.valueOf(VERSION));
+        if (fields == null) {
+            append(builder, "id", uniqueId);
+        }
+        append(builder, fields, ClaimDataField.WORLD, "world", data.getWorldUniqueId());
+        append(builder, fields, ClaimDataField.OWNER, "owner", data.getOwnerUniqueId());
+        append(builder, fields, ClaimDataField.PARENT, "parent", data.getParentUniqueId());
+        append(builder, fields, ClaimDataField.CLAIM_GROUP, "group", data.getClaimGroupUniqueId());
+        append(builder, fields, ClaimDataField.TYPE, "type", InMemoryRegistry.getCatalogId(data.getType()));
+        append(builder, fields, ClaimDataField.BOUNDARIES, "lesser", vector(data.getLesserBoundaryCorner()));
+        append(builder, fields, ClaimDataField.BOUNDARIES, "greater", vector(data.getGreaterBoundaryCorner()));
+        append(builder, fields, ClaimDataField.SPAWN, "spawn", vector(data.getSpawnPos()));
+        append(builder, fields, ClaimDataField.DISPLAY_NAME, "display-name", text(data.getDisplayNameComponent()));
+        append(builder, fields, ClaimDataField.GREETING, "greeting", text(data.getGreeting()));
+        append(builder, fields, ClaimDataField.FAREWELL, "farewell", text(data.getFarewell()));
+        append(builder, fields, ClaimDataField.ENTER_ACTION_BAR, "enter-action-bar", text(data.getEnterActionBar()));
+        append(builder, fields, ClaimDataField.EXIT_ACTION_BAR, "exit-action-bar", text(data.getExitActionBar()));
+        append(builder, fields, ClaimDataField.ENTER_TITLE, "enter-title", text(data.getEnterTitle().map(Title::title)));
+        append(builder, fields, ClaimDataField.ENTER_TITLE, "enter-subtitle", text(data.getEnterTitle().map(Title::subtitle)));
+        append(builder, fields, ClaimDataField.ENTER_TITLE, "enter-title-times", data.getEnterTitle().map(ClaimTextFormat::times).orElse(null));
+        append(builder, fields, ClaimDataField.EXIT_TITLE, "exit-title", text(data.getExitTitle().map(Title::title)));
+        append(builder, fields, ClaimDataField.EXIT_TITLE, "exit-subtitle", text(data.getExitTitle().map(Title::subtitle)));
+        append(builder, fields, ClaimDataField.EXIT_TITLE, "exit-title-times", data.getExitTitle().map(ClaimTextFormat::times).orElse(null));
+        append(builder, fields, ClaimDataField.DATE_CREATED, "date-created", data.getDateCreated());
+        append(builder, fields, ClaimDataField.DATE_LAST_ACTIVE, "date-last-active", data.getDateLastActive());
+        append(builder, fields, ClaimDataField.DENY_MESSAGES, "deny-messages", data.allowDenyMessages());
+        append(builder, fields, ClaimDataField.EXPIRATION, "expiration", data.allowExpiration());
+        append(builder, fields, ClaimDataField.CUBOID, "cuboid", data.isCuboid());
+        append(builder, fields, ClaimDataField.INHERIT_PARENT, "inherit-parent", data.doesInheritParent());
+        append(builder, fields, ClaimDataField.RESIZABLE, "resizable", data.isResizable());
+        append(builder, fields, ClaimDataField.EXPIRED, "expired", data.isExpired());
+        append(builder, fields, ClaimDataField.REQUIRES_CLAIM_BLOCKS, "requires-claim-blocks", data.requiresClaimBlocks());
+        append(builder, fields, ClaimDataField.SIZE_RESTRICTIONS, "size-restrictions", data.hasSizeRestrictions());
+        append(builder, fields, ClaimDataField.ACCESSORS, "accessors", list(data.getAccessors()));
+        append(builder, fields, ClaimDataField.BUILDERS, "builders", list(data.getBuilders()));
+        append(builder, fields, ClaimDataField.CONTAINERS, "containers", list(data.getContainers()));
+        append(builder, fields, ClaimDataField.MANAGERS, "managers", list(data.getManagers()));
+        append(builder, fields, ClaimDataField.RESIDENTS, "residents", list(data.getResidents()));
+        append(builder, fields, ClaimDataField.ACCESSOR_GROUPS, "accessor-groups", list(data.getAccessorGroups()));
+        append(builder, fields, ClaimDataField.BUILDER_GROUPS, "builder-groups", list(data.getBuilderGroups()));
+        append(builder, fields, ClaimDataField.CONTAINER_GROUPS, "container-groups", list(data.getContainerGroups()));
+        append(builder, fields, ClaimDataField.MANAGER_GROUPS, "manager-groups", list(data.getManagerGroups()));
+        append(builder, fields, ClaimDataField.RESIDENT_GROUPS, "resident-groups", list(data.getResidentGroups()));
+        append(builder, fields, ClaimDataField.ATTRIBUTES, "attributes", list(attributeIds(data.getAttributes())));
+        final ClanData clanData = data.getClanData();
+        append(builder, fields, ClaimDataField.CLAN_DATA, "clan-accessors", clanData == null ? null : list(clanData.getAccessorTags()));
+        append(builder, fields, ClaimDataField.CLAN_DATA, "clan-builders", clanData == null ? null : list(clanData.getBuilderTags()));
+        append(builder, fields, ClaimDataField.CLAN_DATA, "clan-containers", clanData == null ? null : list(clanData.getContainerTags()));
+        append(builder, fields, ClaimDataField.CLAN_DATA, "clan-managers", clanData == null ? null : list(clanData.getManagerTags()));
+        append(builder, fields, ClaimDataField.CLAN_DATA, "clan-residents", clanData == null ? null : list(clanData.getResidentTags()));
+        appendEconomy(builder, fields, data.getEconomyData());
+        return builder.toString();
+    }
+
+    /**
+     * Appends the economy data, marked present by its payment type. Clearing
+     * the payment type clears the economy data, other economy lines are only
+     * read with it.
+     */
+    private static void appendEconomy(StringBuilder builder, @Nullable Set<ClaimDataField> fields, @Nullable EconomyData economy) {
+        final ClaimDataField field = ClaimDataField.ECONOMY_DATA;
+        if (economy == null) {
+            append(builder, fields, field, "economy-payment-type", null);
+            return;
+        }
+        append(builder, fields, field, "economy-payment-type", economy.getPaymentType().name());
+        append(builder, fields, field, "economy-for-sale", economy.isForSale());
+        append(builder, fields, field, "economy-for-rent", economy.isForRent());
+        append(builder, fields, field, "economy-rent-break-ability", economy.getRentBreakAbility());
+        append(builder, fields, field, "economy-rent-strip-nbt", economy.getRentStripNbt());
+        append(builder, fields, field, "economy-rent-rate", economy.getRentRate());
+        append(builder, fields, field, "economy-rent-min-time", economy.getRentMinTime());
+        append(builder, fields, field, "economy-rent-max-time", economy.getRentMaxTime());
+        append(builder, fields, field, "economy-sale-price", economy.getSalePrice());
+        append(builder, fields, field, "economy-tax-balance", economy.getTaxBalance());
+        append(builder, fields, field, "economy-rent-sign", vector(economy.getRentSignPosition()));
+        append(builder, fields, field, "economy-sale-sign", vector(economy.getSaleSignPosition()));
+        append(builder, fields, field, "economy-rent-past-due", economy.getRentPastDueDate());
+        append(builder, fields, field, "economy-tax-past-due", economy.getTaxPastDueDate());
+        append(builder, fields, field, "economy-rent-start", economy.getRentStartDate());
+        append(builder, fields, field, "economy-rent-end", economy.getRentEndDate());
+        append(builder, fields, field, "economy-sale-end", economy.getSaleEndDate());
+        append(builder, fields, field, "economy-renters", list(economy.getRenters()));
+        append(builder, fields, field, "economy-delinquent-renters", list(economy.getDelinquentRenters()));
+        final List<String> balances = new ArrayList<>();
+        for (Map.Entry<UUID, Double> balance : economy.getRentBalances().entrySet()) {
+            balances.add(balance.getKey() + ";" + balance.getValue());
+        }
+        append(builder, fields, field, "economy-rent-balances", list(balances));
+        final List<String> transactions = new ArrayList<>();
+        for (TransactionType type : TransactionType.values()) {
+            for (PaymentTransaction transaction : economy.getPaymentTransactions(type)) {
+                final UUID source = transaction.getSource();
+                transactions.add(type.name() + ";" + transaction.getResultType().name() + ";" + (source == null ? "" : source)
+                        + ";" + transaction.getTimestamp() + ";" + transaction.getAmount());
+            }
+        }
+        append(builder, fields, field, "economy-transactions", list(transactions));
+    }
+
+    /**
+     * Decodes a claim, applying any patches appended to its record in order.
+     * 
+     * @param text The record text
+     * @return The claim record
+     * @throws IllegalArgumentException If the text is not a valid record
+     */
+    public static ClaimRecord decode(String text) {
+        final Map<String, String> values = new HashMap<>();
+        int version = 0;
+        for (String line : text.split("\n")) {
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            if (line.charAt(0) == '-') {
+                values.remove(line.substring(1));
+                continue;
+            }
+            final int separator = line.indexOf('=');
+            if (separator == -1) {
+                throw new IllegalArgumentException("Malformed claim record line: " + line);
+            }
+            final String key = line.substring(0, separator);
+            String value = unescape(line.substring(separator + 1));
+            if (key.equals("version")) {
+                version = parseVersion(value);
+            } else if (version == 1 && COMPONENT_KEYS.contains(key)) {
+                // version 1 stored plain text
+                value = serialize(Component.text(value));
+            }
+            values.put(key, value);
+        }
+        required(values, "version");
+        final ClaimType type = CLAIM_TYPES.get(required(values, "type"));
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown claim type " + values.get("type"));
+        }
+        final InMemoryClaimData data = new InMemoryClaimData(UUID.fromString(required(values, "world")), UUID.fromString(required(values, "owner")),
+                type, parseVector(required(values, "lesser")), parseVector(required(values, "greater")));
+        final String parent = values.get("parent");
+        if (parent != null) {
+            data.setParentUniqueId(UUID.fromString(parent));
+        }
+        final String group = values.get("group");
+        if (group != null) {
+            data.setClaimGroupUniqueId(UUID.fromString(group));
+        }
+        final String spawn = values.get("spawn");
+        if (spawn != null) {
+            data.setSpawnPos(parseVector(spawn));
+        }
+        final String displayName = values.get("display-name");
+        if (displayName != null) {
+            data.setDisplayName(parseComponent(displayName));
+        }
+        final String greeting = values.get("greeting");
+        if (greeting != null) {
+            data.setGreeting(parseComponent(greeting));
+        }
+        final String farewell = values.get("farewell");
+        if (farewell != null) {
+            data.setFarewell(parseComponent(farewell));
+        }
+        final String enterActionBar = values.get("enter-action-bar");
+        if (enterActionBar != null) {
+            data.setEnterActionBar(parseComponent(enterActionBar));
+        }
+        final String exitActionBar = values.get("exit-action-bar");
+        if (exitActionBar != null) {
+            data.setExitActionBar(parseComponent(exitActionBar));
+        }
+        final Title enterTitle = parseTitle(values.get("enter-title"), values.get("enter-subtitle"), values.get("enter-title-times"));
+        if (enterTitle != null) {
+            data.setEnterTitle(enterTitle);
+        }
+        final Title exitTitle = parseTitle(values.get("exit-title"), values.get("exit-subtitle"), values.get("exit-title-times"));
+        if (exitTitle != null) {
+            data.setExitTitle(exitTitle);
+        }
+        data.setDateCreated(Instant.parse(required(values, "date-created")));
+        data.setDateLastActive(Instant.parse(required(values, "date-last-active")));
+        data.setDenyMessages(Boolean.parseBoolean(values.get("deny-messages")));
+        data.setAllowExpiration(Boolean.parseBoolean(values.get("expiration")));
+        data.setCuboid(Boolean.parseBoolean(values.get("cuboid")));
+        data.setInheritParent(Boolean.parseBoolean(values.get("inherit-parent")));
+        data.setResizable(Boolean.parseBoolean(values.get("resizable")));
+        data.setExpired(Boolean.parseBoolean(values.get("expired")));
+        data.setRequiresClaimBlocks(Boolean.parseBoolean(values.get("requires-claim-blocks")));
+        data.setSizeRestrictions(Boolean.parseBoolean(values.get("size-restrictions")));
+        data.setAccessors(parseSet(values.get("accessors"), UUID::fromString));
+        data.setBuilders(parseSet(values.get("builders"), UUID::fromString));
+        data.setContainers(parseSet(values.get("containers"), UUID::fromString));
+        data.setManagers(parseSet(values.get("managers"), UUID::fromString));
+        data.setResidents(parseSet(values.get("residents"), UUID::fromString));
+        data.setAccessorGroups(parseSet(values.get("accessor-groups"), Function.identity()));
+        data.setBuilderGroups(parseSet(values.get("builder-groups"), Function.identity()));
+        data.setContainerGroups(parseSet(values.get("container-groups"), Function.identity()));
+        data.setManagerGroups(parseSet(values.get("manager-groups"), Function.identity()));
+        data.setResidentGroups(parseSet(values.get("resident-groups"), Function.identity()));
+        data.setAttributes(parseSet(values.get("attributes"), ClaimTextFormat::requireClaimAttribute));
+        if (values.containsKey("clan-accessors")) {
+            final ClanData clanData = data.getOrCreateClanData();
+            clanData.setAccessorTags(parseSet(values.get("clan-accessors"), Function.identity()));
+            clanData.setBuilderTags(parseSet(values.get("clan-builders"), Function.identity()));
+            clanData.setContainerTags(parseSet(values.get("clan-containers"), Function.identity()));
+            clanData.setManagerTags(parseSet(values.get("clan-managers"), Function.identity()));
+            clanData.setResidentTags(parseSet(values.get("clan-residents"), Function.identity()));
+        }
+        final String paymentType = values.get("economy-payment-type");
+        if (paymentType != null) {
+            decodeEconomy(values, PaymentType.valueOf(paymentType), data.getOrCreateEconomyData());
+        }
+        // the record is what storage holds
+        data.clearDirtyFields();
+        return new ClaimRecord(UUID.fromString(required(values, "id")), data);
+    }
+
+    private static void decodeEconomy(Map<String, String> values, PaymentType paymentType, EconomyData economy) {
+        economy.setPaymentType(paymentType);
+        economy.setForSale(Boolean.parseBoolean(values.get("economy-for-sale")));
+        economy.setForRent(Boolean.parseBoolean(values.get("economy-for-rent")));
+        economy.setRentBreakAbility(Boolean.parseBoolean(values.get("economy-rent-break-ability")));
+        economy.setRentStripNbt(Boolean.parseBoolean(values.get("economy-rent-strip-nbt")));
+        economy.setRentRate(Double.parseDouble(required(values, "economy-rent-rate")));
+        economy.setRentMinTime(Integer.parseInt(required(values, "economy-rent-min-time")));
+        economy.setRentMaxTime(Integer.parseInt(required(values, "economy-rent-max-time")));
+        economy.setSalePrice(Double.parseDouble(required(values, "economy-sale-price")));
+        economy.setTaxBalance(Double.parseDouble(required(values, "economy-tax-balance")));
+        final String rentSign = values.get("economy-rent-sign");
+        if (rentSign != null) {
+            economy.setRentSignPosition(parseVector(rentSign));
+        }
+        final String saleSign = values.get("economy-sale-sign");
+        if (saleSign != null) {
+            economy.setSaleSignPosition(parseVector(saleSign));
+        }
+        economy.setRentPastDueDate(parseInstant(values.get("economy-rent-past-due")));
+        economy.setTaxPastDueDate(parseInstant(values.get("economy-tax-past-due")));
+        economy.setRentStartDate(parseInstant(values.get("economy-rent-start")));
+        economy.setRentEndDate(parseInstant(values.get("economy-rent-end")));
+        economy.setSaleEndDate(parseInstant(values.get("economy-sale-end")));
+        economy.getRenters().addAll(parseSet(values.get("economy-renters"), UUID::fromString));
+        economy.getDelinquentRenters().addAll(parseSet(values.get("economy-delinquent-renters"), UUID::fromString));
+        for (String balance : parseSet(values.get("economy-rent-balances"), Function.identity())) {
+            final String[] parts = balance.split(";", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed rent balance " + balance);
+            }
+            economy.setRentBalance(UUID.fromString(parts[0]), Double.parseDouble(parts[1]));
+        }
+        for (String transaction : parseSet(values.get("economy-transactions"), Function.identity())) {
+            final String[] parts = transaction.split(";", -1);
+            if (parts.length != 5) {
+                throw new IllegalArgumentException("Malformed payment transaction " + transaction);
+            }
+            economy.addPaymentTransaction(new InMemoryPaymentTransaction(TransactionType.valueOf(parts[0]), TransactionResultType.valueOf(parts[1]),
+                    parts[2].isEmpty() ? null : UUID.fromString(parts[2]), Instant.parse(parts[3]), Double.parseDouble(parts[4])));
+        }
+    }
+
+    /**
+     * Gets the claim type stored under an id.
+     * 
+     * @param id The catalog id
+     * @return The claim type, or null if unknown
+     */
+    public static @Nullable ClaimType getClaimType(String id) {
+        return CLAIM_TYPES.get(id);
+    }
+
+    /**
+     * Gets the claim attribute registered under an id.
+     * 
+     * @param id The catalog id
+     * @return The claim attribute, or null if unknown
+     */
+    public static @Nullable ClaimAttribute getClaimAttribute(String id) {
+        return GriefDefender.getRegistry().getType(ClaimAttribute.class, id).orElse(null);
+    }
+
+    static ClaimAttribute requireClaimAttribute(String id) {
+        final ClaimAttribute attribute = getClaimAttribute(id);
+        if (attribute == null) {
+            throw new IllegalArgumentException("Unknown claim attribute " + id);
+        }
+        return attribute;
+    }
+
+    static List<String> attributeIds(Collection<ClaimAttribute> attributes) {
+        final List<String> ids = new ArrayList<>(attributes.size());
+        for (ClaimAttribute attribute : attributes) {
+            ids.add(InMemoryRegistry.getCatalogId(attribute));
+        }
+        return ids;
+    }
+
+    /**
+     * Serializes a component to JSON.
+     * 
+     * @param component The component
+     * @return The JSON text
+     */
+    static String serialize(Component component) {
+        return GsonComponentSerializer.gson().serialize(component);
+    }
+
+    /**
+     * Parses a component serialized to JSON.
+     * 
+     * @param json The JSON text
+     * @return The component
+     * @throws IllegalArgumentException If the text is not a component
+     */
+    static Component parseComponent(String json) {
+        try {
+            return GsonComponentSerializer.gson().deserialize(json);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed component " + json, e);
+        }
+    }
+
+    private static int parseVersion(String value) {
+        final int version = Integer.parseInt(value);
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Unsupported claim record version " + version);
+        }
+        return version;
+    }
+
+    /**
+     * Appends a field if it is part of the record, a cleared field of a patch
+     * as a <code>-key</code> line.
+     */
+    private static void append(StringBuilder builder, @Nullable Set<ClaimDataField> fields, ClaimDataField field, String key, @Nullable Object value) {
+        if (fields == null) {
+            append(builder, key, value);
+        } else if (fields.contains(field)) {
+            if (value == null) {
+                builder.append('-').append(key).append('\n');
+            } else {
+                append(builder, key, value);
+            }
+        }
+    }
+
+    private static void append(StringBuilder builder, String key, @Nullable Object value) {
+        if (value != null) {
+            builder.append(key).append('=').append(escape(value.toString())).append('\n');
+        }
+    }
+
+    private static String required(Map<String, String> values, String key) {
+        final String value = values.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Claim record is missing " + key);
+        }
+        return value;
+    }
+
+    private static @Nullable String vector(@Nullable Vector3i vector) {
+        return vector == null ? null : vector.getX() + "," + vector.getY() + "," + vector.getZ();
+    }
+
+    private static Vector3i parseVector(String value) {
+        final String[] parts = value.split(",");
+        return new Vector3i(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+    }
+
+    private static @Nullable String text(Optional<Component> component) {
+        return component.map(ClaimTextFormat::serialize).orElse(null);
+    }
+
+    /**
+     * Joins the durations of a title, empty if it has none.
+     */
+    private static String times(Title title) {
+        final Title.Times times = title.times();
+        return times == null ? "" : times.fadeIn() + "," + times.stay() + "," + times.fadeOut();
+    }
+
+    /**
+     * Parses a title, falling back to the default times for records written
+     * without them.
+     */
+    private static @Nullable Title parseTitle(@Nullable String title, @Nullable String subtitle, @Nullable String times) {
+        if (title == null && subtitle == null) {
+            return null;
+        }
+        final Component titleComponent = title == null ? Component.empty() : parseComponent(title);
+        final Component subtitleComponent = subtitle == null ? Component.empty() : parseComponent(subtitle);
+        if (times == null) {
+            return Title.title(titleComponent, subtitleComponent);
+        }
+        if (times.isEmpty()) {
+            return Title.title(titleComponent, subtitleComponent, null);
+        }
+        final String[] parts = times.split(",");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed title times " + times);
+        }
+        return Title.title(titleComponent, subtitleComponent, Title.Times.times(Duration.parse(parts[0]), Duration.parse(parts[1]), Duration.parse(parts[2])));
+    }
+
+    private static @Nullable Instant parseInstant(@Nullable String value) {
+        return value == null ? null : Instant.parse(value);
+    }
+
+    /**
+     * Joins values with <code>,</code>, escaping commas within a value.
+     */
+    private static String list(Collection<?> values) {
+        final StringBuilder builder = new StringBuilder();
+        for (Object value : values) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(value.toString().replace("%", "%25").replace(",", "%2C"));
+        }
+        return builder.toString();
+    }
+
+    private static <T> Set<T> parseSet(@Nullable String value, Function<String, T> parser) {
+        final Set<T> set = new LinkedHashSet<>();
+        if (value == null || value.isEmpty()) {
+            return set;
+        }
+        final List<String> parts = new ArrayList<>();
+        for (String part : value.split(",")) {
+            parts.add(part.replace("%2C", ",").replace("%25", "%"));
+        }
+        for (String part : parts) {
+            set.add(parser.apply(part));
+        }
+        return set;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') == -1) {
+            return value;
+        }
+        final StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                final char next = value.charAt(++i);
+                builder.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private ClaimTextFormat() {
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * This file is part of GriefDefenderAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.api.testkit.storage;
+
+import com.griefdefender.api.testkit.ClaimHeader;
+import com.griefdefender.api.testkit.ClaimIndexShard;
+import com.griefdefender.api.testkit.InMemoryClaim;
+import com.griefdefender.api.testkit.InMemoryClaimManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the claims of worlds on a {@link ForkJoinPool}.
+ * 
+ * <br><br>Each world is split into ranges of claims that are parsed in
+ * parallel, every range building its own {@link ClaimIndexShard}. Shards are
+ * merged pairwise as the ranges join, and the final shard is added to the
+ * claim manager, which links children to their parents. Worlds load in
+ * parallel with each other.
+ */
+public final class ParallelClaimLoader {
+
+    /**
+     * Receives the progress of a load.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * Called as claims of a world are parsed, from loader threads.
+         * 
+         * @param worldUniqueId The world
+         * @param loaded The claims parsed so far
+         * @param total The claims of the world
+         */
+        void onProgress(UUID worldUniqueId, int loaded, int total);
+    }
+
+    private static final int LEAF_SIZE = 256;
+
+    private final ForkJoinPool pool;
+    private final ProgressListener listener;
+
+    public ParallelClaimLoader(ForkJoinPool pool) {
+        this(pool, (worldUniqueId, loaded, total) -> {});
+    }
+
+    public ParallelClaimLoader(ForkJoinPool pool, ProgressListener listener) {
+        this.pool = pool;
+        this.listener = listener;
+    }
+
+    /**
+     * Loads the claims of a file store into a claim manager.
+     * 
+     * @param store The file store
+     * @param claimManager The claim manager
+     * @return The number of claims loaded
+     * @throws IOException If a file could not be read
+     * @throws IllegalArgumentException If a file is not a valid record
+     */
+    public int load(ClaimFileStore store, InMemoryClaimManager claimManager) throws IOException {
+        return this.invoke(this.createTask(store, claimManager));
+    }
+
+    /**
+     * Loads the claims of a segment into a claim manager.
+     * 
+     * @param segment The segment
+     * @param claimManager The claim manager
+     * @param lazy Whether to decode only headers, see {@link ClaimSegment#loadLazily(InMemoryClaimManager)}
+     * @return The number of claims loaded
+     */
+    public int load(ClaimSegment segment, InMemoryClaimManager claimManager, boolean lazy) {
+        return this.pool.invoke(this.createTask(segment, claimManager, lazy));
+    }
+
+    /**
+     * Loads the claims of every world in parallel.
+     * 
+     * @param worlds The file store of each claim manager
+     * @return The number of claims loaded
+     * @throws IOException If a file could not be read
+     * @throws IllegalArgumentException If a file is not a valid record
+     */
+    public int loadWorlds(Map<InMemoryClaimManager, ClaimFileStore> worlds) throws IOException {
+        final List<WorldTask> tasks = new ArrayList<>(worlds.size());
+        for (Map.Entry<InMemoryClaimManager, ClaimFileStore> entry : worlds.entrySet()) {
+            tasks.add(this.createTask(entry.getValue(), entry.getKey()));
+        }
+        return this.invoke(new RecursiveTask<Integer>() {
+
+            @Override
+            protected Integer compute() {
+                int loaded = 0;
+                for (WorldTask task : ForkJoinTask.invokeAll(tasks)) {
+                    loaded += task.join();
+                }
+                return loaded;
+            }
+        });
+    }
+
+    private WorldTask createTask(ClaimFileStore store, InMemoryClaimManager claimManager) throws IOException {
+        final List<Path> files = store.listRecords();
+        return new WorldTask(claimManager, files.size(), (index, shard) -> {
+            final ClaimRecord record = store.read(files.get(index));
+            shard.add(new InMemoryClaim(record.getUniqueId(), claimManager, record.getData()), record.getData().getParentUniqueId());
+        });
+    }
+
+    private WorldTask createTask(ClaimSegment segment, InMemoryClaimManager claimManager, boolean lazy) {
+        if (!lazy) {
+            return new WorldTask(claimManager, segment.size(), (index, shard) -> {
+                final ClaimRecord record = segment.read(index);
+                shard.add(new InMemoryClaim(record.getUniqueId(), claimManager, record.getData()), record.getData().getParentUniqueId());
+            });
+        }
+        return new WorldTask(claimManager, segment.size(), (index, shard) -> {
+            final ClaimHeader header = segment.readHeader(index);
+            shard.add(new InMemoryClaim(segment.getUniqueId(index), claimManager, header, () -> segment.read(index).getData()), header.getParentUniqueId());
+        });
+    }
+
+    private int invoke(ForkJoinTask<Integer> task) throws IOException {
+        try {
+            return this.pool.invoke(task);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ClaimReader {
+
+        void read(int index, ClaimIndexShard shard) throws IOException;
+    }
+
+    private final class WorldTask extends RecursiveTask<Integer> {
+
+        private final InMemoryClaimManager claimManager;
+        private final int total;
+        private final ClaimReader reader;
+        private final AtomicInteger loaded = new AtomicInteger();
+
+        WorldTask(InMemoryClaimManager claimManager, int total, ClaimReader reader) {
+            this.claimManager = claimManager;
+            this.total = total;
+            this.reader = reader;
+        }
+
+        @Override
+        protected Integer compute() {
+            final ClaimIndexShard shard = new ShardTask(this, 0, this.total).invoke();
+            this.claimManager.addClaims(shard);
+            return shard.size();
+        }
+
+        void progress(int count) {
+            ParallelClaimLoader.this.listener.onProgress(this.claimManager.getWorldId(), this.loaded.addAndGet(count), this.total);
+        }
+    }
+
+    private static final class ShardTask extends RecursiveTask<ClaimIndexShard> {
+
+        private final WorldTask world;
+        private final int from;
+        private final int to;
+
+        ShardTask(WorldTask world, int from, int to) {
+            this.world = world;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ClaimIndexShard compute() {
+            if (this.to - this.from > LEAF_SIZE) {
+                final int middle = (this.from + this.to) >>> 1;
+                final ShardTask right = new ShardTask(this.world, middle, this.to);
+                right.fork();
+                final ClaimIndexShard left = new ShardTask(this.world, this.from, middle).compute();
+                return left.merge(right.join());
+            }
+            final ClaimIndexShard shard = new ClaimIndexShard();
+            try {
+                for (int i = this.from; i < this.to; i++) {
+                    this.world.reader.read(i, shard);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.world.progress(this.to - this.from);
+            return shard;
+        }
+    }
+}